@@ -0,0 +1,77 @@
+package org.sunbird.extension.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sunbird.extension.util.ConfigUtil;
+import org.sunbird.extension.util.EnumMappings;
+import org.sunbird.extension.util.ParallelListTransform;
+import org.sunbird.extension.util.SunbirdExtensionConstants;
+import org.sunbird.extension.util.TransformJsonUtil;
+import org.sunbird.extension.util.TransformationPlan;
+
+/**
+ * WRITE transform of teacher profiles with a growing number of classSubjectTaught entries, with the
+ * custom list elements transformed sequentially and in parallel, to find the list size from which
+ * the parallel transform pays off, i.e. the threshold to be configured. For example, java -jar
+ * target/benchmarks.jar CustomListBenchmark -p parallelism=4
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomListBenchmark {
+
+  private static final String USER_TYPE = "teacher";
+
+  @Param({"8", "32", "128", "512"})
+  private int listSize;
+
+  /** Threads of the fork-join pool, 0 for the sequential transform */
+  @Param({"0", "2", "4"})
+  private int parallelism;
+
+  private TransformationPlan writePlan;
+  private EnumMappings enumMappings;
+  private Map<String, Object> sunbirdProfile;
+
+  @Setup
+  public void setup() {
+    writePlan =
+        TransformJsonUtil.getTransformationPlan(
+            ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_WRITE_MAPPING_FILE));
+    enumMappings =
+        TransformJsonUtil.getEnumMappings(
+            ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_ENUMS_MAPPING_FILE));
+    sunbirdProfile = TeacherProfiles.getProfile(listSize);
+    ParallelListTransform.configure(parallelism > 0 ? 1 : 0, Math.max(1, parallelism));
+  }
+
+  @TearDown
+  public void tearDown() {
+    ParallelListTransform.configure(0, 1);
+  }
+
+  @Benchmark
+  public Map<String, Object> write() {
+    return TransformJsonUtil.transform(
+        writePlan,
+        sunbirdProfile,
+        USER_TYPE,
+        enumMappings,
+        SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+  }
+}
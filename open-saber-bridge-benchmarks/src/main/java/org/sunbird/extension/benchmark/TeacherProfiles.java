@@ -0,0 +1,81 @@
+package org.sunbird.extension.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Teacher profiles in sunbird format used by the benchmarks. Small has only basic details, typical
+ * is a complete profile and large is a complete profile teaching many classes and subjects.
+ */
+public final class TeacherProfiles {
+
+  public static final String SMALL = "small";
+  public static final String TYPICAL = "typical";
+  public static final String LARGE = "large";
+
+  private static final String RESOURCE_PATH = "benchmark/";
+  private static final String[] CLASSES = {
+    "Class 1", "Class 2", "Class 3", "Class 4", "Class 5", "Class 6",
+    "Class 7", "Class 8", "Class 9", "Class 10", "Class 11", "Class 12"
+  };
+  private static final String[] SUBJECTS = {
+    "English", "Foreign Language", "Fine Arts", "Mathematics", "Physics", "Social Studies", "Hindi"
+  };
+  private static final int LARGE_CLASS_SUBJECT_COUNT = 48;
+
+  private static ObjectMapper mapper = new ObjectMapper();
+
+  private TeacherProfiles() {}
+
+  /**
+   * @param size Size of the profile, one of small, typical and large
+   * @return New teacher profile in sunbird format
+   */
+  public static Map<String, Object> getProfile(String size) {
+    if (SMALL.equals(size)) {
+      return readProfile("small-teacher-profile.json");
+    }
+    Map<String, Object> profile = readProfile("typical-teacher-profile.json");
+    if (LARGE.equals(size)) {
+      return getProfile(LARGE_CLASS_SUBJECT_COUNT);
+    } else if (!TYPICAL.equals(size)) {
+      throw new IllegalArgumentException("Unknown profile size " + size);
+    }
+    return profile;
+  }
+
+  /**
+   * @param classSubjectCount Number of classSubjectTaught entries of the profile
+   * @return New complete teacher profile in sunbird format, teaching the given number of classes
+   */
+  public static Map<String, Object> getProfile(int classSubjectCount) {
+    Map<String, Object> profile = readProfile("typical-teacher-profile.json");
+    List<Map<String, Object>> classSubjectTaught = new ArrayList<>();
+    for (int i = 0; i < classSubjectCount; i++) {
+      Map<String, Object> classSubject = new HashMap<>();
+      classSubject.put("classes", CLASSES[i % CLASSES.length]);
+      List<String> subjects = new ArrayList<>();
+      for (int j = 0; j < 3; j++) {
+        subjects.add(SUBJECTS[(i + j) % SUBJECTS.length]);
+      }
+      classSubject.put("subjects", subjects);
+      classSubjectTaught.add(classSubject);
+    }
+    profile.put("classSubjectTaught", classSubjectTaught);
+    return profile;
+  }
+
+  private static Map<String, Object> readProfile(String fileName) {
+    try (InputStream inputStream =
+        TeacherProfiles.class.getClassLoader().getResourceAsStream(RESOURCE_PATH + fileName)) {
+      return mapper.readValue(inputStream, HashMap.class);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to read benchmark profile " + fileName, e);
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package org.sunbird.extension.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.typesafe.config.Config;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sunbird.extension.util.CompiledTransformer;
+import org.sunbird.extension.util.ConfigUtil;
+import org.sunbird.extension.util.EnumMappings;
+import org.sunbird.extension.util.JsonGeneratorUtil;
+import org.sunbird.extension.util.SunbirdExtensionConstants;
+import org.sunbird.extension.util.TransformJsonUtil;
+import org.sunbird.extension.util.TransformationPlan;
+
+/**
+ * WRITE (sunbird to registry format) and READ (registry to sunbird format) transforms of teacher
+ * profiles, using the mapping files shipped with the bridge. The write payload benchmarks compare
+ * building the registry payload through the output map with streaming the transform into it, and the compiled benchmarks compare the interpreted transforms with
+ * the per root compiled transformers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransformBenchmark {
+
+  private static final String USER_TYPE = "teacher";
+
+  @Param({TeacherProfiles.SMALL, TeacherProfiles.TYPICAL, TeacherProfiles.LARGE})
+  private String profileSize;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private TransformationPlan writePlan;
+  private TransformationPlan readPlan;
+  private EnumMappings enumMappings;
+  private Map<String, Object> sunbirdProfile;
+  private Map<String, Object> registryProfile;
+  private CompiledTransformer compiledWriteTransformer;
+  private CompiledTransformer compiledReadTransformer;
+
+  @Setup
+  public void setup() {
+    Config enumsConfig = ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_ENUMS_MAPPING_FILE);
+    writePlan =
+        TransformJsonUtil.getTransformationPlan(
+            ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_WRITE_MAPPING_FILE));
+    readPlan =
+        TransformJsonUtil.getTransformationPlan(
+            ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_READ_MAPPING_FILE));
+    enumMappings = TransformJsonUtil.getEnumMappings(enumsConfig);
+    sunbirdProfile = TeacherProfiles.getProfile(profileSize);
+    registryProfile = (Map<String, Object>) write().get(USER_TYPE);
+    compiledWriteTransformer =
+        CompiledTransformer.compileAll(
+                writePlan, enumMappings, SunbirdExtensionConstants.OPERATION_MODE_WRITE)
+            .get(USER_TYPE);
+    compiledReadTransformer =
+        CompiledTransformer.compileAll(
+                readPlan, enumMappings, SunbirdExtensionConstants.OPERATION_MODE_READ)
+            .get(USER_TYPE);
+  }
+
+  @Benchmark
+  public Map<String, Object> write() {
+    return TransformJsonUtil.transform(
+        writePlan,
+        sunbirdProfile,
+        USER_TYPE,
+        enumMappings,
+        SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+  }
+
+  @Benchmark
+  public Map<String, Object> read() {
+    return TransformJsonUtil.transform(
+        readPlan,
+        registryProfile,
+        USER_TYPE,
+        enumMappings,
+        SunbirdExtensionConstants.OPERATION_MODE_READ);
+  }
+
+  @Benchmark
+  public String writePayloadFromMap() throws IOException {
+    return mapper.writeValueAsString(write());
+  }
+
+  @Benchmark
+  public String writePayloadStreamed() throws IOException {
+    return JsonGeneratorUtil.writeObject(
+        TransformJsonUtil.transformer(
+            writePlan,
+            sunbirdProfile,
+            USER_TYPE,
+            enumMappings,
+            SunbirdExtensionConstants.OPERATION_MODE_WRITE));
+  }
+
+  @Benchmark
+  public Map<String, Object> writeCompiled() {
+    return compiledWriteTransformer.transform(sunbirdProfile);
+  }
+
+  @Benchmark
+  public Map<String, Object> readCompiled() {
+    return compiledReadTransformer.transform(registryProfile);
+  }
+}
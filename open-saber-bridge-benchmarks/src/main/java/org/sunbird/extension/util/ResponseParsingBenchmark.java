@@ -0,0 +1,81 @@
+package org.sunbird.extension.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opensaber.registry.client.data.ResponseData;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sunbird.extension.benchmark.TeacherProfiles;
+import org.sunbird.extension.util.RegistryResponseReader.ResultType;
+
+/**
+ * Parsing of registry responses by {@link OpensaberClientUtil}. The read responses carry the
+ * teacher profiles in registry format, within the registry response envelope. Reading only the
+ * status and entity id (as for add) and the full result (as for read) are compared with building
+ * the full map tree of the response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseParsingBenchmark {
+
+  @Param({TeacherProfiles.SMALL, TeacherProfiles.TYPICAL, TeacherProfiles.LARGE})
+  private String profileSize;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private ResponseData<String> readResponse;
+
+  @Setup
+  public void setup() throws Exception {
+    Map<String, Object> registryProfile =
+        TransformJsonUtil.transform(
+            ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_WRITE_MAPPING_FILE),
+            TeacherProfiles.getProfile(profileSize),
+            "teacher",
+            ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_ENUMS_MAPPING_FILE),
+            SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+    Map<String, Object> params = new HashMap<>();
+    params.put("resmsgid", "");
+    params.put("msgid", "b3d6bc2b-f82e-4dd3-8d1b-9b582e7a3979");
+    params.put("err", "");
+    params.put(SunbirdExtensionConstants.STATUS, SunbirdExtensionConstants.STATUS_SUCCESS);
+    params.put(SunbirdExtensionConstants.ERR_MSG, "");
+    Map<String, Object> response = new HashMap<>();
+    response.put("id", "open-saber.registry.read");
+    response.put("ver", "1.0");
+    response.put("ets", 1533094054055L);
+    response.put(SunbirdExtensionConstants.PARAMS, params);
+    response.put("responseCode", "OK");
+    response.put(SunbirdExtensionConstants.RESULT, registryProfile);
+    readResponse = new ResponseData<>(mapper.writeValueAsString(response));
+  }
+
+  @Benchmark
+  public Map<String, Object> mapTree() throws Exception {
+    return mapper.readValue(readResponse.getResponseData(), HashMap.class);
+  }
+
+  @Benchmark
+  public RegistryResponse streamingResultMap() {
+    return OpensaberClientUtil.getRegistryResponse(readResponse, ResultType.MAP);
+  }
+
+  @Benchmark
+  public RegistryResponse streamingResultEntity() {
+    return OpensaberClientUtil.getRegistryResponse(readResponse, ResultType.ENTITY);
+  }
+}
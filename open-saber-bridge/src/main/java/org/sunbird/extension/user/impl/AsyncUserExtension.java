@@ -0,0 +1,36 @@
+package org.sunbird.extension.user.impl;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link org.sunbird.extension.user.UserExtension}. Input is validated
+ * and transformed in the calling thread, while the registry call completes the returned future, so
+ * that callers can overlap registry I/O with their own writes.
+ */
+public interface AsyncUserExtension {
+
+  /**
+   * @param userProfileMap User profile, updated with the registry id once the future completes
+   * @return Future completed with the registry id of the created user
+   */
+  CompletableFuture<String> createAsync(Map<String, Object> userProfileMap);
+
+  /**
+   * @param userIdMap Map containing the registry id of the user
+   * @return Future completed with the user details in sunbird format
+   */
+  CompletableFuture<Map<String, Object>> readAsync(Map<String, Object> userIdMap);
+
+  /**
+   * @param userProfileMap User profile containing the registry id of the user
+   * @return Future completed once the user is updated
+   */
+  CompletableFuture<Void> updateAsync(Map<String, Object> userProfileMap);
+
+  /**
+   * @param userIdMap Map containing the registry id of the user
+   * @return Future completed once the user is deleted
+   */
+  CompletableFuture<Void> deleteAsync(Map<String, Object> userIdMap);
+}
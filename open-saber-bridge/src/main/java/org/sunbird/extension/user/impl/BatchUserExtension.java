@@ -0,0 +1,25 @@
+package org.sunbird.extension.user.impl;
+
+import java.util.List;
+import java.util.Map;
+import org.sunbird.extension.util.BatchResult;
+
+/**
+ * Batch counterpart of {@link org.sunbird.extension.user.UserExtension}. Users are transformed and
+ * sent to the registry concurrently, with a bounded number in flight, and each user gets its own
+ * result so that one bad record does not fail the batch.
+ */
+public interface BatchUserExtension {
+
+  /**
+   * @param userProfileMaps User profiles, each updated with its registry id when created
+   * @return Registry id or error of each user, in the order of the user profiles
+   */
+  List<BatchResult<String>> createAll(List<Map<String, Object>> userProfileMaps);
+
+  /**
+   * @param userIdMaps Maps containing the registry id of each user
+   * @return User details in sunbird format or error of each user, in the order of the maps
+   */
+  List<BatchResult<Map<String, Object>>> readAll(List<Map<String, Object>> userIdMaps);
+}
@@ -0,0 +1,195 @@
+package org.sunbird.extension.user.impl;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.responsecode.ResponseCode;
+import org.sunbird.extension.util.FieldPath;
+import org.sunbird.extension.util.FieldPlan;
+import org.sunbird.extension.util.TransformationConstants;
+import org.sunbird.extension.util.TransformationPlan;
+
+/**
+ * Delta update mode, in which an update writes only the mapped fields of the profile which changed
+ * since the last known registry state of the user, rather than the whole profile.
+ *
+ * <p>The last known state is the user as read, i.e. in sunbird format after the read transform,
+ * read from the registry before each update rather than taken from the read cache, whose user may
+ * be stale. This doubles the registry round trips of an update, and without it updates are full. A
+ * field is compared with it only when the field round trips, i.e. the read mapping reads the
+ * registry field written for it back into the same field. Other mapped fields cannot be compared
+ * and are always written. Configured by registry.update of registry-bridge.conf.
+ */
+public class UpdateDelta {
+
+  public static final String UPDATE_MODE_FULL = "full";
+  public static final String UPDATE_MODE_DELTA = "delta";
+
+  private static final String UPDATE_PATH = "registry.update";
+
+  private final boolean enabled;
+  private final Set<String> identityFields;
+  private final boolean fetchBaseline;
+
+  private UpdateDelta(boolean enabled, Set<String> identityFields, boolean fetchBaseline) {
+    this.enabled = enabled;
+    this.identityFields = identityFields;
+    this.fetchBaseline = fetchBaseline;
+  }
+
+  /**
+   * @param identityFields Fields written in every update, e.g. the field mapped to the registry id
+   * @param fetchBaseline Whether the last known state is read from the registry, else updates are
+   *     full
+   * @return Enabled delta update mode
+   */
+  public static UpdateDelta create(List<String> identityFields, boolean fetchBaseline) {
+    return new UpdateDelta(
+        true, Collections.unmodifiableSet(new HashSet<>(identityFields)), fetchBaseline);
+  }
+
+  /** @return Full update mode, writing the whole profile */
+  public static UpdateDelta disabled() {
+    return new UpdateDelta(false, Collections.emptySet(), false);
+  }
+
+  /**
+   * @param config Configuration containing the registry.update block
+   * @return Update mode as per the configuration
+   */
+  public static UpdateDelta load(Config config) {
+    try {
+      Config updateConfig = config.getConfig(UPDATE_PATH);
+      String mode = updateConfig.getString("mode");
+      if (UPDATE_MODE_FULL.equalsIgnoreCase(mode)) {
+        return disabled();
+      }
+      if (!UPDATE_MODE_DELTA.equalsIgnoreCase(mode)) {
+        throw new ConfigException.BadValue(UPDATE_PATH + ".mode", "Unknown update mode " + mode);
+      }
+      List<String> identityFields = updateConfig.getStringList("delta.identityFields");
+      boolean fetchBaseline = updateConfig.getBoolean("delta.fetchBaseline");
+      ProjectLogger.log(
+          "UpdateDelta:load: Delta updates enabled. IdentityFields = "
+              + identityFields
+              + " FetchBaseline = "
+              + fetchBaseline,
+          LoggerEnum.INFO.name());
+      return create(identityFields, fetchBaseline);
+    } catch (ConfigException e) {
+      ProjectLogger.log(
+          "UpdateDelta:load: Invalid update configuration = " + e.getMessage(),
+          LoggerEnum.ERROR.name());
+      ProjectCommonException.throwServerErrorException(
+          ResponseCode.errorLoadConfig, ResponseCode.errorLoadConfig.getErrorMessage());
+    }
+    return null;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** @return Whether the last known state is read from the registry, else updates are full */
+  public boolean isFetchBaseline() {
+    return fetchBaseline;
+  }
+
+  /**
+   * @param writePlan Compiled write mapping
+   * @param readPlan Compiled read mapping
+   * @return Fields of each root type of the write mapping which round trip through the registry, so
+   *     that their value can be compared with the user as read
+   */
+  public static Map<String, Set<String>> getComparableFields(
+      TransformationPlan writePlan, TransformationPlan readPlan) {
+    Map<String, Set<String>> comparableFields = new HashMap<>();
+    for (String rootType : writePlan.getRootTypes()) {
+      Map<String, String> readSources = new HashMap<>();
+      for (FieldPlan readField : readPlan.getFieldPlans(rootType).values()) {
+        FieldPath toPath = readField.getToPath();
+        if (null != readField.getFromPath() && null != toPath && 1 == toPath.getDepth()) {
+          readSources.put(
+              toPath.getPath(),
+              rootType + TransformationConstants.DOT + readField.getFromPath().getPath());
+        }
+      }
+      Set<String> fields = new HashSet<>();
+      for (FieldPlan writeField : writePlan.getFieldPlans(rootType).values()) {
+        FieldPath fromPath = writeField.getFromPath();
+        if (null != fromPath
+            && 1 == fromPath.getDepth()
+            && fromPath.getPath().equals(writeField.getFieldName())
+            && null != writeField.getToField()
+            && writeField.getToField().equals(readSources.get(writeField.getFieldName()))) {
+          fields.add(writeField.getFieldName());
+        }
+      }
+      comparableFields.put(rootType, Collections.unmodifiableSet(fields));
+    }
+    return Collections.unmodifiableMap(comparableFields);
+  }
+
+  /**
+   * @param fieldPlans Write mapping of the root type of the user
+   * @param comparableFields Fields of the root type which round trip through the registry
+   * @param profile User in sunbird format, to be updated
+   * @param lastKnownState Last known state of the user, as read
+   * @return Input of the write transform holding the identity fields and the changed mapped fields,
+   *     with the fields they are transformed from. Null when no mapped field changed.
+   */
+  public Map<String, Object> getChangedInput(
+      Map<String, FieldPlan> fieldPlans,
+      Set<String> comparableFields,
+      Map<String, Object> profile,
+      Map<String, Object> lastKnownState) {
+    Map<String, Object> changedInput = new HashMap<>();
+    boolean changed = false;
+    for (Map.Entry<String, Object> field : profile.entrySet()) {
+      String fieldName = field.getKey();
+      FieldPlan fieldPlan = fieldPlans.get(fieldName);
+      if (null == fieldPlan) {
+        continue;
+      }
+      if (!identityFields.contains(fieldName)) {
+        if (comparableFields.contains(fieldName)
+            && Objects.equals(field.getValue(), lastKnownState.get(fieldName))) {
+          continue;
+        }
+        changed = true;
+      }
+      changedInput.put(fieldName, field.getValue());
+      copySourceFields(fieldPlan, profile, changedInput);
+    }
+    return changed ? changedInput : null;
+  }
+
+  private static void copySourceFields(
+      FieldPlan fieldPlan, Map<String, Object> profile, Map<String, Object> changedInput) {
+    if (null != fieldPlan.getFromPath()) {
+      copyRootField(fieldPlan.getFromPath(), profile, changedInput);
+    }
+    if (null != fieldPlan.getFromPaths()) {
+      for (FieldPath fromPath : fieldPlan.getFromPaths()) {
+        copyRootField(fromPath, profile, changedInput);
+      }
+    }
+  }
+
+  private static void copyRootField(
+      FieldPath fromPath, Map<String, Object> profile, Map<String, Object> changedInput) {
+    String rootField = fromPath.getSegment(0);
+    if (profile.containsKey(rootField)) {
+      changedInput.put(rootField, profile.get(rootField));
+    }
+  }
+}
@@ -0,0 +1,235 @@
+package org.sunbird.extension.user.impl;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.typesafe.config.Config;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadFactory;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.extension.util.BridgeLogger;
+import org.sunbird.extension.util.BridgeMetrics;
+import org.sunbird.extension.util.CompiledTransformer;
+import org.sunbird.extension.util.EnumMappings;
+import org.sunbird.extension.util.JsonFieldsWriter;
+import org.sunbird.extension.util.JsonGeneratorUtil;
+import org.sunbird.extension.util.MappingValidator;
+import org.sunbird.extension.util.SunbirdExtensionConstants;
+import org.sunbird.extension.util.TransformJsonUtil;
+import org.sunbird.extension.util.TransformationPlan;
+
+/**
+ * Compiled form of one version of the user enums, write and read mapping files. Immutable, so that
+ * a transform started on a version completes on it even if a newer version is loaded meanwhile.
+ */
+final class UserMappings {
+
+  private static final ThreadFactory WARM_UP_THREADS =
+      new ThreadFactoryBuilder()
+          .setNameFormat("registry-mapping-warm-up-%d")
+          .setDaemon(true)
+          .build();
+
+  private final TransformationPlan writePlan;
+  private final TransformationPlan readPlan;
+  private final EnumMappings enumMappings;
+  private final Map<String, CompiledTransformer> writeTransformers;
+  private final Map<String, CompiledTransformer> readTransformers;
+  private final Map<String, Set<String>> comparableFields;
+
+  private UserMappings(
+      TransformationPlan writePlan,
+      TransformationPlan readPlan,
+      EnumMappings enumMappings,
+      boolean compiled) {
+    this.writePlan = writePlan;
+    this.readPlan = readPlan;
+    this.enumMappings = enumMappings;
+    this.writeTransformers =
+        compiled
+            ? CompiledTransformer.compileAll(
+                writePlan, enumMappings, SunbirdExtensionConstants.OPERATION_MODE_WRITE)
+            : null;
+    this.readTransformers =
+        compiled
+            ? CompiledTransformer.compileAll(
+                readPlan, enumMappings, SunbirdExtensionConstants.OPERATION_MODE_READ)
+            : null;
+    this.comparableFields = UpdateDelta.getComparableFields(writePlan, readPlan);
+  }
+
+  /**
+   * @param configs Enums, write and read mapping configurations, in that order
+   * @param compiled Whether to compile per root transformers
+   * @param validate Whether to validate every field of the write and read mappings
+   * @return Compiled mappings
+   */
+  static UserMappings compile(List<Config> configs, boolean compiled, boolean validate) {
+    TransformationPlan writePlan = TransformJsonUtil.getTransformationPlan(configs.get(1));
+    TransformationPlan readPlan = TransformJsonUtil.getTransformationPlan(configs.get(2));
+    EnumMappings enumMappings = TransformJsonUtil.getEnumMappings(configs.get(0));
+    if (validate) {
+      MappingValidator.validate(
+          writePlan, enumMappings, SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+      MappingValidator.validate(
+          readPlan, enumMappings, SunbirdExtensionConstants.OPERATION_MODE_READ);
+    }
+    return new UserMappings(writePlan, readPlan, enumMappings, compiled);
+  }
+
+  /**
+   * Runs write and read transforms of a synthetic user of every root type, so that the first
+   * requests run classes already loaded and methods already compiled by the JIT
+   *
+   * @param iterations Number of transforms per root type and transform
+   * @return These mappings
+   */
+  UserMappings warmUp(int iterations) {
+    if (iterations <= 0) {
+      return this;
+    }
+    long startTime = System.currentTimeMillis();
+    for (String rootType : writePlan.getRootTypes()) {
+      Map<String, Object> sample =
+          MappingValidator.sampleInput(
+              writePlan, rootType, enumMappings, SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+      warmUp(
+          "write",
+          rootType,
+          iterations,
+          () -> {
+            transformForWrite(sample, rootType);
+            JsonGeneratorUtil.writeObject(writerForWrite(sample, rootType));
+          });
+    }
+    for (String rootType : readPlan.getRootTypes()) {
+      Map<String, Object> sample =
+          MappingValidator.sampleInput(
+              readPlan, rootType, enumMappings, SunbirdExtensionConstants.OPERATION_MODE_READ);
+      warmUp("read", rootType, iterations, () -> transformForRead(sample, rootType));
+    }
+    long elapsed = System.currentTimeMillis() - startTime;
+    BridgeLogger.info(
+        () -> "UserMappings:warmUp: Warm-up of user transforms completed in " + elapsed + " ms");
+    return this;
+  }
+
+  /**
+   * Runs {@link #warmUp(int)} on a background thread, recording no metrics, so that loading the
+   * mappings and the requests meanwhile do not wait for it
+   *
+   * @param iterations Number of transforms per root type and transform
+   * @return These mappings
+   */
+  UserMappings warmUpInBackground(int iterations) {
+    if (iterations > 0) {
+      WARM_UP_THREADS
+          .newThread(() -> BridgeMetrics.runUnrecorded(() -> warmUp(iterations)))
+          .start();
+    }
+    return this;
+  }
+
+  private static void warmUp(
+      String operation, String rootType, int iterations, WarmUpTransform transform) {
+    try {
+      for (int i = 0; i < iterations; i++) {
+        transform.run();
+      }
+    } catch (IOException | RuntimeException e) {
+      BridgeLogger.log(
+          LoggerEnum.WARN,
+          () ->
+              "UserMappings:warmUp: Warm-up of "
+                  + operation
+                  + " transform of "
+                  + rootType
+                  + " stopped = "
+                  + e.getMessage());
+    }
+  }
+
+  private interface WarmUpTransform {
+
+    void run() throws IOException;
+  }
+
+  /**
+   * @param userMap User in registry format
+   * @param userType Root type of the user
+   * @return User in sunbird format
+   */
+  Map<String, Object> transformForRead(Map<String, Object> userMap, String userType) {
+    CompiledTransformer transformer = getCompiledTransformer(readTransformers, userType);
+    if (null != transformer) {
+      return transformer.transform(userMap);
+    }
+    return TransformJsonUtil.transform(
+        readPlan, userMap, userType, enumMappings, SunbirdExtensionConstants.OPERATION_MODE_READ);
+  }
+
+  /**
+   * @param userProfileMap User in sunbird format
+   * @param userType Root type of the user
+   * @return User in registry format, keyed by root type
+   */
+  Map<String, Object> transformForWrite(Map<String, Object> userProfileMap, String userType) {
+    CompiledTransformer transformer = getCompiledTransformer(writeTransformers, userType);
+    if (null != transformer) {
+      return transformer.transform(userProfileMap);
+    }
+    return TransformJsonUtil.transform(
+        writePlan,
+        userProfileMap,
+        userType,
+        enumMappings,
+        SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+  }
+
+  /**
+   * @param userProfileMap User in sunbird format
+   * @param userType Root type of the user
+   * @return Writer of the user in registry format, transforming the user as the registry payload is
+   *     written
+   */
+  JsonFieldsWriter writerForWrite(Map<String, Object> userProfileMap, String userType) {
+    CompiledTransformer transformer = getCompiledTransformer(writeTransformers, userType);
+    if (null != transformer) {
+      return generator ->
+          JsonGeneratorUtil.writeFields(generator, transformer.transform(userProfileMap));
+    }
+    return TransformJsonUtil.transformer(
+        writePlan,
+        userProfileMap,
+        userType,
+        enumMappings,
+        SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+  }
+
+  /**
+   * @param updateDelta Delta update mode
+   * @param userProfileMap User in sunbird format, to be updated
+   * @param lastKnownState Last known state of the user, as read
+   * @param userType Root type of the user
+   * @return Input of the write transform holding only the changed mapped fields and the identity
+   *     fields, null when no mapped field changed
+   */
+  Map<String, Object> getChangedInput(
+      UpdateDelta updateDelta,
+      Map<String, Object> userProfileMap,
+      Map<String, Object> lastKnownState,
+      String userType) {
+    return updateDelta.getChangedInput(
+        writePlan.getFieldPlans(userType),
+        comparableFields.getOrDefault(userType, Collections.emptySet()),
+        userProfileMap,
+        lastKnownState);
+  }
+
+  private static CompiledTransformer getCompiledTransformer(
+      Map<String, CompiledTransformer> transformers, String userType) {
+    return null == transformers ? null : transformers.get(userType);
+  }
+}
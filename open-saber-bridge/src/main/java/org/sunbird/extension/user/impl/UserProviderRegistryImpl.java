@@ -1,7 +1,12 @@
 package org.sunbird.extension.user.impl;
 
+import com.google.common.cache.CacheStats;
 import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.apache.commons.lang.StringUtils;
 import org.sunbird.common.exception.ProjectCommonException;
 import org.sunbird.common.models.util.JsonKey;
@@ -11,109 +16,391 @@ import org.sunbird.common.models.util.ProjectUtil;
 import org.sunbird.common.request.HeaderParam;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.extension.user.UserExtension;
+import org.sunbird.extension.util.BatchResult;
+import org.sunbird.extension.util.BridgeLogger;
+import org.sunbird.extension.util.CompiledTransformer;
 import org.sunbird.extension.util.ConfigUtil;
+import org.sunbird.extension.util.JsonFieldsWriter;
+import org.sunbird.extension.util.MappingValidator;
 import org.sunbird.extension.util.OpensaberClientUtil;
+import org.sunbird.extension.util.RegistryOperation;
+import org.sunbird.extension.util.ReloadableConfig;
+import org.sunbird.extension.util.SingleFlight;
 import org.sunbird.extension.util.SunbirdExtensionConstants;
-import org.sunbird.extension.util.TransformJsonUtil;
+import org.sunbird.extension.util.WriteBehindQueue;
 
 /**
  * User profile extension using Open Saber registry for storing adopter specific custom user details
  *
  * @author Jaikumar Soundara Rajan
  */
-public class UserProviderRegistryImpl implements UserExtension {
+public class UserProviderRegistryImpl
+    implements UserExtension, AsyncUserExtension, BatchUserExtension {
 
-  private static Config userEnumsConfig;
-  private static Config userWriteConfig;
-  private static Config userReadConfig;
+  private static final String READ_COALESCE_PATH = "registry.read.coalesce";
+
+  private static ReloadableConfig<UserMappings> userMappings;
+  private static UserReadCache userReadCache;
+  private static UpdateDelta updateDelta;
+  private static WriteBehindQueue writeBehindQueue;
+  private static SingleFlight<String, Map<String, Object>> readFlight;
   private static String defaultUserType =
       ProjectUtil.getConfigValue(JsonKey.SUNBIRD_DEFAULT_USER_TYPE);
 
   static {
-    userEnumsConfig = ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_ENUMS_MAPPING_FILE);
-    userWriteConfig = ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_WRITE_MAPPING_FILE);
-    userReadConfig = ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_READ_MAPPING_FILE);
+    Config bridgeConfig =
+        ConfigUtil.loadConfigWithDefaultFallback(SunbirdExtensionConstants.BRIDGE_CONFIG_FILE);
+    boolean compiled = CompiledTransformer.isEnabled(bridgeConfig);
+    boolean validate = MappingValidator.isEnabled(bridgeConfig);
+    int warmUpIterations = MappingValidator.getWarmUpIterations(bridgeConfig);
+    userMappings =
+        ReloadableConfig.load(
+            Arrays.asList(
+                SunbirdExtensionConstants.USER_ENUMS_MAPPING_FILE,
+                SunbirdExtensionConstants.USER_WRITE_MAPPING_FILE,
+                SunbirdExtensionConstants.USER_READ_MAPPING_FILE),
+            configs ->
+                UserMappings.compile(configs, compiled, validate)
+                    .warmUpInBackground(warmUpIterations),
+            bridgeConfig);
+    userReadCache = UserReadCache.load(bridgeConfig);
+    // Cached users were transformed with the read mapping of the previous version
+    userMappings.addReloadListener(mappings -> userReadCache.invalidateAll());
+    updateDelta = UpdateDelta.load(bridgeConfig);
+    writeBehindQueue =
+        WriteBehindQueue.load(bridgeConfig, registryId -> userReadCache.invalidate(registryId));
+    readFlight =
+        isReadCoalescingEnabled(bridgeConfig) ? new SingleFlight<>(UserReadCache::copyMap) : null;
   }
 
   @Override
   public void create(Map<String, Object> userProfileMap) {
-    ProjectLogger.log(
-        "UserProviderRegistryImpl:create: Creating an user in registry", LoggerEnum.INFO.name());
+    BridgeLogger.debug(() -> "UserProviderRegistryImpl:create: Creating an user in registry");
     String accessToken = getAccessToken(userProfileMap);
-    Map<String, Object> userMap = getUserMapForWrite(userProfileMap);
-    String registryId = OpensaberClientUtil.addEntity(userMap, accessToken);
+    JsonFieldsWriter userWriter = getUserWriter(userProfileMap);
+    String registryId = OpensaberClientUtil.addEntity(userWriter, accessToken);
     userProfileMap.put(JsonKey.REGISTRY_ID, registryId);
-    ProjectLogger.log(
-        "UserProviderRegistryImpl:create: User created successfully in registry. Id = "
-            + registryId,
-        LoggerEnum.INFO.name());
+    BridgeLogger.info(
+        () ->
+            "UserProviderRegistryImpl:create: User created successfully in registry. Id = "
+                + registryId);
   }
 
   @Override
   public Map<String, Object> read(Map<String, Object> userIdMap) {
     String accessToken = getAccessToken(userIdMap);
     String registryId = getRegistryId(userIdMap);
-    ProjectLogger.log(
-        "UserProviderRegistryImpl:read: Reading user from Registry. Id = " + registryId,
-        LoggerEnum.INFO.name());
-    Map<String, Object> resultMap = OpensaberClientUtil.readEntity(registryId, accessToken);
-
+    BridgeLogger.debug(
+        () -> "UserProviderRegistryImpl:read: Reading user from Registry. Id = " + registryId);
     String userType = getUserType(userIdMap);
-    Map<String, Object> userMap = (Map<String, Object>) resultMap.get(userType);
-    userMap =
-        TransformJsonUtil.transform(
-            userReadConfig,
-            userMap,
-            userType,
-            userEnumsConfig,
-            SunbirdExtensionConstants.OPERATION_MODE_READ);
-    ProjectLogger.log(
-        "UserProviderRegistryImpl:read: User read successfully from registry. Id = " + registryId,
-        LoggerEnum.INFO.name());
+    Map<String, Object> userMap = userReadCache.get(userType, registryId, accessToken);
+    if (null != userMap) {
+      BridgeLogger.info(
+          () -> "UserProviderRegistryImpl:read: User read from cache. Id = " + registryId);
+      return userMap;
+    }
+    if (null == readFlight) {
+      userMap = readFromRegistry(userIdMap, registryId, accessToken);
+    } else {
+      userMap =
+          readFlight.execute(
+              // Results and errors are shared only between reads authorized by the same token, as
+              // cached users are
+              userType + " " + registryId + " " + accessToken,
+              () -> readFromRegistry(userIdMap, registryId, accessToken));
+    }
+    BridgeLogger.info(
+        () ->
+            "UserProviderRegistryImpl:read: User read successfully from registry. Id = "
+                + registryId);
     return userMap;
   }
 
   @Override
   public void update(Map<String, Object> userProfileMap) {
-    ProjectLogger.log(
-        "UserProviderRegistryImpl:update: Updating user in registry. Id = "
-            + userProfileMap.get(JsonKey.REGISTRY_ID),
-        LoggerEnum.INFO.name());
+    BridgeLogger.debug(
+        () ->
+            "UserProviderRegistryImpl:update: Updating user in registry. Id = "
+                + userProfileMap.get(JsonKey.REGISTRY_ID));
     String accessToken = getAccessToken(userProfileMap);
-    Map<String, Object> userMap = getUserMapForWrite(userProfileMap);
-    OpensaberClientUtil.updateEntity(userMap, accessToken);
-    ProjectLogger.log(
-        "UserProviderRegistryImpl:update: User updated successfully in registry. Id = "
-            + userProfileMap.get(JsonKey.REGISTRY_ID),
-        LoggerEnum.INFO.name());
+    Map<String, Object> updateInput = getUpdateInput("update", userProfileMap);
+    if (null == updateInput || writeBehind("update", updateInput, userProfileMap)) {
+      return;
+    }
+    JsonFieldsWriter userWriter =
+        userMappings.get().writerForWrite(updateInput, getUserType(userProfileMap));
+    try {
+      OpensaberClientUtil.updateEntity(userWriter, accessToken);
+    } finally {
+      userReadCache.invalidate((String) userProfileMap.get(JsonKey.REGISTRY_ID));
+    }
+    BridgeLogger.info(
+        () ->
+            "UserProviderRegistryImpl:update: User updated successfully in registry. Id = "
+                + userProfileMap.get(JsonKey.REGISTRY_ID));
   }
 
   @Override
   public void delete(Map<String, Object> userIdMap) {
     String accessToken = getAccessToken(userIdMap);
     String registryId = getRegistryId(userIdMap);
+    BridgeLogger.debug(
+        () -> "UserProviderRegistryImpl:delete: Deleting user in registry. Id = " + registryId);
+    writeBehindQueue.cancel(registryId, ResponseCode.errorRegistryDeleteEntity);
+    try {
+      OpensaberClientUtil.deleteEntity(registryId, accessToken);
+    } finally {
+      userReadCache.invalidate(registryId);
+    }
+    BridgeLogger.info(
+        () ->
+            "UserProviderRegistryImpl:delete: User deleted successfully in registry. Id = "
+                + registryId);
+  }
+
+  @Override
+  public CompletableFuture<String> createAsync(Map<String, Object> userProfileMap) {
+    BridgeLogger.debug(() -> "UserProviderRegistryImpl:createAsync: Creating an user in registry");
+    String accessToken = getAccessToken(userProfileMap);
+    Map<String, Object> userMap = getUserMapForWrite(userProfileMap);
+    return OpensaberClientUtil.addEntityAsync(userMap, accessToken)
+        .thenApply(
+            registryId -> {
+              userProfileMap.put(JsonKey.REGISTRY_ID, registryId);
+              BridgeLogger.info(
+                  () ->
+                      "UserProviderRegistryImpl:createAsync: User created successfully in registry. Id = "
+                          + registryId);
+              return registryId;
+            });
+  }
+
+  @Override
+  public CompletableFuture<Map<String, Object>> readAsync(Map<String, Object> userIdMap) {
+    String accessToken = getAccessToken(userIdMap);
+    String registryId = getRegistryId(userIdMap);
+    BridgeLogger.debug(
+        () -> "UserProviderRegistryImpl:readAsync: Reading user from Registry. Id = " + registryId);
+    String userType = getUserType(userIdMap);
+    Map<String, Object> cachedUserMap = userReadCache.get(userType, registryId, accessToken);
+    if (null != cachedUserMap) {
+      return CompletableFuture.completedFuture(cachedUserMap);
+    }
+    long generation = userReadCache.getGeneration(registryId);
+    return OpensaberClientUtil.readEntityAsync(registryId, accessToken)
+        .thenApply(
+            resultMap -> {
+              Map<String, Object> userMap = getUserMapForRead(userIdMap, resultMap);
+              userReadCache.put(userType, registryId, accessToken, generation, userMap);
+              return userMap;
+            });
+  }
+
+  @Override
+  public CompletableFuture<Void> updateAsync(Map<String, Object> userProfileMap) {
+    BridgeLogger.debug(
+        () ->
+            "UserProviderRegistryImpl:updateAsync: Updating user in registry. Id = "
+                + userProfileMap.get(JsonKey.REGISTRY_ID));
+    String accessToken = getAccessToken(userProfileMap);
+    // Full update, as reading the baseline of a delta would block the caller
+    Map<String, Object> updateInput = userProfileMap;
+    if (writeBehind("updateAsync", updateInput, userProfileMap)) {
+      return CompletableFuture.completedFuture(null);
+    }
+    Map<String, Object> userMap =
+        userMappings.get().transformForWrite(updateInput, getUserType(userProfileMap));
+    String registryId = (String) userProfileMap.get(JsonKey.REGISTRY_ID);
+    return OpensaberClientUtil.updateEntityAsync(userMap, accessToken)
+        .whenComplete((result, error) -> userReadCache.invalidate(registryId));
+  }
+
+  @Override
+  public CompletableFuture<Void> deleteAsync(Map<String, Object> userIdMap) {
+    String accessToken = getAccessToken(userIdMap);
+    String registryId = getRegistryId(userIdMap);
+    BridgeLogger.debug(
+        () ->
+            "UserProviderRegistryImpl:deleteAsync: Deleting user in registry. Id = " + registryId);
+    writeBehindQueue.cancel(registryId, ResponseCode.errorRegistryDeleteEntity);
+    return OpensaberClientUtil.deleteEntityAsync(registryId, accessToken)
+        .whenComplete((result, error) -> userReadCache.invalidate(registryId));
+  }
+
+  @Override
+  public List<BatchResult<String>> createAll(List<Map<String, Object>> userProfileMaps) {
+    List<BatchResult<String>> results =
+        OpensaberClientUtil.runBatch(
+            RegistryOperation.ADD,
+            userProfileMaps,
+            userProfileMap -> {
+              create(userProfileMap);
+              return (String) userProfileMap.get(JsonKey.REGISTRY_ID);
+            });
+    logBatchResults("createAll", results);
+    return results;
+  }
+
+  @Override
+  public List<BatchResult<Map<String, Object>>> readAll(List<Map<String, Object>> userIdMaps) {
+    List<BatchResult<Map<String, Object>>> results =
+        OpensaberClientUtil.runBatch(RegistryOperation.READ, userIdMaps, this::read);
+    logBatchResults("readAll", results);
+    return results;
+  }
+
+  /** @return Number of the loaded version of the user mapping files, incremented on each reload */
+  public static long getUserMappingsVersion() {
+    return userMappings.getVersion();
+  }
+
+  /** @return Hit, miss and eviction counts of the user read cache */
+  public static CacheStats getUserReadCacheStats() {
+    return userReadCache.getStats();
+  }
+
+  /** @return Number of reads of users from the registry, 0 unless read coalescing is enabled */
+  public static long getReadExecutedCount() {
+    return null == readFlight ? 0 : readFlight.getExecutedCount();
+  }
+
+  /**
+   * @return Number of reads collapsed into a concurrent read of the same user, 0 unless read
+   *     coalescing is enabled
+   */
+  public static long getReadCollapsedCount() {
+    return null == readFlight ? 0 : readFlight.getCollapsedCount();
+  }
+
+  /** @return Number of users with an update queued for the registry, 0 unless write-behind */
+  public static int getWriteBehindPendingCount() {
+    return writeBehindQueue.getPendingCount();
+  }
+
+  private void logBatchResults(String method, List<? extends BatchResult<?>> results) {
+    if (!BridgeLogger.isEnabled(LoggerEnum.INFO)) {
+      return;
+    }
+    int failed = 0;
+    for (BatchResult<?> result : results) {
+      if (!result.isSuccess()) {
+        failed++;
+      }
+    }
     ProjectLogger.log(
-        "UserProviderRegistryImpl:delete: Deleting user in registry. Id = " + registryId,
-        LoggerEnum.INFO.name());
-    OpensaberClientUtil.deleteEntity(registryId, accessToken);
-    ProjectLogger.log(
-        "UserProviderRegistryImpl:delete: User deleted successfully in registry. Id = "
-            + registryId,
+        "UserProviderRegistryImpl:"
+            + method
+            + ": Batch completed. Total = "
+            + results.size()
+            + " Failed = "
+            + failed,
         LoggerEnum.INFO.name());
   }
 
-  private Map<String, Object> getUserMapForWrite(Map<String, Object> userProfileMap) {
-    String userType = getUserType(userProfileMap);
-    Map<String, Object> userMap =
-        TransformJsonUtil.transform(
-            userWriteConfig,
-            userProfileMap,
-            userType,
-            userEnumsConfig,
-            SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+  private Map<String, Object> readFromRegistry(
+      Map<String, Object> userIdMap, String registryId, String accessToken) {
+    long generation = userReadCache.getGeneration(registryId);
+    Map<String, Object> resultMap = OpensaberClientUtil.readEntity(registryId, accessToken);
+    Map<String, Object> userMap = getUserMapForRead(userIdMap, resultMap);
+    userReadCache.put(getUserType(userIdMap), registryId, accessToken, generation, userMap);
     return userMap;
   }
 
+  private Map<String, Object> getUserMapForRead(
+      Map<String, Object> userIdMap, Map<String, Object> resultMap) {
+    String userType = getUserType(userIdMap);
+    Map<String, Object> userMap = (Map<String, Object>) resultMap.get(userType);
+    return userMappings.get().transformForRead(userMap, userType);
+  }
+
+  /**
+   * @param method Name of the calling method, for logging
+   * @param userProfileMap User in sunbird format, to be updated
+   * @return Input of the write transform of the update. The whole user, unless delta updates are
+   *     enabled and the user could be read from the registry, and null when no mapped field changed
+   *     since. The cached user is not used as the baseline, as it may be stale.
+   */
+  private Map<String, Object> getUpdateInput(String method, Map<String, Object> userProfileMap) {
+    String registryId = (String) userProfileMap.get(JsonKey.REGISTRY_ID);
+    if (!updateDelta.isEnabled()
+        || !updateDelta.isFetchBaseline()
+        || StringUtils.isBlank(registryId)
+        || writeBehindQueue.isPending(registryId)) {
+      return userProfileMap;
+    }
+    Map<String, Object> lastKnownState;
+    try {
+      lastKnownState = readFromRegistry(userProfileMap, registryId, getAccessToken(userProfileMap));
+    } catch (ProjectCommonException e) {
+      BridgeLogger.log(
+          LoggerEnum.WARN,
+          () ->
+              "UserProviderRegistryImpl:"
+                  + method
+                  + ": User could not be read, updating all fields. Id = "
+                  + registryId
+                  + " Error = "
+                  + e.getMessage());
+      return userProfileMap;
+    }
+    Map<String, Object> updateInput =
+        userMappings
+            .get()
+            .getChangedInput(
+                updateDelta, userProfileMap, lastKnownState, getUserType(userProfileMap));
+    if (null == updateInput) {
+      BridgeLogger.info(
+          () ->
+              "UserProviderRegistryImpl:"
+                  + method
+                  + ": No mapped field changed, update skipped. Id = "
+                  + registryId);
+    }
+    return updateInput;
+  }
+
+  /**
+   * @param method Name of the calling method, for logging
+   * @param updateInput Input of the write transform of the update
+   * @param userProfileMap User in sunbird format, to be updated
+   * @return Whether the update was queued for write-behind, false when it is to be sent now, after
+   *     any queued update of the user is cancelled, which it supersedes as it is not a delta while
+   *     an update is queued
+   */
+  private boolean writeBehind(
+      String method, Map<String, Object> updateInput, Map<String, Object> userProfileMap) {
+    String registryId = (String) userProfileMap.get(JsonKey.REGISTRY_ID);
+    if (!writeBehindQueue.isEnabled() || StringUtils.isBlank(registryId)) {
+      return false;
+    }
+    Map<String, Object> userMap =
+        userMappings.get().transformForWrite(updateInput, getUserType(userProfileMap));
+    if (!writeBehindQueue.offer(registryId, userMap)) {
+      writeBehindQueue.cancel(registryId, ResponseCode.errorRegistryUpdateEntity);
+      return false;
+    }
+    userReadCache.invalidate(registryId);
+    BridgeLogger.info(
+        () ->
+            "UserProviderRegistryImpl:"
+                + method
+                + ": User update queued for registry. Id = "
+                + registryId);
+    return true;
+  }
+
+  private Map<String, Object> getUserMapForWrite(Map<String, Object> userProfileMap) {
+    return userMappings.get().transformForWrite(userProfileMap, getUserType(userProfileMap));
+  }
+
+  /**
+   * @return Writer of the user in registry format, transforming the user as the registry payload is
+   *     written
+   */
+  private JsonFieldsWriter getUserWriter(Map<String, Object> userProfileMap) {
+    return userMappings.get().writerForWrite(userProfileMap, getUserType(userProfileMap));
+  }
+
   private String getUserType(Map<String, Object> userProfileMap) {
     String userType = (String) userProfileMap.get(SunbirdExtensionConstants.USER_TYPE);
     userType = StringUtils.isBlank(userType) ? defaultUserType : userType;
@@ -127,6 +414,20 @@ public class UserProviderRegistryImpl implements UserExtension {
     return userType;
   }
 
+  private static boolean isReadCoalescingEnabled(Config config) {
+    try {
+      return config.getBoolean(READ_COALESCE_PATH);
+    } catch (ConfigException e) {
+      ProjectLogger.log(
+          "UserProviderRegistryImpl:isReadCoalescingEnabled: Invalid read configuration = "
+              + e.getMessage(),
+          LoggerEnum.ERROR.name());
+      ProjectCommonException.throwServerErrorException(
+          ResponseCode.errorLoadConfig, ResponseCode.errorLoadConfig.getErrorMessage());
+    }
+    return false;
+  }
+
   private String getAccessToken(Map<String, Object> userProfileMap) {
     String accessToken =
         (String) userProfileMap.get(HeaderParam.X_Authenticated_User_Token.getName());
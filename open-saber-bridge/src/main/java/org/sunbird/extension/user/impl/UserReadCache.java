@@ -0,0 +1,213 @@
+package org.sunbird.extension.user.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.responsecode.ResponseCode;
+
+/**
+ * Read-through cache of users read from the registry, keyed by registry id and holding the user in
+ * sunbird format along with the user type and access token it was read with. A user is returned
+ * only to reads with the same type and token, as the registry authorizes each read by its token, in
+ * line with the coalescing of concurrent reads. Bounded by size and TTL, and records hit / miss
+ * statistics. Users are copied in and out of the cache so that callers modifying a returned user do
+ * not affect the cached copy.
+ *
+ * <p>Invalidating a user bumps the generation of its registry id, and a user read from the registry
+ * is only cached if the generation is unchanged since the read started, so that a read overlapping
+ * an update or delete does not cache the user as it was before.
+ */
+public class UserReadCache {
+
+  private static final String USER_CACHE_PATH = "registry.cache.user";
+  private static final int GENERATION_STRIPES = 1024;
+
+  private final Cache<String, CachedUser> cache;
+  private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+  private UserReadCache(Cache<String, CachedUser> cache) {
+    this.cache = cache;
+  }
+
+  /**
+   * @param maxSize Maximum number of users in the cache
+   * @param ttlSeconds Time after write after which a user is evicted
+   * @return Enabled cache
+   */
+  public static UserReadCache create(long maxSize, long ttlSeconds) {
+    return new UserReadCache(
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+            .recordStats()
+            .build());
+  }
+
+  /** @return Cache which holds nothing, all reads go to the registry */
+  public static UserReadCache disabled() {
+    return new UserReadCache(null);
+  }
+
+  /**
+   * @param config Configuration containing the registry.cache.user block
+   * @return Cache as per the configuration, disabled unless enabled is set
+   */
+  public static UserReadCache load(Config config) {
+    try {
+      Config cacheConfig = config.getConfig(USER_CACHE_PATH);
+      if (!cacheConfig.getBoolean("enabled")) {
+        return disabled();
+      }
+      long maxSize = cacheConfig.getLong("maxSize");
+      long ttlSeconds = cacheConfig.getLong("ttlSeconds");
+      ProjectLogger.log(
+          "UserReadCache:load: User read cache enabled. MaxSize = "
+              + maxSize
+              + " TtlSeconds = "
+              + ttlSeconds,
+          LoggerEnum.INFO.name());
+      return create(maxSize, ttlSeconds);
+    } catch (ConfigException e) {
+      ProjectLogger.log(
+          "UserReadCache:load: Invalid user cache configuration = " + e.getMessage(),
+          LoggerEnum.ERROR.name());
+      ProjectCommonException.throwServerErrorException(
+          ResponseCode.errorLoadConfig, ResponseCode.errorLoadConfig.getErrorMessage());
+    }
+    return null;
+  }
+
+  public boolean isEnabled() {
+    return null != cache;
+  }
+
+  /**
+   * @param userType Type the user is read as
+   * @param registryId Registry id of the user
+   * @param accessToken Access token of the read
+   * @return Copy of the cached user, null if not cached or cached as another type or with another
+   *     token
+   */
+  public Map<String, Object> get(String userType, String registryId, String accessToken) {
+    if (null == cache) {
+      return null;
+    }
+    CachedUser cachedUser = cache.getIfPresent(registryId);
+    return null == cachedUser
+            || !cachedUser.userType.equals(userType)
+            || !Objects.equals(cachedUser.accessToken, accessToken)
+        ? null
+        : copyMap(cachedUser.userMap);
+  }
+
+  /**
+   * @param registryId Registry id of the user
+   * @return Generation of the registry id, to be taken before reading the user from the registry
+   */
+  public long getGeneration(String registryId) {
+    return generations.get(getStripe(registryId));
+  }
+
+  /**
+   * @param userType Type the user was read as
+   * @param registryId Registry id of the user
+   * @param accessToken Access token the user was read with
+   * @param generation Generation of the registry id taken before the user was read
+   * @param userMap User read from the registry
+   */
+  public void put(
+      String userType,
+      String registryId,
+      String accessToken,
+      long generation,
+      Map<String, Object> userMap) {
+    if (null == cache || null == userMap) {
+      return;
+    }
+    CachedUser cachedUser = new CachedUser(userType, accessToken, copyMap(userMap));
+    cache.put(registryId, cachedUser);
+    // Checked after the put, as an invalidate between a check and the put would be lost
+    if (generation != getGeneration(registryId)) {
+      cache.asMap().remove(registryId, cachedUser);
+    }
+  }
+
+  public void invalidate(String registryId) {
+    if (null != cache && null != registryId) {
+      generations.incrementAndGet(getStripe(registryId));
+      cache.invalidate(registryId);
+    }
+  }
+
+  /** Removes all users, as when the read mapping they were transformed with changes */
+  public void invalidateAll() {
+    if (null != cache) {
+      for (int i = 0; i < GENERATION_STRIPES; i++) {
+        generations.incrementAndGet(i);
+      }
+      cache.invalidateAll();
+    }
+  }
+
+  private static int getStripe(String registryId) {
+    return (registryId.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+  }
+
+  /** @return Hit, miss and eviction counts of the cache, all zero when disabled */
+  public CacheStats getStats() {
+    return null == cache ? new CacheStats(0, 0, 0, 0, 0, 0) : cache.stats();
+  }
+
+  public long size() {
+    return null == cache ? 0 : cache.size();
+  }
+
+  /** @return Deep copy of the user, copying nested maps and lists */
+  static Map<String, Object> copyMap(Map<String, Object> map) {
+    Map<String, Object> copy = new HashMap<>(map.size() * 2);
+    for (Map.Entry<String, Object> entry : map.entrySet()) {
+      copy.put(entry.getKey(), copyValue(entry.getValue()));
+    }
+    return copy;
+  }
+
+  private static Object copyValue(Object value) {
+    if (value instanceof Map) {
+      return copyMap((Map<String, Object>) value);
+    }
+    if (value instanceof List) {
+      List<Object> list = (List<Object>) value;
+      List<Object> copy = new ArrayList<>(list.size());
+      for (Object element : list) {
+        copy.add(copyValue(element));
+      }
+      return copy;
+    }
+    return value;
+  }
+
+  private static final class CachedUser {
+
+    private final String userType;
+    private final String accessToken;
+    private final Map<String, Object> userMap;
+
+    private CachedUser(String userType, String accessToken, Map<String, Object> userMap) {
+      this.userType = userType;
+      this.accessToken = accessToken;
+      this.userMap = userMap;
+    }
+  }
+}
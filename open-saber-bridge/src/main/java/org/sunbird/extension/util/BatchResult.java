@@ -0,0 +1,37 @@
+package org.sunbird.extension.util;
+
+/**
+ * Result of one item of a batch registry operation. Holds either the value returned for the item or
+ * the error that failed it, so that a bad item does not fail the rest of the batch.
+ */
+public final class BatchResult<T> {
+
+  private final T value;
+  private final Throwable error;
+
+  private BatchResult(T value, Throwable error) {
+    this.value = value;
+    this.error = error;
+  }
+
+  public static <T> BatchResult<T> success(T value) {
+    return new BatchResult<>(value, null);
+  }
+
+  public static <T> BatchResult<T> failure(Throwable error) {
+    return new BatchResult<>(null, error);
+  }
+
+  public boolean isSuccess() {
+    return null == error;
+  }
+
+  public T getValue() {
+    return value;
+  }
+
+  /** @return Error that failed the item, usually a ProjectCommonException; null on success */
+  public Throwable getError() {
+    return error;
+  }
+}
@@ -0,0 +1,87 @@
+package org.sunbird.extension.util;
+
+import com.typesafe.config.Config;
+import java.util.function.Supplier;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+
+/**
+ * Level-guarded logging for the bridge. Messages are passed as suppliers and built only when their
+ * level is enabled by registry.logging.level of registry-bridge.conf, so that disabled messages on
+ * hot paths cost neither string building nor logger I/O.
+ */
+public final class BridgeLogger {
+
+  private static final int DEBUG = 0;
+  private static final int INFO = 1;
+  private static final int WARN = 2;
+  private static final int ERROR = 3;
+  private static final long DEFAULT_SAMPLE_INTERVAL = 1000;
+
+  private static volatile int threshold = INFO;
+  private static volatile long sampleInterval = DEFAULT_SAMPLE_INTERVAL;
+
+  static {
+    try {
+      Config config =
+          ConfigUtil.loadConfigWithDefaultFallback(SunbirdExtensionConstants.BRIDGE_CONFIG_FILE);
+      threshold = getSeverity(config.getString("registry.logging.level"));
+      sampleInterval = config.getLong("registry.logging.sampleInterval");
+    } catch (Exception e) {
+      ProjectLogger.log(
+          "BridgeLogger: Invalid logging configuration, defaulting to INFO = " + e.getMessage(),
+          LoggerEnum.ERROR.name());
+    }
+  }
+
+  private BridgeLogger() {}
+
+  /**
+   * @param level Level of the message
+   * @return True if messages of the level are to be logged
+   */
+  public static boolean isEnabled(LoggerEnum level) {
+    return getSeverity(level.name()) >= threshold;
+  }
+
+  public static void debug(Supplier<String> message) {
+    if (DEBUG >= threshold) {
+      ProjectLogger.log(message.get(), LoggerEnum.DEBUG.name());
+    }
+  }
+
+  public static void info(Supplier<String> message) {
+    if (INFO >= threshold) {
+      ProjectLogger.log(message.get(), LoggerEnum.INFO.name());
+    }
+  }
+
+  public static void log(LoggerEnum level, Supplier<String> message) {
+    if (isEnabled(level)) {
+      ProjectLogger.log(message.get(), level.name());
+    }
+  }
+
+  /** @param level Minimum level of the messages to be logged */
+  public static void setLevel(LoggerEnum level) {
+    threshold = getSeverity(level.name());
+  }
+
+  /** @return Number of occurrences of a repetitive message per message logged */
+  public static long getSampleInterval() {
+    return sampleInterval;
+  }
+
+  private static int getSeverity(String level) {
+    switch (level.toUpperCase()) {
+      case "DEBUG":
+        return DEBUG;
+      case "WARN":
+        return WARN;
+      case "ERROR":
+        return ERROR;
+      default:
+        return INFO;
+    }
+  }
+}
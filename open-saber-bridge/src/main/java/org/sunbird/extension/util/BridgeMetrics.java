@@ -0,0 +1,294 @@
+package org.sunbird.extension.util;
+
+import com.typesafe.config.Config;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import javax.management.ObjectName;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.responsecode.ResponseCode;
+
+/**
+ * Latency histograms and error counters of the bridge: registry operations by phase, transforms by
+ * root type and operation mode, and errors by response code. Exported in the Prometheus text format
+ * by {@link #scrape()} and through JMX when enabled by registry.metrics of registry-bridge.conf.
+ *
+ * <p>When disabled, {@link #start()} returns 0 after a single volatile read and recording a latency
+ * started at 0 returns at once, so that instrumented code paths pay neither clock reads nor
+ * lookups. Nothing is recorded either for a task run by {@link #runUnrecorded(Runnable)}, e.g.
+ * synthetic warm-up transforms.
+ */
+public final class BridgeMetrics {
+
+  /** Phase of a registry operation */
+  public enum Phase {
+    /** Writing the request payload, including the streamed write transform */
+    SERIALIZE,
+    /** Registry call, including the JSON-LD transformers of the transformer mode */
+    HTTP,
+    /** Reading the registry response */
+    PARSE
+  }
+
+  private static final String METRICS_PATH = "registry.metrics";
+  private static final String OBJECT_NAME = "org.sunbird.extension:type=BridgeMetrics";
+  private static final String OPERATION_METRIC = "sunbird_registry_operation_seconds";
+  private static final String TRANSFORM_METRIC = "sunbird_registry_transform_seconds";
+  private static final String ERROR_METRIC = "sunbird_registry_errors_total";
+
+  private static final Map<RegistryOperation, Map<Phase, LatencyHistogram>> operationLatencies =
+      new EnumMap<>(RegistryOperation.class);
+  private static final Map<String, Map<String, LatencyHistogram>> transformLatencies =
+      new ConcurrentHashMap<>();
+  private static final Map<String, LongAdder> errorCounts = new ConcurrentHashMap<>();
+  private static final Set<Throwable> countedErrors =
+      Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+  private static volatile boolean enabled;
+  private static final ThreadLocal<Boolean> unrecorded = new ThreadLocal<>();
+
+  static {
+    for (RegistryOperation operation : RegistryOperation.values()) {
+      Map<Phase, LatencyHistogram> phases = new EnumMap<>(Phase.class);
+      for (Phase phase : Phase.values()) {
+        phases.put(phase, new LatencyHistogram());
+      }
+      operationLatencies.put(operation, phases);
+    }
+    try {
+      Config config =
+          ConfigUtil.loadConfigWithDefaultFallback(SunbirdExtensionConstants.BRIDGE_CONFIG_FILE)
+              .getConfig(METRICS_PATH);
+      enabled = config.getBoolean("enabled");
+      if (enabled && config.getBoolean("jmx")) {
+        registerMBean();
+      }
+    } catch (Exception e) {
+      ProjectLogger.log(
+          "BridgeMetrics: Invalid metrics configuration, metrics disabled = " + e.getMessage(),
+          LoggerEnum.ERROR.name());
+    }
+  }
+
+  private BridgeMetrics() {}
+
+  private static void registerMBean() throws Exception {
+    ObjectName objectName = new ObjectName(OBJECT_NAME);
+    if (!ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(new MXBean(), objectName);
+    }
+    ProjectLogger.log(
+        "BridgeMetrics:registerMBean: Registered " + OBJECT_NAME, LoggerEnum.INFO.name());
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static void setEnabled(boolean enabled) {
+    BridgeMetrics.enabled = enabled;
+  }
+
+  /** Runs the task on this thread without recording its latencies or errors */
+  public static void runUnrecorded(Runnable task) {
+    unrecorded.set(Boolean.TRUE);
+    try {
+      task.run();
+    } finally {
+      unrecorded.remove();
+    }
+  }
+
+  private static boolean isRecording() {
+    return enabled && null == unrecorded.get();
+  }
+
+  /** @return Start time of a measured step in nanoseconds, 0 when not recorded */
+  public static long start() {
+    return isRecording() ? System.nanoTime() : 0;
+  }
+
+  /**
+   * @param operation Registry operation
+   * @param phase Phase of the operation which completed
+   * @param startTime Start time of the phase, from {@link #start()}
+   * @return Start time of the next phase
+   */
+  public static long recordOperation(RegistryOperation operation, Phase phase, long startTime) {
+    if (0 == startTime) {
+      return start();
+    }
+    long endTime = System.nanoTime();
+    operationLatencies.get(operation).get(phase).record(endTime - startTime);
+    return endTime;
+  }
+
+  /**
+   * @param rootType Root type transformed, to be one configured in the transformation plan so that
+   *     the series are bounded
+   * @param operationMode OperationMode Read/Write
+   * @param startTime Start time of the transform, from {@link #start()}
+   */
+  public static void recordTransform(String rootType, String operationMode, long startTime) {
+    if (0 == startTime) {
+      return;
+    }
+    long elapsed = System.nanoTime() - startTime;
+    transformLatencies
+        .computeIfAbsent(operationMode, mode -> new ConcurrentHashMap<>())
+        .computeIfAbsent(rootType, root -> new LatencyHistogram())
+        .record(elapsed);
+  }
+
+  /** @param responseCode Response code of an error thrown */
+  public static void countError(ResponseCode responseCode) {
+    if (isRecording()) {
+      countError(responseCode.getErrorCode());
+    }
+  }
+
+  /**
+   * Counts an error passing through an instrumented step, once however many instrumented steps,
+   * e.g. nested transforms, it passes through
+   *
+   * @param error Error thrown
+   */
+  public static void countError(ProjectCommonException error) {
+    if (isRecording() && countedErrors.add(error)) {
+      countError(error.getCode());
+    }
+  }
+
+  private static void countError(String code) {
+    errorCounts.computeIfAbsent(String.valueOf(code), key -> new LongAdder()).increment();
+  }
+
+  /** @return All metrics in the Prometheus text format */
+  public static String scrape() {
+    StringBuilder output = new StringBuilder();
+    output
+        .append("# HELP ")
+        .append(OPERATION_METRIC)
+        .append(" Latency of registry operations by phase\n# TYPE ")
+        .append(OPERATION_METRIC)
+        .append(" histogram\n");
+    forEachOperationSeries(
+        (labels, histogram) -> histogram.writePrometheus(OPERATION_METRIC, labels, output));
+    output
+        .append("# HELP ")
+        .append(TRANSFORM_METRIC)
+        .append(" Latency of transforms by root type and operation mode\n# TYPE ")
+        .append(TRANSFORM_METRIC)
+        .append(" histogram\n");
+    forEachTransformSeries(
+        (labels, histogram) -> histogram.writePrometheus(TRANSFORM_METRIC, labels, output));
+    output
+        .append("# HELP ")
+        .append(ERROR_METRIC)
+        .append(" Errors by response code\n# TYPE ")
+        .append(ERROR_METRIC)
+        .append(" counter\n");
+    for (Map.Entry<String, LongAdder> error : new TreeMap<>(errorCounts).entrySet()) {
+      output
+          .append(ERROR_METRIC)
+          .append("{code=\"")
+          .append(escapeLabelValue(error.getKey()))
+          .append("\"} ")
+          .append(error.getValue().sum())
+          .append('\n');
+    }
+    return output.toString();
+  }
+
+  private static void forEachOperationSeries(BiConsumer<String, LatencyHistogram> consumer) {
+    for (Map.Entry<RegistryOperation, Map<Phase, LatencyHistogram>> operation :
+        operationLatencies.entrySet()) {
+      for (Map.Entry<Phase, LatencyHistogram> phase : operation.getValue().entrySet()) {
+        consumer.accept(
+            "operation=\""
+                + operation.getKey().getConfigName()
+                + "\",phase=\""
+                + phase.getKey().name().toLowerCase()
+                + "\"",
+            phase.getValue());
+      }
+    }
+  }
+
+  private static void forEachTransformSeries(BiConsumer<String, LatencyHistogram> consumer) {
+    for (Map.Entry<String, Map<String, LatencyHistogram>> mode :
+        new TreeMap<>(transformLatencies).entrySet()) {
+      for (Map.Entry<String, LatencyHistogram> root : new TreeMap<>(mode.getValue()).entrySet()) {
+        consumer.accept(
+            "root=\""
+                + escapeLabelValue(root.getKey())
+                + "\",mode=\""
+                + escapeLabelValue(mode.getKey())
+                + "\"",
+            root.getValue());
+      }
+    }
+  }
+
+  /** @return Label value escaped as per the Prometheus text format */
+  static String escapeLabelValue(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  /** Clears all recorded latencies and errors */
+  static void reset() {
+    operationLatencies.values().forEach(phases -> phases.values().forEach(LatencyHistogram::reset));
+    transformLatencies.clear();
+    errorCounts.clear();
+    countedErrors.clear();
+  }
+
+  static final class MXBean implements BridgeMetricsMXBean {
+
+    @Override
+    public boolean isEnabled() {
+      return BridgeMetrics.isEnabled();
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+      Map<String, Long> counts = new TreeMap<>();
+      forEachOperationSeries(
+          (labels, histogram) ->
+              counts.put(OPERATION_METRIC + "{" + labels + "}", histogram.getCount()));
+      forEachTransformSeries(
+          (labels, histogram) ->
+              counts.put(TRANSFORM_METRIC + "{" + labels + "}", histogram.getCount()));
+      errorCounts.forEach(
+          (code, count) ->
+              counts.put(ERROR_METRIC + "{code=\"" + escapeLabelValue(code) + "\"}", count.sum()));
+      return counts;
+    }
+
+    @Override
+    public Map<String, Double> getMeanLatenciesMs() {
+      Map<String, Double> latencies = new TreeMap<>();
+      forEachOperationSeries(
+          (labels, histogram) ->
+              latencies.put(OPERATION_METRIC + "{" + labels + "}", histogram.getMeanMs()));
+      forEachTransformSeries(
+          (labels, histogram) ->
+              latencies.put(TRANSFORM_METRIC + "{" + labels + "}", histogram.getMeanMs()));
+      return latencies;
+    }
+
+    @Override
+    public String getPrometheusText() {
+      return scrape();
+    }
+  }
+}
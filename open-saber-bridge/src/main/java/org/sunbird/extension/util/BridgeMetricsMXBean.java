@@ -0,0 +1,18 @@
+package org.sunbird.extension.util;
+
+import java.util.Map;
+
+/** JMX view of the bridge metrics, registered as org.sunbird.extension:type=BridgeMetrics */
+public interface BridgeMetricsMXBean {
+
+  boolean isEnabled();
+
+  /** @return Number of samples of each latency series and number of each error, by series */
+  Map<String, Long> getCounts();
+
+  /** @return Mean latency in milliseconds of each latency series */
+  Map<String, Double> getMeanLatenciesMs();
+
+  /** @return All metrics in the Prometheus text format */
+  String getPrometheusText();
+}
@@ -0,0 +1,57 @@
+package org.sunbird.extension.util;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limit on the registry calls in flight at a time, so that a slow registry blocks at most that many
+ * threads. Calls beyond the limit wait up to the configured time for a call in flight to complete.
+ */
+public final class Bulkhead {
+
+  private final int maxConcurrent;
+  private final long maxWaitMs;
+  private final Semaphore permits;
+  private final AtomicLong rejectedCount = new AtomicLong();
+
+  /**
+   * @param maxConcurrent Calls in flight at a time
+   * @param maxWaitMs Time a call waits for a call in flight to complete, when at the limit
+   */
+  public Bulkhead(int maxConcurrent, long maxWaitMs) {
+    this.maxConcurrent = maxConcurrent;
+    this.maxWaitMs = maxWaitMs;
+    this.permits = new Semaphore(maxConcurrent);
+  }
+
+  /** @return Whether a call may be made, counting it as rejected if not */
+  public boolean tryAcquire() {
+    boolean acquired;
+    try {
+      acquired = permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      rejectedCount.incrementAndGet();
+    }
+    return acquired;
+  }
+
+  /** Ends a call permitted by {@link #tryAcquire()} */
+  public void release() {
+    permits.release();
+  }
+
+  /** @return Number of calls in flight */
+  public int getActiveCount() {
+    return maxConcurrent - permits.availablePermits();
+  }
+
+  /** @return Number of calls failed fast since the bulkhead was created */
+  public long getRejectedCount() {
+    return rejectedCount.get();
+  }
+}
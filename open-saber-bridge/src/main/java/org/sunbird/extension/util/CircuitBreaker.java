@@ -0,0 +1,157 @@
+package org.sunbird.extension.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.extension.util.RegistryClientConfig.CircuitBreakerSettings;
+
+/**
+ * Circuit breaker over the outcomes of the last registry calls. Opens once too many of them failed
+ * or were slow, failing calls fast for the open duration, then lets a few trial calls through and
+ * closes again if they all succeed, else opens again. Each call is permitted in a generation of the
+ * circuit, advanced on every state change, and the outcome of a call permitted in an earlier
+ * generation is ignored, so that a call started before the circuit opened is not taken for a trial
+ * call.
+ */
+public final class CircuitBreaker {
+
+  /** State of the circuit */
+  public enum State {
+    /** Calls are let through */
+    CLOSED,
+    /** Calls are failed fast */
+    OPEN,
+    /** Trial calls are let through */
+    HALF_OPEN
+  }
+
+  /** Permission to make a call, granted in a generation of the circuit */
+  public static final class Permit {
+
+    private final long generation;
+
+    private Permit(long generation) {
+      this.generation = generation;
+    }
+  }
+
+  private final CircuitBreakerSettings settings;
+  private final LongSupplier clock;
+  private final boolean[] failedCalls;
+  private final boolean[] slowCalls;
+  private final AtomicLong rejectedCount = new AtomicLong();
+  private State state = State.CLOSED;
+  private long generation;
+  private int recordedCalls;
+  private int nextCall;
+  private int failedCount;
+  private int slowCount;
+  private long openedAt;
+  private int trialCallsStarted;
+  private int trialCallsSucceeded;
+
+  public CircuitBreaker(CircuitBreakerSettings settings) {
+    this(settings, System::currentTimeMillis);
+  }
+
+  /** @param clock Current time in milliseconds */
+  CircuitBreaker(CircuitBreakerSettings settings, LongSupplier clock) {
+    this.settings = settings;
+    this.clock = clock;
+    this.failedCalls = new boolean[settings.getWindowSize()];
+    this.slowCalls = new boolean[settings.getWindowSize()];
+  }
+
+  /** @return Permit of the call, null if it may not be made, counting it as rejected */
+  public synchronized Permit tryAcquire() {
+    if (State.OPEN == state && clock.getAsLong() - openedAt >= settings.getOpenDurationMs()) {
+      transition(State.HALF_OPEN);
+    }
+    boolean permitted =
+        State.CLOSED == state
+            || (State.HALF_OPEN == state && trialCallsStarted < settings.getHalfOpenCalls());
+    if (!permitted) {
+      rejectedCount.incrementAndGet();
+      return null;
+    }
+    if (State.HALF_OPEN == state) {
+      trialCallsStarted++;
+    }
+    return new Permit(generation);
+  }
+
+  /**
+   * Records the outcome of a call made after {@link #tryAcquire()} permitted it
+   *
+   * @param permit Permit of the call
+   * @param failed Whether the call failed
+   * @param durationMs Duration of the call
+   */
+  public synchronized void onComplete(Permit permit, boolean failed, long durationMs) {
+    if (permit.generation != generation) {
+      // Call permitted before the last state change
+      return;
+    }
+    boolean slow = durationMs >= settings.getSlowCallDurationMs();
+    if (State.HALF_OPEN == state) {
+      if (failed || slow) {
+        transition(State.OPEN);
+      } else if (++trialCallsSucceeded >= settings.getHalfOpenCalls()) {
+        transition(State.CLOSED);
+      }
+      return;
+    }
+    record(failed, slow);
+    if (recordedCalls >= settings.getMinimumCalls()
+        && (getRate(failedCount) >= settings.getFailureRateThreshold()
+            || getRate(slowCount) >= settings.getSlowCallRateThreshold())) {
+      transition(State.OPEN);
+    }
+  }
+
+  private void record(boolean failed, boolean slow) {
+    if (recordedCalls == failedCalls.length) {
+      failedCount -= failedCalls[nextCall] ? 1 : 0;
+      slowCount -= slowCalls[nextCall] ? 1 : 0;
+    } else {
+      recordedCalls++;
+    }
+    failedCalls[nextCall] = failed;
+    slowCalls[nextCall] = slow;
+    failedCount += failed ? 1 : 0;
+    slowCount += slow ? 1 : 0;
+    nextCall = (nextCall + 1) % failedCalls.length;
+  }
+
+  private double getRate(int count) {
+    return count * 100.0 / recordedCalls;
+  }
+
+  private void transition(State newState) {
+    ProjectLogger.log(
+        "CircuitBreaker:transition: Registry circuit " + state + " -> " + newState,
+        State.OPEN == newState ? LoggerEnum.ERROR.name() : LoggerEnum.INFO.name());
+    state = newState;
+    generation++;
+    trialCallsStarted = 0;
+    trialCallsSucceeded = 0;
+    if (State.OPEN == newState) {
+      openedAt = clock.getAsLong();
+    } else if (State.CLOSED == newState) {
+      recordedCalls = 0;
+      nextCall = 0;
+      failedCount = 0;
+      slowCount = 0;
+    }
+  }
+
+  public synchronized State getState() {
+    return state;
+  }
+
+  /** @return Number of calls failed fast since the breaker was created */
+  public long getRejectedCount() {
+    return rejectedCount.get();
+  }
+}
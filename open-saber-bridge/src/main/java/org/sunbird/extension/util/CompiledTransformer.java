@@ -0,0 +1,369 @@
+package org.sunbird.extension.util;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.responsecode.ResponseCode;
+
+/**
+ * Transformer of a root type specialized for an operation mode, compiled from the transformation
+ * plan when the mapping configuration is loaded. Type dispatch, list type parsing and enum lookup
+ * resolution are done once at compile time, so that transforming a field is a straight sequence of
+ * a getter, a converter and a setter chosen for that field.
+ *
+ * <p>Produces the same output and errors as {@link TransformJsonUtil#transform(TransformationPlan,
+ * Map, String, EnumMappings, String)}. Fields whose configuration cannot be compiled, e.g. invalid
+ * or filtered configuration, are transformed by the interpreter so that errors surface at request
+ * time exactly as before.
+ */
+public final class CompiledTransformer {
+
+  private static final String TRANSFORM_COMPILED_PATH = "registry.transform.compiled";
+
+  private final String configFile;
+  private final String rootType;
+  private final String operationMode;
+  private final Map<String, FieldTransformer> fieldTransformers;
+
+  private CompiledTransformer(
+      TransformationPlan plan,
+      String rootType,
+      String operationMode,
+      Map<String, FieldTransformer> fieldTransformers) {
+    this.configFile = plan.getConfigFile();
+    this.rootType = rootType;
+    this.operationMode = operationMode;
+    this.fieldTransformers = fieldTransformers;
+  }
+
+  /**
+   * @param config Configuration containing the registry.transform block
+   * @return Whether transforms are to be run by compiled transformers
+   */
+  public static boolean isEnabled(Config config) {
+    try {
+      return config.getBoolean(TRANSFORM_COMPILED_PATH);
+    } catch (ConfigException e) {
+      ProjectLogger.log(
+          "CompiledTransformer:isEnabled: Invalid transform configuration = " + e.getMessage(),
+          LoggerEnum.ERROR.name());
+      ProjectCommonException.throwServerErrorException(
+          ResponseCode.errorLoadConfig, ResponseCode.errorLoadConfig.getErrorMessage());
+    }
+    return false;
+  }
+
+  /**
+   * Compiles a transformer for every root type of the plan, root types referring to each other
+   * through custom list fields
+   *
+   * @param plan Compiled Field Configurations for the transformation
+   * @param enumMappings Compiled Enums Configuration for the transformation
+   * @param operationMode OperationMode Read/Write
+   * @return Transformer of each root type of the plan, keyed by root type
+   */
+  public static Map<String, CompiledTransformer> compileAll(
+      TransformationPlan plan, EnumMappings enumMappings, String operationMode) {
+    Map<String, CompiledTransformer> transformers = new HashMap<>();
+    int interpretedFields = 0;
+    for (String rootType : plan.getRootTypes()) {
+      Map<String, FieldTransformer> fieldTransformers = new HashMap<>();
+      for (FieldPlan fieldPlan : plan.getFieldPlans(rootType).values()) {
+        FieldTransformer fieldTransformer =
+            compileField(fieldPlan, plan, enumMappings, operationMode, transformers);
+        if (fieldTransformer instanceof InterpretedField) {
+          interpretedFields++;
+        }
+        fieldTransformers.put(fieldPlan.getFieldName(), fieldTransformer);
+      }
+      transformers.put(
+          rootType,
+          new CompiledTransformer(
+              plan, rootType, operationMode, Collections.unmodifiableMap(fieldTransformers)));
+    }
+    ProjectLogger.log(
+        "CompiledTransformer:compileAll: Compiled "
+            + transformers.size()
+            + " root types of "
+            + plan.getConfigFile()
+            + " for "
+            + operationMode
+            + ". Interpreted fields = "
+            + interpretedFields,
+        LoggerEnum.INFO.name());
+    return Collections.unmodifiableMap(transformers);
+  }
+
+  /**
+   * @param userInputMap Map to be transformed
+   * @return Transformed Map
+   */
+  public Map<String, Object> transform(Map<String, Object> userInputMap) {
+    long startTime = BridgeMetrics.start();
+    Map<String, Object> outputMap = new HashMap<>();
+    try {
+      for (String key : userInputMap.keySet()) {
+        FieldTransformer fieldTransformer = fieldTransformers.get(key);
+        if (null == fieldTransformer) {
+          TransformJsonUtil.countUnmappedField(key, configFile);
+          continue;
+        }
+        fieldTransformer.transform(userInputMap, outputMap);
+      }
+    } catch (ProjectCommonException e) {
+      BridgeMetrics.countError(e);
+      throw e;
+    }
+    BridgeMetrics.recordTransform(rootType, operationMode, startTime);
+    return outputMap;
+  }
+
+  private static FieldTransformer compileField(
+      FieldPlan fieldPlan,
+      TransformationPlan plan,
+      EnumMappings enumMappings,
+      String operationMode,
+      Map<String, CompiledTransformer> transformers) {
+    FieldTransformer interpreted =
+        new InterpretedField(fieldPlan, plan, enumMappings, operationMode);
+    String fromField = fieldPlan.getFromField();
+    String fromType = fieldPlan.getFromType();
+    String toType = fieldPlan.getToType();
+    if (StringUtils.isBlank(fieldPlan.getToField())
+        || StringUtils.isBlank(fromType)
+        || StringUtils.isBlank(toType)) {
+      return interpreted;
+    }
+    try {
+      ValueConverter converter = null;
+      if (!fromType.equalsIgnoreCase(toType)
+          || fieldPlan.getFieldMap().containsKey(TransformationConstants.ENUM)
+          || fromType.contains(TransformationConstants.DATE_STRING_TYPE)) {
+        if (TransformJsonUtil.isCustomListType(fromField, fromType)
+            && TransformJsonUtil.isCustomListType(fromField, toType)) {
+          String elementType = TransformJsonUtil.getListType(fromField, fromType);
+          if (!plan.getRootTypes().contains(elementType)) {
+            return interpreted;
+          }
+          converter = customListConverter(elementType, transformers);
+        } else {
+          EnumLookup enumLookup =
+              TransformJsonUtil.getConfiguredEnumLookup(
+                  fromField, fieldPlan, enumMappings, operationMode);
+          converter = compileConverter(fieldPlan, fromType, toType, enumLookup);
+        }
+        if (null == converter) {
+          return interpreted;
+        }
+      }
+      return new CompiledField(
+          getValueGetter(fieldPlan),
+          converter,
+          fieldPlan.getToPath(),
+          TransformJsonUtil.isListType(toType));
+    } catch (ProjectCommonException e) {
+      return interpreted;
+    }
+  }
+
+  private static ValueConverter compileConverter(
+      FieldPlan fieldPlan, String fromType, String toType, EnumLookup enumLookup) {
+    String fromField = fieldPlan.getFromField();
+    boolean fromList = TransformJsonUtil.isListType(fromType);
+    boolean toList = TransformJsonUtil.isListType(toType);
+    if (!fromList && !toList) {
+      return simpleConverter(fieldPlan, fromType, toType, enumLookup);
+    }
+    if (fromList && toList) {
+      ValueConverter elementConverter =
+          simpleConverter(
+              fieldPlan,
+              TransformJsonUtil.getListType(fromField, fromType),
+              TransformJsonUtil.getListType(fromField, toType),
+              enumLookup);
+      return null == elementConverter ? null : value -> convertList(value, elementConverter);
+    }
+    if (fromList) {
+      if (TransformJsonUtil.isCustomListType(fromField, fromType)) {
+        // Filtered custom lists are left to the interpreter
+        return null;
+      }
+      ValueConverter elementConverter =
+          simpleConverter(
+              fieldPlan, TransformJsonUtil.getListType(fromField, fromType), toType, enumLookup);
+      return null == elementConverter
+          ? null
+          : value -> elementConverter.convert(((List<Object>) value).get(0));
+    }
+    ValueConverter elementConverter =
+        simpleConverter(
+            fieldPlan, fromType, TransformJsonUtil.getListType(fromField, toType), enumLookup);
+    return null == elementConverter
+        ? null
+        : value -> {
+          List<Object> list = new ArrayList<>(1);
+          list.add(elementConverter.convert(value));
+          return list;
+        };
+  }
+
+  private static Object convertList(Object value, ValueConverter elementConverter) {
+    List<Object> fromList = (List<Object>) value;
+    List<Object> toList = new ArrayList<>(fromList.size());
+    for (int i = 0; i < fromList.size(); i++) {
+      toList.add(elementConverter.convert(fromList.get(i)));
+    }
+    return toList;
+  }
+
+  /** @return Converter of a simple value to the type, null if it cannot be compiled */
+  private static ValueConverter simpleConverter(
+      FieldPlan fieldPlan, String fromType, String toType, EnumLookup enumLookup) {
+    String fromField = fieldPlan.getFromField();
+    if (null == enumLookup) {
+      TypeCoercion.Coercion coercion = TypeCoercion.get(fromType, toType);
+      if (null != coercion) {
+        return value -> null == value ? null : coercion.coerce(value);
+      }
+    } else {
+      // Enum values are looked up by their text
+      TypeCoercion.Coercion coercion =
+          TypeCoercion.get(TransformationConstants.STRING_TYPE, toType);
+      if (null != coercion) {
+        return value ->
+            null == value ? null : coercion.coerce(getText(fromField, enumLookup, value));
+      }
+    }
+    switch (toType) {
+      case TransformationConstants.DATE_STRING_TYPE:
+        if (null == fieldPlan.getDateConversion()) {
+          return null;
+        }
+        return value ->
+            null == value
+                ? null
+                : TransformJsonUtil.getTransformedFieldValueDate(
+                    fromField, getText(fromField, enumLookup, value), fieldPlan);
+      default:
+        return value -> {
+          if (null != value) {
+            // Validates the enum value, while the value itself is set as is
+            getText(fromField, enumLookup, value);
+          }
+          return value;
+        };
+    }
+  }
+
+  private static String getText(String fromField, EnumLookup enumLookup, Object value) {
+    String text = value.toString();
+    return null == enumLookup ? text : TransformJsonUtil.getEnumValue(fromField, enumLookup, text);
+  }
+
+  private static ValueConverter customListConverter(
+      String elementType, Map<String, CompiledTransformer> transformers) {
+    return value -> {
+      // Resolved on use, as the element type may be compiled after the referring root type
+      CompiledTransformer elementTransformer = transformers.get(elementType);
+      return ParallelListTransform.map(
+          (List<Map<String, Object>>) value, elementTransformer::transform);
+    };
+  }
+
+  private static ValueGetter getValueGetter(FieldPlan fieldPlan) {
+    FieldPath fromPath = fieldPlan.getFromPath();
+    if (null != fromPath) {
+      return fromPath::getValue;
+    }
+    List<FieldPath> fromPaths = fieldPlan.getFromPaths();
+    if (null != fromPaths) {
+      return inputMap -> TransformJsonUtil.getValueFromIncomingMap(fromPaths, inputMap);
+    }
+    return inputMap -> null;
+  }
+
+  private interface FieldTransformer {
+    void transform(Map<String, Object> inputMap, Map<String, Object> outputMap);
+  }
+
+  private interface ValueGetter {
+    Object get(Map<String, Object> inputMap);
+  }
+
+  private interface ValueConverter {
+    Object convert(Object value);
+  }
+
+  /** Field transformed by the getter, converter and setter compiled for it */
+  private static final class CompiledField implements FieldTransformer {
+
+    private final ValueGetter getter;
+    private final ValueConverter converter;
+    private final FieldPath toPath;
+    private final String leaf;
+    private final boolean toList;
+
+    private CompiledField(
+        ValueGetter getter, ValueConverter converter, FieldPath toPath, boolean toList) {
+      this.getter = getter;
+      this.converter = converter;
+      this.toPath = toPath;
+      this.leaf = toPath.getLeaf();
+      this.toList = toList;
+    }
+
+    @Override
+    public void transform(Map<String, Object> inputMap, Map<String, Object> outputMap) {
+      Object fieldValue = getter.get(inputMap);
+      if (TransformJsonUtil.skipTransformationForField(fieldValue)) {
+        return;
+      }
+      if (null != converter) {
+        fieldValue = converter.convert(fieldValue);
+        if (null == fieldValue) {
+          return;
+        }
+      }
+      Map<String, Object> map = toPath.getOrCreateParent(outputMap);
+      if (toList && map.containsKey(leaf)) {
+        ((List<Object>) map.get(leaf)).addAll((List<Object>) fieldValue);
+      } else {
+        map.put(leaf, fieldValue);
+      }
+    }
+  }
+
+  /** Field transformed by the interpreter, as its configuration could not be compiled */
+  private static final class InterpretedField implements FieldTransformer {
+
+    private final FieldPlan fieldPlan;
+    private final TransformationPlan plan;
+    private final EnumMappings enumMappings;
+    private final String operationMode;
+
+    private InterpretedField(
+        FieldPlan fieldPlan,
+        TransformationPlan plan,
+        EnumMappings enumMappings,
+        String operationMode) {
+      this.fieldPlan = fieldPlan;
+      this.plan = plan;
+      this.enumMappings = enumMappings;
+      this.operationMode = operationMode;
+    }
+
+    @Override
+    public void transform(Map<String, Object> inputMap, Map<String, Object> outputMap) {
+      TransformJsonUtil.transformField(
+          fieldPlan, inputMap, outputMap, plan, enumMappings, operationMode);
+    }
+  }
+}
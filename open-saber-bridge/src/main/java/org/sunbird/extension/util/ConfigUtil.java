@@ -2,6 +2,7 @@ package org.sunbird.extension.util;
 
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import java.io.File;
 import org.apache.commons.lang3.StringUtils;
 import org.sunbird.common.exception.ProjectCommonException;
 import org.sunbird.common.models.util.LoggerEnum;
@@ -26,6 +27,26 @@ public class ConfigUtil {
     return config;
   }
 
+  /**
+   * @param file Configuration file on disk, outside the classpath
+   * @return Configuration in the file, empty if the file does not exist
+   */
+  public static Config loadConfigFile(File file) {
+    Config config = null;
+    ProjectLogger.log(
+        "ConfigUtil:loadConfigFile: Loading Configuration File = " + file, LoggerEnum.INFO.name());
+    try {
+      config = ConfigFactory.parseFile(file);
+    } catch (Exception e) {
+      ProjectLogger.log(
+          "ConfigUtil:loadConfigFile: Loading of config file " + file + " failed." + e.getMessage(),
+          LoggerEnum.ERROR.name());
+      ProjectCommonException.throwServerErrorException(
+          ResponseCode.errorLoadConfig, ResponseCode.errorLoadConfig.getErrorMessage());
+    }
+    return config;
+  }
+
   public static Config loadConfigWithDefaultFallback(String fileName) {
     Config config = null;
     ProjectLogger.log(
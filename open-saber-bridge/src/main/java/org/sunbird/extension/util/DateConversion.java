@@ -0,0 +1,68 @@
+package org.sunbird.extension.util;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.commons.lang3.time.FastDateFormat;
+
+/**
+ * Immutable and thread-safe conversion of date strings from one date format to another. Conversions
+ * are cached per (fromDateFormat, toDateFormat) pair, so the underlying formatters are built only
+ * once per pair.
+ */
+public final class DateConversion {
+
+  private static final ConcurrentMap<String, DateConversion> dateConversions =
+      new ConcurrentHashMap<>();
+
+  private final FastDateFormat fromFormat;
+  private final FastDateFormat toFormat;
+
+  private DateConversion(String fromDateFormat, String toDateFormat) {
+    this.fromFormat = FastDateFormat.getInstance(fromDateFormat);
+    this.toFormat = FastDateFormat.getInstance(toDateFormat);
+  }
+
+  /**
+   * @param fromDateFormat Date format of the input value
+   * @param toDateFormat Date format of the output value
+   * @return Date conversion for the given pair of date formats
+   * @throws IllegalArgumentException if either of the date formats is not a valid date pattern
+   */
+  public static DateConversion of(String fromDateFormat, String toDateFormat) {
+    String key = fromDateFormat + '\u0000' + toDateFormat;
+    DateConversion dateConversion = dateConversions.get(key);
+    if (null == dateConversion) {
+      dateConversion = new DateConversion(fromDateFormat, toDateFormat);
+      DateConversion existing = dateConversions.putIfAbsent(key, dateConversion);
+      dateConversion = null == existing ? dateConversion : existing;
+    }
+    return dateConversion;
+  }
+
+  /**
+   * @param value Date value in fromDateFormat
+   * @return Date value in toDateFormat
+   * @throws ParseException if the value cannot be parsed with fromDateFormat
+   */
+  public String convert(String value) throws ParseException {
+    return toFormat.format(fromFormat.parse(value));
+  }
+
+  /**
+   * @param date Date to be formatted
+   * @return Date formatted in fromDateFormat, i.e. a valid input to {@link #convert(String)}
+   */
+  String formatInput(Date date) {
+    return fromFormat.format(date);
+  }
+
+  public String getFromDateFormat() {
+    return fromFormat.getPattern();
+  }
+
+  public String getToDateFormat() {
+    return toFormat.getPattern();
+  }
+}
@@ -0,0 +1,191 @@
+package org.sunbird.extension.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Writes registry format entities as the JSON-LD expected by the registry, and reads JSON-LD
+ * results back into registry format maps, without the JSON string round trip of the open saber
+ * transformers.
+ *
+ * <p>Requests are written in one pass from the map, with the configured @context at the top level
+ * and the configured @type on each root entity. Results are read by dropping @context and @type,
+ * dropping @id of nodes having other fields, and unwrapping {"@id": ...} and {"@value": ...} nodes
+ * into their value.
+ */
+public class DirectJsonLdCodec {
+
+  static final String CONTEXT = "@context";
+  static final String TYPE = "@type";
+  static final String ID = "@id";
+  static final String VALUE = "@value";
+
+  private final String context;
+  private final Map<String, String> types;
+
+  /**
+   * @param context Value of @context of requests, not written when blank
+   * @param types Value of @type of each root entity key, not written for other keys
+   */
+  public DirectJsonLdCodec(String context, Map<String, String> types) {
+    this.context = context;
+    this.types = types;
+  }
+
+  /**
+   * @param clientConfig Registry client settings
+   * @return Codec with the JSON-LD settings of the registry client
+   */
+  public static DirectJsonLdCodec create(RegistryClientConfig clientConfig) {
+    return new DirectJsonLdCodec(clientConfig.getJsonLdContext(), clientConfig.getJsonLdTypes());
+  }
+
+  /**
+   * @param entity Entity in registry format, keyed by root entity type
+   * @return JSON-LD request payload of the entity
+   */
+  public String write(Map<String, Object> entity) throws IOException {
+    return write(JsonGeneratorUtil.fieldsOf(entity));
+  }
+
+  /**
+   * @param entity Writer of the entity in registry format, as fields keyed by root entity type
+   * @return JSON-LD request payload of the entity
+   */
+  public String write(JsonFieldsWriter entity) throws IOException {
+    return JsonGeneratorUtil.writeObject(
+        generator -> {
+          if (StringUtils.isNotBlank(context)) {
+            generator.writeStringField(CONTEXT, context);
+          }
+          entity.writeFields(new TypeWritingGenerator(generator, types));
+        });
+  }
+
+  /**
+   * Reads the JSON-LD value the parser is positioned at, i.e. the current token is the first token
+   * of the value, and leaves the parser at its last token.
+   *
+   * @param parser Parser of the registry response
+   * @return Value in registry format - map, list, string, number, boolean or null
+   * @throws JsonParseException When the input ends before the value
+   */
+  public static Object readValue(JsonParser parser) throws IOException {
+    JsonToken token = parser.getCurrentToken();
+    if (null == token) {
+      throw new JsonParseException(parser, "Unexpected end of input in JSON-LD value");
+    }
+    if (JsonToken.START_OBJECT == token) {
+      return readObject(parser);
+    }
+    if (JsonToken.START_ARRAY == token) {
+      List<Object> list = new ArrayList<>();
+      while (JsonToken.END_ARRAY != parser.nextToken()) {
+        list.add(readValue(parser));
+      }
+      return list;
+    }
+    switch (token) {
+      case VALUE_STRING:
+        return parser.getText();
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        return parser.getNumberValue();
+      case VALUE_TRUE:
+        return Boolean.TRUE;
+      case VALUE_FALSE:
+        return Boolean.FALSE;
+      case VALUE_NULL:
+        return null;
+      default:
+        throw new JsonParseException(parser, "Unexpected token in JSON-LD value = " + token);
+    }
+  }
+
+  /**
+   * @param parser Parser positioned at the start of a JSON-LD node
+   * @return Node in registry format, or the value of an {"@id": ...} or {"@value": ...} node
+   */
+  public static Object readObject(JsonParser parser) throws IOException {
+    Map<String, Object> map = new HashMap<>();
+    Object id = null;
+    Object value = null;
+    boolean hasValue = false;
+    while (JsonToken.FIELD_NAME == parser.nextToken()) {
+      String fieldName = parser.getCurrentName();
+      parser.nextToken();
+      if (ID.equals(fieldName)) {
+        id = readValue(parser);
+      } else if (VALUE.equals(fieldName)) {
+        value = readValue(parser);
+        hasValue = true;
+      } else if (CONTEXT.equals(fieldName) || TYPE.equals(fieldName)) {
+        parser.skipChildren();
+      } else {
+        map.put(fieldName, readValue(parser));
+      }
+    }
+    if (JsonToken.END_OBJECT != parser.getCurrentToken()) {
+      throw new JsonParseException(
+          parser, "Unexpected token in JSON-LD node = " + parser.getCurrentToken());
+    }
+    if (hasValue) {
+      return value;
+    }
+    if (map.isEmpty() && null != id) {
+      return id;
+    }
+    return map;
+  }
+
+  /**
+   * Generator writing @type as the first field of the object of each root entity, i.e. of an object
+   * written as the value of a field of the top level object
+   */
+  private static final class TypeWritingGenerator extends JsonGeneratorDelegate {
+
+    private final Map<String, String> types;
+    private String pendingType;
+
+    TypeWritingGenerator(JsonGenerator generator, Map<String, String> types) {
+      super(generator, false);
+      this.types = types;
+    }
+
+    @Override
+    public void writeFieldName(String name) throws IOException {
+      super.writeFieldName(name);
+      JsonStreamContext outputContext = getOutputContext();
+      pendingType =
+          null != outputContext.getParent() && outputContext.getParent().inRoot()
+              ? types.get(name)
+              : null;
+    }
+
+    @Override
+    public void writeStartObject() throws IOException {
+      super.writeStartObject();
+      if (null != pendingType) {
+        String type = pendingType;
+        pendingType = null;
+        delegate.writeStringField(TYPE, type);
+      }
+    }
+
+    @Override
+    public void writeStartArray() throws IOException {
+      pendingType = null;
+      super.writeStartArray();
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package org.sunbird.extension.util;
+
+import java.util.Map;
+
+/**
+ * Immutable, case-insensitive lookup table for enum values. Keys are matched with {@link
+ * String#equalsIgnoreCase(String)} semantics using open addressing, so a lookup is a single hash
+ * probe that does not allocate.
+ */
+public final class EnumLookup {
+
+  private final String[] keys;
+  private final String[] values;
+  private final int mask;
+  private int size;
+
+  private EnumLookup(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(expectedSize, 1) * 2 - 1) << 1;
+    this.keys = new String[capacity];
+    this.values = new String[capacity];
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * Builds a lookup table from the given mapping. If two keys differ only in case, the first one in
+   * iteration order of the mapping is kept.
+   *
+   * @param mapping Mapping from key to value
+   * @return Lookup table for the mapping
+   */
+  public static EnumLookup of(Map<String, String> mapping) {
+    EnumLookup table = new EnumLookup(mapping.size());
+    for (Map.Entry<String, String> entry : mapping.entrySet()) {
+      table.put(entry.getKey(), entry.getValue());
+    }
+    return table;
+  }
+
+  /**
+   * Builds a lookup table from the given mapping with keys and values swapped. If two values differ
+   * only in case, the first one in iteration order of the mapping is kept.
+   *
+   * @param mapping Mapping from key to value
+   * @return Lookup table from value to key
+   */
+  public static EnumLookup inverseOf(Map<String, String> mapping) {
+    EnumLookup table = new EnumLookup(mapping.size());
+    for (Map.Entry<String, String> entry : mapping.entrySet()) {
+      table.put(entry.getValue(), entry.getKey());
+    }
+    return table;
+  }
+
+  private void put(String key, String value) {
+    int index = hash(key) & mask;
+    while (null != keys[index]) {
+      if (keys[index].equalsIgnoreCase(key)) {
+        return;
+      }
+      index = (index + 1) & mask;
+    }
+    keys[index] = key;
+    values[index] = value;
+    size++;
+  }
+
+  /**
+   * @param key Key to look up, matched ignoring case
+   * @return Mapped value, or null if the key is not configured
+   */
+  public String get(String key) {
+    if (null == key) {
+      return null;
+    }
+    int index = hash(key) & mask;
+    String candidate;
+    while (null != (candidate = keys[index])) {
+      if (candidate.equalsIgnoreCase(key)) {
+        return values[index];
+      }
+      index = (index + 1) & mask;
+    }
+    return null;
+  }
+
+  /** @return Any one of the keys in the table, or null if the table is empty */
+  String getAnyKey() {
+    for (String key : keys) {
+      if (null != key) {
+        return key;
+      }
+    }
+    return null;
+  }
+
+  /** @return Number of distinct (ignoring case) keys in the table */
+  public int size() {
+    return size;
+  }
+
+  private static int hash(String key) {
+    int hash = 0;
+    for (int i = 0; i < key.length(); i++) {
+      hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(key.charAt(i)));
+    }
+    return hash ^ (hash >>> 16);
+  }
+}
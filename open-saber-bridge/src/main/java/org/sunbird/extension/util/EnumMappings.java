@@ -0,0 +1,115 @@
+package org.sunbird.extension.util;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigValue;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+
+/**
+ * Compiled form of an enums configuration (e.g. registry-user-enums-mapping.conf). For every
+ * configured enum, a case-insensitive lookup table is built for each direction, sunbird to registry
+ * for WRITE and registry to sunbird for READ.
+ */
+public final class EnumMappings {
+
+  private static final EnumMappings EMPTY =
+      new EnumMappings(
+          Collections.<String, EnumLookup>emptyMap(), Collections.<String, EnumLookup>emptyMap());
+
+  private final Map<String, EnumLookup> writeLookups;
+  private final Map<String, EnumLookup> readLookups;
+
+  private EnumMappings(Map<String, EnumLookup> writeLookups, Map<String, EnumLookup> readLookups) {
+    this.writeLookups = writeLookups;
+    this.readLookups = readLookups;
+  }
+
+  /** @return Enum mappings without any configured enum */
+  public static EnumMappings empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Compiles the given enums configuration into lookup tables
+   *
+   * @param enumsConfig Enums Configuration for the transformation
+   * @return Compiled enum mappings
+   */
+  public static EnumMappings compile(Config enumsConfig) {
+    String configFile = ConfigUtil.getConfigOriginFile(enumsConfig);
+    ProjectLogger.log(
+        "EnumMappings:compile: Compiling EnumsConfigurationFile = " + configFile,
+        LoggerEnum.INFO.name());
+    Map<String, EnumLookup> writeLookups = new HashMap<>();
+    Map<String, EnumLookup> readLookups = new HashMap<>();
+    ConfigValue enumsValue = enumsConfig.root().get(TransformationConstants.ENUMS);
+    if (enumsValue instanceof ConfigObject) {
+      for (Map.Entry<String, ConfigValue> enumEntry : ((ConfigObject) enumsValue).entrySet()) {
+        if (!(enumEntry.getValue() instanceof ConfigObject)) {
+          continue;
+        }
+        try {
+          Map<String, String> enumValues =
+              toEnumValues(((ConfigObject) enumEntry.getValue()).unwrapped());
+          writeLookups.put(enumEntry.getKey(), EnumLookup.of(enumValues));
+          readLookups.put(enumEntry.getKey(), inverseLookup(enumEntry.getKey(), enumValues));
+        } catch (ConfigException e) {
+          ProjectLogger.log(
+              "EnumMappings:compile: Skipping enum "
+                  + enumEntry.getKey()
+                  + " in "
+                  + configFile
+                  + " = "
+                  + e.getMessage(),
+              LoggerEnum.ERROR.name());
+        }
+      }
+    }
+    return new EnumMappings(
+        Collections.unmodifiableMap(writeLookups), Collections.unmodifiableMap(readLookups));
+  }
+
+  /**
+   * Converts an enum configuration into its values
+   *
+   * @param enumConfig Unwrapped enum configuration
+   * @return Enum values with string keys and values
+   */
+  static Map<String, String> toEnumValues(Map<String, Object> enumConfig) {
+    Map<String, String> enumValues = new LinkedHashMap<>();
+    for (Map.Entry<String, Object> entry : enumConfig.entrySet()) {
+      enumValues.put(entry.getKey(), String.valueOf(entry.getValue()));
+    }
+    return enumValues;
+  }
+
+  static EnumLookup inverseLookup(String enumName, Map<String, String> enumValues) {
+    EnumLookup inverse = EnumLookup.inverseOf(enumValues);
+    if (inverse.size() < enumValues.size()) {
+      ProjectLogger.log(
+          "EnumMappings:inverseLookup: enum "
+              + enumName
+              + " maps more than one value to the same registry value. Only the first one will be used for READ",
+          LoggerEnum.ERROR.name());
+    }
+    return inverse;
+  }
+
+  /**
+   * @param enumName Name of the enum in the enums configuration
+   * @param operationMode OperationMode Read/Write
+   * @return Lookup table for the operation mode, or null if the enum is not configured
+   */
+  public EnumLookup getLookup(String enumName, String operationMode) {
+    if (SunbirdExtensionConstants.OPERATION_MODE_READ.equalsIgnoreCase(operationMode)) {
+      return readLookups.get(enumName);
+    }
+    return writeLookups.get(enumName);
+  }
+}
@@ -0,0 +1,98 @@
+package org.sunbird.extension.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dotted field path (e.g. teacher.teachingExperience) parsed once into its segments, used to read
+ * values from and write values into nested maps without re-parsing the path on every access
+ */
+public final class FieldPath {
+
+  private final String path;
+  private final String[] segments;
+  private final String leaf;
+
+  private FieldPath(String path) {
+    this.path = path;
+    this.segments = path.split(TransformationConstants.DOT_REGEX);
+    this.leaf = segments[segments.length - 1];
+  }
+
+  /**
+   * @param path Dotted field path
+   * @return Parsed field path, or null if the path is null
+   */
+  public static FieldPath parse(String path) {
+    return null == path ? null : new FieldPath(path);
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  /** @return Last segment of the path, i.e. the field name in the innermost map */
+  public String getLeaf() {
+    return leaf;
+  }
+
+  /** @return Number of segments of the path */
+  public int getDepth() {
+    return segments.length;
+  }
+
+  /**
+   * @param index Index of the segment, from 0 for the outermost map
+   * @return Segment of the path at the index
+   */
+  public String getSegment(int index) {
+    return segments[index];
+  }
+
+  /**
+   * @param map Map to read from
+   * @return Value held at this path, or null if the path does not exist in the map
+   */
+  public Object getValue(Map<String, Object> map) {
+    Map<String, Object> parent = getParent(map);
+    return null == parent ? null : parent.get(leaf);
+  }
+
+  /**
+   * @param map Map to read from
+   * @return Innermost map holding the leaf field, or null if any intermediate map is missing
+   */
+  public Map<String, Object> getParent(Map<String, Object> map) {
+    Map<String, Object> current = map;
+    for (int i = 0; i < segments.length - 1; i++) {
+      Object child = current.get(segments[i]);
+      if (!(child instanceof Map)) {
+        return null;
+      }
+      current = (Map<String, Object>) child;
+    }
+    return current;
+  }
+
+  /**
+   * @param map Map to write into
+   * @return Innermost map holding the leaf field, creating missing intermediate maps on the way
+   */
+  public Map<String, Object> getOrCreateParent(Map<String, Object> map) {
+    Map<String, Object> current = map;
+    for (int i = 0; i < segments.length - 1; i++) {
+      Map<String, Object> child = (Map<String, Object>) current.get(segments[i]);
+      if (null == child) {
+        child = new HashMap<String, Object>();
+        current.put(segments[i], child);
+      }
+      current = child;
+    }
+    return current;
+  }
+
+  @Override
+  public String toString() {
+    return path;
+  }
+}
@@ -0,0 +1,167 @@
+package org.sunbird.extension.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.responsecode.ResponseCode;
+
+/**
+ * Immutable descriptor of a single configured field, compiled once from the field configuration so
+ * that transformation does not need to consult the configuration for every request
+ */
+public final class FieldPlan {
+
+  private final String fieldName;
+  private final String fromField;
+  private final List<String> fromFields;
+  private final String toField;
+  private final FieldPath fromPath;
+  private final List<FieldPath> fromPaths;
+  private final FieldPath toPath;
+  private final String fromType;
+  private final String toType;
+  private final String enumName;
+  private final EnumLookup writeEnumLookup;
+  private final EnumLookup readEnumLookup;
+  private final DateConversion dateConversion;
+  private final Map<String, Object> fieldMap;
+
+  FieldPlan(String fieldName, Map<String, Object> fieldConfig) {
+    Object fromFieldName = fieldConfig.get(TransformationConstants.FROM_FIELD_NAME);
+    if (null == fromFieldName) {
+      fromFieldName = fieldName;
+    }
+    this.fieldName = fieldName;
+    this.fromField = fromFieldName instanceof String ? (String) fromFieldName : null;
+    this.fromFields =
+        fromFieldName instanceof List
+            ? Collections.unmodifiableList((List<String>) fromFieldName)
+            : null;
+    this.toField = (String) fieldConfig.get(TransformationConstants.TO_FIELD_NAME);
+    this.fromPath = FieldPath.parse(fromField);
+    this.fromPaths = null == fromFields ? null : parsePaths(fromFields);
+    this.toPath = FieldPath.parse(toField);
+    this.fromType = (String) fieldConfig.get(TransformationConstants.FROM_TYPE);
+    this.toType = (String) fieldConfig.get(TransformationConstants.TO_TYPE);
+    Object enumConfig = fieldConfig.get(TransformationConstants.ENUM);
+    this.enumName = enumConfig instanceof String ? (String) enumConfig : null;
+    if (enumConfig instanceof Map) {
+      Map<String, String> enumValues = EnumMappings.toEnumValues((Map<String, Object>) enumConfig);
+      this.writeEnumLookup = EnumLookup.of(enumValues);
+      this.readEnumLookup = EnumMappings.inverseLookup(fieldName, enumValues);
+    } else {
+      this.writeEnumLookup = null;
+      this.readEnumLookup = null;
+    }
+    this.dateConversion =
+        compileDateConversion(
+            (String) fieldConfig.get(TransformationConstants.FROM_DATE_FORMAT),
+            (String) fieldConfig.get(TransformationConstants.TO_DATE_FORMAT));
+    this.fieldMap = Collections.unmodifiableMap(fieldConfig);
+  }
+
+  private static List<FieldPath> parsePaths(List<String> paths) {
+    List<FieldPath> fieldPaths = new ArrayList<>(paths.size());
+    for (String path : paths) {
+      fieldPaths.add(FieldPath.parse(path));
+    }
+    return Collections.unmodifiableList(fieldPaths);
+  }
+
+  private DateConversion compileDateConversion(String fromDateFormat, String toDateFormat) {
+    if (StringUtils.isBlank(fromDateFormat) || StringUtils.isBlank(toDateFormat)) {
+      return null;
+    }
+    try {
+      return DateConversion.of(fromDateFormat, toDateFormat);
+    } catch (IllegalArgumentException e) {
+      ProjectLogger.log(
+          "FieldPlan:compileDateConversion : Invalid date format configuration for field "
+              + fieldName
+              + " = "
+              + e.getMessage(),
+          LoggerEnum.ERROR.name());
+      ProjectCommonException.throwServerErrorException(
+          ResponseCode.errorJsonTransformInvalidDateFormat,
+          ProjectUtil.formatMessage(
+              ResponseCode.errorJsonTransformInvalidDateFormat.getErrorMessage(), fieldName));
+    }
+    return null;
+  }
+
+  public String getFieldName() {
+    return fieldName;
+  }
+
+  /** @return Source field path, or null if the field is configured with multiple source fields */
+  public String getFromField() {
+    return fromField;
+  }
+
+  /** @return Source field paths, or null if the field is configured with a single source field */
+  public List<String> getFromFields() {
+    return fromFields;
+  }
+
+  public String getToField() {
+    return toField;
+  }
+
+  /** @return Parsed source field path, or null if configured with multiple source fields */
+  public FieldPath getFromPath() {
+    return fromPath;
+  }
+
+  /** @return Parsed source field paths, or null if configured with a single source field */
+  public List<FieldPath> getFromPaths() {
+    return fromPaths;
+  }
+
+  /** @return Parsed target field path, or null if the target field is not configured */
+  public FieldPath getToPath() {
+    return toPath;
+  }
+
+  public String getFromType() {
+    return fromType;
+  }
+
+  public String getToType() {
+    return toType;
+  }
+
+  /** @return Name of the enum in the enums configuration, or null if not referenced by name */
+  public String getEnumName() {
+    return enumName;
+  }
+
+  /**
+   * @param operationMode OperationMode Read/Write
+   * @return Lookup table of the enum configured inline for the field, or null if there is none
+   */
+  public EnumLookup getInlineEnumLookup(String operationMode) {
+    if (SunbirdExtensionConstants.OPERATION_MODE_READ.equalsIgnoreCase(operationMode)) {
+      return readEnumLookup;
+    }
+    return writeEnumLookup;
+  }
+
+  /**
+   * @return Conversion between the configured date formats, or null if either of them is not
+   *     configured
+   */
+  public DateConversion getDateConversion() {
+    return dateConversion;
+  }
+
+  /** @return Raw (read-only) configuration of the field */
+  public Map<String, Object> getFieldMap() {
+    return fieldMap;
+  }
+}
@@ -0,0 +1,118 @@
+package org.sunbird.extension.util;
+
+import io.opensaber.registry.client.data.RequestData;
+import io.opensaber.registry.client.data.ResponseData;
+import io.opensaber.registry.exception.TransformationException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Map;
+
+/**
+ * Registry transport making calls through a bulkhead and a circuit breaker, either of which may be
+ * null when disabled. Calls rejected by either fail fast with {@link RegistryRejectedException}.
+ * I/O errors, including http server errors, count as failures for the circuit breaker, while
+ * responses are not read and requests rejected by the registry with a 4xx status do not count, so
+ * that the requests of one caller cannot open the circuit for all. Wrapped by the retrying
+ * transport, so that each attempt is guarded and timed on its own.
+ */
+public class GuardedTransport implements RegistryTransport {
+
+  private final RegistryTransport transport;
+  private final CircuitBreaker circuitBreaker;
+  private final Bulkhead bulkhead;
+
+  /**
+   * @param transport Transport carrying the calls
+   * @param circuitBreaker Circuit breaker of the calls, null for none
+   * @param bulkhead Limit on the calls in flight, null for none
+   */
+  public GuardedTransport(
+      RegistryTransport transport, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+    this.transport = transport;
+    this.circuitBreaker = circuitBreaker;
+    this.bulkhead = bulkhead;
+  }
+
+  @Override
+  public ResponseData<String> addEntity(
+      RequestData<String> requestData, Map<String, String> headers)
+      throws TransformationException, IOException, URISyntaxException {
+    return execute(RegistryOperation.ADD, () -> transport.addEntity(requestData, headers));
+  }
+
+  @Override
+  public ResponseData<String> readEntity(URI entityId, Map<String, String> headers)
+      throws TransformationException, IOException, URISyntaxException {
+    return execute(RegistryOperation.READ, () -> transport.readEntity(entityId, headers));
+  }
+
+  @Override
+  public ResponseData<String> updateEntity(
+      RequestData<String> requestData, Map<String, String> headers)
+      throws TransformationException, IOException, URISyntaxException {
+    return execute(RegistryOperation.UPDATE, () -> transport.updateEntity(requestData, headers));
+  }
+
+  @Override
+  public ResponseData<String> deleteEntity(URI entityId, Map<String, String> headers)
+      throws IOException, URISyntaxException {
+    try {
+      return execute(RegistryOperation.DELETE, () -> transport.deleteEntity(entityId, headers));
+    } catch (TransformationException e) {
+      // Not thrown by delete
+      throw new IOException(e);
+    }
+  }
+
+  private ResponseData<String> execute(RegistryOperation operation, RegistryCall call)
+      throws TransformationException, IOException, URISyntaxException {
+    if (null != bulkhead && !bulkhead.tryAcquire()) {
+      throw new RegistryRejectedException(
+          "Registry " + operation + " rejected, too many registry calls in flight");
+    }
+    try {
+      CircuitBreaker.Permit permit = null == circuitBreaker ? null : circuitBreaker.tryAcquire();
+      if (null != circuitBreaker && null == permit) {
+        throw new RegistryRejectedException(
+            "Registry " + operation + " rejected, registry circuit is open");
+      }
+      long startTime = System.currentTimeMillis();
+      boolean failed = true;
+      try {
+        ResponseData<String> response = call.run();
+        failed = false;
+        return response;
+      } catch (TransformationException | URISyntaxException e) {
+        failed = false;
+        throw e;
+      } catch (IOException e) {
+        failed = !RegistryHttpException.isClientError(e);
+        throw e;
+      } finally {
+        if (null != circuitBreaker) {
+          circuitBreaker.onComplete(permit, failed, System.currentTimeMillis() - startTime);
+        }
+      }
+    } finally {
+      if (null != bulkhead) {
+        bulkhead.release();
+      }
+    }
+  }
+
+  /** @return State of the circuit, closed when there is no circuit breaker */
+  public CircuitBreaker.State getCircuitState() {
+    return null == circuitBreaker ? CircuitBreaker.State.CLOSED : circuitBreaker.getState();
+  }
+
+  /** @return Calls failed fast by the circuit breaker */
+  public long getCircuitRejectedCount() {
+    return null == circuitBreaker ? 0 : circuitBreaker.getRejectedCount();
+  }
+
+  /** @return Calls failed fast by the bulkhead */
+  public long getBulkheadRejectedCount() {
+    return null == bulkhead ? 0 : bulkhead.getRejectedCount();
+  }
+}
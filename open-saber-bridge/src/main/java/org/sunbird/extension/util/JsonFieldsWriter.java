@@ -0,0 +1,15 @@
+package org.sunbird.extension.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+
+/**
+ * Writes the fields of a JSON object into the object currently open in a generator, e.g. an entity
+ * transformed into registry format, so that the payload is written without first building a map
+ */
+@FunctionalInterface
+public interface JsonFieldsWriter {
+
+  /** @param generator Generator with a JSON object open, into which the fields are written */
+  void writeFields(JsonGenerator generator) throws IOException;
+}
@@ -0,0 +1,79 @@
+package org.sunbird.extension.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SegmentedStringWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+
+/** Util to write maps, lists and simple values as JSON through a Jackson generator */
+public final class JsonGeneratorUtil {
+
+  private static final JsonFactory jsonFactory = new ObjectMapper().getFactory();
+
+  private JsonGeneratorUtil() {}
+
+  /**
+   * @param fields Writer of the fields of the object
+   * @return JSON object holding the written fields
+   */
+  public static String writeObject(JsonFieldsWriter fields) throws IOException {
+    SegmentedStringWriter writer = new SegmentedStringWriter(jsonFactory._getBufferRecycler());
+    try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+      generator.writeStartObject();
+      fields.writeFields(generator);
+      generator.writeEndObject();
+    }
+    return writer.getAndClear();
+  }
+
+  /**
+   * @param map Map whose entries are to be written
+   * @return Writer of the entries of the map as fields of the open object
+   */
+  public static JsonFieldsWriter fieldsOf(Map<String, Object> map) {
+    return generator -> writeFields(generator, map);
+  }
+
+  /**
+   * @param generator Generator with a JSON object open
+   * @param fields Map whose entries are written as fields of the open object
+   */
+  public static void writeFields(JsonGenerator generator, Map<String, Object> fields)
+      throws IOException {
+    for (Map.Entry<String, Object> field : fields.entrySet()) {
+      generator.writeFieldName(field.getKey());
+      writeValue(generator, field.getValue());
+    }
+  }
+
+  /**
+   * @param generator Generator positioned where a value is expected
+   * @param value Map, collection or simple value to be written
+   */
+  public static void writeValue(JsonGenerator generator, Object value) throws IOException {
+    if (value instanceof Map) {
+      generator.writeStartObject();
+      writeFields(generator, (Map<String, Object>) value);
+      generator.writeEndObject();
+    } else if (value instanceof Collection) {
+      generator.writeStartArray();
+      for (Object element : (Collection<Object>) value) {
+        writeValue(generator, element);
+      }
+      generator.writeEndArray();
+    } else if (value instanceof String) {
+      generator.writeString((String) value);
+    } else if (value instanceof Boolean) {
+      generator.writeBoolean((Boolean) value);
+    } else if (value instanceof Integer || value instanceof Long) {
+      generator.writeNumber(((Number) value).longValue());
+    } else if (null == value) {
+      generator.writeNull();
+    } else {
+      generator.writeObject(value);
+    }
+  }
+}
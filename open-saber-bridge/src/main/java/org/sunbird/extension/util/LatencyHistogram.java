@@ -0,0 +1,100 @@
+package org.sunbird.extension.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies over fixed buckets, written in the Prometheus text format. Recording is
+ * lock free, so that concurrent requests do not contend on it.
+ */
+final class LatencyHistogram {
+
+  /** Upper bounds of the buckets, in seconds */
+  private static final double[] BUCKET_BOUNDS = {
+    0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+  };
+
+  private static final long[] BUCKET_BOUNDS_NANOS = new long[BUCKET_BOUNDS.length];
+
+  static {
+    for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+      BUCKET_BOUNDS_NANOS[i] = (long) (BUCKET_BOUNDS[i] * TimeUnit.SECONDS.toNanos(1));
+    }
+  }
+
+  private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS.length + 1];
+  private final LongAdder sumNanos = new LongAdder();
+
+  LatencyHistogram() {
+    for (int i = 0; i < buckets.length; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  void record(long nanos) {
+    int bucket = 0;
+    while (bucket < BUCKET_BOUNDS_NANOS.length && nanos > BUCKET_BOUNDS_NANOS[bucket]) {
+      bucket++;
+    }
+    buckets[bucket].increment();
+    sumNanos.add(nanos);
+  }
+
+  void reset() {
+    for (LongAdder bucket : buckets) {
+      bucket.reset();
+    }
+    sumNanos.reset();
+  }
+
+  long getCount() {
+    long count = 0;
+    for (LongAdder bucket : buckets) {
+      count += bucket.sum();
+    }
+    return count;
+  }
+
+  /** @return Mean latency in milliseconds, 0 when nothing was recorded */
+  double getMeanMs() {
+    long count = getCount();
+    return 0 == count ? 0 : sumNanos.sum() / 1e6 / count;
+  }
+
+  /**
+   * @param name Name of the metric
+   * @param labels Labels of the series, without braces, e.g. mode="read"
+   * @param output Output to which the bucket, sum and count samples are appended
+   */
+  void writePrometheus(String name, String labels, StringBuilder output) {
+    long cumulative = 0;
+    String labelPrefix = labels.isEmpty() ? "" : labels + ",";
+    for (int i = 0; i < buckets.length; i++) {
+      cumulative += buckets[i].sum();
+      String bound = i < BUCKET_BOUNDS.length ? String.valueOf(BUCKET_BOUNDS[i]) : "+Inf";
+      output
+          .append(name)
+          .append("_bucket{")
+          .append(labelPrefix)
+          .append("le=\"")
+          .append(bound)
+          .append("\"} ")
+          .append(cumulative)
+          .append('\n');
+    }
+    output
+        .append(name)
+        .append("_sum{")
+        .append(labels)
+        .append("} ")
+        .append(sumNanos.sum() / 1e9)
+        .append('\n');
+    output
+        .append(name)
+        .append("_count{")
+        .append(labels)
+        .append("} ")
+        .append(cumulative)
+        .append('\n');
+  }
+}
@@ -0,0 +1,320 @@
+package org.sunbird.extension.util;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.responsecode.ResponseCode;
+
+/**
+ * Checks the field configurations of a transformation plan when the mapping files are loaded, for
+ * the configuration errors otherwise thrown by the first transform of each field, and builds
+ * synthetic inputs with a value for every field to warm up the transforms with.
+ */
+public final class MappingValidator {
+
+  private static final String VALIDATE_PATH = "registry.mapping.validate";
+  private static final String WARM_UP_ITERATIONS_PATH = "registry.mapping.warmUpIterations";
+  private static final int MAX_SAMPLE_DEPTH = 3;
+  private static final String SAMPLE_STRING = "sample";
+  private static final Date SAMPLE_DATE = new Date(0);
+
+  private MappingValidator() {}
+
+  /**
+   * @param config Configuration containing the registry.mapping block
+   * @return Whether mapping files are to be validated when loaded
+   */
+  public static boolean isEnabled(Config config) {
+    try {
+      return config.getBoolean(VALIDATE_PATH);
+    } catch (ConfigException e) {
+      logInvalidConfig("isEnabled", e);
+    }
+    return false;
+  }
+
+  /**
+   * @param config Configuration containing the registry.mapping block
+   * @return Number of synthetic transforms run per root type when mapping files are loaded
+   */
+  public static int getWarmUpIterations(Config config) {
+    try {
+      return config.getInt(WARM_UP_ITERATIONS_PATH);
+    } catch (ConfigException e) {
+      logInvalidConfig("getWarmUpIterations", e);
+    }
+    return 0;
+  }
+
+  private static void logInvalidConfig(String method, ConfigException e) {
+    ProjectLogger.log(
+        "MappingValidator:" + method + ": Invalid mapping configuration = " + e.getMessage(),
+        LoggerEnum.ERROR.name());
+    ProjectCommonException.throwServerErrorException(
+        ResponseCode.errorLoadConfig, ResponseCode.errorLoadConfig.getErrorMessage());
+  }
+
+  /**
+   * Validates every field of every root type of the plan, logging each invalid field
+   *
+   * @param plan Compiled Field Configurations for the transformation
+   * @param enumMappings Compiled Enums Configuration for the transformation
+   * @param operationMode OperationMode Read/Write
+   * @throws ProjectCommonException Error of the first invalid field, if any field is invalid
+   */
+  public static void validate(
+      TransformationPlan plan, EnumMappings enumMappings, String operationMode) {
+    List<ProjectCommonException> errors = getErrors(plan, enumMappings, operationMode);
+    if (errors.isEmpty()) {
+      ProjectLogger.log(
+          "MappingValidator:validate: Validated FieldsConfigurationFile = " + plan.getConfigFile(),
+          LoggerEnum.INFO.name());
+      return;
+    }
+    ProjectLogger.log(
+        "MappingValidator:validate: "
+            + errors.size()
+            + " invalid fields in FieldsConfigurationFile = "
+            + plan.getConfigFile(),
+        LoggerEnum.ERROR.name());
+    throw errors.get(0);
+  }
+
+  /** @return Error of each invalid field, by root type and field name */
+  static List<ProjectCommonException> getErrors(
+      TransformationPlan plan, EnumMappings enumMappings, String operationMode) {
+    List<ProjectCommonException> errors = new ArrayList<>();
+    for (String rootType : new TreeSet<>(plan.getRootTypes())) {
+      for (FieldPlan fieldPlan : new TreeMap<>(plan.getFieldPlans(rootType)).values()) {
+        try {
+          validateField(fieldPlan, plan, enumMappings, operationMode);
+        } catch (ProjectCommonException e) {
+          ProjectLogger.log(
+              "MappingValidator:getErrors: Invalid configuration of field "
+                  + rootType
+                  + TransformationConstants.DOT
+                  + fieldPlan.getFieldName()
+                  + " = "
+                  + e.getMessage(),
+              LoggerEnum.ERROR.name());
+          errors.add(e);
+        }
+      }
+    }
+    return errors;
+  }
+
+  private static void validateField(
+      FieldPlan fieldPlan,
+      TransformationPlan plan,
+      EnumMappings enumMappings,
+      String operationMode) {
+    String fieldName = fieldPlan.getFieldName();
+    String fromType = fieldPlan.getFromType();
+    String toType = fieldPlan.getToType();
+    if (StringUtils.isBlank(fieldPlan.getToField())
+        || StringUtils.isBlank(fromType)
+        || StringUtils.isBlank(toType)) {
+      throwServerError(ResponseCode.errorJsonTransformBasicConfigMissing, fieldName);
+    }
+    if (!isConverted(fieldPlan)) {
+      return;
+    }
+    if (TransformJsonUtil.isListType(fromType)) {
+      TransformJsonUtil.getListType(fieldName, fromType);
+    }
+    String toElementType =
+        TransformJsonUtil.isListType(toType)
+            ? TransformJsonUtil.getListType(fieldName, toType)
+            : toType;
+    boolean customFromList = TransformJsonUtil.isCustomListType(fieldName, fromType);
+    if (customFromList && TransformJsonUtil.isCustomListType(fieldName, toType)) {
+      String elementType = TransformJsonUtil.getListType(fieldName, fromType);
+      if (plan.getFieldPlans(elementType).isEmpty()) {
+        throwServerError(ResponseCode.errorJsonTransformInvalidTypeConfig, fieldName);
+      }
+      return;
+    }
+    TransformJsonUtil.getConfiguredEnumLookup(fieldName, fieldPlan, enumMappings, operationMode);
+    if (customFromList && !TransformJsonUtil.isListType(toType)) {
+      validateFilters(fieldPlan);
+    }
+    if (TransformationConstants.DATE_STRING_TYPE.equals(toElementType)
+        && null == fieldPlan.getDateConversion()) {
+      throwServerError(ResponseCode.errorJsonTransformInvalidDateFormat, fieldName);
+    }
+  }
+
+  /** @return Whether the value of the field is converted, rather than copied as is */
+  private static boolean isConverted(FieldPlan fieldPlan) {
+    return !fieldPlan.getFromType().equalsIgnoreCase(fieldPlan.getToType())
+        || fieldPlan.getFieldMap().containsKey(TransformationConstants.ENUM)
+        || fieldPlan.getFromType().contains(TransformationConstants.DATE_STRING_TYPE);
+  }
+
+  private static void validateFilters(FieldPlan fieldPlan) {
+    Map<String, Object> fieldMap = fieldPlan.getFieldMap();
+    Object filters = fieldMap.get(TransformationConstants.FILTERS);
+    Object filterField = fieldMap.get(TransformationConstants.FILTER_FIELD);
+    boolean valid =
+        filters instanceof List
+            && !((List<Object>) filters).isEmpty()
+            && filterField instanceof String
+            && StringUtils.isNotBlank((String) filterField);
+    if (valid) {
+      for (Object filter : (List<Object>) filters) {
+        valid &= isValidFilter(filter);
+      }
+    }
+    if (!valid) {
+      throwServerError(
+          ResponseCode.errorJsonTransformInvalidFilterConfig, fieldPlan.getFieldName());
+    }
+  }
+
+  private static boolean isValidFilter(Object filter) {
+    if (!(filter instanceof Map)) {
+      return false;
+    }
+    Object field = ((Map<String, Object>) filter).get(TransformationConstants.FIELD);
+    Object values = ((Map<String, Object>) filter).get(TransformationConstants.VALUES);
+    return field instanceof String
+        && StringUtils.isNotBlank((String) field)
+        && values instanceof List
+        && !((List<Object>) values).isEmpty();
+  }
+
+  private static void throwServerError(ResponseCode responseCode, String fieldName) {
+    ProjectCommonException.throwServerErrorException(
+        responseCode, ProjectUtil.formatMessage(responseCode.getErrorMessage(), fieldName));
+  }
+
+  /**
+   * Builds an input with a valid value for every field of the root type, e.g. a configured enum
+   * value or a date in the configured format, to be transformed without error. Invalid fields are
+   * left out.
+   *
+   * @param plan Compiled Field Configurations for the transformation
+   * @param rootType Root Configuration field in the field configurations
+   * @param enumMappings Compiled Enums Configuration for the transformation
+   * @param operationMode OperationMode Read/Write
+   * @return Synthetic input of the root type
+   */
+  public static Map<String, Object> sampleInput(
+      TransformationPlan plan, String rootType, EnumMappings enumMappings, String operationMode) {
+    return sampleInput(plan, rootType, enumMappings, operationMode, 0);
+  }
+
+  private static Map<String, Object> sampleInput(
+      TransformationPlan plan,
+      String rootType,
+      EnumMappings enumMappings,
+      String operationMode,
+      int depth) {
+    Map<String, Object> input = new HashMap<>();
+    for (FieldPlan fieldPlan : plan.getFieldPlans(rootType).values()) {
+      try {
+        validateField(fieldPlan, plan, enumMappings, operationMode);
+      } catch (ProjectCommonException e) {
+        continue;
+      }
+      if (null != fieldPlan.getFromPaths()) {
+        for (FieldPath fromPath : fieldPlan.getFromPaths()) {
+          fromPath.getOrCreateParent(input).put(fromPath.getLeaf(), SAMPLE_STRING);
+        }
+        continue;
+      }
+      Object value = sampleValue(fieldPlan, plan, enumMappings, operationMode, depth);
+      if (null != fieldPlan.getFromPath() && null != value) {
+        FieldPath fromPath = fieldPlan.getFromPath();
+        fromPath.getOrCreateParent(input).put(fromPath.getLeaf(), value);
+      }
+    }
+    return input;
+  }
+
+  private static Object sampleValue(
+      FieldPlan fieldPlan,
+      TransformationPlan plan,
+      EnumMappings enumMappings,
+      String operationMode,
+      int depth) {
+    String fieldName = fieldPlan.getFieldName();
+    String fromType = fieldPlan.getFromType();
+    String toType = fieldPlan.getToType();
+    String toElementType =
+        TransformJsonUtil.isListType(toType)
+            ? TransformJsonUtil.getListType(fieldName, toType)
+            : toType;
+    boolean customFromList = TransformJsonUtil.isCustomListType(fieldName, fromType);
+    if (customFromList && TransformJsonUtil.isCustomListType(fieldName, toType)) {
+      if (depth >= MAX_SAMPLE_DEPTH) {
+        return null;
+      }
+      return Collections.singletonList(
+          sampleInput(
+              plan,
+              TransformJsonUtil.getListType(fieldName, fromType),
+              enumMappings,
+              operationMode,
+              depth + 1));
+    }
+    EnumLookup enumLookup =
+        isConverted(fieldPlan)
+            ? TransformJsonUtil.getConfiguredEnumLookup(
+                fieldName, fieldPlan, enumMappings, operationMode)
+            : null;
+    String value = sampleSimpleValue(fieldPlan, toElementType, enumLookup);
+    if (customFromList && !TransformJsonUtil.isListType(toType)) {
+      Map<String, Object> element = new HashMap<>();
+      for (Object filter :
+          (List<Object>) fieldPlan.getFieldMap().get(TransformationConstants.FILTERS)) {
+        Map<String, Object> filterMap = (Map<String, Object>) filter;
+        element.put(
+            (String) filterMap.get(TransformationConstants.FIELD),
+            ((List<Object>) filterMap.get(TransformationConstants.VALUES)).get(0));
+      }
+      element.put(
+          (String) fieldPlan.getFieldMap().get(TransformationConstants.FILTER_FIELD), value);
+      return Collections.singletonList(element);
+    }
+    if (null == value) {
+      return null;
+    }
+    return TransformJsonUtil.isListType(fromType) ? Collections.singletonList(value) : value;
+  }
+
+  private static String sampleSimpleValue(
+      FieldPlan fieldPlan, String toElementType, EnumLookup enumLookup) {
+    if (null != enumLookup) {
+      return enumLookup.getAnyKey();
+    }
+    switch (toElementType) {
+      case TransformationConstants.INTEGER_TYPE:
+      case TransformationConstants.LONG_TYPE:
+        return "1";
+      case TransformationConstants.DOUBLE_TYPE:
+        return "1.5";
+      case TransformationConstants.BOOLEAN_TYPE:
+        return "true";
+      case TransformationConstants.DATE_STRING_TYPE:
+        return null == fieldPlan.getDateConversion()
+            ? null
+            : fieldPlan.getDateConversion().formatInput(SAMPLE_DATE);
+      default:
+        return SAMPLE_STRING;
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package org.sunbird.extension.util;
+
+import io.opensaber.registry.client.OpensaberClient;
+import io.opensaber.registry.client.data.RequestData;
+import io.opensaber.registry.client.data.ResponseData;
+import io.opensaber.registry.exception.TransformationException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Map;
+
+/** Registry transport using the open saber client with its default http settings */
+public class OpensaberClientTransport implements RegistryTransport {
+
+  private final OpensaberClient client;
+
+  public OpensaberClientTransport(OpensaberClient client) {
+    this.client = client;
+  }
+
+  @Override
+  public ResponseData<String> addEntity(
+      RequestData<String> requestData, Map<String, String> headers)
+      throws TransformationException, IOException, URISyntaxException {
+    return client.addEntity(requestData, headers);
+  }
+
+  @Override
+  public ResponseData<String> readEntity(URI entityId, Map<String, String> headers)
+      throws TransformationException, IOException, URISyntaxException {
+    return client.readEntity(entityId, headers);
+  }
+
+  @Override
+  public ResponseData<String> updateEntity(
+      RequestData<String> requestData, Map<String, String> headers)
+      throws TransformationException, IOException, URISyntaxException {
+    return client.updateEntity(requestData, headers);
+  }
+
+  @Override
+  public ResponseData<String> deleteEntity(URI entityId, Map<String, String> headers)
+      throws IOException, URISyntaxException {
+    return client.deleteEntity(entityId, headers);
+  }
+}
@@ -1,6 +1,5 @@
 package org.sunbird.extension.util;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.opensaber.registry.client.OpensaberClient;
 import io.opensaber.registry.client.data.RequestData;
 import io.opensaber.registry.client.data.ResponseData;
@@ -12,7 +11,10 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import javax.ws.rs.core.MediaType;
 import org.apache.http.HttpHeaders;
 import org.sunbird.common.exception.ProjectCommonException;
@@ -20,17 +22,59 @@ import org.sunbird.common.models.util.LoggerEnum;
 import org.sunbird.common.models.util.ProjectLogger;
 import org.sunbird.common.request.HeaderParam;
 import org.sunbird.common.responsecode.ResponseCode;
+import org.sunbird.extension.util.BridgeMetrics.Phase;
+import org.sunbird.extension.util.RegistryResponseReader.ResultType;
 
 public class OpensaberClientUtil {
 
-  private static ObjectMapper mapper = new ObjectMapper();
-  private static OpensaberClient client = createOpensaberClient();
+  private static RegistryClientConfig clientConfig =
+      RegistryClientConfig.load(
+          ConfigUtil.loadConfigWithDefaultFallback(SunbirdExtensionConstants.BRIDGE_CONFIG_FILE));
+  private static RegistryPayloadCodec payloadCodec = RegistryPayloadCodec.create(clientConfig);
+  private static GuardedTransport guardedTransport = createGuardedTransport();
+  private static RegistryTransport transport =
+      new RetryingTransport(guardedTransport, clientConfig);
+  private static RegistryExecutor executor = RegistryExecutor.create(clientConfig);
+
+  /** @return Transport guarding each attempt, to be wrapped by the retrying transport */
+  private static GuardedTransport createGuardedTransport() {
+    BridgeLogger.info(
+        () ->
+            "OpensaberClientUtil:createGuardedTransport: Registry transport = "
+                + clientConfig.getTransport());
+    RegistryTransport registryTransport;
+    if (RegistryClientConfig.TRANSPORT_POOLED.equalsIgnoreCase(clientConfig.getTransport())) {
+      registryTransport =
+          payloadCodec.isTransformerMode()
+              ? new PooledHttpTransport(clientConfig)
+              : new PooledHttpTransport(clientConfig, null, null);
+    } else {
+      registryTransport = new OpensaberClientTransport(createOpensaberClient());
+    }
+    CircuitBreaker circuitBreaker =
+        clientConfig.getCircuitBreaker().isEnabled()
+            ? new CircuitBreaker(clientConfig.getCircuitBreaker())
+            : null;
+    Bulkhead bulkhead =
+        clientConfig.getBulkheadMaxConcurrent() > 0
+            ? new Bulkhead(
+                clientConfig.getBulkheadMaxConcurrent(), clientConfig.getBulkheadMaxWaitMs())
+            : null;
+    return new GuardedTransport(registryTransport, circuitBreaker, bulkhead);
+  }
 
   private static OpensaberClient createOpensaberClient() {
     OpensaberClient osClient = null;
     try {
-      ITransformer<String> jsonToJsonldTransformer = JsonToJsonLDTransformer.getInstance();
-      ITransformer<String> jsonldToJsonTransformer = JsonldToJsonTransformer.getInstance();
+      boolean transformerMode = payloadCodec.isTransformerMode();
+      ITransformer<String> jsonToJsonldTransformer =
+          transformerMode
+              ? JsonToJsonLDTransformer.getInstance()
+              : RegistryPayloadCodec.PASS_THROUGH;
+      ITransformer<String> jsonldToJsonTransformer =
+          transformerMode
+              ? JsonldToJsonTransformer.getInstance()
+              : RegistryPayloadCodec.PASS_THROUGH;
       osClient =
           OpensaberClient.builder()
               .requestTransformer(jsonToJsonldTransformer)
@@ -41,175 +85,289 @@ public class OpensaberClientUtil {
           "OpensaberClientUtil:createOpensaberClient: Open Saber Client Creation failed = "
               + e.getMessage(),
           LoggerEnum.ERROR.name());
-      ProjectCommonException.throwServerErrorException(
-          ResponseCode.errorRegistryClientCreation,
-          ResponseCode.errorRegistryClientCreation.getErrorMessage());
+      throwRegistryError(ResponseCode.errorRegistryClientCreation);
     }
     return osClient;
   }
 
   public static String addEntity(Map<String, Object> requestMap, String accessToken) {
+    return addEntity(JsonGeneratorUtil.fieldsOf(requestMap), accessToken);
+  }
+
+  /**
+   * Variant of {@link #addEntity(Map, String)} writing the request payload straight from the entity
+   * writer, e.g. a streaming transformation, without building the entity map
+   *
+   * @param entityWriter Writer of the entity in registry format
+   * @param accessToken Access token of the user
+   * @return Registry id of the created entity
+   */
+  public static String addEntity(JsonFieldsWriter entityWriter, String accessToken) {
 
-    ProjectLogger.log("OpensaberClientUtil:addEntity: START", LoggerEnum.INFO.name());
+    BridgeLogger.debug(() -> "OpensaberClientUtil:addEntity: START");
     ResponseData<String> responseData = null;
+    long startTime = BridgeMetrics.start();
     try {
-      responseData =
-          client.addEntity(
-              new RequestData<>(mapper.writeValueAsString(requestMap)), getHeader(accessToken));
+      RequestData<String> requestData = new RequestData<>(payloadCodec.writeRequest(entityWriter));
+      startTime = BridgeMetrics.recordOperation(RegistryOperation.ADD, Phase.SERIALIZE, startTime);
+      responseData = transport.addEntity(requestData, getHeader(accessToken));
+      startTime = BridgeMetrics.recordOperation(RegistryOperation.ADD, Phase.HTTP, startTime);
     } catch (TransformationException | IOException | URISyntaxException e) {
       ProjectLogger.log(
           "OpensaberClientUtil:addEntity: Registry client add entity resulted in exception = "
               + e.getMessage(),
           LoggerEnum.ERROR.name());
-      ProjectCommonException.throwServerErrorException(
-          ResponseCode.errorRegistryAddEntity,
-          ResponseCode.errorRegistryAddEntity.getErrorMessage());
+      throwRegistryError(ResponseCode.errorRegistryAddEntity, e);
     }
 
-    Map<String, Object> responseMap = getResponseMap(responseData);
-    Map<String, Object> paramsMap =
-        (Map<String, Object>) responseMap.get(SunbirdExtensionConstants.PARAMS);
+    RegistryResponse registryResponse = getRegistryResponse(responseData, ResultType.ENTITY);
+    BridgeMetrics.recordOperation(RegistryOperation.ADD, Phase.PARSE, startTime);
 
     String entityId = null;
-    if (SunbirdExtensionConstants.STATUS_SUCCESS.equalsIgnoreCase(
-        (String) paramsMap.get(SunbirdExtensionConstants.STATUS))) {
-      Map<String, Object> resultMap =
-          (Map<String, Object>) responseMap.get(SunbirdExtensionConstants.RESULT);
-      entityId = (String) resultMap.get(SunbirdExtensionConstants.ENTITY);
+    if (registryResponse.isSuccessful()) {
+      entityId = registryResponse.getResultEntity();
     } else {
-      String errMsg = (String) paramsMap.get(SunbirdExtensionConstants.ERR_MSG);
+      String errMsg = registryResponse.getErrMsg();
       ProjectLogger.log(
           "OpensaberClientUtil:addEntity: Registry client add entity returned failure status = "
               + errMsg,
           LoggerEnum.ERROR.name());
-      ProjectCommonException.throwServerErrorException(
-          ResponseCode.errorRegistryAddEntity,
-          ResponseCode.errorRegistryAddEntity.getErrorMessage());
+      throwRegistryError(ResponseCode.errorRegistryAddEntity);
     }
-    ProjectLogger.log(
-        "OpensaberClientUtil:addEntity: END - Entity Created Successfully = " + entityId,
-        LoggerEnum.INFO.name());
-    return entityId;
+    String createdEntityId = entityId;
+    BridgeLogger.debug(
+        () ->
+            "OpensaberClientUtil:addEntity: END - Entity Created Successfully = "
+                + createdEntityId);
+    return createdEntityId;
   }
 
   public static Map<String, Object> readEntity(String entityId, String accessToken) {
 
-    ProjectLogger.log(
-        "OpensaberClientUtil:readEntity: START - EntityId = " + entityId, LoggerEnum.INFO.name());
+    BridgeLogger.debug(() -> "OpensaberClientUtil:readEntity: START - EntityId = " + entityId);
     ResponseData<String> responseData = null;
+    long startTime = BridgeMetrics.start();
     try {
-      responseData = client.readEntity(new URI(entityId), getHeader(accessToken));
-      ProjectLogger.log(
-          "OpensaberClientUtil:readEntity: repsonseData = " + responseData.getResponseData(),
-          LoggerEnum.DEBUG.name());
+      ResponseData<String> readResponseData =
+          transport.readEntity(new URI(entityId), getHeader(accessToken));
+      startTime = BridgeMetrics.recordOperation(RegistryOperation.READ, Phase.HTTP, startTime);
+      BridgeLogger.debug(
+          () ->
+              "OpensaberClientUtil:readEntity: repsonseData = "
+                  + readResponseData.getResponseData());
+      responseData = readResponseData;
     } catch (TransformationException | IOException | URISyntaxException e) {
       ProjectLogger.log(
           "OpensaberClientUtil:readEntity: Registry client read entity resulted in exception = "
               + e.getMessage(),
           LoggerEnum.ERROR.name());
-      ProjectCommonException.throwServerErrorException(
-          ResponseCode.errorRegistryReadEntity,
-          ResponseCode.errorRegistryReadEntity.getErrorMessage());
+      throwRegistryError(ResponseCode.errorRegistryReadEntity, e);
     }
 
-    Map<String, Object> responseMap = getResponseMap(responseData);
-    Map<String, Object> paramsMap =
-        (Map<String, Object>) responseMap.get(SunbirdExtensionConstants.PARAMS);
+    RegistryResponse registryResponse = getRegistryResponse(responseData, ResultType.MAP);
+    BridgeMetrics.recordOperation(RegistryOperation.READ, Phase.PARSE, startTime);
 
     Map<String, Object> resultMap = null;
-    if (SunbirdExtensionConstants.STATUS_SUCCESS.equalsIgnoreCase(
-        (String) paramsMap.get(SunbirdExtensionConstants.STATUS))) {
-      resultMap = (Map<String, Object>) responseMap.get(SunbirdExtensionConstants.RESULT);
+    if (registryResponse.isSuccessful()) {
+      resultMap = registryResponse.getResultMap();
     } else {
-      String errMsg = (String) paramsMap.get(SunbirdExtensionConstants.ERR_MSG);
+      String errMsg = registryResponse.getErrMsg();
       ProjectLogger.log(
           "OpensaberClientUtil:readEntity: Registry client read entity returned failure status = "
               + errMsg,
           LoggerEnum.ERROR.name());
-      ProjectCommonException.throwServerErrorException(
-          ResponseCode.errorRegistryReadEntity,
-          ResponseCode.errorRegistryReadEntity.getErrorMessage());
+      throwRegistryError(ResponseCode.errorRegistryReadEntity);
     }
 
-    ProjectLogger.log(
-        "OpensaberClientUtil:readEntity: END - Entity Read Successfully = " + entityId,
-        LoggerEnum.INFO.name());
+    BridgeLogger.debug(
+        () -> "OpensaberClientUtil:readEntity: END - Entity Read Successfully = " + entityId);
     return resultMap;
   }
 
   public static void updateEntity(Map<String, Object> requestMap, String accessToken) {
+    updateEntity(JsonGeneratorUtil.fieldsOf(requestMap), accessToken);
+  }
 
-    ProjectLogger.log("OpensaberClientUtil:updateEntity: START", LoggerEnum.INFO.name());
+  /**
+   * Variant of {@link #updateEntity(Map, String)} writing the request payload straight from the
+   * entity writer, e.g. a streaming transformation, without building the entity map
+   *
+   * @param entityWriter Writer of the entity in registry format
+   * @param accessToken Access token of the user
+   */
+  public static void updateEntity(JsonFieldsWriter entityWriter, String accessToken) {
+
+    BridgeLogger.debug(() -> "OpensaberClientUtil:updateEntity: START");
     ResponseData<String> responseData = null;
+    long startTime = BridgeMetrics.start();
     try {
-      responseData =
-          client.updateEntity(
-              new RequestData<>(mapper.writeValueAsString(requestMap)), getHeader(accessToken));
+      RequestData<String> requestData = new RequestData<>(payloadCodec.writeRequest(entityWriter));
+      startTime =
+          BridgeMetrics.recordOperation(RegistryOperation.UPDATE, Phase.SERIALIZE, startTime);
+      responseData = transport.updateEntity(requestData, getHeader(accessToken));
+      startTime = BridgeMetrics.recordOperation(RegistryOperation.UPDATE, Phase.HTTP, startTime);
     } catch (TransformationException | IOException | URISyntaxException e) {
       ProjectLogger.log(
           "OpensaberClientUtil:updateEntity: Registry client update entity resulted in exception = "
               + e.getMessage(),
           LoggerEnum.ERROR.name());
-      ProjectCommonException.throwServerErrorException(
-          ResponseCode.errorRegistryUpdateEntity,
-          ResponseCode.errorRegistryUpdateEntity.getErrorMessage());
+      throwRegistryError(ResponseCode.errorRegistryUpdateEntity, e);
     }
 
-    Map<String, Object> responseMap = getResponseMap(responseData);
-    Map<String, Object> paramsMap =
-        (Map<String, Object>) responseMap.get(SunbirdExtensionConstants.PARAMS);
+    RegistryResponse registryResponse = getRegistryResponse(responseData, ResultType.NONE);
+    BridgeMetrics.recordOperation(RegistryOperation.UPDATE, Phase.PARSE, startTime);
 
-    if (!SunbirdExtensionConstants.STATUS_SUCCESS.equalsIgnoreCase(
-        (String) paramsMap.get(SunbirdExtensionConstants.STATUS))) {
-      String errMsg = (String) paramsMap.get(SunbirdExtensionConstants.ERR_MSG);
+    if (!registryResponse.isSuccessful()) {
+      String errMsg = registryResponse.getErrMsg();
       ProjectLogger.log(
           "OpensaberClientUtil:updateEntity: Registry client update entity returned failure status = "
               + errMsg,
           LoggerEnum.ERROR.name());
-      ProjectCommonException.throwServerErrorException(
-          ResponseCode.errorRegistryUpdateEntity,
-          ResponseCode.errorRegistryUpdateEntity.getErrorMessage());
+      throwRegistryError(ResponseCode.errorRegistryUpdateEntity);
     }
-    ProjectLogger.log(
-        "OpensaberClientUtil:updateEntity: END - Entity Updated Successfully",
-        LoggerEnum.INFO.name());
+    BridgeLogger.debug(() -> "OpensaberClientUtil:updateEntity: END - Entity Updated Successfully");
   }
 
   public static void deleteEntity(String entityId, String accessToken) {
 
-    ProjectLogger.log(
-        "OpensaberClientUtil:deleteEntity: START - EntityId = " + entityId, LoggerEnum.INFO.name());
+    BridgeLogger.debug(() -> "OpensaberClientUtil:deleteEntity: START - EntityId = " + entityId);
     ResponseData<String> responseData = null;
+    long startTime = BridgeMetrics.start();
     try {
-      responseData = client.deleteEntity(new URI(entityId), getHeader(accessToken));
+      responseData = transport.deleteEntity(new URI(entityId), getHeader(accessToken));
+      startTime = BridgeMetrics.recordOperation(RegistryOperation.DELETE, Phase.HTTP, startTime);
     } catch (IOException | URISyntaxException e) {
       ProjectLogger.log(
           "OpensaberClientUtil:deleteEntity: Registry client delete entity resulted in exception = "
               + e.getMessage(),
           LoggerEnum.ERROR.name());
-      ProjectCommonException.throwServerErrorException(
-          ResponseCode.errorRegistryDeleteEntity,
-          ResponseCode.errorRegistryDeleteEntity.getErrorMessage());
+      throwRegistryError(ResponseCode.errorRegistryDeleteEntity, e);
     }
 
-    Map<String, Object> responseMap = getResponseMap(responseData);
-    Map<String, Object> paramsMap =
-        (Map<String, Object>) responseMap.get(SunbirdExtensionConstants.PARAMS);
+    RegistryResponse registryResponse = getRegistryResponse(responseData, ResultType.NONE);
+    BridgeMetrics.recordOperation(RegistryOperation.DELETE, Phase.PARSE, startTime);
 
-    if (!SunbirdExtensionConstants.STATUS_SUCCESS.equalsIgnoreCase(
-        (String) paramsMap.get(SunbirdExtensionConstants.STATUS))) {
-      String errMsg = (String) paramsMap.get(SunbirdExtensionConstants.ERR_MSG);
+    if (!registryResponse.isSuccessful()) {
+      String errMsg = registryResponse.getErrMsg();
       ProjectLogger.log(
           "OpensaberClientUtil:deleteEntity: Registry client delete entity returned failure status = "
               + errMsg,
           LoggerEnum.ERROR.name());
-      ProjectCommonException.throwServerErrorException(
-          ResponseCode.errorRegistryDeleteEntity,
-          ResponseCode.errorRegistryDeleteEntity.getErrorMessage());
+      throwRegistryError(ResponseCode.errorRegistryDeleteEntity);
+    }
+    BridgeLogger.debug(
+        () -> "OpensaberClientUtil:deleteEntity: END - Entity Deleted Successfully = " + entityId);
+  }
+
+  /**
+   * Asynchronous variant of {@link #addEntity(Map, String)}, run on the bounded registry executor
+   *
+   * @param requestMap Entity in registry format
+   * @param accessToken Access token of the user
+   * @return Future completed with the registry id of the created entity
+   */
+  public static CompletableFuture<String> addEntityAsync(
+      Map<String, Object> requestMap, String accessToken) {
+    return executor.supplyAsync(RegistryOperation.ADD, () -> addEntity(requestMap, accessToken));
+  }
+
+  /**
+   * Asynchronous variant of {@link #readEntity(String, String)}, run on the bounded registry
+   * executor
+   *
+   * @param entityId Registry id of the entity
+   * @param accessToken Access token of the user
+   * @return Future completed with the result map of the registry response
+   */
+  public static CompletableFuture<Map<String, Object>> readEntityAsync(
+      String entityId, String accessToken) {
+    return executor.supplyAsync(RegistryOperation.READ, () -> readEntity(entityId, accessToken));
+  }
+
+  /**
+   * Asynchronous variant of {@link #updateEntity(Map, String)}, run on the bounded registry
+   * executor
+   *
+   * @param requestMap Entity in registry format
+   * @param accessToken Access token of the user
+   * @return Future completed once the entity is updated
+   */
+  public static CompletableFuture<Void> updateEntityAsync(
+      Map<String, Object> requestMap, String accessToken) {
+    return executor.supplyAsync(
+        RegistryOperation.UPDATE,
+        () -> {
+          updateEntity(requestMap, accessToken);
+          return null;
+        });
+  }
+
+  /**
+   * Asynchronous variant of {@link #deleteEntity(String, String)}, run on the bounded registry
+   * executor
+   *
+   * @param entityId Registry id of the entity
+   * @param accessToken Access token of the user
+   * @return Future completed once the entity is deleted
+   */
+  public static CompletableFuture<Void> deleteEntityAsync(String entityId, String accessToken) {
+    return executor.supplyAsync(
+        RegistryOperation.DELETE,
+        () -> {
+          deleteEntity(entityId, accessToken);
+          return null;
+        });
+  }
+
+  /**
+   * Runs a batch of registry calls on the bounded registry executor, with bounded concurrency
+   *
+   * @param operation Registry operation of the batch
+   * @param items Items of the batch
+   * @param call Blocking registry call for an item, including any transformation of the item
+   * @return Result or error of each item, in the order of the items
+   */
+  public static <I, T> List<BatchResult<T>> runBatch(
+      RegistryOperation operation, List<I> items, Function<I, T> call) {
+    BridgeLogger.info(
+        () ->
+            "OpensaberClientUtil:runBatch: Registry "
+                + operation.getConfigName()
+                + " batch of size = "
+                + items.size());
+    return executor.supplyAll(operation, items, call);
+  }
+
+  /** @return State of the circuit breaker around the registry calls */
+  public static CircuitBreaker.State getCircuitBreakerState() {
+    return guardedTransport.getCircuitState();
+  }
+
+  /** @return Registry calls failed fast by the circuit breaker */
+  public static long getCircuitBreakerRejectedCount() {
+    return guardedTransport.getCircuitRejectedCount();
+  }
+
+  /** @return Registry calls failed fast by the bulkhead, with too many registry calls in flight */
+  public static long getBulkheadRejectedCount() {
+    return guardedTransport.getBulkheadRejectedCount();
+  }
+
+  private static void throwRegistryError(ResponseCode responseCode) {
+    BridgeMetrics.countError(responseCode);
+    ProjectCommonException.throwServerErrorException(responseCode, responseCode.getErrorMessage());
+  }
+
+  /** Throws the registry error caused by the failure of the registry call, kept as its cause */
+  private static void throwRegistryError(ResponseCode responseCode, Exception cause) {
+    try {
+      throwRegistryError(responseCode);
+    } catch (ProjectCommonException e) {
+      if (null == e.getCause()) {
+        e.initCause(cause);
+      }
+      throw e;
     }
-    ProjectLogger.log(
-        "OpensaberClientUtil:deleteEntity: END - Entity Deleted Successfully = " + entityId,
-        LoggerEnum.INFO.name());
   }
 
   private static Map<String, String> getHeader(String accessToken) {
@@ -219,18 +377,18 @@ public class OpensaberClientUtil {
     return headers;
   }
 
-  private static Map<String, Object> getResponseMap(ResponseData<String> responseData) {
-    Map<String, Object> responseMap = null;
+  static RegistryResponse getRegistryResponse(
+      ResponseData<String> responseData, ResultType resultType) {
+    RegistryResponse registryResponse = null;
     try {
-      responseMap = mapper.readValue(responseData.getResponseData(), HashMap.class);
-    } catch (IOException e) {
+      registryResponse = payloadCodec.readResponse(responseData.getResponseData(), resultType);
+    } catch (IOException | TransformationException e) {
       ProjectLogger.log(
-          "OpensaberClientUtil:getResponseMap: Registry response parse failure = " + e.getMessage(),
+          "OpensaberClientUtil:getRegistryResponse: Registry response parse failure = "
+              + e.getMessage(),
           LoggerEnum.ERROR.name());
-      ProjectCommonException.throwServerErrorException(
-          ResponseCode.errorRegistryParseResponse,
-          ResponseCode.errorRegistryParseResponse.getErrorMessage());
+      throwRegistryError(ResponseCode.errorRegistryParseResponse);
     }
-    return responseMap;
+    return registryResponse;
   }
 }
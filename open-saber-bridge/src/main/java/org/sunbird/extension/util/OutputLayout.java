@@ -0,0 +1,75 @@
+package org.sunbird.extension.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nested structure of the output of a root type, compiled from the target field paths of its field
+ * descriptors. Used to write the transformed output straight to a JSON generator, object by object,
+ * instead of building the output map first.
+ */
+final class OutputLayout {
+
+  private final String name;
+  private final List<FieldPlan> fieldPlans = new ArrayList<>();
+  private final Map<String, OutputLayout> children = new LinkedHashMap<>();
+
+  private OutputLayout(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @param fieldPlans Field descriptors of a root type
+   * @return Layout of the output of the root type, or null if the output cannot be written field by
+   *     field, i.e. a field has no target path, or a target path is both a field and a parent of
+   *     another target path
+   */
+  static OutputLayout compile(Collection<FieldPlan> fieldPlans) {
+    List<FieldPlan> sortedPlans = new ArrayList<>(fieldPlans);
+    Collections.sort(sortedPlans, Comparator.comparing(FieldPlan::getFieldName));
+    OutputLayout root = new OutputLayout(null);
+    for (FieldPlan fieldPlan : sortedPlans) {
+      FieldPath toPath = fieldPlan.getToPath();
+      if (null == toPath) {
+        return null;
+      }
+      OutputLayout node = root;
+      for (int i = 0; i < toPath.getDepth(); i++) {
+        if (!node.fieldPlans.isEmpty()) {
+          return null;
+        }
+        node = node.children.computeIfAbsent(toPath.getSegment(i), OutputLayout::new);
+      }
+      if (!node.children.isEmpty()) {
+        return null;
+      }
+      node.fieldPlans.add(fieldPlan);
+    }
+    return root;
+  }
+
+  /** @return Field name of this node in its parent object, null for the root */
+  String getName() {
+    return name;
+  }
+
+  /** @return Whether this node is a field holding a value rather than an object */
+  boolean isLeaf() {
+    return !fieldPlans.isEmpty();
+  }
+
+  /** @return Field descriptors writing the value of this field, in field name order */
+  List<FieldPlan> getFieldPlans() {
+    return fieldPlans;
+  }
+
+  /** @return Fields and objects within this object */
+  Collection<OutputLayout> getChildren() {
+    return children.values();
+  }
+}
@@ -0,0 +1,195 @@
+package org.sunbird.extension.util;
+
+import com.typesafe.config.Config;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+
+/**
+ * Transforms the elements of custom list fields, in parallel on a bounded fork-join pool when the
+ * list has at least the configured number of elements, else one by one on the calling thread.
+ *
+ * <p>Results are in the order of the elements whichever thread transformed them, and a failing list
+ * throws the exception of its first failing element, as the sequential transform does. Configured
+ * by registry.transform.parallelList of registry-bridge.conf, disabled by default.
+ */
+public final class ParallelListTransform {
+
+  private static final String PARALLEL_LIST_PATH = "registry.transform.parallelList";
+  private static final String THREAD_NAME_PREFIX = "registry-transform-";
+  private static final int TASKS_PER_THREAD = 4;
+
+  private static final ForkJoinPool.ForkJoinWorkerThreadFactory THREAD_FACTORY =
+      pool -> {
+        ForkJoinWorkerThread thread =
+            ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName(THREAD_NAME_PREFIX + thread.getPoolIndex());
+        return thread;
+      };
+
+  private static volatile Settings settings = new Settings(0, null);
+
+  static {
+    try {
+      Config config =
+          ConfigUtil.loadConfigWithDefaultFallback(SunbirdExtensionConstants.BRIDGE_CONFIG_FILE)
+              .getConfig(PARALLEL_LIST_PATH);
+      configure(config.getInt("threshold"), config.getInt("parallelism"));
+    } catch (Exception e) {
+      ProjectLogger.log(
+          "ParallelListTransform: Invalid parallel list configuration, transforming lists sequentially = "
+              + e.getMessage(),
+          LoggerEnum.ERROR.name());
+    }
+  }
+
+  private ParallelListTransform() {}
+
+  /**
+   * @param threshold Minimum number of elements of a list transformed in parallel, 0 to transform
+   *     all lists sequentially
+   * @param parallelism Number of threads transforming list elements
+   */
+  public static synchronized void configure(int threshold, int parallelism) {
+    Settings previous = settings;
+    settings =
+        threshold > 0
+            ? new Settings(threshold, new ForkJoinPool(parallelism, THREAD_FACTORY, null, false))
+            : new Settings(0, null);
+    if (null != previous.pool) {
+      previous.pool.shutdown();
+    }
+    if (threshold > 0) {
+      ProjectLogger.log(
+          "ParallelListTransform:configure: Parallel list transform enabled. Threshold = "
+              + threshold
+              + " Parallelism = "
+              + parallelism,
+          LoggerEnum.INFO.name());
+    }
+  }
+
+  /**
+   * @param size Number of elements of a list
+   * @return Whether the elements of the list are transformed in parallel
+   */
+  public static boolean isParallel(int size) {
+    Settings current = settings;
+    return null != current.pool && size >= current.threshold;
+  }
+
+  /**
+   * @param elements Elements of the list
+   * @param transform Transform of an element
+   * @return Transformed elements, in the order of the elements
+   */
+  public static <T, R> List<R> map(List<T> elements, Function<? super T, ? extends R> transform) {
+    Settings current = settings;
+    if (null == current.pool || elements.size() < current.threshold) {
+      return mapSequentially(elements, transform);
+    }
+    Object[] inputs = elements.toArray();
+    Object[] results = new Object[inputs.length];
+    RuntimeException[] errors = new RuntimeException[inputs.length];
+    int grain = Math.max(1, inputs.length / (current.pool.getParallelism() * TASKS_PER_THREAD));
+    try {
+      current.pool.invoke(
+          new MapTask(
+              inputs,
+              results,
+              errors,
+              (Function<Object, Object>) transform,
+              0,
+              inputs.length,
+              grain));
+    } catch (RejectedExecutionException e) {
+      // Pool shut down by a concurrent configure
+      return mapSequentially(elements, transform);
+    }
+    List<R> transformed = new ArrayList<>(results.length);
+    for (int i = 0; i < results.length; i++) {
+      if (null != errors[i]) {
+        throw errors[i];
+      }
+      transformed.add((R) results[i]);
+    }
+    return transformed;
+  }
+
+  private static <T, R> List<R> mapSequentially(
+      List<T> elements, Function<? super T, ? extends R> transform) {
+    List<R> results = new ArrayList<>(elements.size());
+    for (T element : elements) {
+      results.add(transform.apply(element));
+    }
+    return results;
+  }
+
+  private static final class Settings {
+
+    private final int threshold;
+    private final ForkJoinPool pool;
+
+    private Settings(int threshold, ForkJoinPool pool) {
+      this.threshold = threshold;
+      this.pool = pool;
+    }
+  }
+
+  /**
+   * Transforms the elements from index start to end, splitting the range in halves down to grain
+   * elements. A failing element stops the transform of the rest of its range.
+   */
+  private static final class MapTask extends RecursiveAction {
+
+    private final Object[] inputs;
+    private final Object[] results;
+    private final RuntimeException[] errors;
+    private final Function<Object, Object> transform;
+    private final int start;
+    private final int end;
+    private final int grain;
+
+    private MapTask(
+        Object[] inputs,
+        Object[] results,
+        RuntimeException[] errors,
+        Function<Object, Object> transform,
+        int start,
+        int end,
+        int grain) {
+      this.inputs = inputs;
+      this.results = results;
+      this.errors = errors;
+      this.transform = transform;
+      this.start = start;
+      this.end = end;
+      this.grain = grain;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= grain) {
+        for (int i = start; i < end; i++) {
+          try {
+            results[i] = transform.apply(inputs[i]);
+          } catch (RuntimeException e) {
+            errors[i] = e;
+            return;
+          }
+        }
+        return;
+      }
+      int middle = (start + end) >>> 1;
+      invokeAll(
+          new MapTask(inputs, results, errors, transform, start, middle, grain),
+          new MapTask(inputs, results, errors, transform, middle, end, grain));
+    }
+  }
+}
@@ -0,0 +1,230 @@
+package org.sunbird.extension.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.opensaber.registry.client.data.RequestData;
+import io.opensaber.registry.client.data.ResponseData;
+import io.opensaber.registry.exception.TransformationException;
+import io.opensaber.registry.transform.ITransformer;
+import io.opensaber.registry.transform.JsonToJsonLDTransformer;
+import io.opensaber.registry.transform.JsonldToJsonTransformer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.NoConnectionReuseStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.extension.util.RegistryClientConfig.OperationSettings;
+
+/**
+ * Registry transport using keep-alive http connections from a connection pool. Pool size,
+ * keep-alive, connect timeout and per-operation read timeouts are taken from {@link
+ * RegistryClientConfig}. Requests and responses go through the same JSON-LD transformers as the
+ * open saber client, unless the payloads are already produced and read as JSON-LD by the caller.
+ */
+public class PooledHttpTransport implements RegistryTransport, Closeable {
+
+  private static final String ID_PLACEHOLDER = "{id}";
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final RegistryClientConfig clientConfig;
+  private final PoolingHttpClientConnectionManager connectionManager;
+  private final CloseableHttpClient httpClient;
+  private final Map<RegistryOperation, RequestConfig> requestConfigs;
+  private final ITransformer<String> requestTransformer;
+  private final ITransformer<String> responseTransformer;
+
+  public PooledHttpTransport(RegistryClientConfig clientConfig) {
+    this(
+        clientConfig, JsonToJsonLDTransformer.getInstance(), JsonldToJsonTransformer.getInstance());
+  }
+
+  /**
+   * @param clientConfig Registry client settings
+   * @param requestTransformer Transformer of request payloads, null to send them as is
+   * @param responseTransformer Transformer of read results, null to return responses as is
+   */
+  PooledHttpTransport(
+      RegistryClientConfig clientConfig,
+      ITransformer<String> requestTransformer,
+      ITransformer<String> responseTransformer) {
+    this.clientConfig = clientConfig;
+    this.requestTransformer = requestTransformer;
+    this.responseTransformer = responseTransformer;
+    this.connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(clientConfig.getMaxTotal());
+    connectionManager.setDefaultMaxPerRoute(clientConfig.getMaxPerRoute());
+    connectionManager.setValidateAfterInactivity(clientConfig.getValidateAfterInactivityMs());
+    this.requestConfigs = new EnumMap<>(RegistryOperation.class);
+    for (RegistryOperation operation : RegistryOperation.values()) {
+      requestConfigs.put(
+          operation,
+          RequestConfig.custom()
+              .setConnectTimeout(clientConfig.getConnectTimeoutMs())
+              .setConnectionRequestTimeout(clientConfig.getConnectionRequestTimeoutMs())
+              .setSocketTimeout(clientConfig.getOperation(operation).getReadTimeoutMs())
+              .build());
+    }
+    HttpClientBuilder builder =
+        HttpClientBuilder.create()
+            .setConnectionManager(connectionManager)
+            .setKeepAliveStrategy(createKeepAliveStrategy(clientConfig.getKeepAliveMs()))
+            .evictExpiredConnections()
+            .evictIdleConnections(clientConfig.getIdleTimeoutMs(), TimeUnit.MILLISECONDS)
+            .disableCookieManagement();
+    if (!clientConfig.isConnectionReuse()) {
+      builder.setConnectionReuseStrategy(NoConnectionReuseStrategy.INSTANCE);
+    }
+    this.httpClient = builder.build();
+    ProjectLogger.log(
+        "PooledHttpTransport: Created registry connection pool. BaseUrl = "
+            + clientConfig.getBaseUrl()
+            + " MaxTotal = "
+            + clientConfig.getMaxTotal()
+            + " MaxPerRoute = "
+            + clientConfig.getMaxPerRoute(),
+        LoggerEnum.INFO.name());
+  }
+
+  private static ConnectionKeepAliveStrategy createKeepAliveStrategy(final long keepAliveMs) {
+    return (response, context) -> {
+      long duration =
+          DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+      return duration > 0 ? duration : keepAliveMs;
+    };
+  }
+
+  @Override
+  public ResponseData<String> addEntity(
+      RequestData<String> requestData, Map<String, String> headers)
+      throws TransformationException, IOException, URISyntaxException {
+    String payload = transformRequest(requestData);
+    return new ResponseData<>(execute(RegistryOperation.ADD, null, payload, headers));
+  }
+
+  @Override
+  public ResponseData<String> readEntity(URI entityId, Map<String, String> headers)
+      throws TransformationException, IOException, URISyntaxException {
+    String response = execute(RegistryOperation.READ, entityId, null, headers);
+    return new ResponseData<>(transformResult(response));
+  }
+
+  @Override
+  public ResponseData<String> updateEntity(
+      RequestData<String> requestData, Map<String, String> headers)
+      throws TransformationException, IOException, URISyntaxException {
+    String payload = transformRequest(requestData);
+    return new ResponseData<>(execute(RegistryOperation.UPDATE, null, payload, headers));
+  }
+
+  @Override
+  public ResponseData<String> deleteEntity(URI entityId, Map<String, String> headers)
+      throws IOException, URISyntaxException {
+    return new ResponseData<>(execute(RegistryOperation.DELETE, entityId, null, headers));
+  }
+
+  private String execute(
+      RegistryOperation operation, URI entityId, String payload, Map<String, String> headers)
+      throws IOException, URISyntaxException {
+    OperationSettings settings = clientConfig.getOperation(operation);
+    RequestBuilder requestBuilder =
+        RequestBuilder.create(settings.getMethod())
+            .setUri(getOperationUri(settings, entityId))
+            .setConfig(requestConfigs.get(operation));
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      if (null != header.getValue()) {
+        requestBuilder.addHeader(header.getKey(), header.getValue());
+      }
+    }
+    if (null != payload) {
+      requestBuilder.setEntity(new StringEntity(payload, ContentType.APPLICATION_JSON));
+    }
+    try (CloseableHttpResponse response = httpClient.execute(requestBuilder.build())) {
+      int status = response.getStatusLine().getStatusCode();
+      HttpEntity entity = response.getEntity();
+      if (status >= 500) {
+        EntityUtils.consume(entity);
+        throw new RegistryHttpException(
+            "Registry server error for " + operation + " with http status " + status, status);
+      }
+      String body = null == entity ? null : EntityUtils.toString(entity, StandardCharsets.UTF_8);
+      if (StringUtils.isBlank(body)) {
+        throw new RegistryHttpException(
+            "Empty registry response for " + operation + " with http status " + status, status);
+      }
+      return body;
+    }
+  }
+
+  private URI getOperationUri(OperationSettings settings, URI entityId) throws URISyntaxException {
+    String path = settings.getPath();
+    if (path.contains(ID_PLACEHOLDER)) {
+      path = path.replace(ID_PLACEHOLDER, getId(entityId));
+    }
+    return new URI(clientConfig.getBaseUrl() + path);
+  }
+
+  private static String getId(URI entityId) throws URISyntaxException {
+    String path = null == entityId ? null : entityId.getPath();
+    if (StringUtils.isBlank(path)) {
+      path = null == entityId ? null : entityId.toString();
+    }
+    if (StringUtils.isBlank(path)) {
+      throw new URISyntaxException(String.valueOf(entityId), "Registry entity id is missing");
+    }
+    return path.substring(path.lastIndexOf('/') + 1);
+  }
+
+  private String transformRequest(RequestData<String> requestData) throws TransformationException {
+    return null == requestTransformer
+        ? requestData.getRequestData()
+        : requestTransformer.transform(requestData).getResponseData();
+  }
+
+  private String transformResult(String response) throws IOException, TransformationException {
+    if (null == responseTransformer) {
+      return response;
+    }
+    JsonNode responseNode = mapper.readTree(response);
+    JsonNode resultNode = responseNode.get(SunbirdExtensionConstants.RESULT);
+    if (!(responseNode instanceof ObjectNode) || null == resultNode || !resultNode.isObject()) {
+      return response;
+    }
+    String result =
+        responseTransformer
+            .transform(new RequestData<>(mapper.writeValueAsString(resultNode)))
+            .getResponseData();
+    ((ObjectNode) responseNode).set(SunbirdExtensionConstants.RESULT, mapper.readTree(result));
+    return mapper.writeValueAsString(responseNode);
+  }
+
+  /** @return Number of connections in the pool, leased and available */
+  public int getPooledConnectionCount() {
+    return connectionManager.getTotalStats().getLeased()
+        + connectionManager.getTotalStats().getAvailable();
+  }
+
+  @Override
+  public void close() throws IOException {
+    httpClient.close();
+  }
+}
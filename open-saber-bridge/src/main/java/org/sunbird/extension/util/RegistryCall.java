@@ -0,0 +1,12 @@
+package org.sunbird.extension.util;
+
+import io.opensaber.registry.client.data.ResponseData;
+import io.opensaber.registry.exception.TransformationException;
+import java.io.IOException;
+import java.net.URISyntaxException;
+
+/** Call of a registry operation on a transport, run by the decorating transports */
+interface RegistryCall {
+
+  ResponseData<String> run() throws TransformationException, IOException, URISyntaxException;
+}
@@ -0,0 +1,370 @@
+package org.sunbird.extension.util;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.responsecode.ResponseCode;
+
+/**
+ * Settings of the registry client, loaded from the registry.client block of registry-bridge.conf
+ */
+public final class RegistryClientConfig {
+
+  public static final String TRANSPORT_OPENSABER = "opensaber";
+  public static final String TRANSPORT_POOLED = "pooled";
+  public static final String JSONLD_MODE_TRANSFORMER = "transformer";
+  public static final String JSONLD_MODE_VERIFY = "verify";
+  public static final String ASYNC_MODE_PLATFORM = "platform";
+  public static final String ASYNC_MODE_VIRTUAL = "virtual";
+
+  private static final String CLIENT_PATH = "registry.client";
+
+  private final String transport;
+  private final String baseUrl;
+  private final int maxTotal;
+  private final int maxPerRoute;
+  private final long keepAliveMs;
+  private final boolean connectionReuse;
+  private final int validateAfterInactivityMs;
+  private final long idleTimeoutMs;
+  private final int connectTimeoutMs;
+  private final int connectionRequestTimeoutMs;
+  private final String asyncMode;
+  private final int asyncPoolSize;
+  private final int asyncMaxConcurrent;
+  private final int asyncQueueCapacity;
+  private final int batchConcurrency;
+  private final Map<RegistryOperation, OperationSettings> operations;
+  private final double retryBudgetRatio;
+  private final int retryBudgetBurst;
+  private final String idempotencyKeyHeader;
+  private final boolean idempotencyKeyHonoured;
+  private final CircuitBreakerSettings circuitBreaker;
+  private final int bulkheadMaxConcurrent;
+  private final long bulkheadMaxWaitMs;
+  private final String jsonLdMode;
+  private final String jsonLdContext;
+  private final Map<String, String> jsonLdTypes;
+
+  private RegistryClientConfig(Config clientConfig) {
+    Config connection = clientConfig.getConfig("connection");
+    this.transport = clientConfig.getString("transport");
+    this.baseUrl = stripTrailingSlash(clientConfig.getString("baseUrl"));
+    this.maxTotal = connection.getInt("maxTotal");
+    this.maxPerRoute = connection.getInt("maxPerRoute");
+    this.keepAliveMs = connection.getLong("keepAliveMs");
+    this.connectionReuse = connection.getBoolean("reuse");
+    this.validateAfterInactivityMs = connection.getInt("validateAfterInactivityMs");
+    this.idleTimeoutMs = connection.getLong("idleTimeoutMs");
+    this.connectTimeoutMs = connection.getInt("connectTimeoutMs");
+    this.connectionRequestTimeoutMs = connection.getInt("connectionRequestTimeoutMs");
+    Config async = clientConfig.getConfig("async");
+    this.asyncMode = async.getString("mode");
+    this.asyncPoolSize = async.getInt("poolSize");
+    this.asyncMaxConcurrent = async.getInt("virtual.maxConcurrent");
+    this.asyncQueueCapacity = async.getInt("queueCapacity");
+    this.batchConcurrency = async.getInt("batchConcurrency");
+    Map<RegistryOperation, OperationSettings> operationSettings =
+        new EnumMap<>(RegistryOperation.class);
+    for (RegistryOperation operation : RegistryOperation.values()) {
+      operationSettings.put(
+          operation,
+          new OperationSettings(clientConfig.getConfig("operations." + operation.getConfigName())));
+    }
+    this.operations = Collections.unmodifiableMap(operationSettings);
+    Config retry = clientConfig.getConfig("retry");
+    this.retryBudgetRatio = retry.getDouble("budget.ratio");
+    this.retryBudgetBurst = retry.getInt("budget.burst");
+    this.idempotencyKeyHeader = retry.getString("idempotencyKeyHeader");
+    this.idempotencyKeyHonoured = retry.getBoolean("idempotencyKeyHonoured");
+    this.circuitBreaker = new CircuitBreakerSettings(clientConfig.getConfig("circuitBreaker"));
+    Config bulkhead = clientConfig.getConfig("bulkhead");
+    this.bulkheadMaxConcurrent = bulkhead.getInt("maxConcurrent");
+    this.bulkheadMaxWaitMs = bulkhead.getLong("maxWaitMs");
+    if (ASYNC_MODE_VIRTUAL.equalsIgnoreCase(asyncMode)
+        && bulkheadMaxConcurrent > 0
+        && asyncMaxConcurrent > bulkheadMaxConcurrent) {
+      // Calls beyond the bulkhead would hold a permit of the executor only to be rejected
+      throw new ConfigException.BadValue(
+          CLIENT_PATH + ".async.virtual.maxConcurrent",
+          "Must not exceed bulkhead.maxConcurrent = " + bulkheadMaxConcurrent);
+    }
+    Config jsonLd = clientConfig.getConfig("jsonld");
+    this.jsonLdMode = jsonLd.getString("mode");
+    if (!JSONLD_MODE_TRANSFORMER.equalsIgnoreCase(jsonLdMode)
+        && !JSONLD_MODE_VERIFY.equalsIgnoreCase(jsonLdMode)) {
+      throw new ConfigException.BadValue(
+          CLIENT_PATH + ".jsonld.mode", "Must be transformer or verify, not " + jsonLdMode);
+    }
+    this.jsonLdContext = jsonLd.getString("context");
+    Config types = jsonLd.getConfig("types");
+    Map<String, String> typeMap = new HashMap<>();
+    for (String rootKey : types.root().keySet()) {
+      typeMap.put(rootKey, types.getString(rootKey));
+    }
+    this.jsonLdTypes = Collections.unmodifiableMap(typeMap);
+  }
+
+  /**
+   * @param config Configuration containing the registry.client block
+   * @return Registry client settings
+   */
+  public static RegistryClientConfig load(Config config) {
+    try {
+      return new RegistryClientConfig(config.getConfig(CLIENT_PATH));
+    } catch (ConfigException e) {
+      ProjectLogger.log(
+          "RegistryClientConfig:load: Invalid registry client configuration = " + e.getMessage(),
+          LoggerEnum.ERROR.name());
+      ProjectCommonException.throwServerErrorException(
+          ResponseCode.errorLoadConfig, ResponseCode.errorLoadConfig.getErrorMessage());
+    }
+    return null;
+  }
+
+  private static String stripTrailingSlash(String url) {
+    return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+  }
+
+  public String getTransport() {
+    return transport;
+  }
+
+  public String getBaseUrl() {
+    return baseUrl;
+  }
+
+  public int getMaxTotal() {
+    return maxTotal;
+  }
+
+  public int getMaxPerRoute() {
+    return maxPerRoute;
+  }
+
+  public long getKeepAliveMs() {
+    return keepAliveMs;
+  }
+
+  public boolean isConnectionReuse() {
+    return connectionReuse;
+  }
+
+  public int getValidateAfterInactivityMs() {
+    return validateAfterInactivityMs;
+  }
+
+  public long getIdleTimeoutMs() {
+    return idleTimeoutMs;
+  }
+
+  public int getConnectTimeoutMs() {
+    return connectTimeoutMs;
+  }
+
+  public int getConnectionRequestTimeoutMs() {
+    return connectionRequestTimeoutMs;
+  }
+
+  /** @return Threads the asynchronous registry operations run on, platform or virtual */
+  public String getAsyncMode() {
+    return asyncMode;
+  }
+
+  public int getAsyncPoolSize() {
+    return asyncPoolSize;
+  }
+
+  /** @return Registry calls running concurrently on virtual threads */
+  public int getAsyncMaxConcurrent() {
+    return asyncMaxConcurrent;
+  }
+
+  public int getAsyncQueueCapacity() {
+    return asyncQueueCapacity;
+  }
+
+  public int getBatchConcurrency() {
+    return batchConcurrency;
+  }
+
+  public OperationSettings getOperation(RegistryOperation operation) {
+    return operations.get(operation);
+  }
+
+  /** @return Retries allowed per registry request, on top of the burst */
+  public double getRetryBudgetRatio() {
+    return retryBudgetRatio;
+  }
+
+  /** @return Retries allowed in a burst, before the budget is refilled by requests */
+  public int getRetryBudgetBurst() {
+    return retryBudgetBurst;
+  }
+
+  /** @return Header carrying the idempotency key of add requests, no key is sent when blank */
+  public String getIdempotencyKeyHeader() {
+    return idempotencyKeyHeader;
+  }
+
+  /**
+   * @return Whether the registry creates a single entity for add requests with the same idempotency
+   *     key, so that add requests may be retried after failures occurring once they were sent
+   */
+  public boolean isIdempotencyKeyHonoured() {
+    return idempotencyKeyHonoured;
+  }
+
+  public CircuitBreakerSettings getCircuitBreaker() {
+    return circuitBreaker;
+  }
+
+  /** @return Registry calls in flight at a time, 0 for no limit */
+  public int getBulkheadMaxConcurrent() {
+    return bulkheadMaxConcurrent;
+  }
+
+  /** @return Time a registry call waits for a call in flight to complete, when at the limit */
+  public long getBulkheadMaxWaitMs() {
+    return bulkheadMaxWaitMs;
+  }
+
+  /** @return How JSON-LD payloads are produced and read - transformer, direct or verify */
+  public String getJsonLdMode() {
+    return jsonLdMode;
+  }
+
+  /**
+   * @return Value of @context written by the direct codec in verify mode, not written when blank
+   */
+  public String getJsonLdContext() {
+    return jsonLdContext;
+  }
+
+  /** @return Value of @type written by the direct codec in verify mode for each root entity key */
+  public Map<String, String> getJsonLdTypes() {
+    return jsonLdTypes;
+  }
+
+  /** Method, path, read timeout and retries of a registry operation */
+  public static final class OperationSettings {
+
+    private final String method;
+    private final String path;
+    private final int readTimeoutMs;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final double backoffMultiplier;
+
+    private OperationSettings(Config operationConfig) {
+      this.method = operationConfig.getString("method");
+      this.path = operationConfig.getString("path");
+      this.readTimeoutMs = operationConfig.getInt("readTimeoutMs");
+      Config retry = operationConfig.getConfig("retry");
+      this.maxAttempts = Math.max(1, retry.getInt("maxAttempts"));
+      this.initialBackoffMs = retry.getLong("initialBackoffMs");
+      this.maxBackoffMs = retry.getLong("maxBackoffMs");
+      this.backoffMultiplier = retry.getDouble("multiplier");
+    }
+
+    public String getMethod() {
+      return method;
+    }
+
+    public String getPath() {
+      return path;
+    }
+
+    public int getReadTimeoutMs() {
+      return readTimeoutMs;
+    }
+
+    /** @return Attempts of a request failing with an I/O error, 1 for no retries */
+    public int getMaxAttempts() {
+      return maxAttempts;
+    }
+
+    public long getInitialBackoffMs() {
+      return initialBackoffMs;
+    }
+
+    public long getMaxBackoffMs() {
+      return maxBackoffMs;
+    }
+
+    public double getBackoffMultiplier() {
+      return backoffMultiplier;
+    }
+  }
+
+  /**
+   * Thresholds of the circuit breaker failing registry calls fast while the registry is unhealthy
+   */
+  public static final class CircuitBreakerSettings {
+
+    private final boolean enabled;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallDurationMs;
+    private final double slowCallRateThreshold;
+    private final long openDurationMs;
+    private final int halfOpenCalls;
+
+    private CircuitBreakerSettings(Config breakerConfig) {
+      this.enabled = breakerConfig.getBoolean("enabled");
+      this.windowSize = Math.max(1, breakerConfig.getInt("windowSize"));
+      this.minimumCalls = Math.max(1, breakerConfig.getInt("minimumCalls"));
+      this.failureRateThreshold = breakerConfig.getDouble("failureRateThreshold");
+      this.slowCallDurationMs = breakerConfig.getLong("slowCallDurationMs");
+      this.slowCallRateThreshold = breakerConfig.getDouble("slowCallRateThreshold");
+      this.openDurationMs = breakerConfig.getLong("openDurationMs");
+      this.halfOpenCalls = Math.max(1, breakerConfig.getInt("halfOpenCalls"));
+    }
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    /** @return Number of most recent calls the failure and slow call rates are computed on */
+    public int getWindowSize() {
+      return windowSize;
+    }
+
+    /** @return Calls recorded before the rates are checked */
+    public int getMinimumCalls() {
+      return minimumCalls;
+    }
+
+    /** @return Percentage of failed calls opening the circuit */
+    public double getFailureRateThreshold() {
+      return failureRateThreshold;
+    }
+
+    public long getSlowCallDurationMs() {
+      return slowCallDurationMs;
+    }
+
+    /** @return Percentage of calls slower than the slow call duration opening the circuit */
+    public double getSlowCallRateThreshold() {
+      return slowCallRateThreshold;
+    }
+
+    /** @return Time calls are failed fast before trial calls are let through */
+    public long getOpenDurationMs() {
+      return openDurationMs;
+    }
+
+    /** @return Trial calls which must all succeed to close the circuit again */
+    public int getHalfOpenCalls() {
+      return halfOpenCalls;
+    }
+  }
+}
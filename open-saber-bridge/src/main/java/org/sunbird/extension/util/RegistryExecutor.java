@@ -0,0 +1,243 @@
+package org.sunbird.extension.util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+
+/**
+ * Bounded executor running the asynchronous registry operations. Calls beyond the pool size wait in
+ * a bounded queue, and calls beyond the queue capacity complete exceptionally with the error code
+ * of the operation instead of blocking the caller. Batch items beyond the capacity run on the
+ * already blocked batch caller instead.
+ *
+ * <p>In virtual mode each call runs on its own virtual thread, and calls beyond maxConcurrent wait
+ * for a permit on their virtual thread rather than in the queue, so that slow registry calls do not
+ * hold platform threads. Virtual threads are looked up reflectively, so that the bridge still runs
+ * on Java 8, where the executor falls back to the platform pool.
+ */
+public class RegistryExecutor {
+
+  private static final String THREAD_NAME_FORMAT = "registry-async-%d";
+  private static final String VIRTUAL_EXECUTOR_METHOD = "newVirtualThreadPerTaskExecutor";
+
+  private final ExecutorService executor;
+  private final int batchConcurrency;
+  private final Semaphore permits;
+  private final int maxPending;
+  private final AtomicInteger pendingCount = new AtomicInteger();
+
+  public RegistryExecutor(int poolSize, int queueCapacity, int batchConcurrency) {
+    this(
+        new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new ThreadFactoryBuilder().setNameFormat(THREAD_NAME_FORMAT).setDaemon(true).build()),
+        batchConcurrency,
+        null,
+        0);
+  }
+
+  private RegistryExecutor(
+      ExecutorService executor, int batchConcurrency, Semaphore permits, int maxPending) {
+    this.executor = executor;
+    this.batchConcurrency = batchConcurrency;
+    this.permits = permits;
+    this.maxPending = maxPending;
+  }
+
+  /**
+   * @param maxConcurrent Calls running at a time
+   * @param queueCapacity Calls waiting for a permit, beyond which calls are rejected
+   * @param batchConcurrency Items of a batch in flight at a time
+   * @param fallbackPoolSize Size of the platform pool used when virtual threads are unavailable
+   * @return Executor running each call on a virtual thread, or on a platform pool when the runtime
+   *     has no virtual threads
+   */
+  public static RegistryExecutor virtual(
+      int maxConcurrent, int queueCapacity, int batchConcurrency, int fallbackPoolSize) {
+    ExecutorService virtualExecutor = newVirtualThreadPerTaskExecutor();
+    if (null == virtualExecutor) {
+      ProjectLogger.log(
+          "RegistryExecutor:virtual: Virtual threads unavailable on Java "
+              + System.getProperty("java.version")
+              + ", using platform pool of size = "
+              + fallbackPoolSize,
+          LoggerEnum.INFO.name());
+      return new RegistryExecutor(fallbackPoolSize, queueCapacity, batchConcurrency);
+    }
+    return new RegistryExecutor(
+        virtualExecutor,
+        batchConcurrency,
+        new Semaphore(maxConcurrent),
+        maxConcurrent + queueCapacity);
+  }
+
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod(VIRTUAL_EXECUTOR_METHOD).invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @param clientConfig Registry client settings
+   * @return Executor sized as per the async settings of the registry client
+   */
+  public static RegistryExecutor create(RegistryClientConfig clientConfig) {
+    if (RegistryClientConfig.ASYNC_MODE_VIRTUAL.equalsIgnoreCase(clientConfig.getAsyncMode())) {
+      return virtual(
+          clientConfig.getAsyncMaxConcurrent(),
+          clientConfig.getAsyncQueueCapacity(),
+          clientConfig.getBatchConcurrency(),
+          clientConfig.getAsyncPoolSize());
+    }
+    return new RegistryExecutor(
+        clientConfig.getAsyncPoolSize(),
+        clientConfig.getAsyncQueueCapacity(),
+        clientConfig.getBatchConcurrency());
+  }
+
+  /** @return Whether calls run on virtual threads */
+  public boolean isVirtual() {
+    return null != permits;
+  }
+
+  /**
+   * @param operation Registry operation being run
+   * @param supplier Blocking registry call
+   * @return Future completed with the result of the registry call, or exceptionally with the
+   *     exception thrown by it
+   */
+  public <T> CompletableFuture<T> supplyAsync(RegistryOperation operation, Supplier<T> supplier) {
+    try {
+      return submit(supplier);
+    } catch (RejectedExecutionException e) {
+      ProjectLogger.log(
+          "RegistryExecutor:supplyAsync: Registry "
+              + operation.getConfigName()
+              + " rejected as executor queue is full",
+          LoggerEnum.ERROR.name());
+      CompletableFuture<T> future = new CompletableFuture<>();
+      try {
+        ProjectCommonException.throwServerErrorException(
+            operation.getErrorCode(), operation.getErrorCode().getErrorMessage());
+      } catch (ProjectCommonException pce) {
+        future.completeExceptionally(pce);
+      }
+      return future;
+    }
+  }
+
+  private <T> CompletableFuture<T> submit(Supplier<T> supplier) {
+    if (null == permits) {
+      return CompletableFuture.supplyAsync(supplier, executor);
+    }
+    if (pendingCount.incrementAndGet() > maxPending) {
+      pendingCount.decrementAndGet();
+      throw new RejectedExecutionException();
+    }
+    try {
+      return CompletableFuture.supplyAsync(() -> supplyWithPermit(supplier), executor);
+    } catch (RejectedExecutionException e) {
+      pendingCount.decrementAndGet();
+      throw e;
+    }
+  }
+
+  /** @return Future completed on the calling thread with the result of the call */
+  private <T> CompletableFuture<T> supplyOnCaller(Supplier<T> supplier) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    try {
+      if (null == permits) {
+        future.complete(supplier.get());
+      } else {
+        pendingCount.incrementAndGet();
+        future.complete(supplyWithPermit(supplier));
+      }
+    } catch (RuntimeException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
+  private <T> T supplyWithPermit(Supplier<T> supplier) {
+    try {
+      permits.acquireUninterruptibly();
+      try {
+        return supplier.get();
+      } finally {
+        permits.release();
+      }
+    } finally {
+      pendingCount.decrementAndGet();
+    }
+  }
+
+  /**
+   * Runs the call for each item on the executor, with at most batchConcurrency items in flight.
+   * Blocks until all items complete, hence must not be called from a registry executor thread. An
+   * item rejected by a saturated executor runs on the calling thread instead of failing.
+   *
+   * @param operation Registry operation being run
+   * @param items Items of the batch
+   * @param call Blocking registry call for an item
+   * @return Result of each item, in the order of the items
+   */
+  public <I, T> List<BatchResult<T>> supplyAll(
+      RegistryOperation operation, List<I> items, Function<I, T> call) {
+    Semaphore inFlight = new Semaphore(batchConcurrency);
+    List<CompletableFuture<T>> futures = new ArrayList<>(items.size());
+    for (I item : items) {
+      inFlight.acquireUninterruptibly();
+      CompletableFuture<T> future;
+      try {
+        future = submit(() -> call.apply(item));
+      } catch (RejectedExecutionException e) {
+        future = supplyOnCaller(() -> call.apply(item));
+      }
+      future.whenComplete((value, error) -> inFlight.release());
+      futures.add(future);
+    }
+    List<BatchResult<T>> results = new ArrayList<>(futures.size());
+    for (CompletableFuture<T> future : futures) {
+      try {
+        results.add(BatchResult.success(future.join()));
+      } catch (CompletionException e) {
+        results.add(BatchResult.failure(null == e.getCause() ? e : e.getCause()));
+      }
+    }
+    return results;
+  }
+
+  /** @return Number of registry calls running or waiting for a thread */
+  public int getPendingCount() {
+    if (null != permits) {
+      return pendingCount.get();
+    }
+    ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+    return pool.getActiveCount() + pool.getQueue().size();
+  }
+
+  public void shutdown() {
+    executor.shutdown();
+  }
+}
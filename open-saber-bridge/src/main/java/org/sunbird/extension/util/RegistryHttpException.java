@@ -0,0 +1,33 @@
+package org.sunbird.extension.util;
+
+import java.io.IOException;
+
+/** Registry responded with a server error status, or without a response body */
+public class RegistryHttpException extends IOException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final int httpStatus;
+
+  public RegistryHttpException(String message, int httpStatus) {
+    super(message);
+    this.httpStatus = httpStatus;
+  }
+
+  public int getHttpStatus() {
+    return httpStatus;
+  }
+
+  /**
+   * @param error Error of a registry call
+   * @return Whether the registry rejected the request itself, e.g. as invalid, unauthorized or for
+   *     a missing entity, in which case the call is not retried nor counted as a registry failure
+   */
+  public static boolean isClientError(Throwable error) {
+    if (!(error instanceof RegistryHttpException)) {
+      return false;
+    }
+    int status = ((RegistryHttpException) error).httpStatus;
+    return status >= 400 && status < 500;
+  }
+}
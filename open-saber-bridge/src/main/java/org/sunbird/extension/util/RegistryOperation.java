@@ -0,0 +1,28 @@
+package org.sunbird.extension.util;
+
+import org.sunbird.common.responsecode.ResponseCode;
+
+/** Operations supported by the registry, with the error code reported when an operation fails */
+public enum RegistryOperation {
+  ADD("add", ResponseCode.errorRegistryAddEntity),
+  READ("read", ResponseCode.errorRegistryReadEntity),
+  UPDATE("update", ResponseCode.errorRegistryUpdateEntity),
+  DELETE("delete", ResponseCode.errorRegistryDeleteEntity);
+
+  private final String configName;
+  private final ResponseCode errorCode;
+
+  RegistryOperation(String configName, ResponseCode errorCode) {
+    this.configName = configName;
+    this.errorCode = errorCode;
+  }
+
+  /** @return Name of the operation in registry-bridge.conf */
+  public String getConfigName() {
+    return configName;
+  }
+
+  public ResponseCode getErrorCode() {
+    return errorCode;
+  }
+}
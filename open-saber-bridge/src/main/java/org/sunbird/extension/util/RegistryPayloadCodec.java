@@ -0,0 +1,202 @@
+package org.sunbird.extension.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opensaber.registry.client.data.RequestData;
+import io.opensaber.registry.client.data.ResponseData;
+import io.opensaber.registry.exception.TransformationException;
+import io.opensaber.registry.transform.ITransformer;
+import io.opensaber.registry.transform.JsonToJsonLDTransformer;
+import io.opensaber.registry.transform.JsonldToJsonTransformer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import org.sunbird.extension.util.RegistryResponseReader.ResultType;
+
+/**
+ * Produces the request payloads sent to the registry and reads the registry responses, as per the
+ * JSON-LD mode of the registry client.
+ *
+ * <ul>
+ *   <li>transformer - payloads are the JSON of the map, and the transport applies the open saber
+ *       JSON-LD transformers to requests and read results
+ *   <li>verify - the transformers are applied by the codec instead of the transport, and their
+ *       results are compared with those of {@link DirectJsonLdCodec}, writing JSON-LD from the map
+ *       and reading it straight into the map, with differences counted and logged by JSON path
+ * </ul>
+ *
+ * <p>The direct results are not sent to or returned from the registry until verified against the
+ * open saber transformers of the deployed client.
+ */
+public class RegistryPayloadCodec {
+
+  /** Transformer returning its input, for the open saber client in verify mode */
+  static final ITransformer<String> PASS_THROUGH =
+      data -> new ResponseData<>(data.getRequestData());
+
+  static final String REQUEST_MISMATCH = "request";
+  static final String RESPONSE_MISMATCH = "response";
+  private static final int MAX_DIFFERING_PATHS = 10;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final String mode;
+  private final DirectJsonLdCodec directCodec;
+  private final ITransformer<String> requestTransformer;
+  private final ITransformer<String> responseTransformer;
+  private final SampledCounter mismatches;
+
+  RegistryPayloadCodec(
+      String mode,
+      DirectJsonLdCodec directCodec,
+      ITransformer<String> requestTransformer,
+      ITransformer<String> responseTransformer) {
+    this.mode = mode;
+    this.directCodec = directCodec;
+    this.requestTransformer = requestTransformer;
+    this.responseTransformer = responseTransformer;
+    this.mismatches = new SampledCounter(BridgeLogger.getSampleInterval(), 2);
+  }
+
+  /**
+   * @param clientConfig Registry client settings
+   * @return Codec as per the JSON-LD mode of the registry client
+   */
+  public static RegistryPayloadCodec create(RegistryClientConfig clientConfig) {
+    BridgeLogger.info(
+        () ->
+            "RegistryPayloadCodec:create: Registry JSON-LD mode = " + clientConfig.getJsonLdMode());
+    return new RegistryPayloadCodec(
+        clientConfig.getJsonLdMode(),
+        DirectJsonLdCodec.create(clientConfig),
+        JsonToJsonLDTransformer.getInstance(),
+        JsonldToJsonTransformer.getInstance());
+  }
+
+  /** @return Whether the transport is to apply the JSON-LD transformers */
+  public boolean isTransformerMode() {
+    return !isVerifyMode();
+  }
+
+  private boolean isVerifyMode() {
+    return RegistryClientConfig.JSONLD_MODE_VERIFY.equalsIgnoreCase(mode);
+  }
+
+  /**
+   * @param entity Entity in registry format
+   * @return Payload to be given to the transport for add and update
+   */
+  public String writeRequest(Map<String, Object> entity)
+      throws IOException, TransformationException {
+    return writeRequest(JsonGeneratorUtil.fieldsOf(entity));
+  }
+
+  /**
+   * @param entity Writer of the entity in registry format, as fields keyed by root entity type
+   * @return Payload to be given to the transport for add and update
+   */
+  public String writeRequest(JsonFieldsWriter entity) throws IOException, TransformationException {
+    String json = JsonGeneratorUtil.writeObject(entity);
+    if (!isVerifyMode()) {
+      return json;
+    }
+    String transformed = requestTransformer.transform(new RequestData<>(json)).getResponseData();
+    JsonNode transformedNode = mapper.readTree(transformed);
+    JsonNode directNode = mapper.readTree(directCodec.write(entity));
+    if (!transformedNode.equals(directNode)) {
+      mismatches.increment(
+          REQUEST_MISMATCH,
+          () ->
+              "RegistryPayloadCodec:writeRequest: Direct JSON-LD differs from transformer. Paths = "
+                  + getDifferingPaths(transformedNode, directNode));
+    }
+    return transformed;
+  }
+
+  /**
+   * @param response Response returned by the transport
+   * @param resultType Part of the result to be read
+   * @return Status, error message and result of the response, result in registry format
+   */
+  public RegistryResponse readResponse(String response, ResultType resultType)
+      throws IOException, TransformationException {
+    if (ResultType.MAP != resultType || isTransformerMode()) {
+      return RegistryResponseReader.read(response, resultType);
+    }
+    RegistryResponse direct = RegistryResponseReader.read(response, resultType, true);
+    RegistryResponse transformed = readTransformedResponse(response);
+    if (!Objects.equals(transformed.getResultMap(), direct.getResultMap())) {
+      mismatches.increment(
+          RESPONSE_MISMATCH,
+          () ->
+              "RegistryPayloadCodec:readResponse: Direct JSON-LD read differs from transformer. Paths = "
+                  + getDifferingPaths(
+                      mapper.valueToTree(transformed.getResultMap()),
+                      mapper.valueToTree(direct.getResultMap())));
+    }
+    return transformed;
+  }
+
+  private RegistryResponse readTransformedResponse(String response)
+      throws IOException, TransformationException {
+    RegistryResponse registryResponse = RegistryResponseReader.read(response, ResultType.MAP);
+    if (null == registryResponse.getResultMap()) {
+      return registryResponse;
+    }
+    String result =
+        responseTransformer
+            .transform(
+                new RequestData<>(mapper.writeValueAsString(registryResponse.getResultMap())))
+            .getResponseData();
+    return new RegistryResponse(
+        registryResponse.getStatus(),
+        registryResponse.getErrMsg(),
+        mapper.readValue(result, HashMap.class));
+  }
+
+  /**
+   * @return JSON paths at which the trees differ, at most MAX_DIFFERING_PATHS of them. Values are
+   *     left out, as payloads hold user details.
+   */
+  static List<String> getDifferingPaths(JsonNode expected, JsonNode actual) {
+    List<String> paths = new ArrayList<>();
+    addDifferingPaths("$", expected, actual, paths);
+    return paths;
+  }
+
+  private static void addDifferingPaths(
+      String path, JsonNode expected, JsonNode actual, List<String> paths) {
+    if (paths.size() >= MAX_DIFFERING_PATHS || Objects.equals(expected, actual)) {
+      return;
+    }
+    if (null == expected
+        || null == actual
+        || expected.getNodeType() != actual.getNodeType()
+        || !expected.isContainerNode()) {
+      paths.add(path);
+      return;
+    }
+    if (expected.isArray()) {
+      int size = Math.max(expected.size(), actual.size());
+      for (int i = 0; i < size; i++) {
+        addDifferingPaths(path + "[" + i + "]", expected.get(i), actual.get(i), paths);
+      }
+      return;
+    }
+    Set<String> names = new TreeSet<>();
+    expected.fieldNames().forEachRemaining(names::add);
+    actual.fieldNames().forEachRemaining(names::add);
+    for (String name : names) {
+      addDifferingPaths(path + "." + name, expected.get(name), actual.get(name), paths);
+    }
+  }
+
+  /** @return Number of requests and responses whose direct JSON-LD differed from transformer */
+  public Map<String, Long> getMismatchCounts() {
+    return mismatches.getCounts();
+  }
+}
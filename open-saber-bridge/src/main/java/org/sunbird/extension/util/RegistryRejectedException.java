@@ -0,0 +1,13 @@
+package org.sunbird.extension.util;
+
+import java.io.IOException;
+
+/** Registry call failed fast, without calling the registry, by the circuit breaker or bulkhead */
+public class RegistryRejectedException extends IOException {
+
+  private static final long serialVersionUID = 1L;
+
+  public RegistryRejectedException(String message) {
+    super(message);
+  }
+}
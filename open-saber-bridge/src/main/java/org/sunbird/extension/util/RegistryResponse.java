@@ -0,0 +1,42 @@
+package org.sunbird.extension.util;
+
+import java.util.Map;
+
+/**
+ * Parts of a registry response needed by the bridge - status and error message from params, and the
+ * requested part of the result.
+ */
+public final class RegistryResponse {
+
+  private final String status;
+  private final String errMsg;
+  private final Object result;
+
+  RegistryResponse(String status, String errMsg, Object result) {
+    this.status = status;
+    this.errMsg = errMsg;
+    this.result = result;
+  }
+
+  public boolean isSuccessful() {
+    return SunbirdExtensionConstants.STATUS_SUCCESS.equalsIgnoreCase(status);
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public String getErrMsg() {
+    return errMsg;
+  }
+
+  /** @return Id of the entity in the result, when read with result type ENTITY */
+  public String getResultEntity() {
+    return (String) result;
+  }
+
+  /** @return Result of the response as a map, when read with result type MAP */
+  public Map<String, Object> getResultMap() {
+    return (Map<String, Object>) result;
+  }
+}
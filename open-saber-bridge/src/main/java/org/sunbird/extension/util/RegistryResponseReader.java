@@ -0,0 +1,129 @@
+package org.sunbird.extension.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.HashMap;
+
+/**
+ * Streaming reader of registry responses. Pulls params.status, params.errmsg and only the part of
+ * the result required by the operation, skipping all other fields without building objects for
+ * them, and stops reading once the required parts are read.
+ */
+public final class RegistryResponseReader {
+
+  /** Part of the result to be read from a registry response */
+  public enum ResultType {
+    /** Result is skipped, e.g. update and delete */
+    NONE,
+    /** Only result.entity is read, e.g. add */
+    ENTITY,
+    /** Complete result is read as a map, e.g. read */
+    MAP
+  }
+
+  private static final JsonFactory jsonFactory = new ObjectMapper().getFactory();
+
+  private RegistryResponseReader() {}
+
+  /**
+   * @param response Registry response
+   * @param resultType Part of the result to be read
+   * @return Status, error message and result read from the response
+   * @throws IOException if the response is empty or not a valid JSON object
+   */
+  public static RegistryResponse read(String response, ResultType resultType) throws IOException {
+    return read(response, resultType, false);
+  }
+
+  /**
+   * @param response Registry response
+   * @param resultType Part of the result to be read
+   * @param jsonLdResult Whether a map result is JSON-LD to be read into registry format by {@link
+   *     DirectJsonLdCodec}, instead of as is
+   * @return Status, error message and result read from the response
+   * @throws IOException if the response is empty or not a valid JSON object
+   */
+  public static RegistryResponse read(String response, ResultType resultType, boolean jsonLdResult)
+      throws IOException {
+    if (null == response) {
+      throw new IOException("Registry response is empty");
+    }
+    try (JsonParser parser = jsonFactory.createParser(response)) {
+      return read(parser, resultType, jsonLdResult);
+    }
+  }
+
+  private static RegistryResponse read(
+      JsonParser parser, ResultType resultType, boolean jsonLdResult) throws IOException {
+    if (JsonToken.START_OBJECT != parser.nextToken()) {
+      throw new JsonParseException(parser, "Registry response is not a JSON object");
+    }
+    String status = null;
+    String errMsg = null;
+    Object result = null;
+    boolean paramsRead = false;
+    boolean resultRead = ResultType.NONE == resultType;
+    while (JsonToken.FIELD_NAME == parser.nextToken()) {
+      String fieldName = parser.getCurrentName();
+      JsonToken token = parser.nextToken();
+      if (SunbirdExtensionConstants.PARAMS.equals(fieldName) && JsonToken.START_OBJECT == token) {
+        while (JsonToken.FIELD_NAME == parser.nextToken()) {
+          String paramName = parser.getCurrentName();
+          JsonToken paramToken = parser.nextToken();
+          if (SunbirdExtensionConstants.STATUS.equals(paramName)) {
+            status = getScalarText(parser, paramToken);
+          } else if (SunbirdExtensionConstants.ERR_MSG.equals(paramName)) {
+            errMsg = getScalarText(parser, paramToken);
+          } else {
+            parser.skipChildren();
+          }
+        }
+        paramsRead = true;
+      } else if (SunbirdExtensionConstants.RESULT.equals(fieldName)
+          && ResultType.NONE != resultType
+          && JsonToken.START_OBJECT == token) {
+        if (ResultType.ENTITY == resultType) {
+          result = readResultEntity(parser);
+        } else {
+          result =
+              jsonLdResult
+                  ? DirectJsonLdCodec.readObject(parser)
+                  : parser.readValueAs(HashMap.class);
+        }
+        resultRead = true;
+      } else {
+        parser.skipChildren();
+      }
+      if (paramsRead && resultRead) {
+        break;
+      }
+    }
+    return new RegistryResponse(status, errMsg, result);
+  }
+
+  private static String readResultEntity(JsonParser parser) throws IOException {
+    String entity = null;
+    while (JsonToken.FIELD_NAME == parser.nextToken()) {
+      String fieldName = parser.getCurrentName();
+      JsonToken token = parser.nextToken();
+      if (SunbirdExtensionConstants.ENTITY.equals(fieldName)) {
+        entity = getScalarText(parser, token);
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return entity;
+  }
+
+  private static String getScalarText(JsonParser parser, JsonToken token) throws IOException {
+    if (token.isScalarValue() && JsonToken.VALUE_NULL != token) {
+      return parser.getText();
+    }
+    parser.skipChildren();
+    return null;
+  }
+}
@@ -0,0 +1,28 @@
+package org.sunbird.extension.util;
+
+import io.opensaber.registry.client.data.RequestData;
+import io.opensaber.registry.client.data.ResponseData;
+import io.opensaber.registry.exception.TransformationException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Map;
+
+/**
+ * Transport carrying entity requests to the registry and returning the raw registry responses.
+ * Operations mirror those of the open saber client.
+ */
+public interface RegistryTransport {
+
+  ResponseData<String> addEntity(RequestData<String> requestData, Map<String, String> headers)
+      throws TransformationException, IOException, URISyntaxException;
+
+  ResponseData<String> readEntity(URI entityId, Map<String, String> headers)
+      throws TransformationException, IOException, URISyntaxException;
+
+  ResponseData<String> updateEntity(RequestData<String> requestData, Map<String, String> headers)
+      throws TransformationException, IOException, URISyntaxException;
+
+  ResponseData<String> deleteEntity(URI entityId, Map<String, String> headers)
+      throws IOException, URISyntaxException;
+}
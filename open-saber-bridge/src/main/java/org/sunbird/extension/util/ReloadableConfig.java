@@ -0,0 +1,217 @@
+package org.sunbird.extension.util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.responsecode.ResponseCode;
+
+/**
+ * Holder of a value compiled from a set of configuration files, which re-parses and re-compiles the
+ * files when they change on disk and swaps in the new value as a new version.
+ *
+ * <p>Callers take the current version with {@link #get()}, a single volatile read, and keep using
+ * it for the whole request, so a reload neither blocks them nor changes the value under them. A
+ * reload failing to parse or compile keeps the current version.
+ *
+ * <p>Files are read from the configured directory when present there, else from the classpath.
+ * Classpath files are watched only when they are plain files, not when packaged in a jar.
+ */
+public final class ReloadableConfig<T> {
+
+  private static final String RELOAD_PATH = "registry.mapping.reload";
+  private static final String THREAD_NAME_FORMAT = "registry-config-watcher-%d";
+
+  private final List<String> fileNames;
+  private final String directory;
+  private final Function<List<Config>, T> compiler;
+  private final List<Consumer<T>> reloadListeners = new CopyOnWriteArrayList<>();
+  private volatile Version<T> current;
+  private long[] lastAttemptStamps;
+
+  ReloadableConfig(List<String> fileNames, String directory, Function<List<Config>, T> compiler) {
+    this.fileNames = Collections.unmodifiableList(new ArrayList<>(fileNames));
+    this.directory = directory;
+    this.compiler = compiler;
+    long[] stamps = getStamps();
+    this.current = new Version<>(compiler.apply(loadConfigs()), 1);
+    this.lastAttemptStamps = stamps;
+  }
+
+  /**
+   * @param fileNames Configuration files compiled into the value, as classpath resource names
+   * @param compiler Compiles the configurations of the files, in the given order, into the value.
+   *     Throws to reject the configurations.
+   * @param bridgeConfig Configuration containing the registry.mapping.reload block
+   * @return Holder of the value compiled from the files, watching the files if reload is enabled
+   */
+  public static <T> ReloadableConfig<T> load(
+      List<String> fileNames, Function<List<Config>, T> compiler, Config bridgeConfig) {
+    boolean enabled = false;
+    long intervalSeconds = 0;
+    String directory = null;
+    try {
+      Config reloadConfig = bridgeConfig.getConfig(RELOAD_PATH);
+      enabled = reloadConfig.getBoolean("enabled");
+      intervalSeconds = reloadConfig.getLong("intervalSeconds");
+      directory = reloadConfig.getString("directory");
+    } catch (ConfigException e) {
+      ProjectLogger.log(
+          "ReloadableConfig:load: Invalid mapping reload configuration = " + e.getMessage(),
+          LoggerEnum.ERROR.name());
+      ProjectCommonException.throwServerErrorException(
+          ResponseCode.errorLoadConfig, ResponseCode.errorLoadConfig.getErrorMessage());
+    }
+    ReloadableConfig<T> reloadableConfig = new ReloadableConfig<>(fileNames, directory, compiler);
+    if (enabled) {
+      reloadableConfig.watch(intervalSeconds);
+    }
+    return reloadableConfig;
+  }
+
+  /** @return Value of the current version */
+  public T get() {
+    return current.value;
+  }
+
+  /** @return Number of the current version, starting at 1 and incremented on each reload */
+  public long getVersion() {
+    return current.number;
+  }
+
+  /**
+   * @param listener Called with the new value after each successful reload, on the reloading
+   *     thread, to drop state derived from the previous value
+   */
+  public void addReloadListener(Consumer<T> listener) {
+    reloadListeners.add(listener);
+  }
+
+  /**
+   * Re-parses and re-compiles the files if any of them changed since the last attempt, and swaps in
+   * the result as the next version. A failed attempt is not retried until the files change again.
+   *
+   * @return Whether a new version was swapped in
+   */
+  public synchronized boolean reloadIfChanged() {
+    long[] stamps = getStamps();
+    if (Arrays.equals(stamps, lastAttemptStamps)) {
+      return false;
+    }
+    lastAttemptStamps = stamps;
+    Version<T> previous = current;
+    try {
+      T value = compiler.apply(loadConfigs());
+      current = new Version<>(value, previous.number + 1);
+    } catch (RuntimeException e) {
+      ProjectLogger.log(
+          "ReloadableConfig:reloadIfChanged: Reload of "
+              + fileNames
+              + " failed, keeping version "
+              + previous.number
+              + " = "
+              + e.getMessage(),
+          LoggerEnum.ERROR.name());
+      return false;
+    }
+    ProjectLogger.log(
+        "ReloadableConfig:reloadIfChanged: Reloaded " + fileNames + " as version " + current.number,
+        LoggerEnum.INFO.name());
+    for (Consumer<T> listener : reloadListeners) {
+      listener.accept(current.value);
+    }
+    return true;
+  }
+
+  private void watch(long intervalSeconds) {
+    ProjectLogger.log(
+        "ReloadableConfig:watch: Watching "
+            + fileNames
+            + " for changes every "
+            + intervalSeconds
+            + " seconds",
+        LoggerEnum.INFO.name());
+    ScheduledExecutorService watcher =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat(THREAD_NAME_FORMAT).setDaemon(true).build());
+    watcher.scheduleWithFixedDelay(
+        this::reloadIfChanged, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+  }
+
+  private List<Config> loadConfigs() {
+    List<Config> configs = new ArrayList<>(fileNames.size());
+    for (String fileName : fileNames) {
+      File file = getDirectoryFile(fileName);
+      configs.add(null == file ? ConfigUtil.loadConfig(fileName) : ConfigUtil.loadConfigFile(file));
+    }
+    return configs;
+  }
+
+  /** @return Last modified time and length of each file, zero for files which are not watched */
+  private long[] getStamps() {
+    long[] stamps = new long[fileNames.size() * 2];
+    for (int i = 0; i < fileNames.size(); i++) {
+      File file = getWatchedFile(fileNames.get(i));
+      if (null != file) {
+        stamps[i * 2] = file.lastModified();
+        stamps[i * 2 + 1] = file.length();
+      }
+    }
+    return stamps;
+  }
+
+  /** @return File of the given name in the configured directory, null if not present there */
+  private File getDirectoryFile(String fileName) {
+    if (StringUtils.isNotBlank(directory)) {
+      File file = new File(directory, fileName);
+      if (file.isFile()) {
+        return file;
+      }
+    }
+    return null;
+  }
+
+  /** @return File on disk read for the given file name, null if the file is packaged in a jar */
+  private File getWatchedFile(String fileName) {
+    File file = getDirectoryFile(fileName);
+    if (null != file) {
+      return file;
+    }
+    URL url = ReloadableConfig.class.getClassLoader().getResource(fileName);
+    if (null == url || !"file".equals(url.getProtocol())) {
+      return null;
+    }
+    try {
+      return new File(url.toURI());
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static final class Version<T> {
+
+    private final T value;
+    private final long number;
+
+    private Version(T value, long number) {
+      this.value = value;
+      this.number = number;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package org.sunbird.extension.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket limiting retries to a fraction of the requests, so that retries cannot multiply the
+ * load on a registry which is already failing. Starts full, each request adds ratio of a token up
+ * to burst tokens, and each retry takes a whole token.
+ */
+final class RetryBudget {
+
+  private static final long TOKEN = 1000;
+
+  private final long depositPerRequest;
+  private final long capacity;
+  private final AtomicLong balance;
+
+  /**
+   * @param ratio Retries allowed per request
+   * @param burst Retries allowed in a burst, i.e. capacity of the bucket
+   */
+  RetryBudget(double ratio, int burst) {
+    this.depositPerRequest = Math.max(0, Math.round(ratio * TOKEN));
+    this.capacity = Math.max(0, burst) * TOKEN;
+    this.balance = new AtomicLong(capacity);
+  }
+
+  /** Adds the share of a retry earned by a request */
+  void onRequest() {
+    if (depositPerRequest == 0) {
+      return;
+    }
+    long current;
+    do {
+      current = balance.get();
+      if (current >= capacity) {
+        return;
+      }
+    } while (!balance.compareAndSet(current, Math.min(capacity, current + depositPerRequest)));
+  }
+
+  /** @return Whether a retry is allowed, taking a token from the budget if so */
+  boolean tryRetry() {
+    long current;
+    do {
+      current = balance.get();
+      if (current < TOKEN) {
+        return false;
+      }
+    } while (!balance.compareAndSet(current, current - TOKEN));
+    return true;
+  }
+}
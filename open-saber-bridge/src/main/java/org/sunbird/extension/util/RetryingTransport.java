@@ -0,0 +1,165 @@
+package org.sunbird.extension.util;
+
+import io.opensaber.registry.client.data.RequestData;
+import io.opensaber.registry.client.data.ResponseData;
+import io.opensaber.registry.exception.TransformationException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.extension.util.RegistryClientConfig.OperationSettings;
+
+/**
+ * Registry transport retrying requests which fail with an I/O error, up to the attempts configured
+ * for the operation, after an exponential backoff with full jitter, and within a retry budget
+ * shared by all operations. Requests rejected by the circuit breaker, the bulkhead or the registry
+ * with a 4xx status are not retried.
+ *
+ * <p>Add requests carry an idempotency key, generated per request and the same on each attempt.
+ * Unless the registry is configured as honouring the key, add requests are retried only when they
+ * failed before being sent, i.e. could not have created the entity.
+ */
+public class RetryingTransport implements RegistryTransport {
+
+  private final RegistryTransport transport;
+  private final RegistryClientConfig clientConfig;
+  private final RetryBudget budget;
+  private final Sleeper sleeper;
+
+  /**
+   * @param transport Transport carrying each attempt
+   * @param clientConfig Registry client settings
+   */
+  public RetryingTransport(RegistryTransport transport, RegistryClientConfig clientConfig) {
+    this(
+        transport,
+        clientConfig,
+        new RetryBudget(clientConfig.getRetryBudgetRatio(), clientConfig.getRetryBudgetBurst()),
+        Thread::sleep);
+  }
+
+  RetryingTransport(
+      RegistryTransport transport,
+      RegistryClientConfig clientConfig,
+      RetryBudget budget,
+      Sleeper sleeper) {
+    this.transport = transport;
+    this.clientConfig = clientConfig;
+    this.budget = budget;
+    this.sleeper = sleeper;
+  }
+
+  @Override
+  public ResponseData<String> addEntity(
+      RequestData<String> requestData, Map<String, String> headers)
+      throws TransformationException, IOException, URISyntaxException {
+    Map<String, String> keyedHeaders = headers;
+    String keyHeader = clientConfig.getIdempotencyKeyHeader();
+    if (StringUtils.isNotBlank(keyHeader)) {
+      keyedHeaders = new HashMap<>(headers);
+      keyedHeaders.put(keyHeader, UUID.randomUUID().toString());
+    }
+    Map<String, String> attemptHeaders = keyedHeaders;
+    return execute(
+        RegistryOperation.ADD,
+        clientConfig.isIdempotencyKeyHonoured(),
+        () -> transport.addEntity(requestData, attemptHeaders));
+  }
+
+  @Override
+  public ResponseData<String> readEntity(URI entityId, Map<String, String> headers)
+      throws TransformationException, IOException, URISyntaxException {
+    return execute(RegistryOperation.READ, true, () -> transport.readEntity(entityId, headers));
+  }
+
+  @Override
+  public ResponseData<String> updateEntity(
+      RequestData<String> requestData, Map<String, String> headers)
+      throws TransformationException, IOException, URISyntaxException {
+    return execute(
+        RegistryOperation.UPDATE, true, () -> transport.updateEntity(requestData, headers));
+  }
+
+  @Override
+  public ResponseData<String> deleteEntity(URI entityId, Map<String, String> headers)
+      throws IOException, URISyntaxException {
+    try {
+      return execute(
+          RegistryOperation.DELETE, true, () -> transport.deleteEntity(entityId, headers));
+    } catch (TransformationException e) {
+      // Not thrown by delete
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * @param idempotent Whether the request may be retried after failures occurring once it was sent,
+   *     else only after failures to connect
+   */
+  private ResponseData<String> execute(
+      RegistryOperation operation, boolean idempotent, RegistryCall attempt)
+      throws TransformationException, IOException, URISyntaxException {
+    OperationSettings settings = clientConfig.getOperation(operation);
+    budget.onRequest();
+    for (int attemptNumber = 1; ; attemptNumber++) {
+      try {
+        return attempt.run();
+      } catch (IOException e) {
+        if (e instanceof RegistryRejectedException
+            || RegistryHttpException.isClientError(e)
+            || attemptNumber >= settings.getMaxAttempts()
+            || !(idempotent || isNotSent(e))
+            || !budget.tryRetry()) {
+          throw e;
+        }
+        long backoffMs = getBackoffMs(settings, attemptNumber);
+        int failedAttempt = attemptNumber;
+        BridgeLogger.log(
+            LoggerEnum.WARN,
+            () ->
+                "RetryingTransport:execute: Retrying "
+                    + operation
+                    + " in "
+                    + backoffMs
+                    + " ms after attempt "
+                    + failedAttempt
+                    + " failed = "
+                    + e);
+        try {
+          sleeper.sleep(backoffMs);
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          throw e;
+        }
+      }
+    }
+  }
+
+  /** @return Random backoff between 0 and the exponential backoff of the retry */
+  static long getBackoffMs(OperationSettings settings, int retry) {
+    double exponential =
+        settings.getInitialBackoffMs() * Math.pow(settings.getBackoffMultiplier(), retry - 1);
+    long cap = (long) Math.min(settings.getMaxBackoffMs(), exponential);
+    return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+  }
+
+  /** @return Whether the request failed before being sent to the registry */
+  private static boolean isNotSent(IOException e) {
+    return e instanceof ConnectException
+        || e instanceof ConnectTimeoutException
+        || e instanceof UnknownHostException;
+  }
+
+  interface Sleeper {
+
+    void sleep(long millis) throws InterruptedException;
+  }
+}
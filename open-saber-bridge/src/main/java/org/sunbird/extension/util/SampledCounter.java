@@ -0,0 +1,58 @@
+package org.sunbird.extension.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Counts occurrences of a repetitive event by key and logs only a sample of them, the first
+ * occurrence of each key and then once per sample interval. Distinct keys are bounded, beyond which
+ * occurrences are counted against a common overflow key.
+ */
+public class SampledCounter {
+
+  public static final String OVERFLOW_KEY = "_other";
+
+  private final long sampleInterval;
+  private final int maxKeys;
+  private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+
+  public SampledCounter(long sampleInterval, int maxKeys) {
+    this.sampleInterval = Math.max(1, sampleInterval);
+    this.maxKeys = maxKeys;
+  }
+
+  /**
+   * @param key Key of the event
+   * @param message Message logged at INFO level for sampled occurrences, built only when logged
+   */
+  public void increment(String key, Supplier<String> message) {
+    AtomicLong count = counts.get(key);
+    if (null == count) {
+      count =
+          counts.size() < maxKeys
+              ? counts.computeIfAbsent(key, k -> new AtomicLong())
+              : counts.computeIfAbsent(OVERFLOW_KEY, k -> new AtomicLong());
+    }
+    long occurrence = count.incrementAndGet();
+    if (occurrence == 1 || occurrence % sampleInterval == 0) {
+      BridgeLogger.info(() -> message.get() + ". Occurrences = " + occurrence);
+    }
+  }
+
+  public long getCount(String key) {
+    AtomicLong count = counts.get(key);
+    return null == count ? 0 : count.get();
+  }
+
+  /** @return Snapshot of the occurrences of each key */
+  public Map<String, Long> getCounts() {
+    Map<String, Long> snapshot = new HashMap<>();
+    for (Map.Entry<String, AtomicLong> entry : counts.entrySet()) {
+      snapshot.put(entry.getKey(), entry.getValue().get());
+    }
+    return snapshot;
+  }
+}
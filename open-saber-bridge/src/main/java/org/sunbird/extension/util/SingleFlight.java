@@ -0,0 +1,115 @@
+package org.sunbird.extension.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Coalesces concurrent calls for the same key into one. The first caller of a key runs the call,
+ * and callers of the key arriving while it runs wait for it and share its result or error instead
+ * of running their own. Calls of other keys are unaffected, and a key is released as soon as its
+ * call completes, so that results are never reused beyond the callers that overlapped. When other
+ * callers joined, each caller gets its own copy of the result, and otherwise the result as is.
+ */
+public final class SingleFlight<K, V> {
+
+  private final ConcurrentMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+  private final UnaryOperator<V> copier;
+  private final LongAdder executedCount = new LongAdder();
+  private final LongAdder collapsedCount = new LongAdder();
+
+  /** Call of a key in flight, joined by the callers of the key arriving while it runs */
+  private static final class Flight<V> {
+
+    private final CompletableFuture<V> future = new CompletableFuture<>();
+    // Number of callers joined, -1 once the call completed and takes no more callers
+    private final AtomicInteger joinedCount = new AtomicInteger();
+
+    /** @return Whether the caller joined, false when the call already completed */
+    boolean join() {
+      for (int count = joinedCount.get(); count >= 0; count = joinedCount.get()) {
+        if (joinedCount.compareAndSet(count, count + 1)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /** @return Whether any caller joined the call, after which no caller can join */
+    boolean close() {
+      return joinedCount.getAndSet(-1) > 0;
+    }
+  }
+
+  /**
+   * @param copier Copies the result for each caller when callers joined, so that callers modifying
+   *     their result do not affect each other
+   */
+  public SingleFlight(UnaryOperator<V> copier) {
+    this.copier = copier;
+  }
+
+  /**
+   * @param key Key of the call
+   * @param call Call to run unless a call of the key is already running
+   * @return Result of the call of the key, run by this or a concurrent caller
+   */
+  public V execute(K key, Supplier<V> call) {
+    Flight<V> flight = new Flight<>();
+    while (true) {
+      Flight<V> running = inFlight.putIfAbsent(key, flight);
+      if (null == running) {
+        break;
+      }
+      if (running.join()) {
+        collapsedCount.increment();
+        return copier.apply(await(running.future));
+      }
+    }
+    executedCount.increment();
+    V value;
+    try {
+      value = call.get();
+    } catch (RuntimeException | Error e) {
+      inFlight.remove(key, flight);
+      flight.close();
+      flight.future.completeExceptionally(e);
+      throw e;
+    }
+    inFlight.remove(key, flight);
+    boolean joined = flight.close();
+    flight.future.complete(value);
+    // The result is shared with the joined callers only for copying, hence not returned as is
+    return joined ? copier.apply(value) : value;
+  }
+
+  private static <V> V await(CompletableFuture<V> running) {
+    try {
+      return running.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw e;
+    }
+  }
+
+  /** @return Number of calls run */
+  public long getExecutedCount() {
+    return executedCount.sum();
+  }
+
+  /** @return Number of calls collapsed into a call of the same key already running */
+  public long getCollapsedCount() {
+    return collapsedCount.sum();
+  }
+}
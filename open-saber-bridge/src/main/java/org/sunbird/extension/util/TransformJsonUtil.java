@@ -1,15 +1,18 @@
 package org.sunbird.extension.util;
 
-import com.google.common.collect.HashBiMap;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.typesafe.config.Config;
-import com.typesafe.config.ConfigException;
+import java.io.IOException;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.commons.lang.StringUtils;
@@ -28,6 +31,31 @@ import org.sunbird.common.responsecode.ResponseCode;
 public class TransformJsonUtil {
 
   private static final Pattern listTypePattern = Pattern.compile("<(.*)>");
+  private static final int MAX_UNMAPPED_FIELD_KEYS = 1000;
+  private static final SampledCounter unmappedFields =
+      new SampledCounter(BridgeLogger.getSampleInterval(), MAX_UNMAPPED_FIELD_KEYS);
+
+  private static final LoadingCache<Config, TransformationPlan> transformationPlans =
+      CacheBuilder.newBuilder()
+          .weakKeys()
+          .build(
+              new CacheLoader<Config, TransformationPlan>() {
+                @Override
+                public TransformationPlan load(Config fieldsConfig) {
+                  return TransformationPlan.compile(fieldsConfig);
+                }
+              });
+
+  private static final LoadingCache<Config, EnumMappings> enumMappings =
+      CacheBuilder.newBuilder()
+          .weakKeys()
+          .build(
+              new CacheLoader<Config, EnumMappings>() {
+                @Override
+                public EnumMappings load(Config enumsConfig) {
+                  return EnumMappings.compile(enumsConfig);
+                }
+              });
 
   /**
    * All fields available in userInputMap that are configured in config as well, will be transformed
@@ -46,72 +74,232 @@ public class TransformJsonUtil {
       String rootConfig,
       Config enumsConfig,
       String operationMode) {
+    return transform(
+        getTransformationPlan(fieldsConfig),
+        userInputMap,
+        rootConfig,
+        getEnumMappings(enumsConfig),
+        operationMode);
+  }
 
-    String fieldsConfigFile = ConfigUtil.getConfigOriginFile(fieldsConfig);
-    ProjectLogger.log(
-        "TransformJsonUtil:transform: JSON Transformation Starts. FieldsConfigurationFile = "
-            + fieldsConfigFile
-            + " RootConfiguration = "
-            + rootConfig
-            + " OperationMode = "
-            + operationMode,
-        LoggerEnum.INFO.name());
+  /**
+   * All fields available in userInputMap that are configured in the transformation plan as well,
+   * will be transformed according to the plan and returned as a map
+   *
+   * @param plan Compiled Field Configurations for the transformation
+   * @param userInputMap Map to be transformed
+   * @param rootConfig Root Configuration field in the field configurations
+   * @param enumMappings Compiled Enums Configuration for the transformation
+   * @param operationMode OperationMode Read/Write
+   * @return Transformed Map
+   */
+  public static Map<String, Object> transform(
+      TransformationPlan plan,
+      Map<String, Object> userInputMap,
+      String rootConfig,
+      EnumMappings enumMappings,
+      String operationMode) {
+
+    String fieldsConfigFile = plan.getConfigFile();
+    BridgeLogger.debug(
+        () ->
+            "TransformJsonUtil:transform: JSON Transformation Starts. FieldsConfigurationFile = "
+                + fieldsConfigFile
+                + " RootConfiguration = "
+                + rootConfig
+                + " OperationMode = "
+                + operationMode);
+    long startTime = BridgeMetrics.start();
     Map<String, Object> outputMap = new HashMap<String, Object>();
-    Set<String> userInputSet = userInputMap.keySet();
-    String prefix = rootConfig + TransformationConstants.DOT;
-
-    for (String key : userInputSet) {
-      try {
-        Map<String, Object> fieldMap = (Map<String, Object>) fieldsConfig.getAnyRef(prefix + key);
-        if (!fieldMap.containsKey(TransformationConstants.FROM_FIELD_NAME)) {
-          fieldMap.put(TransformationConstants.FROM_FIELD_NAME, key);
+    Map<String, FieldPlan> fieldPlans = plan.getFieldPlans(rootConfig);
+
+    try {
+      for (String key : userInputMap.keySet()) {
+        FieldPlan fieldPlan = fieldPlans.get(key);
+        if (null == fieldPlan) {
+          countUnmappedField(key, fieldsConfigFile);
+          continue;
         }
-        transformField(fieldMap, userInputMap, outputMap, fieldsConfig, enumsConfig, operationMode);
-      } catch (ConfigException e) {
-        ProjectLogger.log(
+        transformField(fieldPlan, userInputMap, outputMap, plan, enumMappings, operationMode);
+      }
+    } catch (ProjectCommonException e) {
+      BridgeMetrics.countError(e);
+      throw e;
+    }
+    recordTransform(plan, rootConfig, operationMode, startTime);
+
+    BridgeLogger.debug(
+        () ->
+            "TransformJsonUtil:transform: JSON Transformation Ends. FieldsConfigurationFile = "
+                + fieldsConfigFile
+                + " RootConfiguration = "
+                + rootConfig
+                + " OperationMode = "
+                + operationMode);
+    return outputMap;
+  }
+
+  /** Records the transform latency, unless the root type, taken from the request, is not mapped */
+  private static void recordTransform(
+      TransformationPlan plan, String rootConfig, String operationMode, long startTime) {
+    if (plan.getRootTypes().contains(rootConfig)) {
+      BridgeMetrics.recordTransform(rootConfig, operationMode, startTime);
+    }
+  }
+
+  /**
+   * Streaming variant of {@link #transform(TransformationPlan, Map, String, EnumMappings, String)},
+   * writing the fields of the transformed map straight into the object currently open in the
+   * generator, as the plan is walked. Custom list elements are streamed as well, so no output map
+   * is built unless the plan of the root type cannot be streamed.
+   *
+   * @param plan Compiled Field Configurations for the transformation
+   * @param userInputMap Map to be transformed
+   * @param rootConfig Root Configuration field in the field configurations
+   * @param enumMappings Compiled Enums Configuration for the transformation
+   * @param operationMode OperationMode Read/Write
+   * @param generator Generator with a JSON object open, into which the transformed fields are
+   *     written
+   */
+  public static void transform(
+      TransformationPlan plan,
+      Map<String, Object> userInputMap,
+      String rootConfig,
+      EnumMappings enumMappings,
+      String operationMode,
+      JsonGenerator generator)
+      throws IOException {
+    OutputLayout layout = plan.getOutputLayout(rootConfig);
+    if (null == layout) {
+      JsonGeneratorUtil.writeFields(
+          generator, transform(plan, userInputMap, rootConfig, enumMappings, operationMode));
+      return;
+    }
+    long startTime = BridgeMetrics.start();
+    Map<String, FieldPlan> fieldPlans = plan.getFieldPlans(rootConfig);
+    for (String key : userInputMap.keySet()) {
+      if (!fieldPlans.containsKey(key)) {
+        countUnmappedField(key, plan.getConfigFile());
+      }
+    }
+    try {
+      writeObjectFields(
+          layout,
+          userInputMap,
+          plan,
+          enumMappings,
+          operationMode,
+          generator,
+          new PendingObjects(generator));
+    } catch (ProjectCommonException e) {
+      BridgeMetrics.countError(e);
+      throw e;
+    }
+    recordTransform(plan, rootConfig, operationMode, startTime);
+  }
+
+  /**
+   * @return Writer of the fields of the transformed map, for {@link #transform(TransformationPlan,
+   *     Map, String, EnumMappings, String, JsonGenerator)}
+   */
+  public static JsonFieldsWriter transformer(
+      TransformationPlan plan,
+      Map<String, Object> userInputMap,
+      String rootConfig,
+      EnumMappings enumMappings,
+      String operationMode) {
+    return generator ->
+        transform(plan, userInputMap, rootConfig, enumMappings, operationMode, generator);
+  }
+
+  static void countUnmappedField(String key, String fieldsConfigFile) {
+    unmappedFields.increment(
+        key,
+        () ->
             "TransformJsonUtil:transform : "
                 + key
                 + " field not found in config file "
-                + fieldsConfigFile,
-            LoggerEnum.INFO.name());
-      }
+                + fieldsConfigFile);
+  }
+
+  /** @return Occurrences of each input field that was not found in the fields configuration */
+  public static Map<String, Long> getUnmappedFieldCounts() {
+    return unmappedFields.getCounts();
+  }
+
+  /**
+   * Returns the enum mappings compiled from the given enums configuration. Enum mappings are
+   * compiled once per configuration instance and reused for subsequent transformations.
+   *
+   * @param enumsConfig Enums Configuration for the transformation
+   * @return Compiled enum mappings
+   */
+  public static EnumMappings getEnumMappings(Config enumsConfig) {
+    if (null == enumsConfig) {
+      return EnumMappings.empty();
+    }
+    try {
+      return enumMappings.getUnchecked(enumsConfig);
+    } catch (UncheckedExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
     }
+  }
 
-    ProjectLogger.log(
-        "TransformJsonUtil:transform: JSON Transformation Ends. FieldsConfigurationFile = "
-            + fieldsConfigFile
-            + " RootConfiguration = "
-            + rootConfig
-            + " OperationMode = "
-            + operationMode,
-        LoggerEnum.INFO.name());
-    return outputMap;
+  /**
+   * Returns the transformation plan compiled from the given field configuration. Plans are compiled
+   * once per configuration instance and reused for subsequent transformations.
+   *
+   * @param fieldsConfig Field Configurations for the transformation
+   * @return Compiled transformation plan
+   */
+  public static TransformationPlan getTransformationPlan(Config fieldsConfig) {
+    try {
+      return transformationPlans.getUnchecked(fieldsConfig);
+    } catch (UncheckedExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    }
   }
 
-  private static void transformField(
-      Map<String, Object> fieldMap,
+  static void transformField(
+      FieldPlan fieldPlan,
       Map<String, Object> userInputMap,
       Map<String, Object> outputMap,
-      Config fieldsConfig,
-      Config enumsConfig,
+      TransformationPlan plan,
+      EnumMappings enumMappings,
       String operationMode) {
+    Object fieldValue =
+        getTransformedValue(fieldPlan, userInputMap, plan, enumMappings, operationMode, false);
+    if (null == fieldValue) {
+      return;
+    }
+    putValueIntoOutgoingMap(fieldPlan.getToPath(), fieldPlan.getToType(), fieldValue, outputMap);
+  }
+
+  /**
+   * @param streamCustomList Whether a custom list to custom list field is to be returned as is, to
+   *     be streamed element by element, instead of transformed
+   * @return Transformed value of the field, or null if there is no value to be set
+   */
+  private static Object getTransformedValue(
+      FieldPlan fieldPlan,
+      Map<String, Object> userInputMap,
+      TransformationPlan plan,
+      EnumMappings enumMappings,
+      String operationMode,
+      boolean streamCustomList) {
 
     Object fieldValue = null;
-    String fromField = null;
-    List<String> fromFields = null;
-    String toField = null;
-    String fromType = null;
-    String toType = null;
-
-    toField = (String) fieldMap.get(TransformationConstants.TO_FIELD_NAME);
-    fromType = (String) fieldMap.get(TransformationConstants.FROM_TYPE);
-    toType = (String) fieldMap.get(TransformationConstants.TO_TYPE);
-    if (fieldMap.get(TransformationConstants.FROM_FIELD_NAME) instanceof String) {
-      fromField = (String) fieldMap.get(TransformationConstants.FROM_FIELD_NAME);
-      fieldValue = getValueFromIncomingMap(fromField, userInputMap);
-    } else if (fieldMap.get(TransformationConstants.FROM_FIELD_NAME) instanceof List) {
-      fromFields = (List<String>) fieldMap.get(TransformationConstants.FROM_FIELD_NAME);
-      fieldValue = getValueFromIncomingMap(fromFields, userInputMap);
+    Map<String, Object> fieldMap = fieldPlan.getFieldMap();
+    String fromField = fieldPlan.getFromField();
+    String toField = fieldPlan.getToField();
+    String fromType = fieldPlan.getFromType();
+    String toType = fieldPlan.getToType();
+    if (null != fieldPlan.getFromPath()) {
+      fieldValue = fieldPlan.getFromPath().getValue(userInputMap);
+    } else if (null != fieldPlan.getFromPaths()) {
+      fieldValue = getValueFromIncomingMap(fieldPlan.getFromPaths(), userInputMap);
     }
 
     if (StringUtils.isBlank(toField)
@@ -129,28 +317,169 @@ public class TransformJsonUtil {
 
     // Skip the transformation for the field if there is no value to be transformed
     if (skipTransformationForField(fieldValue)) {
-      return;
+      return null;
     }
 
     if (!fromType.equalsIgnoreCase(toType)
         || fieldMap.containsKey(TransformationConstants.ENUM)
         || fromType.contains(TransformationConstants.DATE_STRING_TYPE)) {
       if (isCustomListType(fromField, fromType) && isCustomListType(fromField, toType)) {
+        if (streamCustomList) {
+          return new CustomListValue((List<Map<String, Object>>) fieldValue, fromField, fromType);
+        }
         fieldValue =
             getTransformedFieldValueCustomListType(
-                fromField, fromType, fieldValue, fieldsConfig, enumsConfig, operationMode);
+                fromField, fromType, fieldValue, plan, enumMappings, operationMode);
       } else {
-        Map<String, String> enumValues =
-            getConfiguredEnumValues(fromField, fieldMap, enumsConfig, operationMode);
+        EnumLookup enumLookup =
+            getConfiguredEnumLookup(fromField, fieldPlan, enumMappings, operationMode);
         fieldValue =
-            getTransformedFieldValue(fromField, fromType, toType, fieldValue, enumValues, fieldMap);
+            getTransformedFieldValue(
+                fromField, fromType, toType, fieldValue, enumLookup, fieldPlan);
+      }
+    }
+    return fieldValue;
+  }
+
+  private static void writeObjectFields(
+      OutputLayout layout,
+      Map<String, Object> userInputMap,
+      TransformationPlan plan,
+      EnumMappings enumMappings,
+      String operationMode,
+      JsonGenerator generator,
+      PendingObjects pendingObjects)
+      throws IOException {
+    for (OutputLayout child : layout.getChildren()) {
+      if (child.isLeaf()) {
+        writeField(
+            child, userInputMap, plan, enumMappings, operationMode, generator, pendingObjects);
+      } else {
+        pendingObjects.push(child.getName());
+        writeObjectFields(
+            child, userInputMap, plan, enumMappings, operationMode, generator, pendingObjects);
+        pendingObjects.pop();
       }
     }
+  }
 
+  private static void writeField(
+      OutputLayout field,
+      Map<String, Object> userInputMap,
+      TransformationPlan plan,
+      EnumMappings enumMappings,
+      String operationMode,
+      JsonGenerator generator,
+      PendingObjects pendingObjects)
+      throws IOException {
+    List<FieldPlan> fieldPlans = field.getFieldPlans();
+    Object fieldValue = null;
+    if (fieldPlans.size() == 1) {
+      FieldPlan fieldPlan = fieldPlans.get(0);
+      if (userInputMap.containsKey(fieldPlan.getFieldName())) {
+        fieldValue =
+            getTransformedValue(fieldPlan, userInputMap, plan, enumMappings, operationMode, true);
+      }
+    } else {
+      // Fields sharing a target are merged as in the output map, lists appended, else last wins
+      Map<String, Object> outputMap = new HashMap<>(4);
+      for (FieldPlan fieldPlan : fieldPlans) {
+        if (userInputMap.containsKey(fieldPlan.getFieldName())) {
+          Object value =
+              getTransformedValue(
+                  fieldPlan, userInputMap, plan, enumMappings, operationMode, false);
+          if (null != value) {
+            putValueIntoOutgoingMap(
+                FieldPath.parse(field.getName()), fieldPlan.getToType(), value, outputMap);
+          }
+        }
+      }
+      fieldValue = outputMap.get(field.getName());
+    }
     if (null == fieldValue) {
       return;
     }
-    putValueIntoOutgoingMap(toField, toType, fieldValue, outputMap);
+    pendingObjects.open();
+    generator.writeFieldName(field.getName());
+    if (fieldValue instanceof CustomListValue) {
+      writeCustomList((CustomListValue) fieldValue, plan, enumMappings, operationMode, generator);
+    } else {
+      JsonGeneratorUtil.writeValue(generator, fieldValue);
+    }
+  }
+
+  private static void writeCustomList(
+      CustomListValue customList,
+      TransformationPlan plan,
+      EnumMappings enumMappings,
+      String operationMode,
+      JsonGenerator generator)
+      throws IOException {
+    String elementType = getListType(customList.fromField, customList.fromType);
+    if (ParallelListTransform.isParallel(customList.elements.size())) {
+      // Elements transformed in parallel into maps, written in order once all are transformed
+      JsonGeneratorUtil.writeValue(
+          generator,
+          ParallelListTransform.map(
+              customList.elements,
+              element -> transform(plan, element, elementType, enumMappings, operationMode)));
+      return;
+    }
+    generator.writeStartArray();
+    for (Map<String, Object> element : customList.elements) {
+      generator.writeStartObject();
+      transform(plan, element, elementType, enumMappings, operationMode, generator);
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+  }
+
+  /** Custom list field value whose elements are transformed as they are written */
+  private static final class CustomListValue {
+
+    private final List<Map<String, Object>> elements;
+    private final String fromField;
+    private final String fromType;
+
+    private CustomListValue(List<Map<String, Object>> elements, String fromField, String fromType) {
+      this.elements = elements;
+      this.fromField = fromField;
+      this.fromType = fromType;
+    }
+  }
+
+  /**
+   * Objects of the output layout entered but not yet written, as they are written only once a field
+   * within them has a value, so that no empty objects are written
+   */
+  private static final class PendingObjects {
+
+    private final JsonGenerator generator;
+    private final List<String> names = new ArrayList<>();
+    private int openCount;
+
+    private PendingObjects(JsonGenerator generator) {
+      this.generator = generator;
+    }
+
+    private void push(String name) {
+      names.add(name);
+    }
+
+    private void open() throws IOException {
+      for (; openCount < names.size(); openCount++) {
+        generator.writeFieldName(names.get(openCount));
+        generator.writeStartObject();
+      }
+    }
+
+    private void pop() throws IOException {
+      if (openCount == names.size()) {
+        generator.writeEndObject();
+        openCount--;
+      }
+      names.remove(names.size() - 1);
+    }
   }
 
   private static Object getTransformedFieldValue(
@@ -158,24 +487,24 @@ public class TransformJsonUtil {
       String fromType,
       String toType,
       Object fieldValue,
-      Map<String, String> enumValues,
-      Map<String, Object> fieldMap) {
+      EnumLookup enumLookup,
+      FieldPlan fieldPlan) {
 
     if (!isListType(fromType) && !isListType(toType)) {
       return getTransformedFieldValueSimpleType(
-          fromField, fromType, toType, fieldValue, enumValues, fieldMap);
+          fromField, fromType, toType, fieldValue, enumLookup, fieldPlan);
     }
     if (isListType(fromType) && isListType(toType)) {
       return getTransformedFieldValueListType(
-          fromField, fromType, toType, fieldValue, enumValues, fieldMap);
+          fromField, fromType, toType, fieldValue, enumLookup, fieldPlan);
     }
     if (isListType(fromType) && !isListType(toType)) {
       return getTransformedFieldValueListToSimpleType(
-          fromField, fromType, toType, fieldValue, enumValues, fieldMap);
+          fromField, fromType, toType, fieldValue, enumLookup, fieldPlan);
     }
     if (!isListType(fromType) && isListType(toType)) {
       return getTransformedFieldValueSimpleToListType(
-          fromField, fromType, toType, fieldValue, enumValues, fieldMap);
+          fromField, fromType, toType, fieldValue, enumLookup, fieldPlan);
     }
 
     return fieldValue;
@@ -186,12 +515,12 @@ public class TransformJsonUtil {
       String fromType,
       String toType,
       Object fieldValue,
-      Map<String, String> enumValues,
-      Map<String, Object> fieldMap) {
+      EnumLookup enumLookup,
+      FieldPlan fieldPlan) {
     String toListType = getListType(fromField, toType);
     Object transformedValue =
         getTransformedFieldValueSimpleType(
-            fromField, fromType, toListType, fieldValue, enumValues, fieldMap);
+            fromField, fromType, toListType, fieldValue, enumLookup, fieldPlan);
     List<Object> toList = new ArrayList<Object>();
     toList.add(transformedValue);
     return toList;
@@ -202,18 +531,18 @@ public class TransformJsonUtil {
       String fromType,
       String toType,
       Object fieldValue,
-      Map<String, String> enumValues,
-      Map<String, Object> fieldMap) {
+      EnumLookup enumLookup,
+      FieldPlan fieldPlan) {
     Object fromValue = null;
     String fromListType = getListType(fromField, fromType);
     if (isCustomListType(fromField, fromType)) {
-      fromValue = filterValue(fromField, fieldMap, fieldValue);
+      fromValue = filterValue(fromField, fieldPlan.getFieldMap(), fieldValue);
     } else {
       List<Object> fromList = (List<Object>) fieldValue;
       fromValue = fromList.get(0);
     }
     return getTransformedFieldValueSimpleType(
-        fromField, fromListType, toType, fromValue, enumValues, fieldMap);
+        fromField, fromListType, toType, fromValue, enumLookup, fieldPlan);
   }
 
   private static Object getTransformedFieldValueListType(
@@ -221,8 +550,8 @@ public class TransformJsonUtil {
       String fromType,
       String toType,
       Object fieldValue,
-      Map<String, String> enumValues,
-      Map<String, Object> fieldMap) {
+      EnumLookup enumLookup,
+      FieldPlan fieldPlan) {
     String fromListType = getListType(fromField, fromType);
     String toListType = getListType(fromField, toType);
     List<Object> fromList = (List<Object>) fieldValue;
@@ -230,7 +559,7 @@ public class TransformJsonUtil {
     for (int i = 0; i < fromList.size(); i++) {
       toList.add(
           getTransformedFieldValueSimpleType(
-              fromField, fromListType, toListType, fromList.get(i), enumValues, fieldMap));
+              fromField, fromListType, toListType, fromList.get(i), enumLookup, fieldPlan));
     }
     return toList;
   }
@@ -239,20 +568,19 @@ public class TransformJsonUtil {
       String fromField,
       String fromType,
       Object fieldValue,
-      Config fieldsConfig,
-      Config enumsConfig,
+      TransformationPlan plan,
+      EnumMappings enumMappings,
       String operationMode) {
     String fromListElementType = getListType(fromField, fromType);
     List<Map<String, Object>> outputList = new ArrayList<Map<String, Object>>();
     if (isCustomListType(fromField, fromType)) {
       List<Map<String, Object>> fromValueList = (List<Map<String, Object>>) fieldValue;
-      for (Map<String, Object> inputMapFromList : fromValueList) {
-        Map<String, Object> outMap = null;
-        outMap =
-            transform(
-                fieldsConfig, inputMapFromList, fromListElementType, enumsConfig, operationMode);
-        outputList.add(outMap);
-      }
+      outputList =
+          ParallelListTransform.map(
+              fromValueList,
+              inputMapFromList ->
+                  transform(
+                      plan, inputMapFromList, fromListElementType, enumMappings, operationMode));
     } else {
       ProjectLogger.log(
           "TransformJsonUtil:getTransformedFieldValueCustomListType : Invalid Custom ListType Configuration. For Custom List Transformation, both FROM and TO types should be of custom type",
@@ -270,38 +598,28 @@ public class TransformJsonUtil {
       String fromType,
       String toType,
       Object fieldValue,
-      Map<String, String> enumValues,
-      Map<String, Object> fieldMap) {
+      EnumLookup enumLookup,
+      FieldPlan fieldPlan) {
 
     if (null == fieldValue) {
       return null;
     }
-    String value = fieldValue.toString();
-    value = getEnumValue(fromField, enumValues, value);
-
-    switch (toType) {
-      case TransformationConstants.STRING_TYPE:
-        return new String(value);
-      case TransformationConstants.INTEGER_TYPE:
-        return new Integer(value);
-      case TransformationConstants.BOOLEAN_TYPE:
-        return new Boolean(value);
-      case TransformationConstants.DOUBLE_TYPE:
-        return new Double(value);
-      case TransformationConstants.LONG_TYPE:
-        return new Long(value);
-      case TransformationConstants.DATE_STRING_TYPE:
-        return getTransformedFieldValueDate(fromField, value, fieldMap);
-      default:
-        return fieldValue;
-    }
-  }
-
-  private static String getTransformedFieldValueDate(
-      String fromField, String value, Map<String, Object> fieldMap) {
-    String fromDateFormat = (String) fieldMap.get(TransformationConstants.FROM_DATE_FORMAT);
-    String toDateFormat = (String) fieldMap.get(TransformationConstants.TO_DATE_FORMAT);
-    if (StringUtils.isBlank(fromDateFormat) || StringUtils.isBlank(toDateFormat)) {
+    if (TransformationConstants.DATE_STRING_TYPE.equals(toType)) {
+      return getTransformedFieldValueDate(
+          fromField, getEnumValue(fromField, enumLookup, fieldValue.toString()), fieldPlan);
+    }
+    if (null == enumLookup) {
+      TypeCoercion.Coercion coercion = TypeCoercion.get(fromType, toType);
+      return null == coercion ? fieldValue : coercion.coerce(fieldValue);
+    }
+    String value = getEnumValue(fromField, enumLookup, fieldValue.toString());
+    TypeCoercion.Coercion coercion = TypeCoercion.get(TransformationConstants.STRING_TYPE, toType);
+    return null == coercion ? fieldValue : coercion.coerce(value);
+  }
+
+  static String getTransformedFieldValueDate(String fromField, String value, FieldPlan fieldPlan) {
+    DateConversion dateConversion = fieldPlan.getDateConversion();
+    if (null == dateConversion) {
       ProjectLogger.log(
           "TransformJsonUtil:getTransformedFieldValueDate : fromDateFormat or toDateFormat configuration is missing",
           LoggerEnum.ERROR.name());
@@ -310,12 +628,9 @@ public class TransformJsonUtil {
           ProjectUtil.formatMessage(
               ResponseCode.errorJsonTransformInvalidDateFormat.getErrorMessage(), fromField));
     }
-    SimpleDateFormat sdf1 = new SimpleDateFormat(fromDateFormat);
-    SimpleDateFormat sdf2 = new SimpleDateFormat(toDateFormat);
     String transformedValue = null;
     try {
-      java.util.Date date = sdf1.parse(value);
-      transformedValue = sdf2.format(date);
+      transformedValue = dateConversion.convert(value);
     } catch (ParseException e) {
       ProjectLogger.log(
           "TransformJsonUtil:getTransformedFieldValueDate : Invalid value for date transformation - "
@@ -329,7 +644,7 @@ public class TransformJsonUtil {
     return transformedValue;
   }
 
-  private static boolean isCustomListType(String fromField, String listType) {
+  static boolean isCustomListType(String fromField, String listType) {
     if (!isListType(listType)) {
       return false;
     }
@@ -344,71 +659,44 @@ public class TransformJsonUtil {
     return isCustomList;
   }
 
-  private static boolean isListType(String type) {
+  static boolean isListType(String type) {
     if (type.contains(TransformationConstants.LIST)) {
       return true;
     }
     return false;
   }
 
-  private static Object getValueFromIncomingMap(
-      List<String> fromFields, Map<String, Object> inputMap) {
+  static Object getValueFromIncomingMap(List<FieldPath> fromPaths, Map<String, Object> inputMap) {
 
-    String value = "";
-    for (String fromField : fromFields) {
-      String[] fromFieldHierarchy = fromField.split(TransformationConstants.DOT_REGEX);
-      Map<String, Object> map = inputMap;
-      for (int i = 0; i < fromFieldHierarchy.length - 1; i++) {
-        map = (Map<String, Object>) map.get(fromFieldHierarchy[i]);
-      }
-      value =
-          value
-              + (String) (map.get(fromFieldHierarchy[fromFieldHierarchy.length - 1]))
-              + TransformationConstants.SINGLE_SPACE;
+    StringBuilder value = new StringBuilder();
+    for (FieldPath fromPath : fromPaths) {
+      value
+          .append((String) fromPath.getValue(inputMap))
+          .append(TransformationConstants.SINGLE_SPACE);
     }
-    return value.trim();
-  }
-
-  private static Object getValueFromIncomingMap(String fromField, Map<String, Object> inputMap) {
-
-    String[] fromFieldHierarchy = fromField.split(TransformationConstants.DOT_REGEX);
-    Map<String, Object> map = inputMap;
-    for (int i = 0; i < fromFieldHierarchy.length - 1; i++) {
-      map = (Map<String, Object>) map.get(fromFieldHierarchy[i]);
-    }
-    return map.get(fromFieldHierarchy[fromFieldHierarchy.length - 1]);
+    return value.toString().trim();
   }
 
   private static void putValueIntoOutgoingMap(
-      String toField, String toType, Object value, Map<String, Object> outputMap) {
+      FieldPath toPath, String toType, Object value, Map<String, Object> outputMap) {
 
-    String[] tofieldHierarchy = toField.split(TransformationConstants.DOT_REGEX);
-    Map<String, Object> map = outputMap;
-    for (int i = 0; i < tofieldHierarchy.length - 1; i++) {
-      if (!map.containsKey(tofieldHierarchy[i])) {
-        map.put(tofieldHierarchy[i], new HashMap<String, Object>());
-      }
-      map = (Map<String, Object>) map.get(tofieldHierarchy[i]);
-    }
-    if (isListType(toType) && map.containsKey(tofieldHierarchy[tofieldHierarchy.length - 1])) {
-      List<Object> list = (List<Object>) map.get(tofieldHierarchy[tofieldHierarchy.length - 1]);
+    Map<String, Object> map = toPath.getOrCreateParent(outputMap);
+    String leaf = toPath.getLeaf();
+    if (isListType(toType) && map.containsKey(leaf)) {
+      List<Object> list = (List<Object>) map.get(leaf);
       list.addAll((List<Object>) value);
-      map.put(tofieldHierarchy[tofieldHierarchy.length - 1], list);
     } else {
-      map.put(tofieldHierarchy[tofieldHierarchy.length - 1], value);
+      map.put(leaf, value);
     }
   }
 
-  private static String getEnumValue(
-      String fromField, Map<String, String> enumValues, String inputValue) {
-    if (null == enumValues) {
+  static String getEnumValue(String fromField, EnumLookup enumLookup, String inputValue) {
+    if (null == enumLookup) {
       return inputValue;
     }
-    Set<String> enumKeySet = enumValues.keySet();
-    for (String key : enumKeySet) {
-      if (key.equalsIgnoreCase(inputValue)) {
-        return enumValues.get(key);
-      }
+    String enumValue = enumLookup.get(inputValue);
+    if (null != enumValue) {
+      return enumValue;
     }
     ProjectLogger.log(
         "TransformJsonUtil:getEnumValue : enum value not configured for " + inputValue,
@@ -420,7 +708,7 @@ public class TransformJsonUtil {
     return inputValue;
   }
 
-  private static String getListType(String fromField, String fieldType) {
+  static String getListType(String fromField, String fieldType) {
     Matcher matcher = listTypePattern.matcher(fieldType);
     String listType = null;
     if (matcher.find()) {
@@ -437,41 +725,30 @@ public class TransformJsonUtil {
     return listType;
   }
 
-  private static Map<String, String> getConfiguredEnumValues(
-      String fromField, Map<String, Object> fieldMap, Config enumsConfig, String operationMode) {
-    Object enumName = fieldMap.get(TransformationConstants.ENUM);
-    Map<String, String> enumValues = null;
-    if (enumName instanceof String) {
-      try {
-        enumValues =
-            (Map<String, String>)
-                enumsConfig.getAnyRef(
-                    TransformationConstants.ENUMS + TransformationConstants.DOT + enumName);
-      } catch (ConfigException e) {
-        enumValues = null;
-      }
-    } else if (enumName instanceof Map) {
-      enumValues = (Map<String, String>) enumName;
+  static EnumLookup getConfiguredEnumLookup(
+      String fromField, FieldPlan fieldPlan, EnumMappings enumMappings, String operationMode) {
+    Object enumName = fieldPlan.getFieldMap().get(TransformationConstants.ENUM);
+    if (null == enumName) {
+      return null;
     }
-    if (null != enumName && null == enumValues) {
+    EnumLookup enumLookup = fieldPlan.getInlineEnumLookup(operationMode);
+    if (null == enumLookup && null != fieldPlan.getEnumName()) {
+      enumLookup = enumMappings.getLookup(fieldPlan.getEnumName(), operationMode);
+    }
+    if (null == enumLookup) {
       ProjectLogger.log(
-          "TransformJsonUtil:getConfiguredEnumValues : enum values missing in the configuration for field "
-              + (String) fieldMap.get(TransformationConstants.TO_FIELD_NAME),
+          "TransformJsonUtil:getConfiguredEnumLookup : enum values missing in the configuration for field "
+              + fieldPlan.getToField(),
           LoggerEnum.ERROR.name());
       ProjectCommonException.throwServerErrorException(
           ResponseCode.errorJsonTransformEnumValuesEmpty,
           ProjectUtil.formatMessage(
               ResponseCode.errorJsonTransformEnumValuesEmpty.getErrorMessage(), fromField));
     }
-    if (null != enumValues
-        && SunbirdExtensionConstants.OPERATION_MODE_READ.equalsIgnoreCase(operationMode)) {
-      HashBiMap<String, String> biMap = HashBiMap.create(enumValues);
-      enumValues = biMap.inverse();
-    }
-    return enumValues;
+    return enumLookup;
   }
 
-  private static boolean skipTransformationForField(Object fieldValue) {
+  static boolean skipTransformationForField(Object fieldValue) {
     if (null == fieldValue) {
       return true;
     }
@@ -0,0 +1,124 @@
+package org.sunbird.extension.util;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigValue;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+
+/**
+ * Compiled form of a field configuration (e.g. registry-user-write-mapping.conf). Every root type
+ * configured in the file is compiled into immutable field descriptors keyed by field name.
+ */
+public final class TransformationPlan {
+
+  private final String configFile;
+  private final Map<String, Map<String, FieldPlan>> rootPlans;
+  private final Map<String, OutputLayout> outputLayouts;
+  private static final OutputLayout EMPTY_LAYOUT = OutputLayout.compile(Collections.emptyList());
+
+  private TransformationPlan(String configFile, Map<String, Map<String, FieldPlan>> rootPlans) {
+    this.configFile = configFile;
+    this.rootPlans = rootPlans;
+    Map<String, OutputLayout> layouts = new HashMap<>();
+    for (Map.Entry<String, Map<String, FieldPlan>> rootEntry : rootPlans.entrySet()) {
+      OutputLayout layout = OutputLayout.compile(rootEntry.getValue().values());
+      if (null == layout) {
+        ProjectLogger.log(
+            "TransformationPlan: Output of "
+                + rootEntry.getKey()
+                + " in "
+                + configFile
+                + " cannot be streamed, it will be built as a map",
+            LoggerEnum.INFO.name());
+      } else {
+        layouts.put(rootEntry.getKey(), layout);
+      }
+    }
+    this.outputLayouts = Collections.unmodifiableMap(layouts);
+  }
+
+  /**
+   * Compiles the given field configuration into a transformation plan
+   *
+   * @param fieldsConfig Field Configurations for the transformation
+   * @return Compiled transformation plan
+   */
+  public static TransformationPlan compile(Config fieldsConfig) {
+    String configFile = ConfigUtil.getConfigOriginFile(fieldsConfig);
+    ProjectLogger.log(
+        "TransformationPlan:compile: Compiling FieldsConfigurationFile = " + configFile,
+        LoggerEnum.INFO.name());
+    Map<String, Map<String, FieldPlan>> rootPlans = new HashMap<>();
+    for (Map.Entry<String, ConfigValue> rootEntry : fieldsConfig.root().entrySet()) {
+      if (rootEntry.getValue() instanceof ConfigObject) {
+        rootPlans.put(
+            rootEntry.getKey(),
+            compileRoot(configFile, rootEntry.getKey(), (ConfigObject) rootEntry.getValue()));
+      }
+    }
+    return new TransformationPlan(configFile, Collections.unmodifiableMap(rootPlans));
+  }
+
+  private static Map<String, FieldPlan> compileRoot(
+      String configFile, String rootType, ConfigObject rootObject) {
+    Map<String, FieldPlan> fieldPlans = new HashMap<>();
+    for (Map.Entry<String, ConfigValue> fieldEntry : rootObject.entrySet()) {
+      if (!(fieldEntry.getValue() instanceof ConfigObject)) {
+        continue;
+      }
+      try {
+        Map<String, Object> fieldConfig =
+            new HashMap<>(((ConfigObject) fieldEntry.getValue()).unwrapped());
+        fieldPlans.put(fieldEntry.getKey(), new FieldPlan(fieldEntry.getKey(), fieldConfig));
+      } catch (ConfigException e) {
+        ProjectLogger.log(
+            "TransformationPlan:compileRoot: Skipping field "
+                + rootType
+                + TransformationConstants.DOT
+                + fieldEntry.getKey()
+                + " in "
+                + configFile
+                + " = "
+                + e.getMessage(),
+            LoggerEnum.ERROR.name());
+      }
+    }
+    return Collections.unmodifiableMap(fieldPlans);
+  }
+
+  public String getConfigFile() {
+    return configFile;
+  }
+
+  /** @return Root types configured in the field configurations */
+  public Set<String> getRootTypes() {
+    return rootPlans.keySet();
+  }
+
+  /**
+   * @param rootType Root Configuration field in the field configurations
+   * @return Field descriptors keyed by field name, empty if the root type is not configured
+   */
+  public Map<String, FieldPlan> getFieldPlans(String rootType) {
+    Map<String, FieldPlan> fieldPlans = rootPlans.get(rootType);
+    return null == fieldPlans ? Collections.<String, FieldPlan>emptyMap() : fieldPlans;
+  }
+
+  /**
+   * @param rootType Root Configuration field in the field configurations
+   * @return Layout of the output of the root type, empty if the root type is not configured, null
+   *     if the output of the root type cannot be streamed
+   */
+  OutputLayout getOutputLayout(String rootType) {
+    if (!rootPlans.containsKey(rootType)) {
+      return EMPTY_LAYOUT;
+    }
+    return outputLayouts.get(rootType);
+  }
+}
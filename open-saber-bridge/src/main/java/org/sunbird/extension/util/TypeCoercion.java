@@ -0,0 +1,133 @@
+package org.sunbird.extension.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Coercions of simple values between the String, Integer, Boolean, Double and Long types, looked up
+ * once per (fromType, toType) pair. A value already of the target type is returned as is, strings
+ * are parsed with valueOf, so that small integers and booleans come from the cached boxes, and
+ * Integer, Long, Short and Byte values are converted between numeric types without going through
+ * their text. Other values are coerced from their text, with the same result and the same
+ * NumberFormatException as parsing the text.
+ */
+final class TypeCoercion {
+
+  /** Coercion of a non-null value to a type */
+  interface Coercion {
+    Object coerce(Object value);
+  }
+
+  private static final Map<String, Map<String, Coercion>> coercions = new HashMap<>();
+  private static final Map<String, Coercion> genericCoercions = new HashMap<>();
+
+  static {
+    genericCoercions.put(TransformationConstants.STRING_TYPE, TypeCoercion::toText);
+    genericCoercions.put(TransformationConstants.INTEGER_TYPE, TypeCoercion::toInteger);
+    genericCoercions.put(TransformationConstants.BOOLEAN_TYPE, TypeCoercion::toBoolean);
+    genericCoercions.put(TransformationConstants.DOUBLE_TYPE, TypeCoercion::toDouble);
+    genericCoercions.put(TransformationConstants.LONG_TYPE, TypeCoercion::toLong);
+    for (String fromType : genericCoercions.keySet()) {
+      Map<String, Coercion> fromCoercions = new HashMap<>();
+      for (Map.Entry<String, Coercion> toCoercion : genericCoercions.entrySet()) {
+        fromCoercions.put(
+            toCoercion.getKey(),
+            TransformationConstants.STRING_TYPE.equals(fromType)
+                ? parser(toCoercion.getKey(), toCoercion.getValue())
+                : toCoercion.getValue());
+      }
+      coercions.put(fromType, fromCoercions);
+    }
+  }
+
+  private TypeCoercion() {}
+
+  /**
+   * @param fromType Configured type of the value, a simple type or any other type
+   * @param toType Type to coerce to
+   * @return Coercion to the type, null if the type is not one of String, Integer, Boolean, Double
+   *     or Long, in which case the value is not coerced
+   */
+  static Coercion get(String fromType, String toType) {
+    Map<String, Coercion> fromCoercions = coercions.get(fromType);
+    return null == fromCoercions ? genericCoercions.get(toType) : fromCoercions.get(toType);
+  }
+
+  /** @return Coercion of values configured as strings, parsing them without an instanceof chain */
+  private static Coercion parser(String toType, Coercion generic) {
+    switch (toType) {
+      case TransformationConstants.INTEGER_TYPE:
+        return value ->
+            value instanceof String ? Integer.valueOf((String) value) : generic.coerce(value);
+      case TransformationConstants.BOOLEAN_TYPE:
+        return value ->
+            value instanceof String ? Boolean.valueOf((String) value) : generic.coerce(value);
+      case TransformationConstants.DOUBLE_TYPE:
+        return value ->
+            value instanceof String ? Double.valueOf((String) value) : generic.coerce(value);
+      case TransformationConstants.LONG_TYPE:
+        return value ->
+            value instanceof String ? Long.valueOf((String) value) : generic.coerce(value);
+      default:
+        return generic;
+    }
+  }
+
+  private static Object toText(Object value) {
+    return value instanceof String ? value : value.toString();
+  }
+
+  private static Object toInteger(Object value) {
+    if (value instanceof Integer) {
+      return value;
+    }
+    if (isIntegral(value)) {
+      long longValue = ((Number) value).longValue();
+      if (longValue != (int) longValue) {
+        throw new NumberFormatException("For input string: \"" + value + "\"");
+      }
+      return Integer.valueOf((int) longValue);
+    }
+    if (value instanceof Double) {
+      throw new NumberFormatException("For input string: \"" + value + "\"");
+    }
+    return Integer.valueOf(value.toString());
+  }
+
+  private static Object toLong(Object value) {
+    if (value instanceof Long) {
+      return value;
+    }
+    if (isIntegral(value)) {
+      return Long.valueOf(((Number) value).longValue());
+    }
+    if (value instanceof Double) {
+      throw new NumberFormatException("For input string: \"" + value + "\"");
+    }
+    return Long.valueOf(value.toString());
+  }
+
+  private static Object toDouble(Object value) {
+    if (value instanceof Double) {
+      return value;
+    }
+    if (isIntegral(value)) {
+      return Double.valueOf(((Number) value).longValue());
+    }
+    return Double.valueOf(value.toString());
+  }
+
+  private static Object toBoolean(Object value) {
+    if (value instanceof Boolean) {
+      return value;
+    }
+    return Boolean.valueOf(value.toString());
+  }
+
+  private static boolean isIntegral(Object value) {
+    return value instanceof Integer
+        || value instanceof Long
+        || value instanceof Short
+        || value instanceof Byte;
+  }
+}
@@ -0,0 +1,558 @@
+package org.sunbird.extension.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.responsecode.ResponseCode;
+
+/**
+ * Write-behind queue of registry entity updates. An update offered to the queue is appended to a
+ * {@link WriteJournal} and acknowledged at once, and a background thread drains the queue to the
+ * registry in batches run on the registry executor. Updates of the same entity waiting in the queue
+ * are coalesced into one, merging the fields of the later update over those of the earlier, so that
+ * only the latest state is sent. Writes left in the journal by a crash are replayed when the queue
+ * is loaded. The access tokens of users expire before a replay or a long retry, and are not to be
+ * left on disk, so updates are journaled without them and sent with the service access token of the
+ * queue. Configured by registry.update.writeBehind of registry-bridge.conf.
+ *
+ * <p>An update failing is retried after an exponential backoff, and stays journaled until sent. It
+ * is dropped only when the registry fails it maxAttempts times, while failures to reach the
+ * registry, http server errors, and calls rejected by the circuit breaker, bulkhead or executor,
+ * are retried without limit. A synchronous write of an entity is to {@link #cancel(String,
+ * ResponseCode)} its queued update first, so that the older update is not sent after it, and fails
+ * if an update of the entity being sent does not complete within cancelTimeoutMs.
+ *
+ * <p>The journal is appended to and acknowledged outside the monitor of the queue, which guards
+ * only the queued updates, and compacted by the background thread.
+ */
+public final class WriteBehindQueue {
+
+  private static final String WRITE_BEHIND_PATH = "registry.update.writeBehind";
+  private static final String THREAD_NAME = "registry-write-behind";
+  private static final ObjectMapper mapper = new ObjectMapper();
+  private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE =
+      new TypeReference<Map<String, Object>>() {};
+
+  private final WriteJournal journal;
+  private final String serviceAccessToken;
+  private final int batchSize;
+  private final int maxAttempts;
+  private final long initialBackoffMs;
+  private final long maxBackoffMs;
+  private final long cancelTimeoutMs;
+  private final LongSupplier clock;
+  private final Consumer<String> onWritten;
+  private final Object appendLock = new Object();
+  private final Map<String, PendingWrite> pendingWrites = new LinkedHashMap<>();
+  private final Map<String, PendingWrite> inFlightWrites = new HashMap<>();
+  private final AtomicLong droppedCount = new AtomicLong();
+  private final ScheduledExecutorService drainer;
+
+  /** Update of an entity waiting in the queue, coalescing one or more journal writes */
+  private static final class PendingWrite {
+
+    private final String registryId;
+    private final List<Long> sequences = new ArrayList<>();
+    private Map<String, Object> payload;
+    private int attempts;
+    private int failures;
+    private long nextAttemptAt;
+
+    PendingWrite(String registryId) {
+      this.registryId = registryId;
+    }
+
+    /** Merges a later write of the entity over this one */
+    void merge(long sequence, Map<String, Object> laterPayload) {
+      sequences.add(sequence);
+      payload = null == payload ? laterPayload : mergeFields(payload, laterPayload);
+    }
+
+    /** Merges a later update of the entity, queued while this one was being sent, over this one */
+    void merge(PendingWrite later) {
+      sequences.addAll(later.sequences);
+      payload = mergeFields(payload, later.payload);
+    }
+  }
+
+  private WriteBehindQueue(
+      WriteJournal journal,
+      String serviceAccessToken,
+      int batchSize,
+      int maxAttempts,
+      long initialBackoffMs,
+      long maxBackoffMs,
+      long cancelTimeoutMs,
+      long intervalMs,
+      LongSupplier clock,
+      Consumer<String> onWritten) {
+    this.journal = journal;
+    this.serviceAccessToken = serviceAccessToken;
+    this.batchSize = batchSize;
+    this.maxAttempts = maxAttempts;
+    this.initialBackoffMs = initialBackoffMs;
+    this.maxBackoffMs = maxBackoffMs;
+    this.cancelTimeoutMs = cancelTimeoutMs;
+    this.clock = clock;
+    this.onWritten = onWritten;
+    this.drainer =
+        null == journal || intervalMs <= 0
+            ? null
+            : Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat(THREAD_NAME).setDaemon(true).build());
+  }
+
+  /**
+   * @param journal Opened journal, whose live writes are queued again
+   * @param serviceAccessToken Access token the updates are sent to the registry with
+   * @param batchSize Maximum number of updates sent to the registry per batch
+   * @param maxAttempts Attempts of an update failed by the registry after which it is dropped
+   * @param initialBackoffMs Delay before the first retry of an update, doubled on each failure
+   * @param maxBackoffMs Maximum delay before a retry of an update
+   * @param cancelTimeoutMs Maximum wait of a cancel for the update of the entity being sent
+   * @param intervalMs Interval between drains, 0 to drain only on {@link #drain()}
+   * @param clock Current time in milliseconds
+   * @param onWritten Called with the registry id of each entity updated or dropped
+   * @return Enabled queue
+   */
+  static WriteBehindQueue create(
+      WriteJournal journal,
+      String serviceAccessToken,
+      int batchSize,
+      int maxAttempts,
+      long initialBackoffMs,
+      long maxBackoffMs,
+      long cancelTimeoutMs,
+      long intervalMs,
+      LongSupplier clock,
+      Consumer<String> onWritten)
+      throws IOException {
+    WriteBehindQueue queue =
+        new WriteBehindQueue(
+            journal,
+            serviceAccessToken,
+            batchSize,
+            maxAttempts,
+            initialBackoffMs,
+            maxBackoffMs,
+            cancelTimeoutMs,
+            intervalMs,
+            clock,
+            onWritten);
+    List<WriteJournal.Entry> replayed = journal.getLiveEntries();
+    for (WriteJournal.Entry entry : replayed) {
+      Map<String, Object> payload = readPayload(entry);
+      if (null == payload) {
+        journal.acknowledge(Collections.singletonList(entry.getSequence()));
+      } else {
+        queue.coalesce(entry.getSequence(), entry.getKey(), payload);
+      }
+    }
+    if (!replayed.isEmpty()) {
+      BridgeLogger.info(
+          () ->
+              "WriteBehindQueue:create: Writes replayed from journal = "
+                  + replayed.size()
+                  + " Entities = "
+                  + queue.getPendingCount());
+    }
+    if (null != queue.drainer) {
+      queue.drainer.scheduleWithFixedDelay(
+          queue::drainAll, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+    return queue;
+  }
+
+  /** @return Queue which takes no writes, all updates go to the registry synchronously */
+  public static WriteBehindQueue disabled() {
+    return new WriteBehindQueue(
+        null, null, 0, 0, 0, 0, 0, 0, System::currentTimeMillis, registryId -> {});
+  }
+
+  /**
+   * @param config Configuration containing the registry.update.writeBehind block
+   * @param onWritten Called with the registry id of each entity updated or dropped, e.g. to
+   *     invalidate a cache
+   * @return Queue as per the configuration, disabled unless enabled is set
+   */
+  public static WriteBehindQueue load(Config config, Consumer<String> onWritten) {
+    try {
+      Config writeBehindConfig = config.getConfig(WRITE_BEHIND_PATH);
+      if (!writeBehindConfig.getBoolean("enabled")) {
+        return disabled();
+      }
+      String journalFile = writeBehindConfig.getString("journalFile");
+      if (!Paths.get(journalFile).isAbsolute()) {
+        throw new ConfigException.BadValue(
+            WRITE_BEHIND_PATH + ".journalFile", "Journal file path must be absolute");
+      }
+      String serviceAccessToken = writeBehindConfig.getString("serviceAccessToken");
+      if (StringUtils.isBlank(serviceAccessToken)) {
+        throw new ConfigException.BadValue(
+            WRITE_BEHIND_PATH + ".serviceAccessToken",
+            "Service access token required, as user access tokens are not journaled");
+      }
+      WriteJournal journal =
+          WriteJournal.open(
+              Paths.get(journalFile),
+              writeBehindConfig.getInt("journalSizeMb") * 1024 * 1024,
+              writeBehindConfig.getBoolean("forceOnWrite"));
+      ProjectLogger.log(
+          "WriteBehindQueue:load: Write-behind of updates enabled. Journal = " + journalFile,
+          LoggerEnum.INFO.name());
+      return create(
+          journal,
+          serviceAccessToken,
+          writeBehindConfig.getInt("batchSize"),
+          writeBehindConfig.getInt("maxAttempts"),
+          writeBehindConfig.getLong("initialBackoffMs"),
+          writeBehindConfig.getLong("maxBackoffMs"),
+          writeBehindConfig.getLong("cancelTimeoutMs"),
+          writeBehindConfig.getLong("intervalMs"),
+          System::currentTimeMillis,
+          onWritten);
+    } catch (ConfigException | IOException e) {
+      ProjectLogger.log(
+          "WriteBehindQueue:load: Invalid write-behind configuration = " + e.getMessage(),
+          LoggerEnum.ERROR.name());
+      ProjectCommonException.throwServerErrorException(
+          ResponseCode.errorLoadConfig, ResponseCode.errorLoadConfig.getErrorMessage());
+    }
+    return null;
+  }
+
+  public boolean isEnabled() {
+    return null != journal;
+  }
+
+  /**
+   * @param registryId Registry id of the entity
+   * @param payload Entity in registry format, holding the fields to update
+   * @return Whether the update was journaled, false when the queue is disabled or the journal
+   *     cannot take it, in which case the update is to be sent synchronously
+   */
+  public boolean offer(String registryId, Map<String, Object> payload) {
+    if (null == journal) {
+      return false;
+    }
+    try {
+      byte[] payloadBytes = mapper.writeValueAsBytes(payload);
+      // Coalesced in the order journaled, so that a later update is merged over an earlier one
+      synchronized (appendLock) {
+        WriteJournal.Entry entry = journal.append(registryId, payloadBytes);
+        synchronized (this) {
+          coalesce(entry.getSequence(), registryId, payload);
+        }
+      }
+      return true;
+    } catch (IOException e) {
+      BridgeLogger.log(
+          LoggerEnum.WARN,
+          () ->
+              "WriteBehindQueue:offer: Update not journaled, sent synchronously. Id = "
+                  + registryId
+                  + " Error = "
+                  + e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * @param registryId Registry id of the entity
+   * @return Whether an update of the entity is waiting in the queue or being sent
+   */
+  public synchronized boolean isPending(String registryId) {
+    return pendingWrites.containsKey(registryId) || inFlightWrites.containsKey(registryId);
+  }
+
+  /** @return Number of entities with an update waiting in the queue or being sent */
+  public synchronized int getPendingCount() {
+    return pendingWrites.size() + inFlightWrites.size();
+  }
+
+  /** @return Number of updates dropped after failing all attempts */
+  public long getDroppedCount() {
+    return droppedCount.get();
+  }
+
+  /**
+   * Removes the queued update of the entity, waiting up to cancelTimeoutMs for it to complete if it
+   * is being sent, so that a synchronous write of the entity following is not overwritten by the
+   * older update.
+   *
+   * @param registryId Registry id of the entity
+   * @param responseCode Error of the synchronous write, thrown when the update being sent does not
+   *     complete in time
+   */
+  public void cancel(String registryId, ResponseCode responseCode) {
+    if (null == journal) {
+      return;
+    }
+    List<PendingWrite> cancelled = new ArrayList<>();
+    boolean interrupted = false;
+    boolean timedOut = false;
+    long deadline = System.currentTimeMillis() + cancelTimeoutMs;
+    synchronized (this) {
+      while (true) {
+        PendingWrite write = pendingWrites.remove(registryId);
+        if (null != write) {
+          cancelled.add(write);
+        }
+        if (!inFlightWrites.containsKey(registryId)) {
+          break;
+        }
+        long remainingMs = deadline - System.currentTimeMillis();
+        if (remainingMs <= 0) {
+          timedOut = true;
+          break;
+        }
+        try {
+          wait(remainingMs);
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+    for (PendingWrite write : cancelled) {
+      acknowledge(write);
+      BridgeLogger.info(
+          () -> "WriteBehindQueue:cancel: Queued update cancelled. Id = " + registryId);
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    if (timedOut) {
+      ProjectLogger.log(
+          "WriteBehindQueue:cancel: Update being sent not completed in ms = "
+              + cancelTimeoutMs
+              + " Id = "
+              + registryId,
+          LoggerEnum.ERROR.name());
+      ProjectCommonException.throwServerErrorException(
+          responseCode, responseCode.getErrorMessage());
+    }
+  }
+
+  /** Stops draining the queue and releases the journal, whose updates are sent on the next load */
+  public void close() throws IOException {
+    if (null == journal) {
+      return;
+    }
+    if (null != drainer) {
+      drainer.shutdown();
+    }
+    journal.close();
+  }
+
+  private void coalesce(long sequence, String registryId, Map<String, Object> payload) {
+    pendingWrites.computeIfAbsent(registryId, PendingWrite::new).merge(sequence, payload);
+  }
+
+  /** Compacts the journal if due, then drains batches until every update due has been attempted */
+  void drainAll() {
+    try {
+      if (journal.compactIfDue()) {
+        BridgeLogger.info(() -> "WriteBehindQueue:drainAll: Journal compacted");
+      }
+    } catch (IOException e) {
+      ProjectLogger.log(
+          "WriteBehindQueue:drainAll: Journal compaction failed = " + e.getMessage(),
+          LoggerEnum.ERROR.name());
+    }
+    try {
+      int remaining = getPendingCount();
+      while (remaining > 0) {
+        int sent = drain();
+        if (0 == sent) {
+          break;
+        }
+        remaining -= sent;
+      }
+    } catch (RuntimeException e) {
+      ProjectLogger.log(
+          "WriteBehindQueue:drainAll: Drain failed = " + e.getMessage(), LoggerEnum.ERROR.name());
+    }
+  }
+
+  /**
+   * Sends one batch of the updates due to the registry. An update failing is queued again, under
+   * any later update of the entity, and retried after a backoff.
+   *
+   * @return Number of updates sent
+   */
+  int drain() {
+    List<PendingWrite> batch = new ArrayList<>();
+    synchronized (this) {
+      long now = clock.getAsLong();
+      Iterator<PendingWrite> pending = pendingWrites.values().iterator();
+      while (pending.hasNext() && batch.size() < batchSize) {
+        PendingWrite write = pending.next();
+        if (write.nextAttemptAt > now) {
+          continue;
+        }
+        pending.remove();
+        inFlightWrites.put(write.registryId, write);
+        batch.add(write);
+      }
+    }
+    if (batch.isEmpty()) {
+      return 0;
+    }
+    List<BatchResult<Void>> results =
+        OpensaberClientUtil.runBatch(
+            RegistryOperation.UPDATE,
+            batch,
+            write -> {
+              OpensaberClientUtil.updateEntity(write.payload, serviceAccessToken);
+              return null;
+            });
+    for (int i = 0; i < batch.size(); i++) {
+      complete(batch.get(i), results.get(i));
+    }
+    return batch.size();
+  }
+
+  private void complete(PendingWrite write, BatchResult<Void> result) {
+    if (!result.isSuccess()) {
+      Throwable error = result.getError();
+      boolean rejected =
+          hasCause(error, RegistryRejectedException.class)
+              || hasCause(error, RejectedExecutionException.class);
+      if (!rejected) {
+        write.attempts++;
+      }
+      IOException ioError = getCause(error, IOException.class);
+      boolean unreachable = null != ioError && !RegistryHttpException.isClientError(ioError);
+      if (rejected || unreachable || write.attempts < maxAttempts) {
+        synchronized (this) {
+          endFlight(write);
+          retry(write, error);
+        }
+        return;
+      }
+      droppedCount.incrementAndGet();
+      ProjectLogger.log(
+          "WriteBehindQueue:complete: Update dropped after attempts = "
+              + write.attempts
+              + " Id = "
+              + write.registryId
+              + " Error = "
+              + error.getMessage(),
+          LoggerEnum.ERROR.name());
+    }
+    // Acknowledged before the flight ends, so that a cancel waiting on it is not replayed over
+    acknowledge(write);
+    synchronized (this) {
+      endFlight(write);
+    }
+    onWritten.accept(write.registryId);
+  }
+
+  private void endFlight(PendingWrite write) {
+    inFlightWrites.remove(write.registryId);
+    notifyAll();
+  }
+
+  /** Queues the failed write again, under any later update of the entity, after a backoff */
+  private void retry(PendingWrite write, Throwable error) {
+    write.failures++;
+    long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(write.failures - 1, 30));
+    write.nextAttemptAt = clock.getAsLong() + backoffMs;
+    PendingWrite later = pendingWrites.remove(write.registryId);
+    if (null != later) {
+      write.merge(later);
+    }
+    pendingWrites.put(write.registryId, write);
+    BridgeLogger.log(
+        LoggerEnum.WARN,
+        () ->
+            "WriteBehindQueue:retry: Update failed, retried in ms = "
+                + backoffMs
+                + " Id = "
+                + write.registryId
+                + " Error = "
+                + error.getMessage());
+  }
+
+  private static boolean hasCause(Throwable error, Class<? extends Throwable> type) {
+    return null != getCause(error, type);
+  }
+
+  /** @return First error of the type in the cause chain of the error, null if none */
+  private static <T extends Throwable> T getCause(Throwable error, Class<T> type) {
+    for (Throwable cause = error; null != cause; cause = cause.getCause()) {
+      if (type.isInstance(cause)) {
+        return type.cast(cause);
+      }
+    }
+    return null;
+  }
+
+  private void acknowledge(PendingWrite write) {
+    try {
+      journal.acknowledge(write.sequences);
+    } catch (IOException e) {
+      ProjectLogger.log(
+          "WriteBehindQueue:acknowledge: Journal acknowledgement failed, update may be replayed. Id = "
+              + write.registryId
+              + " Error = "
+              + e.getMessage(),
+          LoggerEnum.ERROR.name());
+    }
+  }
+
+  private static Map<String, Object> readPayload(WriteJournal.Entry entry) {
+    try {
+      return mapper.readValue(entry.getPayload(), PAYLOAD_TYPE);
+    } catch (IOException e) {
+      ProjectLogger.log(
+          "WriteBehindQueue:readPayload: Journaled write unreadable, skipped. Id = "
+              + entry.getKey(),
+          LoggerEnum.ERROR.name());
+      return null;
+    }
+  }
+
+  /**
+   * @return Fields of the earlier payload overwritten by those of the later one, with nested maps
+   *     merged field by field
+   */
+  @SuppressWarnings("unchecked")
+  static Map<String, Object> mergeFields(Map<String, Object> earlier, Map<String, Object> later) {
+    Map<String, Object> merged = new LinkedHashMap<>(earlier);
+    for (Map.Entry<String, Object> field : later.entrySet()) {
+      Object earlierValue = merged.get(field.getKey());
+      if (earlierValue instanceof Map && field.getValue() instanceof Map) {
+        merged.put(
+            field.getKey(),
+            mergeFields(
+                (Map<String, Object>) earlierValue, (Map<String, Object>) field.getValue()));
+      } else {
+        merged.put(field.getKey(), field.getValue());
+      }
+    }
+    return merged;
+  }
+}
@@ -0,0 +1,312 @@
+package org.sunbird.extension.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import org.sunbird.common.models.util.LoggerEnum;
+
+/**
+ * Append-only journal of registry writes in a memory-mapped file of fixed capacity. A write is
+ * appended as a record holding its sequence number, key and payload, and is live until a record
+ * acknowledging its sequence number is appended. No credential is journaled, so that none is left
+ * on disk.
+ *
+ * <p>Records are appended to the mapped file, so that they survive a crash of the process once
+ * appended, and survive a crash of the host only once forced. Each record carries a CRC, so that a
+ * record torn by a crash ends the journal on replay. Appends do not compact the journal, which is
+ * left to {@link #compactIfDue()}, called off the path of appends, copying the live records to a
+ * new file which replaces it.
+ *
+ * <p>An open journal holds an exclusive lock on a lock file next to it, so that a second process,
+ * or a restart overlapping the previous process, fails to open the journal instead of corrupting
+ * it.
+ */
+final class WriteJournal {
+
+  private static final byte RECORD_WRITE = 1;
+  private static final byte RECORD_ACK = 2;
+  private static final int HEADER_SIZE = 8;
+
+  private final Path file;
+  private final int capacity;
+  private final boolean forceOnWrite;
+  private final Map<Long, Entry> liveEntries = new LinkedHashMap<>();
+  private MappedByteBuffer buffer;
+  private FileChannel lockChannel;
+  private long nextSequence = 1;
+  private int compactedSize;
+
+  /** Live write of the journal */
+  static final class Entry {
+
+    private final long sequence;
+    private final String key;
+    private final byte[] payload;
+
+    Entry(long sequence, String key, byte[] payload) {
+      this.sequence = sequence;
+      this.key = key;
+      this.payload = payload;
+    }
+
+    long getSequence() {
+      return sequence;
+    }
+
+    String getKey() {
+      return key;
+    }
+
+    byte[] getPayload() {
+      return payload;
+    }
+  }
+
+  private WriteJournal(Path file, int capacity, boolean forceOnWrite) {
+    this.file = file;
+    this.capacity = capacity;
+    this.forceOnWrite = forceOnWrite;
+  }
+
+  /**
+   * Opens the journal, replaying the records of an existing file
+   *
+   * @param file Journal file, created if absent
+   * @param capacity Capacity of the journal file in bytes
+   * @param forceOnWrite Whether each record is forced to the storage device as it is appended
+   * @return Journal open for appends after the last valid record
+   * @throws IOException When the journal is held open by another process or cannot be read
+   */
+  static WriteJournal open(Path file, int capacity, boolean forceOnWrite) throws IOException {
+    WriteJournal journal = new WriteJournal(file, capacity, forceOnWrite);
+    if (null != file.getParent()) {
+      Files.createDirectories(file.getParent());
+    }
+    journal.lockChannel = lock(file);
+    try {
+      journal.buffer =
+          map(file, Math.max(capacity, Files.exists(file) ? (int) Files.size(file) : 0));
+      journal.replay();
+    } catch (IOException | RuntimeException e) {
+      journal.close();
+      throw e;
+    }
+    return journal;
+  }
+
+  /** @return Channel of the lock file of the journal, holding an exclusive lock on it */
+  private static FileChannel lock(Path file) throws IOException {
+    Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+    FileChannel channel =
+        FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    FileLock lock;
+    try {
+      lock = channel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      lock = null;
+    }
+    if (null == lock) {
+      channel.close();
+      throw new IOException("Write journal " + file + " is in use by another process");
+    }
+    return channel;
+  }
+
+  /** Releases the lock of the journal, after which it is not to be used */
+  synchronized void close() throws IOException {
+    if (null != lockChannel) {
+      // Closing the channel releases its lock
+      lockChannel.close();
+      lockChannel = null;
+    }
+  }
+
+  private static MappedByteBuffer map(Path file, int capacity) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+  }
+
+  private void replay() throws IOException {
+    int position = 0;
+    while (position + HEADER_SIZE <= buffer.capacity()) {
+      int length = buffer.getInt(position);
+      if (0 == length) {
+        break;
+      }
+      if (length < 0
+          || position + HEADER_SIZE + length > buffer.capacity()
+          || buffer.getInt(position + 4) != crc(getBody(position, length))) {
+        BridgeLogger.log(
+            LoggerEnum.WARN,
+            () -> "WriteJournal:replay: Torn record ignored at end of journal " + file);
+        clear(position);
+        break;
+      }
+      readRecord(getBody(position, length));
+      position += HEADER_SIZE + length;
+    }
+    buffer.position(position);
+  }
+
+  private byte[] getBody(int position, int length) {
+    byte[] body = new byte[length];
+    ByteBuffer record = buffer.duplicate();
+    record.position(position + HEADER_SIZE);
+    record.get(body);
+    return body;
+  }
+
+  /** Zeroes the journal from the position, so that a torn record is not read after later records */
+  private void clear(int position) {
+    for (int i = position; i < buffer.capacity(); i++) {
+      buffer.put(i, (byte) 0);
+    }
+  }
+
+  private void readRecord(byte[] body) throws IOException {
+    DataInputStream input = new DataInputStream(new ByteArrayInputStream(body));
+    byte type = input.readByte();
+    long sequence = input.readLong();
+    nextSequence = Math.max(nextSequence, sequence + 1);
+    if (RECORD_ACK == type) {
+      liveEntries.remove(sequence);
+      return;
+    }
+    String key = input.readUTF();
+    byte[] payload = new byte[input.readInt()];
+    input.readFully(payload);
+    liveEntries.put(sequence, new Entry(sequence, key, payload));
+  }
+
+  /** @return Live writes, in the order they were appended */
+  synchronized List<Entry> getLiveEntries() {
+    return new ArrayList<>(liveEntries.values());
+  }
+
+  /**
+   * @param key Key of the write, e.g. registry id of the entity
+   * @param payload Payload of the write
+   * @return Live write appended
+   * @throws IOException When the write does not fit in the journal until it is compacted
+   */
+  synchronized Entry append(String key, byte[] payload) throws IOException {
+    Entry entry = new Entry(nextSequence, key, payload);
+    byte[] record = writeRecord(entry, RECORD_WRITE);
+    if (buffer.remaining() < record.length) {
+      throw new IOException("Write journal " + file + " is full");
+    }
+    put(record);
+    nextSequence++;
+    liveEntries.put(entry.getSequence(), entry);
+    return entry;
+  }
+
+  /**
+   * @param sequences Sequence numbers of the live writes completed, whose acknowledgements not
+   *     fitting in the journal take effect when it is next compacted
+   */
+  synchronized void acknowledge(Collection<Long> sequences) throws IOException {
+    for (Long sequence : sequences) {
+      if (null == liveEntries.remove(sequence)) {
+        continue;
+      }
+      byte[] record = writeRecord(new Entry(sequence, null, null), RECORD_ACK);
+      if (buffer.remaining() >= record.length) {
+        put(record);
+      }
+    }
+  }
+
+  /**
+   * Compacts the journal once three quarters of the space left by the last compaction are used
+   *
+   * @return Whether the journal was compacted
+   */
+  synchronized boolean compactIfDue() throws IOException {
+    if (buffer.remaining() > (capacity - compactedSize) / 4) {
+      return false;
+    }
+    compact();
+    return true;
+  }
+
+  /** @return Bytes of the journal file in use */
+  synchronized int getUsedBytes() {
+    return buffer.position();
+  }
+
+  private void put(byte[] record) {
+    buffer.put(record);
+    if (forceOnWrite) {
+      buffer.force();
+    }
+  }
+
+  /** Replaces the journal file by a file holding only the live writes */
+  private void compact() throws IOException {
+    Path compactFile = file.resolveSibling(file.getFileName() + ".compact");
+    Files.deleteIfExists(compactFile);
+    MappedByteBuffer compactBuffer = map(compactFile, capacity);
+    for (Entry entry : liveEntries.values()) {
+      byte[] record = writeRecord(entry, RECORD_WRITE);
+      if (compactBuffer.remaining() < record.length) {
+        throw new IOException("Write journal " + file + " is full");
+      }
+      compactBuffer.put(record);
+    }
+    compactBuffer.force();
+    Files.move(
+        compactFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    buffer = compactBuffer;
+    compactedSize = buffer.position();
+    BridgeLogger.info(
+        () ->
+            "WriteJournal:compact: Journal "
+                + file
+                + " compacted to live writes = "
+                + liveEntries.size());
+  }
+
+  private static byte[] writeRecord(Entry entry, byte type) throws IOException {
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    DataOutputStream output = new DataOutputStream(body);
+    output.writeByte(type);
+    output.writeLong(entry.getSequence());
+    if (RECORD_WRITE == type) {
+      output.writeUTF(entry.getKey());
+      output.writeInt(entry.getPayload().length);
+      output.write(entry.getPayload());
+    }
+    output.flush();
+    byte[] bodyBytes = body.toByteArray();
+    ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + bodyBytes.length);
+    record.putInt(bodyBytes.length).putInt(crc(bodyBytes)).put(bodyBytes);
+    return record.array();
+  }
+
+  private static int crc(byte[] body) {
+    CRC32 crc = new CRC32();
+    crc.update(body, 0, body.length);
+    return (int) crc.getValue();
+  }
+}
@@ -0,0 +1,122 @@
+package org.sunbird.extension.user.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.responsecode.ResponseCode;
+import org.sunbird.extension.util.ConfigUtil;
+import org.sunbird.extension.util.SunbirdExtensionConstants;
+import org.sunbird.extension.util.TestUtil;
+import org.sunbird.extension.util.TransformJsonUtil;
+
+@SuppressWarnings("unchecked")
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore({"javax.management.*", "javax.net.ssl.*", "javax.security.*"})
+public class UpdateDeltaTest {
+
+  private static final String REGISTRY_ID =
+      "http://localhost:8080/ba7b659d-3c24-4b71-ae67-5208854a700c";
+
+  private UserMappings userMappings =
+      UserMappings.compile(
+          Arrays.asList(
+              ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_ENUMS_MAPPING_FILE),
+              ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_WRITE_MAPPING_FILE),
+              ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_READ_MAPPING_FILE)),
+          false,
+          false);
+  private UpdateDelta updateDelta =
+      UpdateDelta.create(Collections.singletonList(JsonKey.REGISTRY_ID), true);
+
+  @Test
+  public void testComparableFieldsOnlyThoseReadBackIntoSameField() {
+    Set<String> comparableFields =
+        UpdateDelta.getComparableFields(
+                TransformJsonUtil.getTransformationPlan(
+                    ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_WRITE_MAPPING_FILE)),
+                TransformJsonUtil.getTransformationPlan(
+                    ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_READ_MAPPING_FILE)))
+            .get("teacher");
+    assertTrue(comparableFields.containsAll(Arrays.asList("firstName", "dob", "employmentState")));
+    assertFalse(comparableFields.contains("phone"));
+    assertFalse(comparableFields.contains("externalIds"));
+  }
+
+  @Test
+  public void testChangedInputHoldsChangedAndIdentityFieldsOnly() {
+    Map<String, Object> userProfileMap = getLastKnownState();
+    userProfileMap.put(JsonKey.REGISTRY_ID, REGISTRY_ID);
+    userProfileMap.put("firstName", "Jane");
+    Map<String, Object> changedInput =
+        userMappings.getChangedInput(updateDelta, userProfileMap, getLastKnownState(), "teacher");
+    assertEquals(
+        new HashSet<>(Arrays.asList(JsonKey.REGISTRY_ID, "firstName")), changedInput.keySet());
+    assertEquals("Jane", changedInput.get("firstName"));
+  }
+
+  @Test
+  public void testChangedInputNullWhenNoMappedFieldChanged() {
+    Map<String, Object> userProfileMap = getLastKnownState();
+    userProfileMap.put(JsonKey.REGISTRY_ID, REGISTRY_ID);
+    userProfileMap.put(SunbirdExtensionConstants.USER_TYPE, "teacher");
+    userProfileMap.put("unmappedField", "value");
+    assertNull(
+        userMappings.getChangedInput(updateDelta, userProfileMap, getLastKnownState(), "teacher"));
+  }
+
+  @Test
+  public void testChangedInputHoldsFieldsNotComparable() {
+    Map<String, Object> userProfileMap = getLastKnownState();
+    userProfileMap.put(JsonKey.REGISTRY_ID, REGISTRY_ID);
+    userProfileMap.put("phone", "9999999999");
+    Map<String, Object> changedInput =
+        userMappings.getChangedInput(updateDelta, userProfileMap, getLastKnownState(), "teacher");
+    assertEquals(new HashSet<>(Arrays.asList(JsonKey.REGISTRY_ID, "phone")), changedInput.keySet());
+  }
+
+  @Test
+  public void testLoadSuccess() {
+    assertFalse(UpdateDelta.load(getUpdateConfig("full")).isEnabled());
+    UpdateDelta loaded = UpdateDelta.load(getUpdateConfig("delta"));
+    assertTrue(loaded.isEnabled());
+    assertTrue(loaded.isFetchBaseline());
+  }
+
+  @Test(expected = ProjectCommonException.class)
+  public void testLoadFailureWithUnknownMode() {
+    try {
+      UpdateDelta.load(getUpdateConfig("partial"));
+    } catch (ProjectCommonException e) {
+      assertEquals(ResponseCode.errorLoadConfig.getErrorCode(), e.getCode());
+      throw e;
+    }
+  }
+
+  private static Config getUpdateConfig(String mode) {
+    return ConfigFactory.parseString(
+        "registry.update { mode = \""
+            + mode
+            + "\", delta { identityFields = [\"registryId\"], fetchBaseline = true } }");
+  }
+
+  private static Map<String, Object> getLastKnownState() {
+    return new HashMap<>(
+        TestUtil.getJSONFileAsMap("userProviderRegistryImplTest/valid-entity-sunbird-format.json"));
+  }
+}
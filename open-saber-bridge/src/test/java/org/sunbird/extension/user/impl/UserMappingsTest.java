@@ -0,0 +1,66 @@
+package org.sunbird.extension.user.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import com.typesafe.config.Config;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.responsecode.ResponseCode;
+import org.sunbird.extension.util.ConfigUtil;
+import org.sunbird.extension.util.SunbirdExtensionConstants;
+import org.sunbird.extension.util.TestUtil;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore({"javax.management.*", "javax.net.ssl.*", "javax.security.*"})
+public class UserMappingsTest {
+
+  private Config userEnumsConfig =
+      ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_ENUMS_MAPPING_FILE);
+  private Config userWriteConfig =
+      ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_WRITE_MAPPING_FILE);
+  private Config userReadConfig =
+      ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_READ_MAPPING_FILE);
+  private Config invalidWriteConfig =
+      ConfigUtil.loadConfig("transformJsonUtilTest/test-write-user-mapping.conf");
+
+  @Test
+  public void testCompileSuccessWithWarmUp() {
+    UserMappings userMappings =
+        UserMappings.compile(
+            Arrays.asList(userEnumsConfig, userWriteConfig, userReadConfig), true, true);
+    assertSame(userMappings, userMappings.warmUp(10));
+    assertSame(userMappings, userMappings.warmUpInBackground(10));
+    assertFalse(
+        userMappings
+            .transformForWrite(
+                TestUtil.getJSONFileAsMap(
+                    "userProviderRegistryImplTest/test-create-user-success.json"),
+                "teacher")
+            .isEmpty());
+  }
+
+  @Test
+  public void testCompileSuccessWithInvalidMappingNotValidated() {
+    List<Config> configs = Arrays.asList(userEnumsConfig, invalidWriteConfig, userReadConfig);
+    UserMappings.compile(configs, false, false).warmUp(10);
+  }
+
+  @Test(expected = ProjectCommonException.class)
+  public void testCompileFailureWithInvalidMapping() {
+    try {
+      UserMappings.compile(
+          Arrays.asList(userEnumsConfig, invalidWriteConfig, userReadConfig), false, true);
+    } catch (ProjectCommonException e) {
+      assertEquals(ResponseCode.errorJsonTransformBasicConfigMissing.getErrorCode(), e.getCode());
+      throw e;
+    }
+  }
+}
@@ -1,18 +1,36 @@
 package org.sunbird.extension.user.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -20,10 +38,17 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import org.sunbird.common.exception.ProjectCommonException;
 import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.ProjectUtil;
+import org.sunbird.common.request.HeaderParam;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.extension.user.UserExtension;
+import org.sunbird.extension.util.BatchResult;
+import org.sunbird.extension.util.JsonFieldsWriter;
+import org.sunbird.extension.util.JsonGeneratorUtil;
 import org.sunbird.extension.util.OpensaberClientUtil;
+import org.sunbird.extension.util.RegistryOperation;
+import org.sunbird.extension.util.SunbirdExtensionConstants;
 import org.sunbird.extension.util.TestUtil;
+import org.sunbird.extension.util.WriteBehindQueue;
 
 @SuppressWarnings({"unchecked", "rawtypes"})
 @RunWith(PowerMockRunner.class)
@@ -31,13 +56,24 @@ import org.sunbird.extension.util.TestUtil;
 @PowerMockIgnore({"javax.management.*", "javax.net.ssl.*", "javax.security.*"})
 public class UserProviderRegistryImplTest {
 
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
   private static String RESOURCE_PATH = "userProviderRegistryImplTest/";
   private UserExtension userExtension = new UserProviderRegistryImpl();
+  private AsyncUserExtension asyncUserExtension = new UserProviderRegistryImpl();
+  private BatchUserExtension batchUserExtension = new UserProviderRegistryImpl();
   private String REGISTRY_ID = "http://localhost:8080/ba7b659d-3c24-4b71-ae67-5208854a700c";
 
   @Before
   public void setup() {
     mockStatic(OpensaberClientUtil.class);
+    PowerMockito.doAnswer(
+            invocation -> {
+              writeUser(invocation);
+              return null;
+            })
+        .when(OpensaberClientUtil.class);
+    OpensaberClientUtil.updateEntity(Mockito.any(JsonFieldsWriter.class), Mockito.anyString());
   }
 
   @Test
@@ -142,13 +178,330 @@ public class UserProviderRegistryImplTest {
     }
   }
 
+  @Test
+  public void testCreateUserAsyncSuccess() {
+    PowerMockito.when(OpensaberClientUtil.addEntityAsync(Mockito.anyMap(), Mockito.anyString()))
+        .thenReturn(CompletableFuture.completedFuture(REGISTRY_ID));
+    Map<String, Object> userProfileMap = getJSONFileAsMap("test-create-user-success.json");
+    String registryId = asyncUserExtension.createAsync(userProfileMap).join();
+    assertEquals(REGISTRY_ID, registryId);
+    assertEquals(REGISTRY_ID, (String) userProfileMap.get(JsonKey.REGISTRY_ID));
+  }
+
+  @Test
+  public void testReadUserAsyncSuccess() {
+    Map validEntityRegistryFormat = getJSONFileAsMap("valid-entity-registry-format.json");
+    PowerMockito.when(OpensaberClientUtil.readEntityAsync(Mockito.anyString(), Mockito.anyString()))
+        .thenReturn(CompletableFuture.completedFuture(validEntityRegistryFormat));
+
+    Map validEntitySunbirdFormat = getJSONFileAsMap("valid-entity-sunbird-format.json");
+    Map<String, Object> userIdMap = getJSONFileAsMap("test-read-user-success.json");
+    Map outputMap = asyncUserExtension.readAsync(userIdMap).join();
+    assertTrue(validEntitySunbirdFormat.equals(outputMap));
+  }
+
+  @Test
+  public void testDeleteUserAsyncFailureWithRegistryError() {
+    CompletableFuture<Void> failure =
+        CompletableFuture.supplyAsync(
+            () -> {
+              ProjectCommonException.throwServerErrorException(
+                  ResponseCode.errorRegistryDeleteEntity,
+                  ResponseCode.errorRegistryDeleteEntity.getErrorMessage());
+              return null;
+            });
+    PowerMockito.when(
+            OpensaberClientUtil.deleteEntityAsync(Mockito.anyString(), Mockito.anyString()))
+        .thenReturn(failure);
+    Map userIdMap = getJSONFileAsMap("test-delete-user-success.json");
+    try {
+      asyncUserExtension.deleteAsync(userIdMap).join();
+      fail();
+    } catch (CompletionException e) {
+      assertEquals(
+          ResponseCode.errorRegistryDeleteEntity.getErrorCode(),
+          ((ProjectCommonException) e.getCause()).getCode());
+    }
+  }
+
+  @Test
+  public void testCreateAllSuccessWithPartialFailure() {
+    PowerMockito.when(
+            OpensaberClientUtil.runBatch(
+                Mockito.any(RegistryOperation.class), Mockito.anyList(), Mockito.any()))
+        .thenCallRealMethod();
+    mockAddEntity();
+    List<Map<String, Object>> userProfileMaps = new ArrayList<>();
+    userProfileMaps.add(getJSONFileAsMap("test-create-user-success.json"));
+    userProfileMaps.add(getJSONFileAsMap("test-create-user-failure-with-invalid-enum-input.json"));
+    userProfileMaps.add(getJSONFileAsMap("test-create-user-success.json"));
+
+    List<BatchResult<String>> results = batchUserExtension.createAll(userProfileMaps);
+    assertEquals(3, results.size());
+    assertEquals(REGISTRY_ID, results.get(0).getValue());
+    assertEquals(REGISTRY_ID, userProfileMaps.get(0).get(JsonKey.REGISTRY_ID));
+    assertFalse(results.get(1).isSuccess());
+    assertEquals(
+        ResponseCode.errorJsonTransformInvalidEnumInput.getErrorCode(),
+        ((ProjectCommonException) results.get(1).getError()).getCode());
+    assertTrue(results.get(2).isSuccess());
+  }
+
+  @Test
+  public void testReadAllSuccessWithPartialFailure() {
+    PowerMockito.when(
+            OpensaberClientUtil.runBatch(
+                Mockito.any(RegistryOperation.class), Mockito.anyList(), Mockito.any()))
+        .thenCallRealMethod();
+    Map validEntityRegistryFormat = getJSONFileAsMap("valid-entity-registry-format.json");
+    PowerMockito.when(OpensaberClientUtil.readEntity(Mockito.anyString(), Mockito.anyString()))
+        .thenReturn(validEntityRegistryFormat);
+    List<Map<String, Object>> userIdMaps = new ArrayList<>();
+    userIdMaps.add(getJSONFileAsMap("test-read-user-success.json"));
+    userIdMaps.add(new HashMap<>());
+
+    List<BatchResult<Map<String, Object>>> results = batchUserExtension.readAll(userIdMaps);
+    assertTrue(
+        getJSONFileAsMap("valid-entity-sunbird-format.json").equals(results.get(0).getValue()));
+    assertEquals(
+        ResponseCode.errorRegistryEntityIdBlank.getErrorCode(),
+        ((ProjectCommonException) results.get(1).getError()).getCode());
+  }
+
+  @Test
+  public void testReadUserSuccessFromCacheUntilUpdate() throws Exception {
+    Field userReadCache = UserProviderRegistryImpl.class.getDeclaredField("userReadCache");
+    userReadCache.setAccessible(true);
+    userReadCache.set(null, UserReadCache.create(10, 60));
+    try {
+      Map validEntityRegistryFormat = getJSONFileAsMap("valid-entity-registry-format.json");
+      PowerMockito.when(OpensaberClientUtil.readEntity(Mockito.anyString(), Mockito.anyString()))
+          .thenReturn(validEntityRegistryFormat);
+      Map validEntitySunbirdFormat = getJSONFileAsMap("valid-entity-sunbird-format.json");
+      Map userIdMap = getJSONFileAsMap("test-read-user-success.json");
+
+      assertTrue(validEntitySunbirdFormat.equals(userExtension.read(userIdMap)));
+      assertTrue(validEntitySunbirdFormat.equals(userExtension.read(userIdMap)));
+      assertEquals(1, UserProviderRegistryImpl.getUserReadCacheStats().hitCount());
+
+      Map userProfileMap = getJSONFileAsMap("test-update-user-success.json");
+      userProfileMap.put(JsonKey.REGISTRY_ID, REGISTRY_ID);
+      userExtension.update(userProfileMap);
+      assertTrue(validEntitySunbirdFormat.equals(userExtension.read(userIdMap)));
+      assertEquals(2, UserProviderRegistryImpl.getUserReadCacheStats().missCount());
+    } finally {
+      userReadCache.set(null, UserReadCache.disabled());
+    }
+  }
+
+  @Test
+  public void testUpdateUserWritesChangedFieldsOnlyInDeltaMode() throws Exception {
+    List<String> payloads = new ArrayList<>();
+    Map userProfileMap = getJSONFileAsMap("valid-entity-sunbird-format.json");
+    userProfileMap.put(JsonKey.REGISTRY_ID, REGISTRY_ID);
+    userProfileMap.put(SunbirdExtensionConstants.USER_TYPE, "teacher");
+    userProfileMap.put("firstName", "Jane");
+    updateInDeltaMode(userProfileMap, payloads);
+    assertEquals(1, payloads.size());
+    Map teacher = (Map) new ObjectMapper().readValue(payloads.get(0), Map.class).get("teacher");
+    assertEquals("Jane", teacher.get("firstName"));
+    assertEquals(REGISTRY_ID, teacher.get("id"));
+    assertEquals(2, teacher.size());
+  }
+
+  @Test
+  public void testUpdateUserSkippedWhenUnchangedInDeltaMode() throws Exception {
+    List<String> payloads = new ArrayList<>();
+    Map userProfileMap = getJSONFileAsMap("valid-entity-sunbird-format.json");
+    userProfileMap.put(JsonKey.REGISTRY_ID, REGISTRY_ID);
+    userProfileMap.put(SunbirdExtensionConstants.USER_TYPE, "teacher");
+    updateInDeltaMode(userProfileMap, payloads);
+    assertTrue(payloads.isEmpty());
+  }
+
+  @Test
+  public void testUpdateUserComparedWithRegistryNotCacheInDeltaMode() throws Exception {
+    Field userReadCache = UserProviderRegistryImpl.class.getDeclaredField("userReadCache");
+    userReadCache.setAccessible(true);
+    userReadCache.set(null, UserReadCache.create(10, 60));
+    try {
+      List<String> payloads = new ArrayList<>();
+      Map userProfileMap = getJSONFileAsMap("valid-entity-sunbird-format.json");
+      userProfileMap.put(JsonKey.REGISTRY_ID, REGISTRY_ID);
+      userProfileMap.put(SunbirdExtensionConstants.USER_TYPE, "teacher");
+      PowerMockito.when(OpensaberClientUtil.readEntity(Mockito.anyString(), Mockito.anyString()))
+          .thenReturn(getJSONFileAsMap("valid-entity-registry-format.json"));
+      userExtension.read(userProfileMap);
+
+      Map changedEntityRegistryFormat = getJSONFileAsMap("valid-entity-registry-format.json");
+      ((Map) changedEntityRegistryFormat.get("teacher")).put("firstName", "Jane");
+      updateInDeltaMode(userProfileMap, payloads, changedEntityRegistryFormat);
+      assertEquals(1, payloads.size());
+      Map teacher = (Map) new ObjectMapper().readValue(payloads.get(0), Map.class).get("teacher");
+      assertEquals("John", teacher.get("firstName"));
+    } finally {
+      userReadCache.set(null, UserReadCache.disabled());
+    }
+  }
+
+  @Test
+  public void testUpdateUserQueuedInWriteBehindMode() throws Exception {
+    List<String> payloads = new ArrayList<>();
+    PowerMockito.doAnswer(
+            invocation -> {
+              payloads.add(writeUser(invocation));
+              return null;
+            })
+        .when(OpensaberClientUtil.class);
+    OpensaberClientUtil.updateEntity(Mockito.any(JsonFieldsWriter.class), Mockito.anyString());
+    Config writeBehindConfig =
+        ConfigFactory.parseString(
+            "registry.update.writeBehind { enabled = true, journalFile = \""
+                + folder.getRoot().toPath().resolve("journal")
+                + "\", serviceAccessToken = service-token, journalSizeMb = 1, forceOnWrite = false, batchSize = 10, intervalMs = 0,"
+                + " maxAttempts = 1, initialBackoffMs = 1000, maxBackoffMs = 60000,"
+                + " cancelTimeoutMs = 10000 }");
+    Field writeBehindQueue = UserProviderRegistryImpl.class.getDeclaredField("writeBehindQueue");
+    writeBehindQueue.setAccessible(true);
+    WriteBehindQueue queue = WriteBehindQueue.load(writeBehindConfig, registryId -> {});
+    writeBehindQueue.set(null, queue);
+    try {
+      Map userProfileMap = getJSONFileAsMap("test-update-user-success.json");
+      userProfileMap.put(JsonKey.REGISTRY_ID, REGISTRY_ID);
+      userExtension.update(userProfileMap);
+      assertTrue(payloads.isEmpty());
+      assertEquals(1, UserProviderRegistryImpl.getWriteBehindPendingCount());
+
+      userExtension.delete(userProfileMap);
+      assertEquals(0, UserProviderRegistryImpl.getWriteBehindPendingCount());
+    } finally {
+      writeBehindQueue.set(null, WriteBehindQueue.disabled());
+      queue.close();
+    }
+  }
+
+  @Test
+  public void testConcurrentReadsOfSameUserCollapsed() throws Exception {
+    Map validEntityRegistryFormat = getJSONFileAsMap("valid-entity-registry-format.json");
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger registryReads = new AtomicInteger();
+    PowerMockito.when(OpensaberClientUtil.readEntity(Mockito.anyString(), Mockito.anyString()))
+        .thenAnswer(
+            invocation -> {
+              registryReads.incrementAndGet();
+              release.await();
+              return validEntityRegistryFormat;
+            });
+    long collapsedCount = UserProviderRegistryImpl.getReadCollapsedCount();
+    ExecutorService readers = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Map<String, Object>>> results = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        results.add(
+            readers.submit(
+                () -> userExtension.read(getJSONFileAsMap("test-read-user-success.json"))));
+      }
+      long deadline = System.currentTimeMillis() + 5000;
+      while (UserProviderRegistryImpl.getReadCollapsedCount() < collapsedCount + 3
+          && System.currentTimeMillis() < deadline) {
+        Thread.sleep(1);
+      }
+      release.countDown();
+      Map validEntitySunbirdFormat = getJSONFileAsMap("valid-entity-sunbird-format.json");
+      for (Future<Map<String, Object>> result : results) {
+        assertTrue(validEntitySunbirdFormat.equals(result.get()));
+      }
+      assertEquals(1, registryReads.get());
+      assertEquals(collapsedCount + 3, UserProviderRegistryImpl.getReadCollapsedCount());
+    } finally {
+      readers.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testConcurrentReadsWithOtherTokensNotCollapsed() throws Exception {
+    Map validEntityRegistryFormat = getJSONFileAsMap("valid-entity-registry-format.json");
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger registryReads = new AtomicInteger();
+    PowerMockito.when(OpensaberClientUtil.readEntity(Mockito.anyString(), Mockito.anyString()))
+        .thenAnswer(
+            invocation -> {
+              registryReads.incrementAndGet();
+              release.await();
+              return validEntityRegistryFormat;
+            });
+    ExecutorService readers = Executors.newFixedThreadPool(2);
+    try {
+      List<Future<Map<String, Object>>> results = new ArrayList<>();
+      for (String token : Arrays.asList("token1", "token2")) {
+        Map userIdMap = getJSONFileAsMap("test-read-user-success.json");
+        userIdMap.put(JsonKey.REGISTRY_ID, REGISTRY_ID + "-tokens");
+        userIdMap.put(HeaderParam.X_Authenticated_User_Token.getName(), token);
+        results.add(readers.submit(() -> userExtension.read(userIdMap)));
+      }
+      long deadline = System.currentTimeMillis() + 5000;
+      while (registryReads.get() < 2 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(1);
+      }
+      release.countDown();
+      for (Future<Map<String, Object>> result : results) {
+        assertNotNull(result.get());
+      }
+      assertEquals(2, registryReads.get());
+    } finally {
+      readers.shutdownNow();
+    }
+  }
+
+  /** Updates the user in delta mode, against the registry state in valid-entity-registry-format */
+  private void updateInDeltaMode(Map userProfileMap, List<String> payloads) throws Exception {
+    updateInDeltaMode(
+        userProfileMap, payloads, getJSONFileAsMap("valid-entity-registry-format.json"));
+  }
+
+  /** Updates the user in delta mode, against the registry state given */
+  private void updateInDeltaMode(Map userProfileMap, List<String> payloads, Map registryState)
+      throws Exception {
+    PowerMockito.when(OpensaberClientUtil.readEntity(Mockito.anyString(), Mockito.anyString()))
+        .thenReturn(registryState);
+    PowerMockito.doAnswer(
+            invocation -> {
+              payloads.add(writeUser(invocation));
+              return null;
+            })
+        .when(OpensaberClientUtil.class);
+    OpensaberClientUtil.updateEntity(Mockito.any(JsonFieldsWriter.class), Mockito.anyString());
+    Field updateDelta = UserProviderRegistryImpl.class.getDeclaredField("updateDelta");
+    updateDelta.setAccessible(true);
+    updateDelta.set(null, UpdateDelta.create(Arrays.asList(JsonKey.REGISTRY_ID), true));
+    try {
+      userExtension.update(userProfileMap);
+    } finally {
+      updateDelta.set(null, UpdateDelta.disabled());
+    }
+  }
+
+  private void mockAddEntity() {
+    PowerMockito.when(
+            OpensaberClientUtil.addEntity(Mockito.any(JsonFieldsWriter.class), Mockito.anyString()))
+        .thenAnswer(
+            invocation -> {
+              writeUser(invocation);
+              return REGISTRY_ID;
+            });
+  }
+
+  /** Writes the user payload as the registry client would, so that the user is transformed */
+  private static String writeUser(InvocationOnMock invocation) throws IOException {
+    return JsonGeneratorUtil.writeObject((JsonFieldsWriter) invocation.getArguments()[0]);
+  }
+
   private Map getJSONFileAsMap(String fileName) {
     return TestUtil.getJSONFileAsMap(RESOURCE_PATH + fileName);
   }
 
   private Map createUser(String fileName) {
-    PowerMockito.when(OpensaberClientUtil.addEntity(Mockito.anyMap(), Mockito.anyString()))
-        .thenReturn(REGISTRY_ID);
+    mockAddEntity();
     Map userProfileMap = getJSONFileAsMap(fileName);
     userExtension.create(userProfileMap);
     return userProfileMap;
@@ -0,0 +1,130 @@
+package org.sunbird.extension.user.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.typesafe.config.ConfigFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.responsecode.ResponseCode;
+
+public class UserReadCacheTest {
+
+  private String REGISTRY_ID = "http://localhost:8080/ba7b659d-3c24-4b71-ae67-5208854a700c";
+  private String USER_TYPE = "teacher";
+  private String TOKEN = "token";
+
+  @Test
+  public void testGetSuccessWithCopyOfCachedUser() {
+    UserReadCache cache = UserReadCache.create(10, 60);
+    Map<String, Object> userMap = createUserMap();
+    cache.put(USER_TYPE, REGISTRY_ID, TOKEN, 0, userMap);
+    userMap.put("firstName", "changed");
+
+    Map<String, Object> cachedUserMap = cache.get(USER_TYPE, REGISTRY_ID, TOKEN);
+    assertEquals("first", cachedUserMap.get("firstName"));
+    ((List<Object>) cachedUserMap.get("subjects")).clear();
+    assertEquals(
+        2, ((List<Object>) cache.get(USER_TYPE, REGISTRY_ID, TOKEN).get("subjects")).size());
+    assertEquals(2, cache.getStats().hitCount());
+  }
+
+  @Test
+  public void testGetSuccessAfterInvalidate() {
+    UserReadCache cache = UserReadCache.create(10, 60);
+    cache.put(USER_TYPE, REGISTRY_ID, TOKEN, 0, createUserMap());
+    cache.invalidate(REGISTRY_ID);
+    assertNull(cache.get(USER_TYPE, REGISTRY_ID, TOKEN));
+    assertEquals(1, cache.getStats().missCount());
+  }
+
+  @Test
+  public void testGetFailureWithOtherAccessToken() {
+    UserReadCache cache = UserReadCache.create(10, 60);
+    cache.put(USER_TYPE, REGISTRY_ID, TOKEN, 0, createUserMap());
+    assertNull(cache.get(USER_TYPE, REGISTRY_ID, "otherToken"));
+    assertNotNull(cache.get(USER_TYPE, REGISTRY_ID, TOKEN));
+  }
+
+  @Test
+  public void testGetFailureWithOtherUserType() {
+    UserReadCache cache = UserReadCache.create(10, 60);
+    cache.put(USER_TYPE, REGISTRY_ID, TOKEN, 0, createUserMap());
+    assertNull(cache.get("student", REGISTRY_ID, TOKEN));
+  }
+
+  @Test
+  public void testPutSkippedAfterInvalidateDuringRead() {
+    UserReadCache cache = UserReadCache.create(10, 60);
+    long generation = cache.getGeneration(REGISTRY_ID);
+    cache.invalidate(REGISTRY_ID);
+    cache.put(USER_TYPE, REGISTRY_ID, TOKEN, generation, createUserMap());
+    assertNull(cache.get(USER_TYPE, REGISTRY_ID, TOKEN));
+    cache.put(USER_TYPE, REGISTRY_ID, TOKEN, cache.getGeneration(REGISTRY_ID), createUserMap());
+    assertEquals("first", cache.get(USER_TYPE, REGISTRY_ID, TOKEN).get("firstName"));
+  }
+
+  @Test
+  public void testGetFailureAfterInvalidateAll() {
+    UserReadCache cache = UserReadCache.create(10, 60);
+    long generation = cache.getGeneration(REGISTRY_ID);
+    cache.put(USER_TYPE, REGISTRY_ID, TOKEN, generation, createUserMap());
+    cache.invalidateAll();
+    cache.put(USER_TYPE, REGISTRY_ID, TOKEN, generation, createUserMap());
+    assertNull(cache.get(USER_TYPE, REGISTRY_ID, TOKEN));
+  }
+
+  @Test
+  public void testPutSuccessWithSizeBasedEviction() {
+    UserReadCache cache = UserReadCache.create(2, 60);
+    for (int i = 0; i < 5; i++) {
+      cache.put(USER_TYPE, REGISTRY_ID + i, TOKEN, 0, createUserMap());
+    }
+    assertTrue(cache.size() <= 2);
+    assertTrue(cache.getStats().evictionCount() >= 3);
+  }
+
+  @Test
+  public void testGetSuccessWithDisabledCache() {
+    UserReadCache cache = UserReadCache.disabled();
+    cache.put(USER_TYPE, REGISTRY_ID, TOKEN, 0, createUserMap());
+    assertFalse(cache.isEnabled());
+    assertNull(cache.get(USER_TYPE, REGISTRY_ID, TOKEN));
+  }
+
+  @Test
+  public void testLoadSuccessWithEnabledCache() {
+    UserReadCache cache =
+        UserReadCache.load(
+            ConfigFactory.parseString(
+                "registry.cache.user { enabled = true, maxSize = 5, ttlSeconds = 1 }"));
+    assertTrue(cache.isEnabled());
+  }
+
+  @Test(expected = ProjectCommonException.class)
+  public void testLoadFailureWithInvalidConfig() {
+    try {
+      UserReadCache.load(ConfigFactory.parseString("registry.cache.user { enabled = true }"));
+    } catch (ProjectCommonException e) {
+      assertEquals(ResponseCode.errorLoadConfig.getErrorCode(), e.getCode());
+      throw e;
+    }
+  }
+
+  private Map<String, Object> createUserMap() {
+    Map<String, Object> userMap = new HashMap<>();
+    userMap.put("firstName", "first");
+    List<Object> subjects = new ArrayList<>();
+    subjects.add("Maths");
+    subjects.add("Physics");
+    userMap.put("subjects", subjects);
+    return userMap;
+  }
+}
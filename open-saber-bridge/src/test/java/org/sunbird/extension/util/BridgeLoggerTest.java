@@ -0,0 +1,45 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+import org.sunbird.common.models.util.LoggerEnum;
+
+public class BridgeLoggerTest {
+
+  @After
+  public void tearDown() {
+    BridgeLogger.setLevel(LoggerEnum.INFO);
+  }
+
+  @Test
+  public void testIsEnabledSuccessWithDefaultLevel() {
+    assertFalse(BridgeLogger.isEnabled(LoggerEnum.DEBUG));
+    assertTrue(BridgeLogger.isEnabled(LoggerEnum.INFO));
+    assertTrue(BridgeLogger.isEnabled(LoggerEnum.ERROR));
+  }
+
+  @Test
+  public void testDebugSuccessWithMessageBuiltOnlyWhenEnabled() {
+    AtomicInteger messagesBuilt = new AtomicInteger();
+    BridgeLogger.debug(() -> "message " + messagesBuilt.incrementAndGet());
+    assertEquals(0, messagesBuilt.get());
+
+    BridgeLogger.setLevel(LoggerEnum.DEBUG);
+    BridgeLogger.debug(() -> "message " + messagesBuilt.incrementAndGet());
+    assertEquals(1, messagesBuilt.get());
+  }
+
+  @Test
+  public void testInfoSuccessWithMessageNotBuiltAtErrorLevel() {
+    BridgeLogger.setLevel(LoggerEnum.ERROR);
+    AtomicInteger messagesBuilt = new AtomicInteger();
+    BridgeLogger.info(() -> "message " + messagesBuilt.incrementAndGet());
+    BridgeLogger.log(LoggerEnum.INFO, () -> "message " + messagesBuilt.incrementAndGet());
+    assertEquals(0, messagesBuilt.get());
+  }
+}
@@ -0,0 +1,157 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.typesafe.config.Config;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.responsecode.ResponseCode;
+import org.sunbird.extension.util.BridgeMetrics.Phase;
+
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore({"javax.management.*", "javax.net.ssl.*", "javax.security.*"})
+public class BridgeMetricsTest {
+
+  private static final String RESOURCE_PATH = "transformJsonUtilTest/";
+  private static final String USER_WRITE_SERIES = "{root=\"user\",mode=\"WRITE\"}";
+
+  @Before
+  public void setup() {
+    BridgeMetrics.reset();
+    BridgeMetrics.setEnabled(true);
+  }
+
+  @After
+  public void tearDown() {
+    BridgeMetrics.setEnabled(false);
+    BridgeMetrics.reset();
+  }
+
+  @Test
+  public void testTransformLatencyRecordedByRootAndMode() {
+    transform("test-write-user-success-pre-transform.json");
+    transform("test-write-user-success-pre-transform.json");
+    String scraped = BridgeMetrics.scrape();
+    assertTrue(
+        scraped.contains("sunbird_registry_transform_seconds_count" + USER_WRITE_SERIES + " 2"));
+    assertTrue(
+        scraped.contains(
+            "sunbird_registry_transform_seconds_bucket{root=\"user\",mode=\"WRITE\",le=\"+Inf\"} 2"));
+  }
+
+  @Test
+  public void testTransformOfUnmappedRootTypeNotRecorded() {
+    Config fieldsConfig = ConfigUtil.loadConfig(RESOURCE_PATH + "test-write-user-mapping.conf");
+    Config enumsConfig =
+        ConfigUtil.loadConfig(RESOURCE_PATH + "test-write-user-enums-mapping.conf");
+    TransformJsonUtil.transform(
+        fieldsConfig,
+        TestUtil.getJSONFileAsMap(RESOURCE_PATH + "test-write-user-success-pre-transform.json"),
+        "unmapped\"type",
+        enumsConfig,
+        SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+    assertFalse(BridgeMetrics.scrape().contains("unmapped"));
+  }
+
+  @Test
+  public void testLabelValuesEscaped() {
+    assertEquals("a\\\"b\\\\c\\n", BridgeMetrics.escapeLabelValue("a\"b\\c\n"));
+  }
+
+  @Test
+  public void testTransformErrorCountedByResponseCode() {
+    try {
+      transform("test-write-user-failure-with-blank-filterField.json");
+      fail();
+    } catch (ProjectCommonException e) {
+      // Already counted by the transform
+      BridgeMetrics.countError(e);
+    }
+    assertTrue(
+        BridgeMetrics.scrape()
+            .contains(
+                "sunbird_registry_errors_total{code=\""
+                    + ResponseCode.errorJsonTransformInvalidFilterConfig.getErrorCode()
+                    + "\"} 1"));
+  }
+
+  @Test
+  public void testTransformRunUnrecordedNotRecorded() {
+    BridgeMetrics.runUnrecorded(() -> transform("test-write-user-success-pre-transform.json"));
+    try {
+      BridgeMetrics.runUnrecorded(
+          () -> transform("test-write-user-failure-with-blank-filterField.json"));
+      fail();
+    } catch (ProjectCommonException e) {
+      assertFalse(BridgeMetrics.scrape().contains("sunbird_registry_transform_seconds_count"));
+      assertFalse(BridgeMetrics.scrape().contains("sunbird_registry_errors_total{"));
+    }
+    transform("test-write-user-success-pre-transform.json");
+    assertTrue(
+        BridgeMetrics.scrape()
+            .contains("sunbird_registry_transform_seconds_count" + USER_WRITE_SERIES + " 1"));
+  }
+
+  @Test
+  public void testOperationPhasesRecorded() {
+    long startTime = BridgeMetrics.start();
+    startTime = BridgeMetrics.recordOperation(RegistryOperation.ADD, Phase.SERIALIZE, startTime);
+    startTime = BridgeMetrics.recordOperation(RegistryOperation.ADD, Phase.HTTP, startTime);
+    BridgeMetrics.recordOperation(RegistryOperation.ADD, Phase.PARSE, startTime);
+    BridgeMetrics.countError(ResponseCode.errorRegistryAddEntity);
+    Map<String, Long> counts = new BridgeMetrics.MXBean().getCounts();
+    for (String phase : new String[] {"serialize", "http", "parse"}) {
+      assertEquals(
+          1L,
+          (long)
+              counts.get(
+                  "sunbird_registry_operation_seconds{operation=\"add\",phase=\"" + phase + "\"}"));
+    }
+    assertEquals(
+        0L,
+        (long) counts.get("sunbird_registry_operation_seconds{operation=\"read\",phase=\"http\"}"));
+    assertEquals(
+        1L,
+        (long)
+            counts.get(
+                "sunbird_registry_errors_total{code=\""
+                    + ResponseCode.errorRegistryAddEntity.getErrorCode()
+                    + "\"}"));
+  }
+
+  @Test
+  public void testNothingRecordedWhenDisabled() {
+    BridgeMetrics.setEnabled(false);
+    assertEquals(0, BridgeMetrics.start());
+    transform("test-write-user-success-pre-transform.json");
+    assertEquals(0, BridgeMetrics.recordOperation(RegistryOperation.READ, Phase.HTTP, 0));
+    BridgeMetrics.countError(ResponseCode.errorRegistryReadEntity);
+    String scraped = BridgeMetrics.scrape();
+    assertFalse(scraped.contains(USER_WRITE_SERIES));
+    assertFalse(scraped.contains(ResponseCode.errorRegistryReadEntity.getErrorCode()));
+    assertTrue(
+        scraped.contains(
+            "sunbird_registry_operation_seconds_count{operation=\"read\",phase=\"http\"} 0"));
+  }
+
+  private static Map<String, Object> transform(String inputFile) {
+    Config fieldsConfig = ConfigUtil.loadConfig(RESOURCE_PATH + "test-write-user-mapping.conf");
+    Config enumsConfig =
+        ConfigUtil.loadConfig(RESOURCE_PATH + "test-write-user-enums-mapping.conf");
+    return TransformJsonUtil.transform(
+        fieldsConfig,
+        TestUtil.getJSONFileAsMap(RESOURCE_PATH + inputFile),
+        "user",
+        enumsConfig,
+        SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+  }
+}
@@ -0,0 +1,111 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.sunbird.extension.util.CircuitBreaker.Permit;
+import org.sunbird.extension.util.CircuitBreaker.State;
+import org.sunbird.extension.util.RegistryClientConfig.CircuitBreakerSettings;
+
+public class CircuitBreakerTest {
+
+  private AtomicLong clock;
+  private CircuitBreaker circuitBreaker;
+
+  @Before
+  public void setup() {
+    clock = new AtomicLong(1000);
+    circuitBreaker = new CircuitBreaker(createSettings(), clock::get);
+  }
+
+  @Test
+  public void testCircuitOpensOnFailureRate() {
+    recordCalls(3, false, 10);
+    recordCalls(1, true, 10);
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+    recordCalls(1, true, 10);
+    assertEquals(State.OPEN, circuitBreaker.getState());
+    assertNull(circuitBreaker.tryAcquire());
+    assertEquals(1, circuitBreaker.getRejectedCount());
+  }
+
+  @Test
+  public void testCircuitOpensOnSlowCallRate() {
+    recordCalls(5, false, 500);
+    assertEquals(State.OPEN, circuitBreaker.getState());
+  }
+
+  @Test
+  public void testFailureRateOverLastCallsOfWindow() {
+    recordCalls(10, false, 10);
+    recordCalls(3, true, 10);
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+    recordCalls(1, true, 10);
+    assertEquals(State.OPEN, circuitBreaker.getState());
+  }
+
+  @Test
+  public void testCircuitClosesAfterTrialCallsSucceed() {
+    recordCalls(5, true, 10);
+    clock.addAndGet(1000);
+    Permit firstTrial = circuitBreaker.tryAcquire();
+    assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+    Permit secondTrial = circuitBreaker.tryAcquire();
+    assertNotNull(secondTrial);
+    assertNull(circuitBreaker.tryAcquire());
+    circuitBreaker.onComplete(firstTrial, false, 10);
+    assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+    circuitBreaker.onComplete(secondTrial, false, 10);
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+  }
+
+  @Test
+  public void testCircuitReopensWhenTrialCallFails() {
+    recordCalls(5, true, 10);
+    clock.addAndGet(1000);
+    circuitBreaker.onComplete(circuitBreaker.tryAcquire(), true, 10);
+    assertEquals(State.OPEN, circuitBreaker.getState());
+    clock.addAndGet(999);
+    assertNull(circuitBreaker.tryAcquire());
+  }
+
+  @Test
+  public void testCallPermittedBeforeOpenNotCountedAsTrial() {
+    Permit straggler = circuitBreaker.tryAcquire();
+    recordCalls(5, true, 10);
+    clock.addAndGet(1000);
+    Permit trial = circuitBreaker.tryAcquire();
+    assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+    circuitBreaker.onComplete(straggler, true, 500);
+    assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+    circuitBreaker.onComplete(trial, false, 10);
+    circuitBreaker.onComplete(circuitBreaker.tryAcquire(), false, 10);
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+  }
+
+  private void recordCalls(int count, boolean failed, long durationMs) {
+    for (int i = 0; i < count; i++) {
+      Permit permit = circuitBreaker.tryAcquire();
+      assertNotNull(permit);
+      circuitBreaker.onComplete(permit, failed, durationMs);
+    }
+  }
+
+  static CircuitBreakerSettings createSettings() {
+    Config config =
+        ConfigFactory.parseString(
+                "registry.client.circuitBreaker { windowSize = 10, minimumCalls = 5,"
+                    + " failureRateThreshold = 40, slowCallDurationMs = 200,"
+                    + " slowCallRateThreshold = 80, openDurationMs = 1000, halfOpenCalls = 2 }")
+            .withFallback(
+                ConfigFactory.parseResources(SunbirdExtensionConstants.BRIDGE_CONFIG_FILE))
+            .resolve();
+    return RegistryClientConfig.load(config).getCircuitBreaker();
+  }
+}
@@ -0,0 +1,145 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import com.typesafe.config.ConfigFactory;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.responsecode.ResponseCode;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore({"javax.management.*", "javax.net.ssl.*", "javax.security.*"})
+public class CompiledTransformerTest {
+
+  private static String RESOURCE_PATH = "transformJsonUtilTest/";
+  private TransformationPlan testPlan =
+      TransformJsonUtil.getTransformationPlan(
+          ConfigUtil.loadConfig(RESOURCE_PATH + "test-write-user-mapping.conf"));
+  private EnumMappings testEnumMappings =
+      TransformJsonUtil.getEnumMappings(
+          ConfigUtil.loadConfig(RESOURCE_PATH + "test-write-user-enums-mapping.conf"));
+  private TransformationPlan userWritePlan =
+      TransformJsonUtil.getTransformationPlan(
+          ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_WRITE_MAPPING_FILE));
+  private TransformationPlan userReadPlan =
+      TransformJsonUtil.getTransformationPlan(
+          ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_READ_MAPPING_FILE));
+  private EnumMappings userEnumMappings =
+      TransformJsonUtil.getEnumMappings(
+          ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_ENUMS_MAPPING_FILE));
+
+  @Test
+  public void testTransformSuccessMatchesExpected() {
+    Map preTransformMap =
+        TestUtil.getJSONFileAsMap(RESOURCE_PATH + "test-write-user-success-pre-transform.json");
+    Map expectedTransformedMap =
+        TestUtil.getJSONFileAsMap(RESOURCE_PATH + "test-write-user-success-post-transform.json");
+    assertEquals(
+        expectedTransformedMap,
+        compile(testPlan, testEnumMappings, SunbirdExtensionConstants.OPERATION_MODE_WRITE)
+            .get("user")
+            .transform(preTransformMap));
+  }
+
+  @Test
+  public void testTransformSuccessMatchesInterpreterWithUserMappings() {
+    Map sunbirdUser =
+        TestUtil.getJSONFileAsMap("userProviderRegistryImplTest/test-create-user-success.json");
+    Map<String, Object> registryUser =
+        TransformJsonUtil.transform(
+            userWritePlan,
+            sunbirdUser,
+            "teacher",
+            userEnumMappings,
+            SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+    assertEquals(
+        registryUser,
+        compile(userWritePlan, userEnumMappings, SunbirdExtensionConstants.OPERATION_MODE_WRITE)
+            .get("teacher")
+            .transform(sunbirdUser));
+
+    Map<String, Object> registryTeacher = (Map<String, Object>) registryUser.get("teacher");
+    assertEquals(
+        TransformJsonUtil.transform(
+            userReadPlan,
+            registryTeacher,
+            "teacher",
+            userEnumMappings,
+            SunbirdExtensionConstants.OPERATION_MODE_READ),
+        compile(userReadPlan, userEnumMappings, SunbirdExtensionConstants.OPERATION_MODE_READ)
+            .get("teacher")
+            .transform(registryTeacher));
+  }
+
+  @Test
+  public void testTransformFailureMatchesInterpreterWithInvalidConfig() {
+    Map<String, CompiledTransformer> transformers =
+        compile(testPlan, testEnumMappings, SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+    String[][] fieldsAndValues = {
+      {"field1", "value1"},
+      {"field2", "value2"},
+      {"field3", "value3"},
+      {"field15", "yes"},
+      {"field16", "value16"},
+      {"field17", "2018-08-08"},
+      {"field18", "2018-08-08"}
+    };
+    for (String[] fieldAndValue : fieldsAndValues) {
+      Map<String, Object> preTransformMap =
+          Collections.singletonMap(fieldAndValue[0], fieldAndValue[1]);
+      String interpreterErrorCode = null;
+      try {
+        TransformJsonUtil.transform(
+            testPlan,
+            preTransformMap,
+            "user",
+            testEnumMappings,
+            SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+        fail();
+      } catch (ProjectCommonException e) {
+        interpreterErrorCode = e.getCode();
+      }
+      try {
+        transformers.get("user").transform(preTransformMap);
+        fail();
+      } catch (ProjectCommonException e) {
+        assertEquals(fieldAndValue[0], interpreterErrorCode, e.getCode());
+      }
+    }
+  }
+
+  @Test(expected = ProjectCommonException.class)
+  public void testTransformFailureWithInvalidEnumInput() {
+    Map sunbirdUser =
+        TestUtil.getJSONFileAsMap(
+            "userProviderRegistryImplTest/test-create-user-failure-with-invalid-enum-input.json");
+    try {
+      compile(userWritePlan, userEnumMappings, SunbirdExtensionConstants.OPERATION_MODE_WRITE)
+          .get("teacher")
+          .transform(sunbirdUser);
+    } catch (ProjectCommonException e) {
+      assertEquals(ResponseCode.errorJsonTransformInvalidEnumInput.getErrorCode(), e.getCode());
+      throw e;
+    }
+  }
+
+  @Test
+  public void testIsEnabledSuccessDisabledByDefault() {
+    assertFalse(
+        CompiledTransformer.isEnabled(
+            ConfigFactory.parseResources(SunbirdExtensionConstants.BRIDGE_CONFIG_FILE).resolve()));
+  }
+
+  private Map<String, CompiledTransformer> compile(
+      TransformationPlan plan, EnumMappings enumMappings, String operationMode) {
+    return CompiledTransformer.compileAll(plan, enumMappings, operationMode);
+  }
+}
@@ -0,0 +1,111 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opensaber.registry.client.data.RequestData;
+import io.opensaber.registry.transform.ITransformer;
+import io.opensaber.registry.transform.JsonToJsonLDTransformer;
+import io.opensaber.registry.transform.JsonldToJsonTransformer;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.extension.util.RegistryResponseReader.ResultType;
+
+/**
+ * Checks the direct codec against the open saber JSON-LD transformers it is verified against, which
+ * are the source of the expected payloads. The checks are skipped when the transformers on the
+ * classpath return their input, i.e. are stand-ins for the opensaber-client jar.
+ */
+public class DirectJsonLdCodecTest {
+
+  private static String RESOURCE_PATH = "directJsonLdTest/";
+  private static String CONTEXT = "http://localhost:8080/context.jsonld";
+  private static String REGISTRY_FORMAT_FILE =
+      "opensaberClientUtilTest/valid-entity-registry-format.json";
+  private ObjectMapper mapper = new ObjectMapper();
+  private DirectJsonLdCodec codec =
+      new DirectJsonLdCodec(CONTEXT, Collections.singletonMap("teacher", "Teacher"));
+
+  @Test
+  public void testWriteSuccessMatchesTransformer() throws Exception {
+    Map<String, Object> entity = TestUtil.getJSONFileAsMap(REGISTRY_FORMAT_FILE);
+    assumeFalse(isPassThrough(JsonToJsonLDTransformer.getInstance(), entity));
+    JsonNode transformed =
+        mapper.readTree(
+            JsonToJsonLDTransformer.getInstance()
+                .transform(new RequestData<>(mapper.writeValueAsString(entity)))
+                .getResponseData());
+    // Context and type are configured to those of the transformer, as deployments do
+    JsonNode type = transformed.path("teacher").path("@type");
+    DirectJsonLdCodec configuredCodec =
+        new DirectJsonLdCodec(
+            transformed.path(DirectJsonLdCodec.CONTEXT).asText(),
+            type.isMissingNode()
+                ? Collections.emptyMap()
+                : Collections.singletonMap("teacher", type.asText()));
+    assertEquals(transformed, mapper.readTree(configuredCodec.write(entity)));
+  }
+
+  @Test
+  public void testWriteSuccessWithoutContextAndType() throws IOException {
+    Map<String, Object> teacher = new HashMap<>();
+    teacher.put("firstName", "John");
+    Map<String, Object> entity = Collections.singletonMap("student", teacher);
+    String jsonLd = new DirectJsonLdCodec("", Collections.emptyMap()).write(entity);
+    assertEquals("{\"student\":{\"firstName\":\"John\"}}", jsonLd);
+  }
+
+  @Test
+  public void testReadSuccessMatchesTransformer() throws Exception {
+    String response =
+        TestUtil.getJSONFileAsString(RESOURCE_PATH + "read-entity-jsonld-response.json");
+    assumeFalse(
+        isPassThrough(
+            JsonldToJsonTransformer.getInstance(),
+            mapper.readValue(mapper.readTree(response).get("result").toString(), HashMap.class)));
+    String transformed =
+        JsonldToJsonTransformer.getInstance()
+            .transform(new RequestData<>(mapper.readTree(response).get("result").toString()))
+            .getResponseData();
+    RegistryResponse direct = RegistryResponseReader.read(response, ResultType.MAP, true);
+    assertTrue(direct.isSuccessful());
+    assertEquals(mapper.readValue(transformed, HashMap.class), direct.getResultMap());
+  }
+
+  private boolean isPassThrough(ITransformer<String> transformer, Map<?, ?> input)
+      throws Exception {
+    String json = mapper.writeValueAsString(input);
+    return mapper
+        .readTree(json)
+        .equals(mapper.readTree(transformer.transform(new RequestData<>(json)).getResponseData()));
+  }
+
+  @Test(expected = JsonParseException.class)
+  public void testReadValueFailureOnEmptyInput() throws IOException {
+    DirectJsonLdCodec.readValue(mapper.getFactory().createParser(""));
+  }
+
+  @Test(expected = JsonParseException.class)
+  public void testReadValueFailureOnTruncatedList() throws IOException {
+    JsonParser parser = mapper.getFactory().createParser("[\"a\", ");
+    parser.nextToken();
+    DirectJsonLdCodec.readValue(parser);
+  }
+
+  @Test
+  public void testReadSuccessAfterWrite() throws IOException {
+    Map<String, Object> entity = TestUtil.getJSONFileAsMap(REGISTRY_FORMAT_FILE);
+    String response =
+        "{\"params\":{\"status\":\"SUCCCESSFUL\"},\"result\":" + codec.write(entity) + "}";
+    assertEquals(
+        entity, RegistryResponseReader.read(response, ResultType.MAP, true).getResultMap());
+  }
+}
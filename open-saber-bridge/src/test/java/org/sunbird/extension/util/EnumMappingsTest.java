@@ -0,0 +1,78 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.typesafe.config.Config;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore({"javax.management.*", "javax.net.ssl.*", "javax.security.*"})
+public class EnumMappingsTest {
+
+  private Config enumsConfig = ConfigUtil.loadConfig("registry-user-enums-mapping.conf");
+  private EnumMappings enumMappings = EnumMappings.compile(enumsConfig);
+
+  @Test
+  public void testGetLookupSuccessWithWriteMode() {
+    EnumLookup lookup =
+        enumMappings.getLookup("teacherTypeEnum", SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+    assertEquals("HeadTeacher", lookup.get("Head Teacher"));
+  }
+
+  @Test
+  public void testGetLookupSuccessWithReadMode() {
+    EnumLookup lookup =
+        enumMappings.getLookup("teacherTypeEnum", SunbirdExtensionConstants.OPERATION_MODE_READ);
+    assertEquals("Head Teacher", lookup.get("HeadTeacher"));
+  }
+
+  @Test
+  public void testGetLookupSuccessIgnoringCase() {
+    EnumLookup lookup =
+        enumMappings.getLookup("stateEnum", SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+    assertEquals("AndhraPradesh", lookup.get("andhra PRADESH"));
+  }
+
+  @Test
+  public void testGetLookupFailureWithUnknownEnum() {
+    assertNull(
+        enumMappings.getLookup("unknownEnum", SunbirdExtensionConstants.OPERATION_MODE_READ));
+  }
+
+  @Test
+  public void testGetFailureWithUnknownValue() {
+    EnumLookup lookup =
+        enumMappings.getLookup("genderEnum", SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+    assertNull(lookup.get("Unknown"));
+    assertNull(lookup.get(null));
+  }
+
+  @Test
+  public void testInverseOfSuccessWithDuplicateValues() {
+    Map<String, String> enumValues = new LinkedHashMap<>();
+    enumValues.put("Teacher", "RegularTeacher");
+    enumValues.put("Regular Teacher", "regularteacher");
+    EnumLookup inverse = EnumLookup.inverseOf(enumValues);
+    assertEquals(1, inverse.size());
+    assertEquals("Teacher", inverse.get("REGULARTEACHER"));
+  }
+
+  @Test
+  public void testOfSuccessWithManyValues() {
+    Map<String, String> enumValues = new LinkedHashMap<>();
+    for (int i = 0; i < 500; i++) {
+      enumValues.put("Key " + i, "Value" + i);
+    }
+    EnumLookup lookup = EnumLookup.of(enumValues);
+    assertEquals(500, lookup.size());
+    for (int i = 0; i < 500; i++) {
+      assertEquals("Value" + i, lookup.get("key " + i));
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+@SuppressWarnings({"unchecked", "rawtypes", "serial"})
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore({"javax.management.*", "javax.net.ssl.*", "javax.security.*"})
+public class FieldPathTest {
+
+  private Map inputMap =
+      new HashMap() {
+        {
+          put("firstName", "John");
+          put(
+              "address",
+              new HashMap() {
+                {
+                  put("pinCode", "101010");
+                }
+              });
+        }
+      };
+
+  @Test
+  public void testGetValueSuccessWithSimplePath() {
+    assertEquals("John", FieldPath.parse("firstName").getValue(inputMap));
+  }
+
+  @Test
+  public void testGetValueSuccessWithNestedPath() {
+    assertEquals("101010", FieldPath.parse("address.pinCode").getValue(inputMap));
+  }
+
+  @Test
+  public void testGetValueSuccessWithMissingIntermediateMap() {
+    assertNull(FieldPath.parse("languages.read").getValue(inputMap));
+  }
+
+  @Test
+  public void testGetOrCreateParentSuccessWithNewPath() {
+    Map outputMap = new HashMap();
+    Map parent = FieldPath.parse("teacher.address.primary").getOrCreateParent(outputMap);
+    parent.put("primary", "value");
+    assertEquals("value", ((Map) ((Map) outputMap.get("teacher")).get("address")).get("primary"));
+  }
+
+  @Test
+  public void testGetOrCreateParentSuccessWithExistingPath() {
+    assertSame(
+        inputMap.get("address"), FieldPath.parse("address.doorNo").getOrCreateParent(inputMap));
+  }
+
+  @Test
+  public void testParseSuccessWithNullPath() {
+    assertNull(FieldPath.parse(null));
+  }
+}
@@ -0,0 +1,210 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import io.opensaber.registry.client.data.ResponseData;
+import io.opensaber.registry.transform.ITransformer;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.responsecode.ResponseCode;
+
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore({"javax.management.*", "javax.net.ssl.*", "javax.security.*", "com.sun.*"})
+public class GuardedTransportTest {
+
+  private static final ITransformer<String> IDENTITY_TRANSFORMER =
+      data -> new ResponseData<>(data.getRequestData());
+  private static final String REGISTRY_ID =
+      "http://localhost:8080/ba7b659d-3c24-4b71-ae67-5208854a700c";
+
+  private StubRegistryServer registry;
+  private PooledHttpTransport pooledTransport;
+
+  @Before
+  public void setup() throws IOException {
+    registry = new StubRegistryServer();
+    Config config =
+        ConfigFactory.parseString(
+                "registry.client { transport = pooled, baseUrl = \""
+                    + registry.getBaseUrl()
+                    + "\" }")
+            .withFallback(
+                ConfigFactory.parseResources(SunbirdExtensionConstants.BRIDGE_CONFIG_FILE))
+            .resolve();
+    pooledTransport =
+        new PooledHttpTransport(
+            RegistryClientConfig.load(config), IDENTITY_TRANSFORMER, IDENTITY_TRANSFORMER);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    pooledTransport.close();
+    registry.close();
+  }
+
+  @Test
+  public void testCircuitOpensOnRegistryErrorsAndFailsFast() throws Exception {
+    GuardedTransport transport =
+        new GuardedTransport(
+            pooledTransport, new CircuitBreaker(CircuitBreakerTest.createSettings()), null);
+    registry.setFailureStatus(503);
+    for (int i = 0; i < 5; i++) {
+      try {
+        transport.readEntity(new URI(REGISTRY_ID), getHeaders());
+        fail();
+      } catch (RegistryRejectedException e) {
+        fail();
+      } catch (IOException e) {
+        // registry error
+      }
+    }
+    assertEquals(CircuitBreaker.State.OPEN, transport.getCircuitState());
+    try {
+      transport.readEntity(new URI(REGISTRY_ID), getHeaders());
+      fail();
+    } catch (RegistryRejectedException e) {
+      assertEquals(5, registry.getRequestCount());
+      assertEquals(1, transport.getCircuitRejectedCount());
+    }
+  }
+
+  @Test
+  public void testCircuitOpensOnServerErrorsWithBody() throws Exception {
+    GuardedTransport transport =
+        new GuardedTransport(
+            pooledTransport, new CircuitBreaker(CircuitBreakerTest.createSettings()), null);
+    registry.setResponse("GET", "{\"params\":{\"status\":\"UNSUCCESSFUL\"}}");
+    registry.setResponseStatus(500);
+    for (int i = 0; i < 5; i++) {
+      try {
+        transport.readEntity(new URI(REGISTRY_ID), getHeaders());
+        fail();
+      } catch (RegistryHttpException e) {
+        assertEquals(500, e.getHttpStatus());
+      }
+    }
+    assertEquals(CircuitBreaker.State.OPEN, transport.getCircuitState());
+  }
+
+  @Test
+  public void testCircuitClosedOnUnsuccessfulResponsesAndClientErrors() throws Exception {
+    GuardedTransport transport =
+        new GuardedTransport(
+            pooledTransport, new CircuitBreaker(CircuitBreakerTest.createSettings()), null);
+    registry.setResponse("GET", "{\"params\":{\"status\":\"UNSUCCESSFUL\"}}");
+    for (int i = 0; i < 5; i++) {
+      transport.readEntity(new URI(REGISTRY_ID), getHeaders());
+    }
+    registry.setFailureStatus(404);
+    for (int i = 0; i < 5; i++) {
+      try {
+        transport.readEntity(new URI(REGISTRY_ID), getHeaders());
+        fail();
+      } catch (RegistryHttpException e) {
+        assertEquals(404, e.getHttpStatus());
+      }
+    }
+    assertEquals(CircuitBreaker.State.CLOSED, transport.getCircuitState());
+  }
+
+  @Test
+  public void testCircuitOpensOnRegistryLatency() throws Exception {
+    GuardedTransport transport =
+        new GuardedTransport(
+            pooledTransport, new CircuitBreaker(CircuitBreakerTest.createSettings()), null);
+    registry.setLatencyMs(250);
+    for (int i = 0; i < 5; i++) {
+      transport.readEntity(new URI(REGISTRY_ID), getHeaders());
+    }
+    assertEquals(CircuitBreaker.State.OPEN, transport.getCircuitState());
+  }
+
+  @Test
+  public void testLoadFailureWithVirtualConcurrencyBeyondBulkhead() {
+    Config config =
+        ConfigFactory.parseString(
+                "registry.client { async { mode = virtual, virtual.maxConcurrent = 100 },"
+                    + " bulkhead.maxConcurrent = 64 }")
+            .withFallback(
+                ConfigFactory.parseResources(SunbirdExtensionConstants.BRIDGE_CONFIG_FILE))
+            .resolve();
+    try {
+      RegistryClientConfig.load(config);
+      fail();
+    } catch (ProjectCommonException e) {
+      assertEquals(ResponseCode.errorLoadConfig.getErrorCode(), e.getCode());
+    }
+  }
+
+  @Test
+  public void testLoadFailureWithDirectJsonLdMode() {
+    Config config =
+        ConfigFactory.parseString("registry.client.jsonld.mode = direct")
+            .withFallback(
+                ConfigFactory.parseResources(SunbirdExtensionConstants.BRIDGE_CONFIG_FILE))
+            .resolve();
+    try {
+      RegistryClientConfig.load(config);
+      fail();
+    } catch (ProjectCommonException e) {
+      assertEquals(ResponseCode.errorLoadConfig.getErrorCode(), e.getCode());
+    }
+  }
+
+  @Test
+  public void testBulkheadRejectsCallsBeyondLimit() throws Exception {
+    GuardedTransport transport = new GuardedTransport(pooledTransport, null, new Bulkhead(2, 0));
+    registry.setLatencyMs(1000);
+    int callCount = 4;
+    ExecutorService callers = Executors.newFixedThreadPool(callCount);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<ResponseData<String>>> futures = new ArrayList<>();
+    for (int i = 0; i < callCount; i++) {
+      futures.add(
+          callers.submit(
+              () -> {
+                start.await();
+                return transport.readEntity(new URI(REGISTRY_ID), getHeaders());
+              }));
+    }
+    start.countDown();
+    int rejected = 0;
+    for (Future<ResponseData<String>> future : futures) {
+      try {
+        future.get();
+      } catch (Exception e) {
+        if (e.getCause() instanceof RegistryRejectedException) {
+          rejected++;
+        }
+      }
+    }
+    callers.shutdown();
+    assertEquals(2, rejected);
+    assertEquals(2, transport.getBulkheadRejectedCount());
+    assertEquals(2, registry.getRequestCount());
+  }
+
+  private static Map<String, String> getHeaders() {
+    Map<String, String> headers = new HashMap<>();
+    headers.put("Content-Type", "application/json");
+    return headers;
+  }
+}
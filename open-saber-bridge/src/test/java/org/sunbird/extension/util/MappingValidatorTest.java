@@ -0,0 +1,144 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.typesafe.config.ConfigFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.responsecode.ResponseCode;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore({"javax.management.*", "javax.net.ssl.*", "javax.security.*"})
+public class MappingValidatorTest {
+
+  private static String RESOURCE_PATH = "transformJsonUtilTest/";
+  private TransformationPlan testPlan =
+      TransformJsonUtil.getTransformationPlan(
+          ConfigUtil.loadConfig(RESOURCE_PATH + "test-write-user-mapping.conf"));
+  private EnumMappings testEnumMappings =
+      TransformJsonUtil.getEnumMappings(
+          ConfigUtil.loadConfig(RESOURCE_PATH + "test-write-user-enums-mapping.conf"));
+  private TransformationPlan userWritePlan =
+      TransformJsonUtil.getTransformationPlan(
+          ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_WRITE_MAPPING_FILE));
+  private TransformationPlan userReadPlan =
+      TransformJsonUtil.getTransformationPlan(
+          ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_READ_MAPPING_FILE));
+  private EnumMappings userEnumMappings =
+      TransformJsonUtil.getEnumMappings(
+          ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_ENUMS_MAPPING_FILE));
+
+  @Test
+  public void testValidateSuccessWithUserMappings() {
+    assertTrue(
+        MappingValidator.getErrors(
+                userWritePlan, userEnumMappings, SunbirdExtensionConstants.OPERATION_MODE_WRITE)
+            .isEmpty());
+    assertTrue(
+        MappingValidator.getErrors(
+                userReadPlan, userEnumMappings, SunbirdExtensionConstants.OPERATION_MODE_READ)
+            .isEmpty());
+  }
+
+  @Test
+  public void testValidateFailureWithInvalidFields() {
+    List<String> errorCodes = new ArrayList<>();
+    for (ProjectCommonException e :
+        MappingValidator.getErrors(
+            testPlan, testEnumMappings, SunbirdExtensionConstants.OPERATION_MODE_WRITE)) {
+      errorCodes.add(e.getCode());
+    }
+    assertEquals(13, errorCodes.size());
+    assertEquals(
+        3, count(errorCodes, ResponseCode.errorJsonTransformBasicConfigMissing.getErrorCode()));
+    assertEquals(
+        6, count(errorCodes, ResponseCode.errorJsonTransformInvalidFilterConfig.getErrorCode()));
+    assertEquals(
+        1, count(errorCodes, ResponseCode.errorJsonTransformEnumValuesEmpty.getErrorCode()));
+    assertEquals(
+        1, count(errorCodes, ResponseCode.errorJsonTransformInvalidTypeConfig.getErrorCode()));
+    assertEquals(
+        2, count(errorCodes, ResponseCode.errorJsonTransformInvalidDateFormat.getErrorCode()));
+  }
+
+  @Test(expected = ProjectCommonException.class)
+  public void testValidateFailureWithFirstInvalidField() {
+    try {
+      MappingValidator.validate(
+          testPlan, testEnumMappings, SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+    } catch (ProjectCommonException e) {
+      assertEquals(ResponseCode.errorJsonTransformBasicConfigMissing.getErrorCode(), e.getCode());
+      throw e;
+    }
+  }
+
+  @Test
+  public void testSampleInputSuccessTransformedWithoutError() {
+    Map<String, Object> sample =
+        MappingValidator.sampleInput(
+            userWritePlan,
+            "teacher",
+            userEnumMappings,
+            SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+    Map<String, Object> registryUser =
+        TransformJsonUtil.transform(
+            userWritePlan,
+            sample,
+            "teacher",
+            userEnumMappings,
+            SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+    Map<String, Object> registryTeacher = (Map<String, Object>) registryUser.get("teacher");
+    assertFalse(registryTeacher.isEmpty());
+
+    sample =
+        MappingValidator.sampleInput(
+            userReadPlan,
+            "teacher",
+            userEnumMappings,
+            SunbirdExtensionConstants.OPERATION_MODE_READ);
+    assertFalse(
+        TransformJsonUtil.transform(
+                userReadPlan,
+                sample,
+                "teacher",
+                userEnumMappings,
+                SunbirdExtensionConstants.OPERATION_MODE_READ)
+            .isEmpty());
+  }
+
+  @Test
+  public void testSampleInputSuccessWithInvalidFieldsLeftOut() {
+    Map<String, Object> sample =
+        MappingValidator.sampleInput(
+            testPlan, "user", testEnumMappings, SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+    assertFalse(sample.containsKey("field15"));
+    assertTrue(Arrays.asList("yes", "no").contains(sample.get("isRetired")));
+    TransformJsonUtil.transform(
+        testPlan, sample, "user", testEnumMappings, SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+  }
+
+  @Test
+  public void testIsEnabledSuccessWithDefaultConfig() {
+    assertTrue(
+        MappingValidator.isEnabled(
+            ConfigFactory.parseResources(SunbirdExtensionConstants.BRIDGE_CONFIG_FILE).resolve()));
+  }
+
+  private int count(List<String> errorCodes, String errorCode) {
+    int count = 0;
+    for (String code : errorCodes) {
+      count += code.equals(errorCode) ? 1 : 0;
+    }
+    return count;
+  }
+}
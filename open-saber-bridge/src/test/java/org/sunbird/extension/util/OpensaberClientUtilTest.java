@@ -11,6 +11,7 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 import org.apache.commons.lang.StringUtils;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -208,6 +209,39 @@ public class OpensaberClientUtilTest {
     }
   }
 
+  @Test
+  public void testAddEntityAsyncSuccess() throws Exception {
+    String addSuccessResponse = getJSONFileAsString("add-entity-success-response.json");
+    Map<String, Object> validEntityRegistryFormatMap =
+        getJSONFileAsMap("valid-entity-registry-format.json");
+    try {
+      Mockito.when(openSaberClient.addEntity(Mockito.any(), Mockito.any()))
+          .thenReturn(new ResponseData<String>(addSuccessResponse));
+      String entityId =
+          OpensaberClientUtil.addEntityAsync(validEntityRegistryFormatMap, ACCESS_TOKEN).join();
+      assertTrue(StringUtils.isNotBlank(entityId));
+    } finally {
+      Mockito.reset(openSaberClient);
+    }
+  }
+
+  @Test
+  public void testReadEntityAsyncFailureWithClientIOException() throws Exception {
+    try {
+      Mockito.when(openSaberClient.readEntity(Mockito.any(), Mockito.any()))
+          .thenThrow(IOException.class);
+      OpensaberClientUtil.readEntityAsync(REGISTRY_ID, ACCESS_TOKEN).join();
+      fail();
+    } catch (CompletionException e) {
+      assertTrue(
+          ((ProjectCommonException) e.getCause())
+              .getCode()
+              .equals(ResponseCode.errorRegistryReadEntity.getErrorCode()));
+    } finally {
+      Mockito.reset(openSaberClient);
+    }
+  }
+
   private String mockAndAddEntity(String mockResponse, Map requestMap) {
     String entityId = null;
     try {
@@ -0,0 +1,134 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.responsecode.ResponseCode;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore({"javax.management.*", "javax.net.ssl.*", "javax.security.*"})
+public class ParallelListTransformTest {
+
+  private ObjectMapper mapper = new ObjectMapper();
+  private TransformationPlan userWritePlan =
+      TransformJsonUtil.getTransformationPlan(
+          ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_WRITE_MAPPING_FILE));
+  private EnumMappings userEnumMappings =
+      TransformJsonUtil.getEnumMappings(
+          ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_ENUMS_MAPPING_FILE));
+
+  @After
+  public void tearDown() {
+    ParallelListTransform.configure(0, 1);
+  }
+
+  @Test
+  public void testMapSuccessInListOrder() {
+    ParallelListTransform.configure(10, 4);
+    List<Integer> elements = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      elements.add(i);
+    }
+    assertTrue(ParallelListTransform.isParallel(elements.size()));
+    List<String> results =
+        ParallelListTransform.map(
+            elements, element -> Thread.currentThread().getName() + ":" + element);
+    assertEquals(elements.size(), results.size());
+    for (int i = 0; i < results.size(); i++) {
+      assertTrue(results.get(i).startsWith("registry-transform-"));
+      assertTrue(results.get(i).endsWith(":" + i));
+    }
+  }
+
+  @Test
+  public void testMapSuccessSequentialBelowThreshold() {
+    ParallelListTransform.configure(10, 4);
+    assertFalse(ParallelListTransform.isParallel(9));
+    List<String> results =
+        ParallelListTransform.map(
+            Arrays.asList(1, 2, 3), element -> Thread.currentThread().getName());
+    assertEquals(Thread.currentThread().getName(), results.get(0));
+  }
+
+  @Test(expected = ProjectCommonException.class)
+  public void testMapFailureWithFirstFailingElement() {
+    ParallelListTransform.configure(2, 4);
+    List<Integer> elements = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      elements.add(i);
+    }
+    try {
+      ParallelListTransform.map(
+          elements,
+          element -> {
+            if (element % 10 == 7) {
+              ProjectCommonException.throwClientErrorException(
+                  ResponseCode.errorJsonTransformInvalidInput, String.valueOf(element));
+            }
+            return element;
+          });
+    } catch (ProjectCommonException e) {
+      assertEquals("7", e.getMessage());
+      throw e;
+    }
+  }
+
+  @Test
+  public void testTransformSuccessParallelMatchesSequential() throws Exception {
+    Map<String, Object> sunbirdUser =
+        TestUtil.getJSONFileAsMap("userProviderRegistryImplTest/test-create-user-success.json");
+    List<Map<String, Object>> classSubjectTaught = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      Map<String, Object> classSubject = new HashMap<>();
+      classSubject.put("classes", "Class " + (i % 12 + 1));
+      classSubject.put("subjects", Arrays.asList("English", "Mathematics"));
+      classSubjectTaught.add(classSubject);
+    }
+    sunbirdUser.put("classSubjectTaught", classSubjectTaught);
+    Map<String, Object> sequential = transform(sunbirdUser);
+    String sequentialPayload = writePayload(sunbirdUser);
+
+    ParallelListTransform.configure(16, 4);
+    assertEquals(sequential, transform(sunbirdUser));
+    assertEquals(
+        sequential,
+        CompiledTransformer.compileAll(
+                userWritePlan, userEnumMappings, SunbirdExtensionConstants.OPERATION_MODE_WRITE)
+            .get("teacher")
+            .transform(sunbirdUser));
+    assertEquals(mapper.readTree(sequentialPayload), mapper.readTree(writePayload(sunbirdUser)));
+  }
+
+  private Map<String, Object> transform(Map<String, Object> sunbirdUser) {
+    return TransformJsonUtil.transform(
+        userWritePlan,
+        sunbirdUser,
+        "teacher",
+        userEnumMappings,
+        SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+  }
+
+  private String writePayload(Map<String, Object> sunbirdUser) throws Exception {
+    return JsonGeneratorUtil.writeObject(
+        TransformJsonUtil.transformer(
+            userWritePlan,
+            sunbirdUser,
+            "teacher",
+            userEnumMappings,
+            SunbirdExtensionConstants.OPERATION_MODE_WRITE));
+  }
+}
@@ -0,0 +1,187 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import io.opensaber.registry.client.data.RequestData;
+import io.opensaber.registry.client.data.ResponseData;
+import io.opensaber.registry.transform.ITransformer;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+
+@SuppressWarnings("unchecked")
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore({"javax.management.*", "javax.net.ssl.*", "javax.security.*", "com.sun.*"})
+public class PooledHttpTransportTest {
+
+  private static final ITransformer<String> IDENTITY_TRANSFORMER =
+      data -> new ResponseData<>(data.getRequestData());
+  private static final int LOAD_TEST_THREADS = 16;
+  private static final int LOAD_TEST_REQUESTS = 2000;
+
+  private static final String REGISTRY_ID =
+      "http://localhost:8080/ba7b659d-3c24-4b71-ae67-5208854a700c";
+  private StubRegistryServer registry;
+
+  @Before
+  public void setup() throws IOException {
+    registry = new StubRegistryServer();
+  }
+
+  @After
+  public void tearDown() {
+    registry.close();
+  }
+
+  @Test
+  public void testAddEntitySuccess() throws Exception {
+    try (PooledHttpTransport transport = createTransport(true)) {
+      ResponseData<String> response =
+          transport.addEntity(new RequestData<>("{\"teacher\":{}}"), getHeaders());
+      Map<String, Object> result =
+          (Map<String, Object>) getResponseMap(response).get(SunbirdExtensionConstants.RESULT);
+      assertEquals(REGISTRY_ID, result.get(SunbirdExtensionConstants.ENTITY));
+    }
+  }
+
+  @Test
+  public void testReadEntitySuccess() throws Exception {
+    try (PooledHttpTransport transport = createTransport(true)) {
+      ResponseData<String> response = transport.readEntity(new URI(REGISTRY_ID), getHeaders());
+      Map<String, Object> result =
+          (Map<String, Object>) getResponseMap(response).get(SunbirdExtensionConstants.RESULT);
+      assertTrue(result.containsKey("teacher"));
+    }
+  }
+
+  @Test
+  public void testDeleteEntitySuccess() throws Exception {
+    try (PooledHttpTransport transport = createTransport(true)) {
+      ResponseData<String> response = transport.deleteEntity(new URI(REGISTRY_ID), getHeaders());
+      Map<String, Object> params =
+          (Map<String, Object>) getResponseMap(response).get(SunbirdExtensionConstants.PARAMS);
+      assertEquals(SunbirdExtensionConstants.STATUS_SUCCESS, params.get("status"));
+    }
+  }
+
+  @Test(expected = SocketTimeoutException.class)
+  public void testReadEntityFailureWithReadTimeout() throws Exception {
+    registry.setLatencyMs(1000);
+    try (PooledHttpTransport transport = createTransport(true)) {
+      transport.readEntity(new URI(REGISTRY_ID), getHeaders());
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testAddEntityFailureWithEmptyResponse() throws Exception {
+    registry.setResponse("POST /add", "");
+    try (PooledHttpTransport transport = createTransport(true)) {
+      transport.addEntity(new RequestData<>("{\"teacher\":{}}"), getHeaders());
+    }
+  }
+
+  @Test
+  public void testAddEntityLoadSuccessWithPooledConnections() throws Exception {
+    long unpooledNanos;
+    try (PooledHttpTransport transport = createTransport(false)) {
+      unpooledNanos = runLoad(transport);
+    }
+    int unpooledConnections = registry.getConnectionCount();
+    registry.close();
+    registry = new StubRegistryServer();
+
+    long pooledNanos;
+    try (PooledHttpTransport transport = createTransport(true)) {
+      pooledNanos = runLoad(transport);
+    }
+    int pooledConnections = registry.getConnectionCount();
+
+    ProjectLogger.log(
+        "PooledHttpTransportTest: "
+            + LOAD_TEST_REQUESTS
+            + " add requests. Without connection reuse = "
+            + getThroughput(unpooledNanos)
+            + " req/s over "
+            + unpooledConnections
+            + " connections. Pooled = "
+            + getThroughput(pooledNanos)
+            + " req/s over "
+            + pooledConnections
+            + " connections",
+        LoggerEnum.INFO.name());
+    assertEquals(LOAD_TEST_REQUESTS, registry.getRequestCount());
+    assertTrue(pooledConnections <= LOAD_TEST_THREADS);
+    assertTrue(pooledConnections < unpooledConnections);
+  }
+
+  private long runLoad(final PooledHttpTransport transport) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(LOAD_TEST_THREADS);
+    try {
+      List<Future<ResponseData<String>>> futures = new ArrayList<>();
+      long start = System.nanoTime();
+      for (int i = 0; i < LOAD_TEST_REQUESTS; i++) {
+        futures.add(
+            executor.submit(
+                () -> transport.addEntity(new RequestData<>("{\"teacher\":{}}"), getHeaders())));
+      }
+      for (Future<ResponseData<String>> future : futures) {
+        future.get();
+      }
+      return System.nanoTime() - start;
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  private long getThroughput(long nanos) {
+    return LOAD_TEST_REQUESTS * TimeUnit.SECONDS.toNanos(1) / Math.max(nanos, 1);
+  }
+
+  private PooledHttpTransport createTransport(boolean connectionReuse) {
+    Config config =
+        ConfigFactory.parseString(
+                "registry.client { transport = pooled, baseUrl = \""
+                    + registry.getBaseUrl()
+                    + "\", connection.reuse = "
+                    + connectionReuse
+                    + ", connection.maxPerRoute = "
+                    + LOAD_TEST_THREADS
+                    + ", operations.read.readTimeoutMs = 200 }")
+            .withFallback(
+                ConfigFactory.parseResources(SunbirdExtensionConstants.BRIDGE_CONFIG_FILE))
+            .resolve();
+    return new PooledHttpTransport(
+        RegistryClientConfig.load(config), IDENTITY_TRANSFORMER, IDENTITY_TRANSFORMER);
+  }
+
+  private Map<String, String> getHeaders() {
+    Map<String, String> headers = new HashMap<>();
+    headers.put("Content-Type", "application/json");
+    return headers;
+  }
+
+  private Map<String, Object> getResponseMap(ResponseData<String> response) throws IOException {
+    return new com.fasterxml.jackson.databind.ObjectMapper()
+        .readValue(response.getResponseData(), HashMap.class);
+  }
+}
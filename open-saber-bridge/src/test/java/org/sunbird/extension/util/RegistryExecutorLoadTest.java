@@ -0,0 +1,139 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import io.opensaber.registry.client.data.ResponseData;
+import io.opensaber.registry.transform.ITransformer;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+
+/**
+ * Load test of the platform and virtual modes of the registry executor, running a batch of reads
+ * against a local registry stub with injected latency, and checking the concurrency seen by the
+ * stub against the limit of each mode. On runtimes without virtual threads the virtual mode falls
+ * back to the platform pool, and only the fallback is checked.
+ */
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore({"javax.management.*", "javax.net.ssl.*", "javax.security.*", "com.sun.*"})
+public class RegistryExecutorLoadTest {
+
+  private static final ITransformer<String> IDENTITY_TRANSFORMER =
+      data -> new ResponseData<>(data.getRequestData());
+  private static final String REGISTRY_ID =
+      "http://localhost:8080/ba7b659d-3c24-4b71-ae67-5208854a700c";
+  private static final int REQUESTS = 200;
+  private static final int LATENCY_MS = 20;
+  private static final int POOL_SIZE = 8;
+  private static final int MAX_CONCURRENT = 50;
+
+  private StubRegistryServer registry;
+  private PooledHttpTransport transport;
+
+  @Before
+  public void setup() throws IOException {
+    registry = new StubRegistryServer();
+    registry.setLatencyMs(LATENCY_MS);
+    Config config =
+        ConfigFactory.parseString(
+                "registry.client { transport = pooled, baseUrl = \""
+                    + registry.getBaseUrl()
+                    + "\" }")
+            .withFallback(
+                ConfigFactory.parseResources(SunbirdExtensionConstants.BRIDGE_CONFIG_FILE))
+            .resolve();
+    transport =
+        new PooledHttpTransport(
+            RegistryClientConfig.load(config), IDENTITY_TRANSFORMER, IDENTITY_TRANSFORMER);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    transport.close();
+    registry.close();
+  }
+
+  @Test
+  public void testVirtualModeAgainstPlatformMode() {
+    int platformConcurrency =
+        runReads("platform", new RegistryExecutor(POOL_SIZE, REQUESTS, REQUESTS));
+    assertTrue(platformConcurrency > 1 && platformConcurrency <= POOL_SIZE);
+    RegistryExecutor virtualExecutor =
+        RegistryExecutor.virtual(MAX_CONCURRENT, REQUESTS, REQUESTS, POOL_SIZE);
+    int virtualConcurrency =
+        runReads(virtualExecutor.isVirtual() ? "virtual" : "fallback", virtualExecutor);
+    assertEquals(2 * REQUESTS, registry.getRequestCount());
+    if (virtualExecutor.isVirtual()) {
+      assertTrue(virtualConcurrency > POOL_SIZE && virtualConcurrency <= MAX_CONCURRENT);
+    } else {
+      assertTrue(virtualConcurrency <= POOL_SIZE);
+    }
+  }
+
+  /**
+   * @return Highest number of reads the registry stub handled at a time, in a batch of reads all of
+   *     which are to succeed
+   */
+  private int runReads(String mode, RegistryExecutor executor) {
+    registry.resetMaxConcurrentRequests();
+    List<Integer> items = new ArrayList<>();
+    for (int i = 0; i < REQUESTS; i++) {
+      items.add(i);
+    }
+    long startTime = System.nanoTime();
+    List<BatchResult<String>> results;
+    try {
+      results =
+          executor.supplyAll(
+              RegistryOperation.READ,
+              items,
+              item -> {
+                try {
+                  return transport.readEntity(new URI(REGISTRY_ID), getHeaders()).getResponseData();
+                } catch (Exception e) {
+                  throw new IllegalStateException(e);
+                }
+              });
+    } finally {
+      executor.shutdown();
+    }
+    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    for (BatchResult<String> result : results) {
+      assertTrue(result.isSuccess());
+    }
+    ProjectLogger.log(
+        "RegistryExecutorLoadTest: Mode = "
+            + mode
+            + " Requests = "
+            + REQUESTS
+            + " LatencyMs = "
+            + LATENCY_MS
+            + " ElapsedMs = "
+            + elapsedMs
+            + " MaxConcurrent = "
+            + registry.getMaxConcurrentRequests(),
+        LoggerEnum.INFO.name());
+    return registry.getMaxConcurrentRequests();
+  }
+
+  private static Map<String, String> getHeaders() {
+    Map<String, String> headers = new HashMap<>();
+    headers.put("Content-Type", "application/json");
+    return headers;
+  }
+}
@@ -0,0 +1,153 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.responsecode.ResponseCode;
+
+public class RegistryExecutorTest {
+
+  private RegistryExecutor executor = new RegistryExecutor(1, 1, 2);
+
+  @After
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  public void testSupplyAsyncSuccess() {
+    CompletableFuture<String> future =
+        executor.supplyAsync(RegistryOperation.READ, () -> Thread.currentThread().getName());
+    assertTrue(future.join().startsWith("registry-async-"));
+  }
+
+  @Test
+  public void testSupplyAsyncFailureWhenQueueFull() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<Object> running =
+        executor.supplyAsync(RegistryOperation.ADD, () -> await(release));
+    CompletableFuture<Object> queued =
+        executor.supplyAsync(RegistryOperation.ADD, () -> await(release));
+    CompletableFuture<Object> rejected =
+        executor.supplyAsync(RegistryOperation.ADD, () -> await(release));
+    try {
+      rejected.join();
+      fail();
+    } catch (CompletionException e) {
+      assertEquals(
+          ResponseCode.errorRegistryAddEntity.getErrorCode(),
+          ((ProjectCommonException) e.getCause()).getCode());
+    } finally {
+      release.countDown();
+    }
+    running.join();
+    queued.join();
+  }
+
+  @Test
+  public void testSupplyAllSuccessWithBoundedConcurrency() {
+    RegistryExecutor batchExecutor = new RegistryExecutor(8, 100, 3);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    List<Integer> items = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      items.add(i);
+    }
+    try {
+      List<BatchResult<Integer>> results =
+          batchExecutor.supplyAll(
+              RegistryOperation.READ,
+              items,
+              item -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                  Thread.sleep(2);
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                if (item % 10 == 0) {
+                  throw new IllegalArgumentException("Invalid item " + item);
+                }
+                return item * 2;
+              });
+      assertEquals(items.size(), results.size());
+      assertTrue(maxRunning.get() <= 3);
+      assertTrue(results.get(0).getError() instanceof IllegalArgumentException);
+      assertEquals(Integer.valueOf(42), results.get(21).getValue());
+    } finally {
+      batchExecutor.shutdown();
+    }
+  }
+
+  @Test
+  public void testSupplyAllRunsOnCallerWhenQueueFull() {
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<Object> running =
+        executor.supplyAsync(RegistryOperation.ADD, () -> await(release));
+    CompletableFuture<Object> queued =
+        executor.supplyAsync(RegistryOperation.ADD, () -> await(release));
+    try {
+      List<BatchResult<String>> results =
+          executor.supplyAll(
+              RegistryOperation.ADD, Arrays.asList(1, 2), item -> Thread.currentThread().getName());
+      assertEquals(Thread.currentThread().getName(), results.get(0).getValue());
+      assertEquals(Thread.currentThread().getName(), results.get(1).getValue());
+    } finally {
+      release.countDown();
+    }
+    running.join();
+    queued.join();
+  }
+
+  @Test
+  public void testVirtualModeBoundsConcurrentCalls() {
+    RegistryExecutor virtualExecutor = RegistryExecutor.virtual(3, 100, 20, 3);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    List<CompletableFuture<Integer>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < 20; i++) {
+        futures.add(
+            virtualExecutor.supplyAsync(
+                RegistryOperation.READ,
+                () -> {
+                  maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                  try {
+                    Thread.sleep(2);
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  }
+                  return running.decrementAndGet();
+                }));
+      }
+      futures.forEach(CompletableFuture::join);
+      assertTrue(maxRunning.get() <= 3);
+      if (virtualExecutor.isVirtual()) {
+        assertEquals(0, virtualExecutor.getPendingCount());
+      }
+    } finally {
+      virtualExecutor.shutdown();
+    }
+  }
+
+  private Object await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return null;
+  }
+}
@@ -0,0 +1,94 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opensaber.registry.client.data.ResponseData;
+import io.opensaber.registry.transform.ITransformer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.extension.util.RegistryResponseReader.ResultType;
+
+/**
+ * Checks the handling of each JSON-LD mode, with fixed transformer outputs taken from files. The
+ * direct codec is checked against the actual transformers in {@link DirectJsonLdCodecTest}.
+ */
+public class RegistryPayloadCodecTest {
+
+  private static String RESOURCE_PATH = "directJsonLdTest/";
+  private static String REGISTRY_FORMAT_FILE =
+      "opensaberClientUtilTest/valid-entity-registry-format.json";
+  private static ITransformer<String> GOLDEN_REQUEST_TRANSFORMER =
+      data ->
+          new ResponseData<>(
+              TestUtil.getJSONFileAsString(RESOURCE_PATH + "teacher-jsonld-request.json"));
+  private static ITransformer<String> GOLDEN_RESPONSE_TRANSFORMER =
+      data -> new ResponseData<>(TestUtil.getJSONFileAsString(REGISTRY_FORMAT_FILE));
+
+  private ObjectMapper mapper = new ObjectMapper();
+  private DirectJsonLdCodec directCodec =
+      new DirectJsonLdCodec(
+          "http://localhost:8080/context.jsonld", Collections.singletonMap("teacher", "Teacher"));
+
+  @Test
+  public void testWriteRequestSuccessInTransformerMode() throws Exception {
+    Map<String, Object> entity = TestUtil.getJSONFileAsMap(REGISTRY_FORMAT_FILE);
+    String payload =
+        createCodec(RegistryClientConfig.JSONLD_MODE_TRANSFORMER, GOLDEN_REQUEST_TRANSFORMER)
+            .writeRequest(entity);
+    assertEquals(mapper.writeValueAsString(entity), payload);
+  }
+
+  @Test
+  public void testWriteRequestSuccessInVerifyModeWithoutMismatch() throws Exception {
+    RegistryPayloadCodec codec =
+        createCodec(RegistryClientConfig.JSONLD_MODE_VERIFY, GOLDEN_REQUEST_TRANSFORMER);
+    String payload = codec.writeRequest(TestUtil.getJSONFileAsMap(REGISTRY_FORMAT_FILE));
+    assertEquals(
+        mapper.readTree(GOLDEN_REQUEST_TRANSFORMER.transform(null).getResponseData()),
+        mapper.readTree(payload));
+    assertTrue(codec.getMismatchCounts().isEmpty());
+  }
+
+  @Test
+  public void testReadResponseSuccessInVerifyModeWithoutMismatch() throws Exception {
+    RegistryPayloadCodec codec =
+        createCodec(RegistryClientConfig.JSONLD_MODE_VERIFY, GOLDEN_REQUEST_TRANSFORMER);
+    codec.writeRequest(TestUtil.getJSONFileAsMap(REGISTRY_FORMAT_FILE));
+    RegistryResponse response =
+        codec.readResponse(
+            TestUtil.getJSONFileAsString(RESOURCE_PATH + "read-entity-jsonld-response.json"),
+            ResultType.MAP);
+    assertEquals(TestUtil.getJSONFileAsMap(REGISTRY_FORMAT_FILE), response.getResultMap());
+    assertTrue(codec.getMismatchCounts().isEmpty());
+  }
+
+  @Test
+  public void testWriteRequestSuccessInVerifyModeWithMismatchCounted() throws Exception {
+    RegistryPayloadCodec codec =
+        createCodec(RegistryClientConfig.JSONLD_MODE_VERIFY, RegistryPayloadCodec.PASS_THROUGH);
+    Map<String, Object> entity = TestUtil.getJSONFileAsMap(REGISTRY_FORMAT_FILE);
+    String payload = codec.writeRequest(entity);
+    assertEquals(mapper.writeValueAsString(entity), payload);
+    assertEquals(
+        Long.valueOf(1), codec.getMismatchCounts().get(RegistryPayloadCodec.REQUEST_MISMATCH));
+  }
+
+  @Test
+  public void testDifferingPathsWithoutValues() throws Exception {
+    List<String> paths =
+        RegistryPayloadCodec.getDifferingPaths(
+            mapper.readTree("{\"teacher\":{\"email\":\"a@b.c\",\"phone\":[\"1\",\"2\"]}}"),
+            mapper.readTree("{\"teacher\":{\"email\":\"x@y.z\",\"phone\":[\"1\"]}}"));
+    assertEquals(Arrays.asList("$.teacher.email", "$.teacher.phone[1]"), paths);
+  }
+
+  private RegistryPayloadCodec createCodec(String mode, ITransformer<String> requestTransformer) {
+    return new RegistryPayloadCodec(
+        mode, directCodec, requestTransformer, GOLDEN_RESPONSE_TRANSFORMER);
+  }
+}
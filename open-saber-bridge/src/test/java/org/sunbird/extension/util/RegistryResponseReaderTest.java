@@ -0,0 +1,84 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.extension.util.RegistryResponseReader.ResultType;
+
+public class RegistryResponseReaderTest {
+
+  private static String RESOURCE_PATH = "opensaberClientUtilTest/";
+  private String REGISTRY_ID = "http://localhost:8080/ba7b659d-3c24-4b71-ae67-5208854a700c";
+
+  @Test
+  public void testReadSuccessWithResultEntity() throws IOException {
+    RegistryResponse response =
+        RegistryResponseReader.read(
+            getJSONFileAsString("add-entity-success-response.json"), ResultType.ENTITY);
+    assertTrue(response.isSuccessful());
+    assertEquals(REGISTRY_ID, response.getResultEntity());
+  }
+
+  @Test
+  public void testReadSuccessWithResultMap() throws IOException {
+    RegistryResponse response =
+        RegistryResponseReader.read(
+            getJSONFileAsString("read-entity-success-response.json"), ResultType.MAP);
+    Map<String, Object> expectedResultMap =
+        TestUtil.getJSONFileAsMap(RESOURCE_PATH + "valid-entity-registry-format.json");
+    assertTrue(response.isSuccessful());
+    assertEquals(expectedResultMap, response.getResultMap());
+  }
+
+  @Test
+  public void testReadSuccessWithFailureStatus() throws IOException {
+    RegistryResponse response =
+        RegistryResponseReader.read(
+            getJSONFileAsString("delete-entity-failure-response.json"), ResultType.NONE);
+    assertFalse(response.isSuccessful());
+    assertEquals("Entity does not exist", response.getErrMsg());
+  }
+
+  @Test
+  public void testReadSuccessWithResultBeforeParamsAndNestedFieldsSkipped() throws IOException {
+    String registryResponse =
+        "{\"result\":{\"other\":{\"a\":[1,{\"b\":2}]},\"entity\":\"id-1\",\"more\":[]},"
+            + "\"ets\":1,\"params\":{\"err\":{\"code\":1},\"status\":\"SUCCCESSFUL\","
+            + "\"errmsg\":null}}";
+    RegistryResponse response = RegistryResponseReader.read(registryResponse, ResultType.ENTITY);
+    assertTrue(response.isSuccessful());
+    assertEquals("id-1", response.getResultEntity());
+    assertNull(response.getErrMsg());
+  }
+
+  @Test
+  public void testReadSuccessWithoutParams() throws IOException {
+    RegistryResponse response = RegistryResponseReader.read("{\"id\":\"x\"}", ResultType.NONE);
+    assertFalse(response.isSuccessful());
+    assertNull(response.getStatus());
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadFailureWithInvalidResponse() throws IOException {
+    RegistryResponseReader.read("Invalid Response", ResultType.NONE);
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadFailureWithNonObjectResponse() throws IOException {
+    RegistryResponseReader.read("[]", ResultType.NONE);
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadFailureWithNullResponse() throws IOException {
+    RegistryResponseReader.read(null, ResultType.NONE);
+  }
+
+  private String getJSONFileAsString(String fileName) {
+    return TestUtil.getJSONFileAsString(RESOURCE_PATH + fileName);
+  }
+}
@@ -0,0 +1,126 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.responsecode.ResponseCode;
+
+public class ReloadableConfigTest {
+
+  private static String FILE_NAME = "test-mapping.conf";
+  private Function<List<Config>, String> compiler = configs -> configs.get(0).getString("value");
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private File file;
+
+  @Before
+  public void setup() throws IOException {
+    file = new File(folder.getRoot(), FILE_NAME);
+    writeFile("value = first");
+  }
+
+  @Test
+  public void testGetSuccessWithFileInDirectory() {
+    ReloadableConfig<String> config = createReloadableConfig();
+    assertEquals("first", config.get());
+    assertEquals(1, config.getVersion());
+    assertFalse(config.reloadIfChanged());
+  }
+
+  @Test
+  public void testReloadIfChangedSuccessWithChangedFile() throws IOException {
+    ReloadableConfig<String> config = createReloadableConfig();
+    String previous = config.get();
+    writeFile("value = second");
+    assertTrue(config.reloadIfChanged());
+    assertEquals("second", config.get());
+    assertEquals(2, config.getVersion());
+    assertEquals("first", previous);
+  }
+
+  @Test
+  public void testReloadListenerCalledWithNewValue() throws IOException {
+    ReloadableConfig<String> config = createReloadableConfig();
+    List<String> reloaded = new ArrayList<>();
+    config.addReloadListener(reloaded::add);
+    writeFile("value = {");
+    config.reloadIfChanged();
+    writeFile("value = second");
+    config.reloadIfChanged();
+    assertEquals(Collections.singletonList("second"), reloaded);
+  }
+
+  @Test
+  public void testReloadIfChangedFailureKeepsCurrentVersion() throws IOException {
+    ReloadableConfig<String> config = createReloadableConfig();
+    writeFile("value = {");
+    assertFalse(config.reloadIfChanged());
+    assertEquals("first", config.get());
+    assertEquals(1, config.getVersion());
+    assertFalse(config.reloadIfChanged());
+
+    writeFile("other = third");
+    assertFalse(config.reloadIfChanged());
+    assertEquals(1, config.getVersion());
+
+    writeFile("value = fourth");
+    assertTrue(config.reloadIfChanged());
+    assertEquals("fourth", config.get());
+    assertEquals(2, config.getVersion());
+  }
+
+  @Test
+  public void testLoadSuccessWithClasspathFile() {
+    ReloadableConfig<Integer> config =
+        ReloadableConfig.load(
+            Arrays.asList(
+                SunbirdExtensionConstants.USER_ENUMS_MAPPING_FILE,
+                SunbirdExtensionConstants.USER_WRITE_MAPPING_FILE),
+            configs -> configs.size(),
+            ConfigUtil.loadConfigWithDefaultFallback(SunbirdExtensionConstants.BRIDGE_CONFIG_FILE));
+    assertEquals(Integer.valueOf(2), config.get());
+    assertFalse(config.reloadIfChanged());
+  }
+
+  @Test(expected = ProjectCommonException.class)
+  public void testLoadFailureWithInvalidReloadConfig() {
+    try {
+      ReloadableConfig.load(
+          Collections.singletonList(FILE_NAME),
+          compiler,
+          ConfigFactory.parseString("registry.mapping.reload.enabled = true"));
+    } catch (ProjectCommonException e) {
+      assertEquals(ResponseCode.errorLoadConfig.getErrorCode(), e.getCode());
+      throw e;
+    }
+  }
+
+  private ReloadableConfig<String> createReloadableConfig() {
+    return new ReloadableConfig<>(
+        Collections.singletonList(FILE_NAME), folder.getRoot().getPath(), compiler);
+  }
+
+  private void writeFile(String content) throws IOException {
+    long lastModified = file.exists() ? file.lastModified() : 0;
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    file.setLastModified(Math.max(lastModified + 1000, file.lastModified()));
+  }
+}
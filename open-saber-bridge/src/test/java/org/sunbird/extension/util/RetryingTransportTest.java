@@ -0,0 +1,196 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import io.opensaber.registry.client.data.RequestData;
+import io.opensaber.registry.client.data.ResponseData;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.sunbird.extension.util.RegistryClientConfig.OperationSettings;
+
+@SuppressWarnings("unchecked")
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore({"javax.management.*", "javax.net.ssl.*", "javax.security.*"})
+public class RetryingTransportTest {
+
+  private static final ResponseData<String> RESPONSE = new ResponseData<>("{}");
+
+  private RegistryTransport delegate;
+  private List<Long> sleeps;
+
+  @Before
+  public void setup() {
+    delegate = Mockito.mock(RegistryTransport.class);
+    sleeps = new ArrayList<>();
+  }
+
+  @Test
+  public void testUpdateEntitySuccessAfterRetries() throws Exception {
+    Mockito.when(delegate.updateEntity(Mockito.any(), Mockito.any()))
+        .thenThrow(new SocketTimeoutException())
+        .thenThrow(new SocketTimeoutException())
+        .thenReturn(RESPONSE);
+    RetryingTransport transport = createTransport(false, new RetryBudget(0.1, 10));
+    assertEquals(RESPONSE, transport.updateEntity(new RequestData<>("{}"), getHeaders()));
+    Mockito.verify(delegate, Mockito.times(3)).updateEntity(Mockito.any(), Mockito.any());
+    assertEquals(2, sleeps.size());
+    assertTrue(sleeps.get(0) <= 100);
+    assertTrue(sleeps.get(1) <= 200);
+  }
+
+  @Test
+  public void testUpdateEntityFailureAfterMaxAttempts() throws Exception {
+    Mockito.when(delegate.updateEntity(Mockito.any(), Mockito.any()))
+        .thenThrow(new SocketTimeoutException());
+    RetryingTransport transport = createTransport(false, new RetryBudget(0.1, 10));
+    try {
+      transport.updateEntity(new RequestData<>("{}"), getHeaders());
+      fail();
+    } catch (SocketTimeoutException e) {
+      Mockito.verify(delegate, Mockito.times(3)).updateEntity(Mockito.any(), Mockito.any());
+    }
+  }
+
+  @Test
+  public void testAddEntityNotRetriedAfterSentWithKeyNotHonoured() throws Exception {
+    Mockito.when(delegate.addEntity(Mockito.any(), Mockito.any()))
+        .thenThrow(new SocketTimeoutException());
+    RetryingTransport transport = createTransport(false, new RetryBudget(0.1, 10));
+    try {
+      transport.addEntity(new RequestData<>("{}"), getHeaders());
+      fail();
+    } catch (SocketTimeoutException e) {
+      Mockito.verify(delegate, Mockito.times(1)).addEntity(Mockito.any(), Mockito.any());
+    }
+  }
+
+  @Test
+  public void testAddEntityRetriedWithSameIdempotencyKey() throws Exception {
+    Mockito.when(delegate.addEntity(Mockito.any(), Mockito.any()))
+        .thenThrow(new ConnectException())
+        .thenThrow(new SocketTimeoutException())
+        .thenReturn(RESPONSE);
+    RetryingTransport transport = createTransport(true, new RetryBudget(0.1, 10));
+    Map<String, String> headers = getHeaders();
+    assertEquals(RESPONSE, transport.addEntity(new RequestData<>("{}"), headers));
+    ArgumentCaptor<Map> captor = ArgumentCaptor.forClass(Map.class);
+    Mockito.verify(delegate, Mockito.times(3)).addEntity(Mockito.any(), captor.capture());
+    String key = (String) captor.getAllValues().get(0).get("Idempotency-Key");
+    assertNotNull(key);
+    for (Map<String, String> attemptHeaders : captor.getAllValues()) {
+      assertEquals(key, attemptHeaders.get("Idempotency-Key"));
+      assertEquals("token", attemptHeaders.get("x-authenticated-user-token"));
+    }
+    assertFalse(headers.containsKey("Idempotency-Key"));
+  }
+
+  @Test
+  public void testRetriesStopWhenBudgetExhausted() throws Exception {
+    Mockito.when(delegate.readEntity(Mockito.any(), Mockito.any()))
+        .thenThrow(new SocketTimeoutException());
+    RetryingTransport transport = createTransport(false, new RetryBudget(0, 1));
+    for (int i = 0; i < 2; i++) {
+      try {
+        transport.readEntity(new URI("http://localhost/1"), getHeaders());
+        fail();
+      } catch (SocketTimeoutException e) {
+        // expected
+      }
+    }
+    Mockito.verify(delegate, Mockito.times(3)).readEntity(Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  public void testRejectedCallNotRetried() throws Exception {
+    Mockito.when(delegate.readEntity(Mockito.any(), Mockito.any()))
+        .thenThrow(new RegistryRejectedException("Registry circuit is open"));
+    RetryingTransport transport = createTransport(false, new RetryBudget(0.1, 10));
+    try {
+      transport.readEntity(new URI("http://localhost/1"), getHeaders());
+      fail();
+    } catch (RegistryRejectedException e) {
+      Mockito.verify(delegate, Mockito.times(1)).readEntity(Mockito.any(), Mockito.any());
+      assertTrue(sleeps.isEmpty());
+    }
+  }
+
+  @Test
+  public void testClientErrorNotRetried() throws Exception {
+    Mockito.when(delegate.readEntity(Mockito.any(), Mockito.any()))
+        .thenThrow(new RegistryHttpException("Empty registry response", 404));
+    RetryingTransport transport = createTransport(false, new RetryBudget(0.1, 10));
+    try {
+      transport.readEntity(new URI("http://localhost/1"), getHeaders());
+      fail();
+    } catch (RegistryHttpException e) {
+      Mockito.verify(delegate, Mockito.times(1)).readEntity(Mockito.any(), Mockito.any());
+      assertTrue(sleeps.isEmpty());
+    }
+  }
+
+  @Test
+  public void testRetryBudgetRefilledByRequests() {
+    RetryBudget budget = new RetryBudget(0.5, 1);
+    assertTrue(budget.tryRetry());
+    assertFalse(budget.tryRetry());
+    budget.onRequest();
+    assertFalse(budget.tryRetry());
+    budget.onRequest();
+    assertTrue(budget.tryRetry());
+    budget.onRequest();
+    budget.onRequest();
+    budget.onRequest();
+    assertTrue(budget.tryRetry());
+    assertFalse(budget.tryRetry());
+  }
+
+  @Test
+  public void testBackoffCappedAtMaxBackoff() {
+    OperationSettings settings = createClientConfig(false).getOperation(RegistryOperation.UPDATE);
+    for (int i = 0; i < 100; i++) {
+      long backoffMs = RetryingTransport.getBackoffMs(settings, 10);
+      assertTrue(backoffMs >= 0 && backoffMs <= 400);
+    }
+  }
+
+  private RetryingTransport createTransport(boolean keyHonoured, RetryBudget budget) {
+    return new RetryingTransport(delegate, createClientConfig(keyHonoured), budget, sleeps::add);
+  }
+
+  private static RegistryClientConfig createClientConfig(boolean keyHonoured) {
+    Config config =
+        ConfigFactory.parseString(
+                "registry.client { retry.idempotencyKeyHonoured = "
+                    + keyHonoured
+                    + ", operations.update.retry.maxBackoffMs = 400 }")
+            .withFallback(
+                ConfigFactory.parseResources(SunbirdExtensionConstants.BRIDGE_CONFIG_FILE))
+            .resolve();
+    return RegistryClientConfig.load(config);
+  }
+
+  private static Map<String, String> getHeaders() {
+    Map<String, String> headers = new HashMap<>();
+    headers.put("Content-Type", "application/json");
+    headers.put("x-authenticated-user-token", "token");
+    return headers;
+  }
+}
@@ -0,0 +1,52 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+import org.sunbird.common.models.util.LoggerEnum;
+
+public class SampledCounterTest {
+
+  @After
+  public void tearDown() {
+    BridgeLogger.setLevel(LoggerEnum.INFO);
+  }
+
+  @Test
+  public void testIncrementSuccessWithSampledMessages() {
+    SampledCounter counter = new SampledCounter(10, 100);
+    AtomicInteger messagesBuilt = new AtomicInteger();
+    for (int i = 0; i < 25; i++) {
+      counter.increment("field", () -> "message " + messagesBuilt.incrementAndGet());
+    }
+    assertEquals(25, counter.getCount("field"));
+    // first occurrence, 10th and 20th
+    assertEquals(3, messagesBuilt.get());
+  }
+
+  @Test
+  public void testIncrementSuccessWithMessagesNotBuiltWhenLevelDisabled() {
+    BridgeLogger.setLevel(LoggerEnum.ERROR);
+    SampledCounter counter = new SampledCounter(1, 100);
+    AtomicInteger messagesBuilt = new AtomicInteger();
+    for (int i = 0; i < 5; i++) {
+      counter.increment("field", () -> "message " + messagesBuilt.incrementAndGet());
+    }
+    assertEquals(5, counter.getCount("field"));
+    assertEquals(0, messagesBuilt.get());
+  }
+
+  @Test
+  public void testIncrementSuccessWithOverflowKey() {
+    SampledCounter counter = new SampledCounter(10, 2);
+    counter.increment("field1", () -> "message");
+    counter.increment("field2", () -> "message");
+    counter.increment("field3", () -> "message");
+    counter.increment("field4", () -> "message");
+    assertEquals(0, counter.getCount("field3"));
+    assertEquals(2, counter.getCount(SampledCounter.OVERFLOW_KEY));
+    assertEquals(3, counter.getCounts().size());
+  }
+}
@@ -0,0 +1,160 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import org.junit.After;
+import org.junit.Test;
+
+public class SingleFlightTest {
+
+  private static final int CALLERS = 8;
+
+  private SingleFlight<String, Map<String, Object>> singleFlight = new SingleFlight<>(HashMap::new);
+  private ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+  @After
+  public void tearDown() {
+    callers.shutdownNow();
+  }
+
+  @Test
+  public void testConcurrentCallsOfSameKeyCollapsed() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+    List<CompletableFuture<Map<String, Object>>> results =
+        callConcurrently("id1", () -> blockingCall(calls, release));
+    awaitCollapsed(CALLERS - 1);
+    release.countDown();
+
+    Map<String, Object> first = results.get(0).join();
+    for (CompletableFuture<Map<String, Object>> result : results) {
+      assertEquals("value", result.join().get("field"));
+    }
+    assertNotSame(first, results.get(1).join());
+    assertEquals(1, calls.get());
+    assertEquals(1, singleFlight.getExecutedCount());
+    assertEquals(CALLERS - 1, singleFlight.getCollapsedCount());
+  }
+
+  @Test
+  public void testResultOfCallCopiedForEachCallerWhenCollapsed() throws Exception {
+    List<Map<String, Object>> copied = Collections.synchronizedList(new ArrayList<>());
+    singleFlight = new SingleFlight<>(copyingInto(copied));
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicReference<Map<String, Object>> callResult = new AtomicReference<>();
+    List<CompletableFuture<Map<String, Object>>> results =
+        callConcurrently(
+            "id1",
+            () -> {
+              callResult.set(blockingCall(new AtomicInteger(), release));
+              return callResult.get();
+            });
+    awaitCollapsed(CALLERS - 1);
+    release.countDown();
+
+    for (CompletableFuture<Map<String, Object>> result : results) {
+      assertNotSame(callResult.get(), result.join());
+    }
+    assertEquals(CALLERS, copied.size());
+  }
+
+  @Test
+  public void testResultOfCallNotCopiedWhenNotCollapsed() {
+    List<Map<String, Object>> copied = new ArrayList<>();
+    singleFlight = new SingleFlight<>(copyingInto(copied));
+    Map<String, Object> callResult = new HashMap<>();
+    assertSame(callResult, singleFlight.execute("id1", () -> callResult));
+    assertTrue(copied.isEmpty());
+  }
+
+  @Test
+  public void testCallsOfOtherKeysNotCollapsed() {
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(0);
+    singleFlight.execute("id1", () -> blockingCall(calls, release));
+    singleFlight.execute("id1", () -> blockingCall(calls, release));
+    singleFlight.execute("id2", () -> blockingCall(calls, release));
+    assertEquals(3, calls.get());
+    assertEquals(0, singleFlight.getCollapsedCount());
+  }
+
+  @Test
+  public void testErrorSharedWithCollapsedCalls() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    List<CompletableFuture<Map<String, Object>>> results =
+        callConcurrently(
+            "id1",
+            () -> {
+              await(release);
+              throw new IllegalStateException("Registry down");
+            });
+    awaitCollapsed(CALLERS - 1);
+    release.countDown();
+    for (CompletableFuture<Map<String, Object>> result : results) {
+      try {
+        result.join();
+        fail();
+      } catch (CompletionException e) {
+        assertEquals("Registry down", e.getCause().getMessage());
+      }
+    }
+  }
+
+  private List<CompletableFuture<Map<String, Object>>> callConcurrently(
+      String key, Supplier<Map<String, Object>> call) {
+    List<CompletableFuture<Map<String, Object>>> results = new ArrayList<>();
+    for (int i = 0; i < CALLERS; i++) {
+      results.add(CompletableFuture.supplyAsync(() -> singleFlight.execute(key, call), callers));
+    }
+    return results;
+  }
+
+  private static UnaryOperator<Map<String, Object>> copyingInto(List<Map<String, Object>> copied) {
+    return value -> {
+      copied.add(value);
+      return new HashMap<>(value);
+    };
+  }
+
+  private void awaitCollapsed(long count) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (singleFlight.getCollapsedCount() < count && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+  }
+
+  private static Map<String, Object> blockingCall(AtomicInteger calls, CountDownLatch release) {
+    calls.incrementAndGet();
+    await(release);
+    Map<String, Object> result = new HashMap<>();
+    result.put("field", "value");
+    return result;
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package org.sunbird.extension.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stub of the registry for tests. Responds to add, read, update and delete requests with the
+ * registry responses available in test resources, and counts the requests and connections received.
+ * Latency and failures can be injected.
+ */
+public class StubRegistryServer implements Closeable {
+
+  private static final String RESOURCE_PATH = "opensaberClientUtilTest/";
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final Map<String, String> responses = new ConcurrentHashMap<>();
+  private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger requestCount = new AtomicInteger();
+  private final AtomicInteger inFlightCount = new AtomicInteger();
+  private final AtomicInteger maxInFlightCount = new AtomicInteger();
+  private volatile long latencyMs;
+  private volatile int failureStatus;
+  private volatile int responseStatus = 200;
+
+  public StubRegistryServer() throws IOException {
+    responses.put(
+        "POST /add",
+        TestUtil.getJSONFileAsString(RESOURCE_PATH + "add-entity-success-response.json"));
+    responses.put(
+        "GET", TestUtil.getJSONFileAsString(RESOURCE_PATH + "read-entity-success-response.json"));
+    responses.put(
+        "POST /update",
+        TestUtil.getJSONFileAsString(RESOURCE_PATH + "update-entity-success-response.json"));
+    responses.put(
+        "DELETE",
+        TestUtil.getJSONFileAsString(RESOURCE_PATH + "delete-entity-success-response.json"));
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    executor = Executors.newFixedThreadPool(64);
+    server.setExecutor(executor);
+    server.createContext("/", this::handle);
+    server.start();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    requestCount.incrementAndGet();
+    int inFlight = inFlightCount.incrementAndGet();
+    maxInFlightCount.accumulateAndGet(inFlight, Math::max);
+    try {
+      respond(exchange);
+    } finally {
+      inFlightCount.decrementAndGet();
+    }
+  }
+
+  private void respond(HttpExchange exchange) throws IOException {
+    clientPorts.add(exchange.getRemoteAddress().getPort());
+    try (InputStream requestBody = exchange.getRequestBody()) {
+      while (requestBody.read() != -1) {
+        // drain the request body so that the connection can be reused
+      }
+    }
+    if (latencyMs > 0) {
+      try {
+        Thread.sleep(latencyMs);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (failureStatus > 0) {
+      exchange.sendResponseHeaders(failureStatus, -1);
+      exchange.close();
+      return;
+    }
+    String method = exchange.getRequestMethod();
+    String response = responses.get(method + " " + exchange.getRequestURI().getPath());
+    if (null == response) {
+      response = responses.get(method);
+    }
+    byte[] body = null == response ? new byte[0] : response.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(
+        null == response ? 404 : responseStatus, body.length == 0 ? -1 : body.length);
+    try (OutputStream responseBody = exchange.getResponseBody()) {
+      responseBody.write(body);
+    }
+  }
+
+  public String getBaseUrl() {
+    return "http://localhost:" + server.getAddress().getPort();
+  }
+
+  /**
+   * @param request Http method, optionally followed by a space and the request path
+   * @param response Response body to be returned for the request
+   */
+  public void setResponse(String request, String response) {
+    responses.put(request, response);
+  }
+
+  public void setLatencyMs(long latencyMs) {
+    this.latencyMs = latencyMs;
+  }
+
+  /** @param failureStatus Http status returned with an empty body to all requests, 0 for none */
+  public void setFailureStatus(int failureStatus) {
+    this.failureStatus = failureStatus;
+  }
+
+  /** @param responseStatus Http status returned with the response bodies */
+  public void setResponseStatus(int responseStatus) {
+    this.responseStatus = responseStatus;
+  }
+
+  public int getRequestCount() {
+    return requestCount.get();
+  }
+
+  /** @return Highest number of requests handled at a time since created or reset */
+  public int getMaxConcurrentRequests() {
+    return maxInFlightCount.get();
+  }
+
+  public void resetMaxConcurrentRequests() {
+    maxInFlightCount.set(0);
+  }
+
+  /** @return Number of distinct client connections the requests were received on */
+  public int getConnectionCount() {
+    return clientPorts.size();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
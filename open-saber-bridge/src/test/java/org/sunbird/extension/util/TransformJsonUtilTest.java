@@ -1,10 +1,14 @@
 package org.sunbird.extension.util;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
@@ -42,6 +46,22 @@ public class TransformJsonUtilTest {
     }
   }
 
+  @Test
+  public void testTransformSuccessWithUnmappedFieldCounted() {
+    Map preTransformMap =
+        new HashMap() {
+          {
+            put("unmappedTestField", "value");
+          }
+        };
+    Long countBefore = TransformJsonUtil.getUnmappedFieldCounts().get("unmappedTestField");
+    Map transformedMap = transformWithWriteMode(preTransformMap);
+    assertTrue(transformedMap.isEmpty());
+    assertEquals(
+        (null == countBefore ? 0 : countBefore) + 1,
+        (long) TransformJsonUtil.getUnmappedFieldCounts().get("unmappedTestField"));
+  }
+
   @Test
   public void testTransformSuccessWithBlankFilterValue() {
     Map preTransformMap =
@@ -187,6 +207,77 @@ public class TransformJsonUtilTest {
     transformAndCheckException(preTransformMap, ResponseCode.errorJsonTransformInvalidDateFormat);
   }
 
+  @Test
+  public void testTransformSuccessStreamedMatchesMap() throws IOException {
+    Map preTransformMap = getJSONFileAsMap("test-write-user-success-pre-transform.json");
+    Map expectedTransformedMap = getJSONFileAsMap("test-write-user-success-post-transform.json");
+    assertEquals(
+        expectedTransformedMap,
+        streamWithWriteMode(
+            TransformJsonUtil.getTransformationPlan(fieldsConfig), preTransformMap, rootConfig));
+  }
+
+  @Test
+  public void testTransformSuccessStreamedMatchesMapWithCustomList() throws IOException {
+    TransformationPlan plan =
+        TransformJsonUtil.getTransformationPlan(
+            ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_WRITE_MAPPING_FILE));
+    EnumMappings enumMappings =
+        TransformJsonUtil.getEnumMappings(
+            ConfigUtil.loadConfig(SunbirdExtensionConstants.USER_ENUMS_MAPPING_FILE));
+    Map preTransformMap =
+        TestUtil.getJSONFileAsMap("userProviderRegistryImplTest/test-create-user-success.json");
+    Map<String, Object> expectedTransformedMap =
+        TransformJsonUtil.transform(
+            plan,
+            preTransformMap,
+            "teacher",
+            enumMappings,
+            SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+    String streamed =
+        JsonGeneratorUtil.writeObject(
+            TransformJsonUtil.transformer(
+                plan,
+                preTransformMap,
+                "teacher",
+                enumMappings,
+                SunbirdExtensionConstants.OPERATION_MODE_WRITE));
+    assertTrue(((Map) expectedTransformedMap.get("teacher")).containsKey("teachingExperience"));
+    assertEquals(expectedTransformedMap, new ObjectMapper().readValue(streamed, HashMap.class));
+  }
+
+  @Test
+  public void testTransformSuccessStreamedWithUnstreamableLayout() throws IOException {
+    TransformationPlan plan =
+        TransformationPlan.compile(
+            ConfigFactory.parseString(
+                "user { a { toFieldName = \"user.a\", fromType = String, toType = String },"
+                    + " b { toFieldName = \"user.a.b\", fromType = String, toType = String } }"));
+    Map<String, Object> preTransformMap = new HashMap<>();
+    preTransformMap.put("a", "value");
+    Map<String, Object> expectedTransformedMap =
+        TransformJsonUtil.transform(
+            plan,
+            preTransformMap,
+            rootConfig,
+            EnumMappings.empty(),
+            SunbirdExtensionConstants.OPERATION_MODE_WRITE);
+    assertEquals(expectedTransformedMap, streamWithWriteMode(plan, preTransformMap, rootConfig));
+  }
+
+  private Map<String, Object> streamWithWriteMode(
+      TransformationPlan plan, Map preTransformMap, String rootType) throws IOException {
+    String streamed =
+        JsonGeneratorUtil.writeObject(
+            TransformJsonUtil.transformer(
+                plan,
+                preTransformMap,
+                rootType,
+                TransformJsonUtil.getEnumMappings(enumsConfig),
+                SunbirdExtensionConstants.OPERATION_MODE_WRITE));
+    return new ObjectMapper().readValue(streamed, HashMap.class);
+  }
+
   private Map<String, Object> transformWithWriteMode(Map preTransformMap) {
     return TransformJsonUtil.transform(
         fieldsConfig,
@@ -0,0 +1,95 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.typesafe.config.Config;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.responsecode.ResponseCode;
+
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore({"javax.management.*", "javax.net.ssl.*", "javax.security.*"})
+public class TransformationPlanTest {
+
+  private static String RESOURCE_PATH = "transformJsonUtilTest/";
+  private Config fieldsConfig =
+      ConfigUtil.loadConfig(RESOURCE_PATH + "test-write-user-mapping.conf");
+
+  @Test
+  public void testCompileSuccessWithDefaultFromFieldName() {
+    TransformationPlan plan = TransformationPlan.compile(fieldsConfig);
+    FieldPlan fieldPlan = plan.getFieldPlans("user").get("age");
+    assertEquals("age", fieldPlan.getFromField());
+    assertNull(fieldPlan.getFromFields());
+    assertEquals("user.age", fieldPlan.getToField());
+    assertEquals("String", fieldPlan.getFromType());
+    assertEquals("Integer", fieldPlan.getToType());
+  }
+
+  @Test
+  public void testCompileSuccessWithMultipleFromFieldNames() {
+    TransformationPlan plan = TransformationPlan.compile(fieldsConfig);
+    FieldPlan fieldPlan = plan.getFieldPlans("user").get("firstName");
+    assertNull(fieldPlan.getFromField());
+    assertEquals(Arrays.asList("firstName", "lastName"), fieldPlan.getFromFields());
+  }
+
+  @Test
+  public void testCompileSuccessWithConfigFileName() {
+    TransformationPlan plan = TransformationPlan.compile(fieldsConfig);
+    assertEquals("test-write-user-mapping.conf", plan.getConfigFile());
+  }
+
+  @Test
+  public void testGetFieldPlansSuccessWithUnknownRoot() {
+    TransformationPlan plan = TransformationPlan.compile(fieldsConfig);
+    Map<String, FieldPlan> fieldPlans = plan.getFieldPlans("unknown");
+    assertTrue(fieldPlans.isEmpty());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testGetFieldPlansFailureWithModification() {
+    TransformationPlan plan = TransformationPlan.compile(fieldsConfig);
+    plan.getFieldPlans("user").get("age").getFieldMap().put("toType", "Long");
+  }
+
+  @Test(expected = ProjectCommonException.class)
+  public void testCompileFailureWithInvalidDateFormat() {
+    try {
+      TransformationPlan.compile(
+          ConfigUtil.loadConfig(
+              RESOURCE_PATH + "test-write-user-invalid-date-format-mapping.conf"));
+    } catch (ProjectCommonException e) {
+      assertTrue(
+          e.getCode().equals(ResponseCode.errorJsonTransformInvalidDateFormat.getErrorCode()));
+      throw e;
+    }
+  }
+
+  @Test
+  public void testCompileSuccessWithDateConversion() throws Exception {
+    Config config = ConfigUtil.loadConfig("registry-user-write-mapping.conf");
+    FieldPlan fieldPlan = TransformationPlan.compile(config).getFieldPlans("teacher").get("dob");
+    assertEquals("1992-10-12", fieldPlan.getDateConversion().convert("1992-10-12"));
+    assertSame(
+        fieldPlan.getDateConversion(),
+        DateConversion.of(
+            fieldPlan.getDateConversion().getFromDateFormat(),
+            fieldPlan.getDateConversion().getToDateFormat()));
+  }
+
+  @Test
+  public void testGetTransformationPlanSuccessWithSameConfig() {
+    assertSame(
+        TransformJsonUtil.getTransformationPlan(fieldsConfig),
+        TransformJsonUtil.getTransformationPlan(fieldsConfig));
+  }
+}
@@ -0,0 +1,56 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class TypeCoercionTest {
+
+  @Test
+  public void testValueOfTargetTypePassedThrough() {
+    Long value = 1234567L;
+    assertSame(value, coerce("Long", "Long", value));
+    String text = "text";
+    assertSame(text, coerce("String", "String", text));
+    Double number = 1.5;
+    assertSame(number, coerce("Integer", "Double", number));
+  }
+
+  @Test
+  public void testNumericValuesConvertedWithoutText() {
+    assertEquals(Long.valueOf(42), coerce("Integer", "Long", 42));
+    assertEquals(Integer.valueOf(42), coerce("Long", "Integer", 42L));
+    assertEquals(Double.valueOf(42), coerce("Long", "Double", 42L));
+    assertSame(coerce("Long", "Integer", 7L), coerce("Long", "Integer", 7L));
+  }
+
+  @Test
+  public void testTextParsed() {
+    assertEquals(Integer.valueOf(42), coerce("String", "Integer", "42"));
+    assertEquals(Boolean.TRUE, coerce("String", "Boolean", "true"));
+    assertEquals(Double.valueOf(1.5), coerce("String", "Double", "1.5"));
+    assertEquals("42", coerce("Integer", "String", 42));
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void testIntegerOverflowFailure() {
+    coerce("Long", "Integer", Long.MAX_VALUE);
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void testDecimalToIntegerFailure() {
+    coerce("Double", "Integer", 1.0);
+  }
+
+  @Test
+  public void testNoCoercionToOtherTypes() {
+    assertNull(TypeCoercion.get("String", "DateString"));
+    assertNull(TypeCoercion.get("String", "Role"));
+  }
+
+  private static Object coerce(String fromType, String toType, Object value) {
+    return TypeCoercion.get(fromType, toType).coerce(value);
+  }
+}
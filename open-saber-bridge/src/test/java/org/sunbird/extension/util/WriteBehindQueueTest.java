@@ -0,0 +1,290 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+import com.typesafe.config.ConfigFactory;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.responsecode.ResponseCode;
+
+@SuppressWarnings("unchecked")
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(OpensaberClientUtil.class)
+@PowerMockIgnore({"javax.management.*", "javax.net.ssl.*", "javax.security.*"})
+public class WriteBehindQueueTest {
+
+  private static final int CAPACITY = 64 * 1024;
+  private static final long BACKOFF_MS = 1000;
+  private static final long CANCEL_TIMEOUT_MS = 100;
+  private static final String SERVICE_TOKEN = "service-token";
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private List<Map<String, Object>> sentPayloads = Collections.synchronizedList(new ArrayList<>());
+  private List<String> sentAccessTokens = Collections.synchronizedList(new ArrayList<>());
+  private List<String> writtenIds = new ArrayList<>();
+  private Path journalFile;
+  private AtomicLong now = new AtomicLong();
+  private WriteBehindQueue openQueue;
+
+  @Before
+  public void setup() {
+    journalFile = folder.getRoot().toPath().resolve("journal");
+    mockStatic(OpensaberClientUtil.class);
+    PowerMockito.when(
+            OpensaberClientUtil.runBatch(
+                Mockito.any(RegistryOperation.class), Mockito.anyList(), Mockito.any()))
+        .thenCallRealMethod();
+    PowerMockito.doAnswer(
+            invocation -> {
+              sentPayloads.add((Map<String, Object>) invocation.getArguments()[0]);
+              sentAccessTokens.add((String) invocation.getArguments()[1]);
+              return null;
+            })
+        .when(OpensaberClientUtil.class);
+    OpensaberClientUtil.updateEntity(Mockito.anyMap(), Mockito.anyString());
+  }
+
+  @After
+  public void teardown() throws IOException {
+    if (null != openQueue) {
+      openQueue.close();
+    }
+  }
+
+  @Test
+  public void testUpdatesOfSameEntityCoalesced() throws IOException {
+    WriteBehindQueue queue = createQueue(3);
+    assertTrue(queue.offer("id1", payload("firstName", "Jane")));
+    assertTrue(queue.offer("id2", payload("firstName", "John")));
+    assertTrue(queue.offer("id1", payload("lastName", "Doe")));
+    assertTrue(queue.isPending("id1"));
+    assertEquals(2, queue.getPendingCount());
+
+    assertEquals(2, queue.drain());
+    assertEquals(2, sentPayloads.size());
+    Map<String, Object> teacher = getSentTeacher("Doe");
+    assertEquals("Jane", teacher.get("firstName"));
+    assertEquals("Doe", teacher.get("lastName"));
+    assertEquals(Arrays.asList(SERVICE_TOKEN, SERVICE_TOKEN), sentAccessTokens);
+    assertEquals(Arrays.asList("id1", "id2"), writtenIds);
+    assertFalse(queue.isPending("id1"));
+    assertEquals(0, createQueue(3).getPendingCount());
+  }
+
+  @Test
+  public void testFailedUpdateRetriedThenDropped() throws IOException {
+    PowerMockito.doAnswer(
+            invocation -> {
+              ProjectCommonException.throwServerErrorException(
+                  ResponseCode.errorRegistryUpdateEntity,
+                  ResponseCode.errorRegistryUpdateEntity.getErrorMessage());
+              return null;
+            })
+        .when(OpensaberClientUtil.class);
+    OpensaberClientUtil.updateEntity(Mockito.anyMap(), Mockito.anyString());
+    WriteBehindQueue queue = createQueue(2);
+    queue.offer("id1", payload("firstName", "Jane"));
+
+    queue.drain();
+    assertTrue(queue.isPending("id1"));
+    assertEquals(0, queue.getDroppedCount());
+    queue.offer("id1", payload("lastName", "Doe"));
+    assertEquals(0, queue.drain());
+    now.addAndGet(BACKOFF_MS);
+    assertEquals(1, queue.drain());
+    assertEquals(0, queue.getPendingCount());
+    assertEquals(1, queue.getDroppedCount());
+    assertEquals(Collections.singletonList("id1"), writtenIds);
+    assertEquals(0, createQueue(2).getPendingCount());
+  }
+
+  @Test
+  public void testUnreachableRegistryRetriedWithBackoffWithoutDrop() throws IOException {
+    failUpdates(new IOException("Connection refused"));
+    WriteBehindQueue queue = createQueue(2);
+    queue.offer("id1", payload("firstName", "Jane"));
+
+    long backoffMs = BACKOFF_MS;
+    for (int i = 0; i < 4; i++) {
+      assertEquals(1, queue.drain());
+      now.addAndGet(backoffMs - 1);
+      assertEquals(0, queue.drain());
+      now.incrementAndGet();
+      backoffMs = Math.min(backoffMs * 2, 4 * BACKOFF_MS);
+    }
+    assertTrue(queue.isPending("id1"));
+    assertEquals(0, queue.getDroppedCount());
+    assertTrue(writtenIds.isEmpty());
+    assertEquals(1, createQueue(2).getPendingCount());
+  }
+
+  @Test
+  public void testRejectedUpdateNotCountedAsAttempt() throws IOException {
+    failUpdates(new RegistryRejectedException("Circuit breaker open"));
+    WriteBehindQueue queue = createQueue(1);
+    queue.offer("id1", payload("firstName", "Jane"));
+
+    queue.drain();
+    assertTrue(queue.isPending("id1"));
+    assertEquals(0, queue.getDroppedCount());
+  }
+
+  @Test
+  public void testCancelRemovesQueuedUpdate() throws IOException {
+    WriteBehindQueue queue = createQueue(3);
+    queue.offer("id1", payload("firstName", "Jane"));
+    queue.offer("id2", payload("firstName", "John"));
+
+    queue.cancel("id1", ResponseCode.errorRegistryUpdateEntity);
+    assertFalse(queue.isPending("id1"));
+    assertEquals(1, queue.drain());
+    assertEquals("John", getSentTeacher(null).get("firstName"));
+    assertEquals(0, createQueue(3).getPendingCount());
+  }
+
+  @Test
+  public void testCancelFailureWhenUpdateBeingSentNotCompletedInTime() throws Exception {
+    CountDownLatch sending = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    PowerMockito.doAnswer(
+            invocation -> {
+              sending.countDown();
+              release.await();
+              return null;
+            })
+        .when(OpensaberClientUtil.class);
+    OpensaberClientUtil.updateEntity(Mockito.anyMap(), Mockito.anyString());
+    WriteBehindQueue queue = createQueue(1);
+    queue.offer("id1", payload("firstName", "Jane"));
+    Thread drainer = new Thread(queue::drain);
+    drainer.start();
+    sending.await();
+    try {
+      queue.cancel("id1", ResponseCode.errorRegistryUpdateEntity);
+      fail();
+    } catch (ProjectCommonException e) {
+      assertEquals(ResponseCode.errorRegistryUpdateEntity.getErrorCode(), e.getCode());
+    } finally {
+      release.countDown();
+      drainer.join();
+    }
+    queue.cancel("id1", ResponseCode.errorRegistryUpdateEntity);
+    assertFalse(queue.isPending("id1"));
+  }
+
+  @Test
+  public void testJournaledUpdatesReplayed() throws IOException {
+    WriteBehindQueue queue = createQueue(3);
+    queue.offer("id1", payload("firstName", "Jane"));
+    queue.offer("id1", payload("firstName", "Janet"));
+
+    WriteBehindQueue replayed = createQueue(3);
+    assertEquals(1, replayed.getPendingCount());
+    replayed.drain();
+    assertEquals(1, sentPayloads.size());
+    assertEquals(
+        "Janet", ((Map<String, Object>) sentPayloads.get(0).get("teacher")).get("firstName"));
+  }
+
+  @Test(expected = ProjectCommonException.class)
+  public void testLoadFailureWithoutServiceAccessToken() {
+    WriteBehindQueue.load(
+        ConfigFactory.parseString(
+            "registry.update.writeBehind { enabled = true, journalFile = \""
+                + journalFile
+                + "\", serviceAccessToken = \"\" }"),
+        registryId -> {});
+  }
+
+  @Test
+  public void testMergeFieldsOfNestedMaps() {
+    Map<String, Object> earlier = payload("firstName", "Jane");
+    earlier.put("version", 1);
+    Map<String, Object> merged = WriteBehindQueue.mergeFields(earlier, payload("lastName", "Doe"));
+    assertEquals(1, merged.get("version"));
+    assertEquals(2, ((Map<String, Object>) merged.get("teacher")).size());
+  }
+
+  /** @return Teacher of the payload sent with the last name, as batches are sent in parallel */
+  private Map<String, Object> getSentTeacher(String lastName) {
+    for (Map<String, Object> payload : sentPayloads) {
+      Map<String, Object> teacher = (Map<String, Object>) payload.get("teacher");
+      if (Objects.equals(lastName, teacher.get("lastName"))) {
+        return teacher;
+      }
+    }
+    return Collections.emptyMap();
+  }
+
+  /** Fails the registry updates with the error, as the client util does */
+  private void failUpdates(IOException error) {
+    PowerMockito.doAnswer(
+            invocation -> {
+              try {
+                ProjectCommonException.throwServerErrorException(
+                    ResponseCode.errorRegistryUpdateEntity,
+                    ResponseCode.errorRegistryUpdateEntity.getErrorMessage());
+              } catch (ProjectCommonException e) {
+                e.initCause(error);
+                throw e;
+              }
+              return null;
+            })
+        .when(OpensaberClientUtil.class);
+    OpensaberClientUtil.updateEntity(Mockito.anyMap(), Mockito.anyString());
+  }
+
+  /** @return Queue on the journal, closing the queue opened before as a restart does */
+  private WriteBehindQueue createQueue(int maxAttempts) throws IOException {
+    if (null != openQueue) {
+      openQueue.close();
+    }
+    openQueue =
+        WriteBehindQueue.create(
+            WriteJournal.open(journalFile, CAPACITY, false),
+            SERVICE_TOKEN,
+            10,
+            maxAttempts,
+            BACKOFF_MS,
+            4 * BACKOFF_MS,
+            CANCEL_TIMEOUT_MS,
+            0,
+            now::get,
+            writtenIds::add);
+    return openQueue;
+  }
+
+  private static Map<String, Object> payload(String field, Object value) {
+    Map<String, Object> teacher = new HashMap<>();
+    teacher.put(field, value);
+    Map<String, Object> payload = new HashMap<>();
+    payload.put("teacher", teacher);
+    return payload;
+  }
+}
@@ -0,0 +1,111 @@
+package org.sunbird.extension.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WriteJournalTest {
+
+  private static final int CAPACITY = 4096;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testReplayLiveWritesOnly() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("journal");
+    WriteJournal journal = WriteJournal.open(file, CAPACITY, false);
+    WriteJournal.Entry first = journal.append("id1", payload("first"));
+    journal.append("id2", payload("second"));
+    journal.acknowledge(Collections.singletonList(first.getSequence()));
+    journal.close();
+
+    List<WriteJournal.Entry> replayed = WriteJournal.open(file, CAPACITY, false).getLiveEntries();
+    assertEquals(1, replayed.size());
+    assertEquals("id2", replayed.get(0).getKey());
+    assertArrayEquals(payload("second"), replayed.get(0).getPayload());
+  }
+
+  @Test
+  public void testReplayStopsAtTornRecord() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("journal");
+    WriteJournal journal = WriteJournal.open(file, CAPACITY, false);
+    journal.append("id1", payload("first"));
+    int tornPosition = journal.getUsedBytes();
+    journal.append("id2", payload("second"));
+    try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+      raf.seek(journal.getUsedBytes() - 1);
+      raf.write(0x7f);
+    }
+    journal.close();
+
+    WriteJournal replayed = WriteJournal.open(file, CAPACITY, false);
+    assertEquals(1, replayed.getLiveEntries().size());
+    assertEquals(tornPosition, replayed.getUsedBytes());
+    WriteJournal.Entry third = replayed.append("id3", payload("third"));
+    assertTrue(third.getSequence() > 1);
+    replayed.close();
+    assertEquals(2, WriteJournal.open(file, CAPACITY, false).getLiveEntries().size());
+  }
+
+  @Test
+  public void testCompactWhenDue() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("journal");
+    WriteJournal journal = WriteJournal.open(file, 512, false);
+    int compactions = 0;
+    for (int i = 0; i < 50; i++) {
+      WriteJournal.Entry entry = journal.append("id" + i, payload("value" + i));
+      journal.acknowledge(Arrays.asList(entry.getSequence()));
+      if (journal.compactIfDue()) {
+        compactions++;
+        assertEquals(0, journal.getUsedBytes());
+      }
+    }
+    assertTrue(compactions > 0);
+    journal.append("last", payload("last"));
+    journal.close();
+
+    List<WriteJournal.Entry> replayed = WriteJournal.open(file, 512, false).getLiveEntries();
+    assertEquals(1, replayed.size());
+    assertEquals("last", replayed.get(0).getKey());
+  }
+
+  @Test
+  public void testOpenFailureWhileOpen() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("journal");
+    WriteJournal journal = WriteJournal.open(file, CAPACITY, false);
+    journal.append("id1", payload("first"));
+    try {
+      WriteJournal.open(file, CAPACITY, false);
+      fail();
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("in use"));
+    }
+    journal.close();
+    assertEquals(1, WriteJournal.open(file, CAPACITY, false).getLiveEntries().size());
+  }
+
+  @Test(expected = IOException.class)
+  public void testAppendFailureWhenLiveWritesFillJournal() throws IOException {
+    WriteJournal journal =
+        WriteJournal.open(folder.getRoot().toPath().resolve("journal"), 512, false);
+    for (int i = 0; i < 50; i++) {
+      journal.append("id" + i, payload("value" + i));
+    }
+  }
+
+  private static byte[] payload(String value) {
+    return ("{\"teacher\":{\"firstName\":\"" + value + "\"}}").getBytes(StandardCharsets.UTF_8);
+  }
+}